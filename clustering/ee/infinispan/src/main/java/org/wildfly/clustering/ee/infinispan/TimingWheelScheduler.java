@@ -0,0 +1,161 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ee.infinispan;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.wildfly.clustering.ee.Batch;
+import org.wildfly.clustering.ee.Batcher;
+import org.wildfly.clustering.ee.TimingWheel;
+
+/**
+ * Schedules tasks for keys using a hierarchical {@link TimingWheel}, which is advanced periodically by a single tick task.
+ * Each expired key is processed within its own batch, so that the failure of one task cannot affect the others.
+ * @author agent
+ * @param <K> the scheduled key type
+ */
+public class TimingWheelScheduler<K> implements Runnable, AutoCloseable {
+
+    public static final Duration DEFAULT_TICK = Duration.ofMillis(100L);
+
+    private final Batcher<TransactionBatch> batcher;
+    private final Predicate<K> task;
+    private final long tickNanos;
+    private final long origin = System.nanoTime();
+    private final TimingWheel<K> wheel = new TimingWheel<>(0L);
+    private final Future<?> future;
+    private volatile boolean closed = false;
+
+    /**
+     * Creates a new scheduler.
+     * @param batcher a batcher
+     * @param task the task to execute for each expired key, returning false if the task failed
+     * @param executor the executor used to advance the timing wheel
+     */
+    public TimingWheelScheduler(Batcher<TransactionBatch> batcher, Predicate<K> task, ScheduledExecutorService executor) {
+        this(batcher, task, executor, DEFAULT_TICK);
+    }
+
+    /**
+     * Creates a new scheduler.
+     * @param batcher a batcher
+     * @param task the task to execute for each expired key, returning false if the task failed
+     * @param executor the executor used to advance the timing wheel
+     * @param tick the resolution of the timing wheel
+     */
+    public TimingWheelScheduler(Batcher<TransactionBatch> batcher, Predicate<K> task, ScheduledExecutorService executor, Duration tick) {
+        this.batcher = batcher;
+        this.task = task;
+        this.tickNanos = tick.toNanos();
+        this.future = executor.scheduleWithFixedDelay(this, this.tickNanos, this.tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Schedules the task for the specified key to execute after the specified delay, replacing any previous schedule.
+     * @param key a key
+     * @param delay a delay
+     */
+    public void schedule(K key, Duration delay) {
+        long nanos = System.nanoTime() - this.origin + Math.max(delay.toNanos(), 0L);
+        // Round up to the next tick, so that tasks never execute early
+        long deadline = (nanos + this.tickNanos - 1) / this.tickNanos;
+        synchronized (this.wheel) {
+            this.wheel.schedule(key, deadline);
+        }
+    }
+
+    /**
+     * Cancels the task for the specified key.
+     * @param key a key
+     */
+    public void cancel(K key) {
+        synchronized (this.wheel) {
+            this.wheel.cancel(key);
+        }
+    }
+
+    /**
+     * Cancels the tasks for the specified keys.
+     * @param keys a collection of keys
+     */
+    public void cancel(Collection<K> keys) {
+        if (!keys.isEmpty()) {
+            synchronized (this.wheel) {
+                this.wheel.cancel(keys);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of scheduled keys.
+     * @return the number of scheduled keys
+     */
+    public int size() {
+        synchronized (this.wheel) {
+            return this.wheel.size();
+        }
+    }
+
+    @Override
+    public void run() {
+        long tick = (System.nanoTime() - this.origin) / this.tickNanos;
+        List<K> expired;
+        synchronized (this.wheel) {
+            expired = this.wheel.advance(tick);
+        }
+        if (expired.isEmpty()) return;
+        // Ensure any concurrent close() waits for in-flight tasks
+        synchronized (this) {
+            if (this.closed) return;
+            for (K key : expired) {
+                if (Thread.currentThread().isInterrupted()) break;
+                this.execute(key);
+            }
+        }
+    }
+
+    private void execute(K key) {
+        try (Batch batch = this.batcher.createBatch()) {
+            if (!this.task.test(key)) {
+                batch.discard();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        this.future.cancel(false);
+        synchronized (this) {
+            synchronized (this.wheel) {
+                this.wheel.clear();
+            }
+        }
+    }
+}
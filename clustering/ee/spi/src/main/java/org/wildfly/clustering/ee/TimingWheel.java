@@ -0,0 +1,310 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ee;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * A hierarchical timing wheel, with O(1) schedule and cancel operations.
+ * Deadlines are expressed in ticks, the resolution of which is determined by the caller.
+ * Each level of the wheel covers {@code size} times the span of the level below it;
+ * entries scheduled beyond the span of the top level are cascaded until their deadline falls within range.
+ * Rescheduling an existing key reuses its entry, so repeatedly rescheduling the same key does not allocate.
+ * @author agent
+ * @param <K> the scheduled key type
+ */
+@NotThreadSafe
+public class TimingWheel<K> {
+
+    public static final int DEFAULT_SIZE = 64;
+    public static final int DEFAULT_LEVELS = 4;
+
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    private final Entry<K>[][] buckets;
+    private final int bits;
+    private final int mask;
+    private final long span;
+    private long currentTick;
+
+    /**
+     * Creates a new timing wheel with the default size and number of levels.
+     * @param initialTick the tick from which this wheel starts
+     */
+    public TimingWheel(long initialTick) {
+        this(initialTick, DEFAULT_SIZE, DEFAULT_LEVELS);
+    }
+
+    /**
+     * Creates a new timing wheel.
+     * @param initialTick the tick from which this wheel starts
+     * @param size the number of buckets per level, which must be a power of 2
+     * @param levels the number of levels of this wheel
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long initialTick, int size, int levels) {
+        if ((size < 2) || (Integer.bitCount(size) != 1)) {
+            throw new IllegalArgumentException(Integer.toString(size));
+        }
+        if ((levels < 1) || ((Integer.numberOfTrailingZeros(size) * levels) > 62)) {
+            throw new IllegalArgumentException(Integer.toString(levels));
+        }
+        this.bits = Integer.numberOfTrailingZeros(size);
+        this.mask = size - 1;
+        this.span = 1L << (this.bits * levels);
+        this.currentTick = initialTick;
+        this.buckets = new Entry[levels][size];
+        for (Entry<K>[] level : this.buckets) {
+            for (int i = 0; i < size; ++i) {
+                level[i] = new Entry<>(null);
+            }
+        }
+    }
+
+    /**
+     * Returns the last tick processed by this wheel.
+     * @return a tick
+     */
+    public long getCurrentTick() {
+        return this.currentTick;
+    }
+
+    /**
+     * Returns the number of scheduled keys.
+     * @return the number of scheduled keys
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Indicates whether the specified key is scheduled.
+     * @param key a scheduled key
+     * @return true, if the specified key is scheduled, false otherwise.
+     */
+    public boolean contains(K key) {
+        return this.entries.containsKey(key);
+    }
+
+    /**
+     * Returns a snapshot of the scheduled keys.
+     * @return a collection of keys
+     */
+    public Collection<K> getKeys() {
+        return new ArrayList<>(this.entries.keySet());
+    }
+
+    /**
+     * Returns the earliest tick at which advancing this wheel may expire a key.
+     * This is either the deadline of the earliest key, or the tick at which a higher level bucket containing the earliest key is cascaded, whichever comes first.
+     * Advancing this wheel to any earlier tick never expires a key, so a caller need not advance it until then.
+     * @return a tick, or {@link Long#MAX_VALUE} if no keys are scheduled
+     */
+    public long nextTick() {
+        if (this.entries.isEmpty()) return Long.MAX_VALUE;
+        long result = Long.MAX_VALUE;
+        for (int level = 0; level < this.buckets.length; ++level) {
+            int shift = this.bits * level;
+            long granule = this.currentTick >>> shift;
+            // Buckets of this level are processed in order, once per granule
+            for (int i = 1; i <= this.buckets[level].length; ++i) {
+                long tick = (granule + i) << shift;
+                if (tick >= result) break;
+                Entry<K> head = this.buckets[level][(int) ((granule + i) & this.mask)];
+                if (head.next != head) {
+                    result = tick;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Schedules the specified key to expire at the specified tick, replacing any previous schedule for this key.
+     * A deadline that has already passed will expire on the next tick.
+     * @param key a key
+     * @param deadline the tick at which the specified key expires
+     */
+    public void schedule(K key, long deadline) {
+        Entry<K> entry = this.entries.get(key);
+        if (entry != null) {
+            entry.unlink();
+        } else {
+            entry = new Entry<>(key);
+            this.entries.put(key, entry);
+        }
+        entry.deadline = deadline;
+        this.insert(entry, null);
+    }
+
+    /**
+     * Cancels the schedule of the specified key.
+     * @param key a key
+     * @return true, if the key was scheduled, false otherwise.
+     */
+    public boolean cancel(K key) {
+        Entry<K> entry = this.entries.remove(key);
+        if (entry != null) {
+            entry.unlink();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Cancels the schedules of the specified keys.
+     * @param keys a collection of keys
+     * @return the number of canceled keys
+     */
+    public int cancel(Collection<K> keys) {
+        int count = 0;
+        for (K key : keys) {
+            if (this.cancel(key)) {
+                count += 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Cancels all schedules.
+     */
+    public void clear() {
+        for (Entry<K> entry : this.entries.values()) {
+            entry.unlink();
+        }
+        this.entries.clear();
+    }
+
+    /**
+     * Advances this wheel up to and including the specified tick, collecting the keys whose deadline has passed.
+     * @param tick the target tick
+     * @return the expired keys, in order of expiration
+     */
+    public List<K> advance(long tick) {
+        List<K> expired = new ArrayList<>();
+        if (this.entries.isEmpty()) {
+            // Nothing to cascade - skip directly to target tick
+            this.currentTick = Math.max(this.currentTick, tick);
+            return expired;
+        }
+        while (this.currentTick < tick) {
+            long current = ++this.currentTick;
+            // Cascade entries from higher levels whose granule begins at the current tick
+            for (int level = 1; level < this.buckets.length; ++level) {
+                int shift = this.bits * level;
+                if ((current & ((1L << shift) - 1)) != 0) break;
+                Entry<K> head = this.buckets[level][(int) ((current >>> shift) & this.mask)];
+                Entry<K> entry = head.next;
+                head.clear();
+                while (entry != head) {
+                    Entry<K> next = entry.next;
+                    this.insert(entry, expired);
+                    entry = next;
+                }
+            }
+            Entry<K> head = this.buckets[0][(int) (current & this.mask)];
+            Entry<K> entry = head.next;
+            head.clear();
+            while (entry != head) {
+                Entry<K> next = entry.next;
+                this.expire(entry, expired);
+                entry = next;
+            }
+            if (this.entries.isEmpty()) {
+                this.currentTick = tick;
+            }
+        }
+        return expired;
+    }
+
+    private void expire(Entry<K> entry, List<K> expired) {
+        entry.prev = entry.next = null;
+        this.entries.remove(entry.key);
+        expired.add(entry.key);
+    }
+
+    private void insert(Entry<K> entry, List<K> expired) {
+        long deadline = entry.deadline;
+        if (deadline <= this.currentTick) {
+            if (expired != null) {
+                this.expire(entry, expired);
+                return;
+            }
+            deadline = this.currentTick + 1;
+        }
+        long delta = deadline - this.currentTick;
+        if (delta >= this.span) {
+            // Park in the top level, to be cascaded again once in range
+            deadline = this.currentTick + this.span - 1;
+            delta = this.span - 1;
+        }
+        int level = 0;
+        while ((level < this.buckets.length - 1) && (delta >= (1L << (this.bits * (level + 1))))) {
+            level += 1;
+        }
+        this.buckets[level][(int) ((deadline >>> (this.bits * level)) & this.mask)].link(entry);
+    }
+
+    private static class Entry<K> {
+        final K key;
+        long deadline;
+        Entry<K> prev;
+        Entry<K> next;
+
+        Entry(K key) {
+            this.key = key;
+            // Sentinel entries are self-referencing
+            if (key == null) {
+                this.prev = this;
+                this.next = this;
+            }
+        }
+
+        void link(Entry<K> entry) {
+            entry.prev = this.prev;
+            entry.next = this;
+            this.prev.next = entry;
+            this.prev = entry;
+        }
+
+        void unlink() {
+            if (this.next != null) {
+                this.prev.next = this.next;
+                this.next.prev = this.prev;
+                this.prev = this.next = null;
+            }
+        }
+
+        void clear() {
+            this.prev = this;
+            this.next = this;
+        }
+    }
+}
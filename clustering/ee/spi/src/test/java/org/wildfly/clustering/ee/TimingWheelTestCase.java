@@ -0,0 +1,143 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ee;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link TimingWheel}.
+ * @author agent
+ */
+public class TimingWheelTestCase {
+
+    @Test
+    public void nextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(0L, 4, 2);
+        assertEquals(Long.MAX_VALUE, wheel.nextTick());
+
+        wheel.schedule("a", 10L);
+        // "a" resides in a level 1 bucket, which cascades at tick 8
+        assertEquals(8L, wheel.nextTick());
+        assertTrue(wheel.advance(7L).isEmpty());
+        assertTrue(wheel.advance(8L).isEmpty());
+        assertEquals(10L, wheel.nextTick());
+
+        wheel.schedule("b", 9L);
+        assertEquals(9L, wheel.nextTick());
+        assertEquals(Collections.singletonList("b"), wheel.advance(9L));
+        assertEquals(10L, wheel.nextTick());
+        assertEquals(Collections.singletonList("a"), wheel.advance(10L));
+        assertEquals(Long.MAX_VALUE, wheel.nextTick());
+
+        // Beyond the span of the wheel, keys are parked in the top level
+        wheel.schedule("c", 100L);
+        assertEquals(24L, wheel.nextTick());
+        for (long tick = wheel.nextTick(); tick < 100L; tick = wheel.nextTick()) {
+            assertTrue(wheel.advance(tick).isEmpty());
+        }
+        assertEquals(100L, wheel.nextTick());
+        assertEquals(Collections.singletonList("c"), wheel.advance(100L));
+    }
+
+    @Test
+    public void schedule() {
+        TimingWheel<String> wheel = new TimingWheel<>(0L, 4, 2);
+        wheel.schedule("a", 3L);
+        wheel.schedule("b", 10L);
+        wheel.schedule("c", 100L);
+        assertEquals(3, wheel.size());
+
+        assertTrue(wheel.advance(2L).isEmpty());
+        assertEquals(Collections.singletonList("a"), wheel.advance(3L));
+        assertTrue(wheel.advance(9L).isEmpty());
+        assertEquals(Collections.singletonList("b"), wheel.advance(10L));
+        // Beyond the span of the wheel
+        assertTrue(wheel.advance(99L).isEmpty());
+        assertEquals(Collections.singletonList("c"), wheel.advance(100L));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void reschedule() {
+        TimingWheel<String> wheel = new TimingWheel<>(0L, 4, 2);
+        wheel.schedule("a", 5L);
+        wheel.schedule("a", 7L);
+        assertEquals(1, wheel.size());
+        assertTrue(wheel.advance(6L).isEmpty());
+        assertEquals(Collections.singletonList("a"), wheel.advance(7L));
+
+        // Deadlines in the past expire on the next tick
+        wheel.schedule("b", 1L);
+        assertEquals(Collections.singletonList("b"), wheel.advance(8L));
+    }
+
+    @Test
+    public void cancel() {
+        TimingWheel<String> wheel = new TimingWheel<>(0L, 4, 2);
+        wheel.schedule("a", 5L);
+        wheel.schedule("b", 5L);
+        wheel.schedule("c", 50L);
+        assertTrue(wheel.cancel("a"));
+        assertFalse(wheel.cancel("a"));
+        assertFalse(wheel.contains("a"));
+        assertEquals(1, wheel.cancel(Arrays.asList("c", "d")));
+        assertEquals(Collections.singletonList("b"), wheel.advance(100L));
+
+        wheel.schedule("d", 200L);
+        wheel.clear();
+        assertEquals(0, wheel.size());
+        assertTrue(wheel.advance(300L).isEmpty());
+    }
+
+    @Test
+    public void random() {
+        Random random = new Random(0L);
+        TimingWheel<Integer> wheel = new TimingWheel<>(1000L);
+        long[] deadlines = new long[10000];
+        for (int i = 0; i < deadlines.length; ++i) {
+            deadlines[i] = 1000L + random.nextInt(1 << 26);
+            wheel.schedule(i, deadlines[i]);
+        }
+        long tick = 1000L;
+        int expired = 0;
+        while (wheel.size() > 0) {
+            tick += random.nextInt(1 << 16);
+            List<Integer> keys = wheel.advance(tick);
+            for (Integer key : keys) {
+                assertTrue(deadlines[key] <= tick);
+                assertTrue(deadlines[key] > tick - (1 << 16));
+            }
+            expired += keys.size();
+        }
+        assertEquals(deadlines.length, expired);
+    }
+}
@@ -21,21 +21,22 @@
  */
 package org.wildfly.clustering.ejb.infinispan;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.time.Duration;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
-import org.wildfly.clustering.ee.Batch;
 import org.wildfly.clustering.ee.Batcher;
+import org.wildfly.clustering.ee.infinispan.TimingWheelScheduler;
 import org.wildfly.clustering.ee.infinispan.TransactionBatch;
 import org.wildfly.clustering.ejb.Time;
 import org.wildfly.clustering.ejb.infinispan.logging.InfinispanEjbLogger;
-import org.wildfly.clustering.infinispan.spi.distribution.Locality;
+import org.wildfly.clustering.infinispan.spi.distribution.SegmentIndex;
 
 /**
  * Schedules a bean for expiration.
+ * Beans are tracked via a hierarchical timing wheel, advanced by the configured executor,
+ * such that scheduling and canceling are O(1), and each expired bean is removed within its own batch.
  *
  * @author Paul Ferraro
  *
@@ -44,15 +45,14 @@ import org.wildfly.clustering.infinispan.spi.distribution.Locality;
  * @param <T> the bean type
  */
 public class BeanExpirationScheduler<G, I, T> implements Scheduler<I> {
-    final Map<I, Future<?>> expirationFutures = new ConcurrentHashMap<>();
-    final Batcher<TransactionBatch> batcher;
-    final BeanRemover<I, T> remover;
-    final ExpirationConfiguration<T> expiration;
+    private final TimingWheelScheduler<I> scheduler;
+    private final ExpirationConfiguration<T> expiration;
+    private final SegmentIndex<I> index;
 
-    public BeanExpirationScheduler(Batcher<TransactionBatch> batcher, BeanRemover<I, T> remover, ExpirationConfiguration<T> expiration) {
-        this.batcher = batcher;
-        this.remover = remover;
+    public BeanExpirationScheduler(Batcher<TransactionBatch> batcher, BeanRemover<I, T> remover, ExpirationConfiguration<T> expiration, SegmentIndex<I> index) {
         this.expiration = expiration;
+        this.index = index;
+        this.scheduler = new TimingWheelScheduler<>(batcher, new ExpirationTask<>(remover, expiration, index), expiration.getExecutor());
     }
 
     @Override
@@ -62,72 +62,49 @@ public class BeanExpirationScheduler<G, I, T> implements Scheduler<I> {
         if (value >= 0) {
             TimeUnit unit = timeout.getUnit();
             InfinispanEjbLogger.ROOT_LOGGER.tracef("Scheduling stateful session bean %s to expire in %d %s", id, value, unit);
-            Runnable task = new ExpirationTask(id);
-            // Make sure the expiration future map insertion happens before map removal (during task execution).
-            synchronized (task) {
-                this.expirationFutures.put(id, this.expiration.getExecutor().schedule(task, value, unit));
-            }
+            this.index.add(id);
+            this.scheduler.schedule(id, Duration.ofNanos(unit.toNanos(value)));
         }
     }
 
     @Override
     public void cancel(I id) {
-        Future<?> future = this.expirationFutures.remove(id);
-        if (future != null) {
-            future.cancel(false);
-        }
+        this.scheduler.cancel(id);
+        this.index.remove(id);
     }
 
     @Override
-    public void cancel(Locality locality) {
-        for (I id: this.expirationFutures.keySet()) {
-            if (Thread.currentThread().isInterrupted()) break;
-            if (!locality.isLocal(id)) {
-                this.cancel(id);
-            }
-        }
+    public void cancel(Set<Integer> segments) {
+        this.scheduler.cancel(this.index.remove(segments));
     }
 
     @Override
     public void close() {
-        for (Future<?> future: this.expirationFutures.values()) {
-            future.cancel(false);
-        }
-        for (Future<?> future: this.expirationFutures.values()) {
-            if (!future.isDone()) {
-                try {
-                    future.get();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                } catch (ExecutionException e) {
-                    // Ignore
-                }
-            }
-        }
-        this.expirationFutures.clear();
+        this.scheduler.close();
+        this.index.clear();
     }
 
-    private class ExpirationTask implements Runnable {
-        private final I id;
+    private static class ExpirationTask<I, T> implements Predicate<I> {
+        private final BeanRemover<I, T> remover;
+        private final ExpirationConfiguration<T> expiration;
+        private final SegmentIndex<I> index;
 
-        ExpirationTask(I id) {
-            this.id = id;
+        ExpirationTask(BeanRemover<I, T> remover, ExpirationConfiguration<T> expiration, SegmentIndex<I> index) {
+            this.remover = remover;
+            this.expiration = expiration;
+            this.index = index;
         }
 
         @Override
-        public void run() {
-            InfinispanEjbLogger.ROOT_LOGGER.tracef("Expiring stateful session bean %s", this.id);
-            try (Batch batch = BeanExpirationScheduler.this.batcher.createBatch()) {
-                try {
-                    BeanExpirationScheduler.this.remover.remove(this.id, BeanExpirationScheduler.this.expiration.getRemoveListener());
-                } catch (Throwable e) {
-                    InfinispanEjbLogger.ROOT_LOGGER.failedToExpireBean(e, this.id);
-                    batch.discard();
-                }
-            } finally {
-                synchronized (this) {
-                    BeanExpirationScheduler.this.expirationFutures.remove(this.id);
-                }
+        public boolean test(I id) {
+            InfinispanEjbLogger.ROOT_LOGGER.tracef("Expiring stateful session bean %s", id);
+            this.index.remove(id);
+            try {
+                this.remover.remove(id, this.expiration.getRemoveListener());
+                return true;
+            } catch (Throwable e) {
+                InfinispanEjbLogger.ROOT_LOGGER.failedToExpireBean(e, id);
+                return false;
             }
         }
     }
@@ -31,7 +31,7 @@ import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ee.infinispan.Evictor;
 import org.wildfly.clustering.ee.infinispan.TransactionBatch;
 import org.wildfly.clustering.ejb.infinispan.logging.InfinispanEjbLogger;
-import org.wildfly.clustering.infinispan.spi.distribution.Locality;
+import org.wildfly.clustering.infinispan.spi.distribution.SegmentIndex;
 
 /**
  * Schedules a bean for eviction.
@@ -49,8 +49,10 @@ public class BeanGroupEvictionScheduler<I> implements Scheduler<I>, BeanGroupEvi
     private final Evictor<I> evictor;
     private final CommandDispatcher<BeanGroupEvictionContext<I>> dispatcher;
     private final PassivationConfiguration<?> config;
+    private final SegmentIndex<I> index;
 
-    public BeanGroupEvictionScheduler(String name, Batcher<TransactionBatch> batcher, Evictor<I> evictor, CommandDispatcherFactory dispatcherFactory, PassivationConfiguration<?> config) {
+    public BeanGroupEvictionScheduler(String name, Batcher<TransactionBatch> batcher, Evictor<I> evictor, CommandDispatcherFactory dispatcherFactory, PassivationConfiguration<?> config, SegmentIndex<I> index) {
+        this.index = index;
         this.batcher = batcher;
         this.evictor = evictor;
         this.config = config;
@@ -70,20 +72,18 @@ public class BeanGroupEvictionScheduler<I> implements Scheduler<I>, BeanGroupEvi
     @Override
     public void cancel(I id) {
         synchronized (this.evictionQueue) {
-            this.evictionQueue.remove(id);
+            if (this.evictionQueue.remove(id)) {
+                this.index.remove(id);
+            }
         }
     }
 
     @Override
-    public void cancel(Locality locality) {
-        synchronized (this.evictionQueue) {
-            Iterator<I> groups = this.evictionQueue.iterator();
-            while (groups.hasNext()) {
-                if (Thread.currentThread().isInterrupted()) break;
-                I id = groups.next();
-                if (!locality.isLocal(id)) {
-                    groups.remove();
-                }
+    public void cancel(Set<Integer> segments) {
+        Set<I> groups = this.index.remove(segments);
+        if (!groups.isEmpty()) {
+            synchronized (this.evictionQueue) {
+                this.evictionQueue.removeAll(groups);
             }
         }
     }
@@ -91,7 +91,9 @@ public class BeanGroupEvictionScheduler<I> implements Scheduler<I>, BeanGroupEvi
     @Override
     public void schedule(I id) {
         synchronized (this.evictionQueue) {
-            this.evictionQueue.add(id);
+            if (this.evictionQueue.add(id)) {
+                this.index.add(id);
+            }
             // Trigger eviction of oldest bean if necessary
             if (this.evictionQueue.size() > this.config.getConfiguration().getMaxSize()) {
                 Iterator<I> groups = this.evictionQueue.iterator();
@@ -99,6 +101,7 @@ public class BeanGroupEvictionScheduler<I> implements Scheduler<I>, BeanGroupEvi
                 try {
                     this.dispatcher.submitOnCluster(new BeanGroupEvictionCommand<>(group));
                     groups.remove();
+                    this.index.remove(group);
                 } catch (Exception e) {
                     InfinispanEjbLogger.ROOT_LOGGER.failedToPassivateBean(e, group);
                 }
@@ -110,6 +113,7 @@ public class BeanGroupEvictionScheduler<I> implements Scheduler<I>, BeanGroupEvi
     public void close() {
         synchronized (this.evictionQueue) {
             this.evictionQueue.clear();
+            this.index.clear();
         }
         this.dispatcher.close();
     }
@@ -22,9 +22,12 @@
 package org.wildfly.clustering.ejb.infinispan;
 
 import java.security.PrivilegedAction;
+import java.time.Duration;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -36,11 +39,13 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
 import org.infinispan.Cache;
+import org.infinispan.CacheStream;
 import org.infinispan.affinity.KeyAffinityService;
 import org.infinispan.affinity.KeyGenerator;
 import org.infinispan.commons.CacheException;
 import org.infinispan.context.Flag;
 import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.notifications.Listener;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryActivated;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryPassivated;
@@ -75,6 +80,9 @@ import org.wildfly.clustering.infinispan.spi.affinity.KeyAffinityServiceFactory;
 import org.wildfly.clustering.infinispan.spi.distribution.CacheLocality;
 import org.wildfly.clustering.infinispan.spi.distribution.ConsistentHashLocality;
 import org.wildfly.clustering.infinispan.spi.distribution.Locality;
+import org.wildfly.clustering.infinispan.spi.distribution.Rebalancer;
+import org.wildfly.clustering.infinispan.spi.distribution.SegmentIndex;
+import org.wildfly.clustering.infinispan.spi.distribution.SegmentOwnershipChange;
 import org.wildfly.clustering.infinispan.spi.distribution.SimpleLocality;
 import org.wildfly.clustering.registry.Registry;
 import org.wildfly.security.manager.WildFlySecurityManager;
@@ -116,6 +124,7 @@ public class InfinispanBeanManager<I, T> implements BeanManager<I, T, Transactio
 
     private volatile SchedulerContext<I> schedulerContext;
     private volatile ExecutorService executor;
+    private volatile Rebalancer rebalancer;
     private volatile CommandDispatcher<SchedulerContext<I>> dispatcher;
 
     public InfinispanBeanManager(InfinispanBeanManagerConfiguration<T> configuration, IdentifierFactory<I> identifierFactory, Configuration<BeanKey<I>, BeanEntry<I>, BeanFactory<I, T>> beanConfiguration, Configuration<BeanGroupKey<I>, BeanGroupEntry<I, T>, BeanGroupFactory<I, T>> groupConfiguration) {
@@ -141,6 +150,7 @@ public class InfinispanBeanManager<I, T> implements BeanManager<I, T, Transactio
     @Override
     public void start() {
         this.executor = Executors.newSingleThreadExecutor(createThreadFactory());
+        this.rebalancer = new Rebalancer(createThreadFactory());
         this.affinity.start();
         Time timeout = this.expiration.getTimeout();
         Scheduler<I> noopScheduler = new Scheduler<I>() {
@@ -153,15 +163,15 @@ public class InfinispanBeanManager<I, T> implements BeanManager<I, T, Transactio
             }
 
             @Override
-            public void cancel(Locality locality) {
+            public void cancel(Set<Integer> segments) {
             }
 
             @Override
             public void close() {
             }
         };
-        Scheduler<I> beanScheduler = (timeout != null) && (timeout.getValue() >= 0) ? new BeanExpirationScheduler<>(this.batcher, new ExpiredBeanRemover<>(this.beanFactory), this.expiration) : noopScheduler;
-        Scheduler<I> groupScheduler = (this.passivation.getConfiguration().getMaxSize() >= 0) ? new BeanGroupEvictionScheduler<>(this.beanName + ".eviction", this.batcher, this.groupFactory, this.dispatcherFactory, this.passivation) : noopScheduler;
+        Scheduler<I> beanScheduler = (timeout != null) && (timeout.getValue() >= 0) ? new BeanExpirationScheduler<>(this.batcher, new ExpiredBeanRemover<>(this.beanFactory), this.expiration, new SegmentIndex<>(this.cache, this.beanFactory::createKey)) : noopScheduler;
+        Scheduler<I> groupScheduler = (this.passivation.getConfiguration().getMaxSize() >= 0) ? new BeanGroupEvictionScheduler<>(this.beanName + ".eviction", this.batcher, this.groupFactory, this.dispatcherFactory, this.passivation, new SegmentIndex<>(this.cache, this.groupFactory::createKey)) : noopScheduler;
         this.schedulerContext = new SchedulerContext<I>() {
             @Override
             public void close() {
@@ -194,6 +204,7 @@ public class InfinispanBeanManager<I, T> implements BeanManager<I, T, Transactio
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         } finally {
+            this.rebalancer.close();
             this.dispatcher.close();
             this.schedulerContext.close();
             this.affinity.stop();
@@ -302,6 +313,12 @@ public class InfinispanBeanManager<I, T> implements BeanManager<I, T, Transactio
         return this.passiveCount.get();
     }
 
+    @Override
+    public Duration getLastRebalanceDuration() {
+        Rebalancer rebalancer = this.rebalancer;
+        return (rebalancer != null) ? rebalancer.getLastRebalanceDuration() : Duration.ZERO;
+    }
+
     @CacheEntryPassivated
     public void passivated(CacheEntryPassivatedEvent<BeanKey<I>, BeanEntry<I>> event) {
         if (event.isPre()) {
@@ -333,47 +350,81 @@ public class InfinispanBeanManager<I, T> implements BeanManager<I, T, Transactio
     @DataRehashed
     public void dataRehashed(DataRehashedEvent<BeanKey<I>, BeanEntry<I>> event) {
         Address localAddress = this.cache.getCacheManager().getAddress();
-        Locality newLocality = new ConsistentHashLocality(localAddress, event.getConsistentHashAtEnd());
+        ConsistentHash endHash = event.getConsistentHashAtEnd();
+        Locality newLocality = new ConsistentHashLocality(localAddress, endHash);
+        // Only segments whose primary ownership changed require any rescheduling
+        SegmentOwnershipChange change = new SegmentOwnershipChange(localAddress, event.getConsistentHashAtStart(), endHash);
         if (event.isPre()) {
             Future<?> future = this.rehashFuture.getAndSet(null);
             if (future != null) {
                 future.cancel(true);
             }
-            try {
-                this.executor.submit(() -> {
-                    this.schedulerContext.getBeanScheduler().cancel(newLocality);
-                    this.schedulerContext.getBeanGroupScheduler().cancel(newLocality);
-                });
-            } catch (RejectedExecutionException e) {
-                // Executor was shutdown
+            Set<Integer> segments = change.getReleasedSegments();
+            if (!segments.isEmpty()) {
+                try {
+                    this.executor.submit(() -> {
+                        this.schedulerContext.getBeanScheduler().cancel(segments);
+                        this.schedulerContext.getBeanGroupScheduler().cancel(segments);
+                    });
+                } catch (RejectedExecutionException e) {
+                    // Executor was shutdown
+                }
             }
         } else {
-            Locality oldLocality = new ConsistentHashLocality(localAddress, event.getConsistentHashAtStart());
-            try {
-                this.rehashFuture.set(this.executor.submit(() -> this.schedule(oldLocality, newLocality)));
-            } catch (RejectedExecutionException e) {
-                // Executor was shutdown
+            Set<Integer> segments = change.getAcquiredSegments();
+            if (!segments.isEmpty()) {
+                try {
+                    this.rehashFuture.set(this.executor.submit(() -> this.schedule(segments, newLocality)));
+                } catch (RejectedExecutionException e) {
+                    // Executor was shutdown
+                }
             }
         }
     }
 
-    private void schedule(Locality oldLocality, Locality newLocality) {
-        // Iterate over beans in memory
-        try (Stream<Map.Entry<BeanKey<I>, BeanEntry<I>>> stream = this.cache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD).entrySet().stream().filter(this.filter)) {
-            Iterator<Map.Entry<BeanKey<I>, BeanEntry<I>>> entries = stream.iterator();
-            while (entries.hasNext()) {
-                if (Thread.currentThread().isInterrupted()) break;
-                Map.Entry<BeanKey<I>, BeanEntry<I>> entry = entries.next();
-                BeanKey<I> key = entry.getKey();
-                // If we are the new primary owner of this bean then schedule expiration of this bean locally
-                if (this.filter.test(this.filter) && !oldLocality.isLocal(key) && newLocality.isLocal(key)) {
-                    this.schedulerContext.getBeanScheduler().schedule(key.getId());
-                    this.schedulerContext.getBeanGroupScheduler().schedule(entry.getValue().getGroupId());
+    private void schedule(Set<Integer> segments, Locality newLocality) {
+        Locality oldLocality = new SimpleLocality(false);
+        try {
+            // Schedule the beans of each acquired segment in parallel
+            Duration duration = this.rebalancer.execute(segments, partition -> {
+                try (Stream<Map.Entry<BeanKey<I>, BeanEntry<I>>> stream = this.getLocalEntries().filterKeySegments(partition).filter(this.filter)) {
+                    this.schedule(stream, oldLocality, newLocality);
                 }
+            });
+            InfinispanEjbLogger.ROOT_LOGGER.debugf("Scheduled beans of cache %s for %d acquired segments in %d ms", this.cache.getName(), segments.size(), duration.toMillis());
+        } catch (InterruptedException e) {
+            // Superseded by a subsequent topology change
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            InfinispanEjbLogger.ROOT_LOGGER.failedToScheduleBeans(e.getCause(), segments.size(), this.cache.getName());
+        }
+    }
+
+    private void schedule(Locality oldLocality, Locality newLocality) {
+        try (Stream<Map.Entry<BeanKey<I>, BeanEntry<I>>> stream = this.getLocalEntries().filter(this.filter)) {
+            this.schedule(stream, oldLocality, newLocality);
+        }
+    }
+
+    private void schedule(Stream<Map.Entry<BeanKey<I>, BeanEntry<I>>> stream, Locality oldLocality, Locality newLocality) {
+        Iterator<Map.Entry<BeanKey<I>, BeanEntry<I>>> entries = stream.iterator();
+        while (entries.hasNext()) {
+            if (Thread.currentThread().isInterrupted()) break;
+            Map.Entry<BeanKey<I>, BeanEntry<I>> entry = entries.next();
+            BeanKey<I> key = entry.getKey();
+            // If we are the new primary owner of this bean then schedule expiration of this bean locally
+            if (this.filter.test(entry) && !oldLocality.isLocal(key) && newLocality.isLocal(key)) {
+                this.schedulerContext.getBeanScheduler().schedule(key.getId());
+                this.schedulerContext.getBeanGroupScheduler().schedule(entry.getValue().getGroupId());
             }
         }
     }
 
+    // Iterate over beans in memory
+    private CacheStream<Map.Entry<BeanKey<I>, BeanEntry<I>>> getLocalEntries() {
+        return this.cache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD).entrySet().stream();
+    }
+
     private class SchedulableBean implements Bean<I, T> {
 
         private final Bean<I, T> bean;
@@ -22,7 +22,7 @@
 
 package org.wildfly.clustering.ejb.infinispan;
 
-import org.wildfly.clustering.infinispan.spi.distribution.Locality;
+import java.util.Set;
 
 /**
  * A scheduler for some task.
@@ -42,10 +42,10 @@ public interface Scheduler<I> extends AutoCloseable {
     void cancel(I id);
 
     /**
-     * Cancels any previous scheduled tasks for beans which are no longer local to the current node
-     * @param locality the cache locality
+     * Cancels any previously scheduled tasks for beans whose keys belong to the specified segments, e.g. segments no longer owned by the current node
+     * @param segments a set of cache segments
      */
-    void cancel(Locality locality);
+    void cancel(Set<Integer> segments);
 
     /**
      * Closes any resources used by this scheduler.
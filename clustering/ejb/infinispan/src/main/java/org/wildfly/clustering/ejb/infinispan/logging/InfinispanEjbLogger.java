@@ -79,4 +79,8 @@ public interface InfinispanEjbLogger extends BasicLogger {
     @LogMessage(level = WARN)
     @Message(id = 10, value = "Disabling expiration for '%s'. SFSB expiration should be configured per \u00A74.3.11 of the EJB specification.")
     void expirationDisabled(String cacheName);
+
+    @LogMessage(level = WARN)
+    @Message(id = 11, value = "Failed to schedule beans of %d segments acquired by cache '%s'")
+    void failedToScheduleBeans(@Cause Throwable cause, int segments, String cacheName);
 }
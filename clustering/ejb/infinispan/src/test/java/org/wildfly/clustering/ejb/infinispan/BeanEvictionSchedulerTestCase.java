@@ -39,6 +39,7 @@ import org.wildfly.clustering.ee.infinispan.Evictor;
 import org.wildfly.clustering.ee.infinispan.TransactionBatch;
 import org.wildfly.clustering.ejb.Bean;
 import org.wildfly.clustering.ejb.BeanPassivationConfiguration;
+import org.wildfly.clustering.infinispan.spi.distribution.SegmentIndex;
 
 public class BeanEvictionSchedulerTestCase {
     @SuppressWarnings({"rawtypes", "unchecked"})
@@ -62,7 +63,7 @@ public class BeanEvictionSchedulerTestCase {
         when(config.getConfiguration()).thenReturn(passivationConfig);
         when(passivationConfig.getMaxSize()).thenReturn(1);
 
-        try (Scheduler<String> scheduler = new BeanGroupEvictionScheduler<>(name, batcher, evictor, dispatcherFactory, config)) {
+        try (Scheduler<String> scheduler = new BeanGroupEvictionScheduler<>(name, batcher, evictor, dispatcherFactory, config, new SegmentIndex<>(id -> 0))) {
             BeanGroupEvictionContext<String> context = capturedContext.getValue();
 
             assertSame(scheduler, context);
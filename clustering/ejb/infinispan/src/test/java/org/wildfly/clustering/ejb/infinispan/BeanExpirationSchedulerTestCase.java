@@ -34,6 +34,7 @@ import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ee.infinispan.TransactionBatch;
 import org.wildfly.clustering.ejb.RemoveListener;
 import org.wildfly.clustering.ejb.Time;
+import org.wildfly.clustering.infinispan.spi.distribution.SegmentIndex;
 
 public class BeanExpirationSchedulerTestCase {
     @Test
@@ -50,7 +51,7 @@ public class BeanExpirationSchedulerTestCase {
         when(config.getTimeout()).thenReturn(new Time(-1, TimeUnit.SECONDS));
         when(config.getRemoveListener()).thenReturn(listener);
 
-        try (Scheduler<String> scheduler = new BeanExpirationScheduler<>(batcher, remover, config)) {
+        try (Scheduler<String> scheduler = new BeanExpirationScheduler<>(batcher, remover, config, new SegmentIndex<>(id -> 0))) {
             scheduler.schedule(beanId);
 
             Thread.sleep(1000);
@@ -75,7 +76,7 @@ public class BeanExpirationSchedulerTestCase {
         when(config.getTimeout()).thenReturn(new Time(1, TimeUnit.MILLISECONDS));
         when(config.getRemoveListener()).thenReturn(listener);
 
-        try (Scheduler<String> scheduler = new BeanExpirationScheduler<>(batcher, remover, config)) {
+        try (Scheduler<String> scheduler = new BeanExpirationScheduler<>(batcher, remover, config, new SegmentIndex<>(id -> 0))) {
             scheduler.schedule(beanId);
 
             Thread.sleep(1000);
@@ -98,7 +99,7 @@ public class BeanExpirationSchedulerTestCase {
         when(config.getTimeout()).thenReturn(new Time(1, TimeUnit.MINUTES));
         when(config.getRemoveListener()).thenReturn(listener);
 
-        try (Scheduler<String> scheduler = new BeanExpirationScheduler<>(batcher, remover, config)) {
+        try (Scheduler<String> scheduler = new BeanExpirationScheduler<>(batcher, remover, config, new SegmentIndex<>(id -> 0))) {
             scheduler.schedule(beanId);
 
             Thread.sleep(1000);
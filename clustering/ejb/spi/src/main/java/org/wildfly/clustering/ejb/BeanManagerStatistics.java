@@ -21,8 +21,18 @@
  */
 package org.wildfly.clustering.ejb;
 
+import java.time.Duration;
+
 public interface BeanManagerStatistics {
     int getActiveCount();
 
     int getPassiveCount();
+
+    /**
+     * Returns the time spent rescheduling beans following the most recent change in cache topology.
+     * @return a duration
+     */
+    default Duration getLastRebalanceDuration() {
+        return Duration.ZERO;
+    }
 }
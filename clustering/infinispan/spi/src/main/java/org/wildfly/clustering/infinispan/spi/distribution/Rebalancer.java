@@ -0,0 +1,142 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.infinispan.spi.distribution;
+
+import java.security.PrivilegedAction;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Executes the work resulting from a change in segment ownership, partitioned by segment, in parallel on a bounded pool of threads.
+ * Pool threads are released when idle, since rebalancing is infrequent.
+ * @author agent
+ */
+public class Rebalancer implements AutoCloseable {
+
+    public static final int DEFAULT_PARALLELISM = Math.min(Runtime.getRuntime().availableProcessors(), 4);
+
+    private final ExecutorService executor;
+    private final int parallelism;
+
+    private final AtomicLong count = new AtomicLong();
+    private volatile long lastDuration = 0L;
+    private final AtomicLong maxDuration = new AtomicLong();
+
+    public Rebalancer(ThreadFactory factory) {
+        this(factory, DEFAULT_PARALLELISM);
+    }
+
+    public Rebalancer(ThreadFactory factory, int parallelism) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, 1L, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), factory);
+        executor.allowCoreThreadTimeOut(true);
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Executes the specified task for disjoint partitions of the specified segments, and waits for all partitions to complete.
+     * If the calling thread is interrupted, e.g. due to a subsequent topology change, all incomplete partitions are cancelled.
+     * @param segments a set of segments
+     * @param task a task that processes the keys of a set of segments
+     * @return the duration of the rebalance
+     * @throws InterruptedException if the calling thread was interrupted
+     * @throws ExecutionException if any partition failed
+     */
+    public Duration execute(Set<Integer> segments, Consumer<Set<Integer>> task) throws InterruptedException, ExecutionException {
+        long start = System.nanoTime();
+        if (!segments.isEmpty()) {
+            int partitions = Math.min(this.parallelism, segments.size());
+            List<Set<Integer>> partitionedSegments = new ArrayList<>(partitions);
+            for (int i = 0; i < partitions; ++i) {
+                partitionedSegments.add(new HashSet<>());
+            }
+            int index = 0;
+            for (Integer segment : segments) {
+                partitionedSegments.get(index++ % partitions).add(segment);
+            }
+            List<Future<?>> futures = new ArrayList<>(partitions);
+            try {
+                for (Set<Integer> partition : partitionedSegments) {
+                    futures.add(this.executor.submit(() -> task.accept(partition)));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (CancellationException e) {
+                throw new InterruptedException();
+            } finally {
+                futures.forEach(future -> future.cancel(true));
+            }
+        }
+        long duration = System.nanoTime() - start;
+        this.count.incrementAndGet();
+        this.lastDuration = duration;
+        this.maxDuration.accumulateAndGet(duration, Math::max);
+        return Duration.ofNanos(duration);
+    }
+
+    /**
+     * Returns the number of completed rebalances.
+     * @return a number of rebalances
+     */
+    public long getRebalanceCount() {
+        return this.count.get();
+    }
+
+    /**
+     * Returns the duration of the most recently completed rebalance.
+     * @return a duration
+     */
+    public Duration getLastRebalanceDuration() {
+        return Duration.ofNanos(this.lastDuration);
+    }
+
+    /**
+     * Returns the duration of the longest completed rebalance.
+     * @return a duration
+     */
+    public Duration getMaxRebalanceDuration() {
+        return Duration.ofNanos(this.maxDuration.get());
+    }
+
+    @Override
+    public void close() {
+        PrivilegedAction<List<Runnable>> action = () -> this.executor.shutdownNow();
+        WildFlySecurityManager.doUnchecked(action);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.infinispan.spi.distribution;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import org.infinispan.Cache;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.ch.ConsistentHash;
+
+/**
+ * Indexes identifiers by the segment of their cache key, so that the identifiers of specific segments can be located without visiting every identifier.
+ * The segment of a given key never changes, since the number of segments of a cache is fixed.
+ * @author agent
+ * @param <I> the identifier type
+ */
+public class SegmentIndex<I> {
+
+    private final ToIntFunction<I> segmenter;
+    private final Map<Integer, Set<I>> identifiers = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an index for the keys of the specified cache.
+     * Identifiers are not indexed for non-clustered caches, whose segment ownership never changes.
+     * @param cache a cache
+     * @param keyFactory creates the cache key of an identifier
+     */
+    public SegmentIndex(Cache<?, ?> cache, Function<I, Object> keyFactory) {
+        this(id -> {
+            DistributionManager dist = cache.getAdvancedCache().getDistributionManager();
+            ConsistentHash hash = (dist != null) ? dist.getConsistentHash() : null;
+            return (hash != null) ? hash.getSegment(keyFactory.apply(id)) : -1;
+        });
+    }
+
+    /**
+     * Creates an index using the specified segment function.
+     * @param segmenter returns the segment of an identifier, or a negative value if the identifier should not be indexed
+     */
+    public SegmentIndex(ToIntFunction<I> segmenter) {
+        this.segmenter = segmenter;
+    }
+
+    /**
+     * Adds the specified identifier to this index.
+     * @param id an identifier
+     */
+    public void add(I id) {
+        int segment = this.segmenter.applyAsInt(id);
+        if (segment >= 0) {
+            // Sets are only ever accessed within the lock of their map entry
+            this.identifiers.compute(segment, (key, ids) -> {
+                Set<I> result = (ids != null) ? ids : new HashSet<>();
+                result.add(id);
+                return result;
+            });
+        }
+    }
+
+    /**
+     * Removes the specified identifier from this index.
+     * @param id an identifier
+     */
+    public void remove(I id) {
+        int segment = this.segmenter.applyAsInt(id);
+        if (segment >= 0) {
+            this.identifiers.computeIfPresent(segment, (key, ids) -> {
+                ids.remove(id);
+                return !ids.isEmpty() ? ids : null;
+            });
+        }
+    }
+
+    /**
+     * Removes the identifiers of the specified segments from this index.
+     * @param segments a set of segments
+     * @return the removed identifiers
+     */
+    public Set<I> remove(Set<Integer> segments) {
+        Set<I> result = new HashSet<>();
+        for (Integer segment : segments) {
+            Set<I> ids = this.identifiers.remove(segment);
+            if (ids != null) {
+                result.addAll(ids);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes all identifiers from this index.
+     */
+    public void clear() {
+        this.identifiers.clear();
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.infinispan.spi.distribution;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.remoting.transport.Address;
+
+/**
+ * Describes the segments whose primary ownership by a given member changed between two consistent hashes.
+ * @author agent
+ */
+public class SegmentOwnershipChange {
+
+    private final Set<Integer> acquiredSegments;
+    private final Set<Integer> releasedSegments;
+
+    public SegmentOwnershipChange(Address address, ConsistentHash startHash, ConsistentHash endHash) {
+        Set<Integer> startSegments = (startHash != null) ? startHash.getPrimarySegmentsForOwner(address) : new HashSet<>();
+        Set<Integer> endSegments = endHash.getPrimarySegmentsForOwner(address);
+        this.acquiredSegments = new HashSet<>(endSegments);
+        this.acquiredSegments.removeAll(startSegments);
+        this.releasedSegments = new HashSet<>(startSegments);
+        this.releasedSegments.removeAll(endSegments);
+    }
+
+    /**
+     * Returns the segments for which the member became the primary owner.
+     * @return a set of segments
+     */
+    public Set<Integer> getAcquiredSegments() {
+        return this.acquiredSegments;
+    }
+
+    /**
+     * Returns the segments for which the member is no longer the primary owner.
+     * @return a set of segments
+     */
+    public Set<Integer> getReleasedSegments() {
+        return this.releasedSegments;
+    }
+}
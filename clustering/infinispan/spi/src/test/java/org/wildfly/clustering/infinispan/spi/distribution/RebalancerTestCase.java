@@ -0,0 +1,98 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.infinispan.spi.distribution;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.remoting.transport.Address;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link Rebalancer} and {@link SegmentOwnershipChange}.
+ * @author agent
+ */
+public class RebalancerTestCase {
+
+    @Test
+    public void change() {
+        Address address = mock(Address.class);
+        ConsistentHash startHash = mock(ConsistentHash.class);
+        ConsistentHash endHash = mock(ConsistentHash.class);
+
+        when(startHash.getPrimarySegmentsForOwner(address)).thenReturn(new HashSet<>(Arrays.asList(0, 1, 2)));
+        when(endHash.getPrimarySegmentsForOwner(address)).thenReturn(new HashSet<>(Arrays.asList(1, 2, 3, 4)));
+
+        SegmentOwnershipChange change = new SegmentOwnershipChange(address, startHash, endHash);
+        assertEquals(new HashSet<>(Arrays.asList(3, 4)), change.getAcquiredSegments());
+        assertEquals(Collections.singleton(0), change.getReleasedSegments());
+
+        change = new SegmentOwnershipChange(address, null, endHash);
+        assertEquals(new HashSet<>(Arrays.asList(1, 2, 3, 4)), change.getAcquiredSegments());
+        assertTrue(change.getReleasedSegments().isEmpty());
+    }
+
+    @Test
+    public void execute() throws InterruptedException, ExecutionException {
+        Set<Integer> segments = new HashSet<>();
+        for (int i = 0; i < 100; ++i) {
+            segments.add(i);
+        }
+        try (Rebalancer rebalancer = new Rebalancer(Executors.defaultThreadFactory(), 4)) {
+            Set<Integer> processed = ConcurrentHashMap.newKeySet();
+            Set<Set<Integer>> partitions = ConcurrentHashMap.newKeySet();
+            Duration duration = rebalancer.execute(segments, partition -> {
+                partitions.add(partition);
+                for (Integer segment : partition) {
+                    assertTrue(processed.add(segment));
+                }
+            });
+            assertEquals(segments, processed);
+            assertEquals(4, partitions.size());
+            assertEquals(1L, rebalancer.getRebalanceCount());
+            assertEquals(duration, rebalancer.getLastRebalanceDuration());
+            assertEquals(duration, rebalancer.getMaxRebalanceDuration());
+
+            // Failure of any partition fails the rebalance
+            try {
+                rebalancer.execute(segments, partition -> {
+                    throw new IllegalStateException();
+                });
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+            assertEquals(1L, rebalancer.getRebalanceCount());
+        }
+    }
+}
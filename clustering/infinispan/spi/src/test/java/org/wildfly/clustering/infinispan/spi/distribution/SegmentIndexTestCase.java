@@ -0,0 +1,57 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.infinispan.spi.distribution;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link SegmentIndex}.
+ * @author agent
+ */
+public class SegmentIndexTestCase {
+
+    @Test
+    public void test() {
+        // Segment is the value modulo 4, negative values are not indexed
+        SegmentIndex<Integer> index = new SegmentIndex<>(id -> (id >= 0) ? id % 4 : -1);
+
+        for (int i = -2; i < 10; ++i) {
+            index.add(i);
+        }
+        index.remove(5);
+
+        assertEquals(new HashSet<>(Arrays.asList(1, 9, 2, 6)), index.remove(new HashSet<>(Arrays.asList(1, 2))));
+        // Removed segments are no longer indexed
+        assertEquals(Collections.emptySet(), index.remove(new HashSet<>(Arrays.asList(1, 2))));
+        assertEquals(Collections.emptySet(), index.remove(Collections.singleton(-1)));
+
+        index.clear();
+        assertEquals(Collections.emptySet(), index.remove(new HashSet<>(Arrays.asList(0, 3))));
+    }
+}
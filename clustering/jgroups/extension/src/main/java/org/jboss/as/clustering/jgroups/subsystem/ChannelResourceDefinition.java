@@ -35,12 +35,15 @@ import org.jboss.as.clustering.controller.ResourceDescriptor;
 import org.jboss.as.clustering.controller.SimpleResourceRegistration;
 import org.jboss.as.clustering.controller.ResourceServiceHandler;
 import org.jboss.as.clustering.controller.UnaryRequirementCapability;
+import org.jboss.as.clustering.controller.validation.IntRangeValidatorBuilder;
+import org.jboss.as.clustering.controller.validation.LongRangeValidatorBuilder;
 import org.jboss.as.clustering.controller.validation.ModuleIdentifierValidatorBuilder;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.Resource;
@@ -104,6 +107,12 @@ public class ChannelResourceDefinition extends ChildResourceDefinition<Managemen
                 .setValidator(new ModuleIdentifierValidatorBuilder().configure(builder).build())),
         CLUSTER("cluster", ModelType.STRING),
         STATISTICS_ENABLED("statistics-enabled", ModelType.BOOLEAN, builder -> builder.setDefaultValue(new ModelNode(false))),
+        COMMAND_BATCH_WINDOW("command-batch-window", ModelType.LONG, builder -> builder
+                .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                .setValidator(new LongRangeValidatorBuilder().min(1).configure(builder).build())),
+        COMMAND_BATCH_SIZE("command-batch-size", ModelType.INT, builder -> builder
+                .setDefaultValue(new ModelNode(64))
+                .setValidator(new IntRangeValidatorBuilder().min(1).configure(builder).build())),
         ;
         private final AttributeDefinition definition;
 
@@ -208,6 +217,13 @@ public class ChannelResourceDefinition extends ChildResourceDefinition<Managemen
                         ;
             }
 
+            if (JGroupsModel.VERSION_5_0_0.requiresTransformation(version)) {
+                builder.getAttributeBuilder()
+                        .setDiscard(DiscardAttributeChecker.UNDEFINED, Attribute.COMMAND_BATCH_WINDOW.getDefinition(), Attribute.COMMAND_BATCH_SIZE.getDefinition())
+                        .addRejectCheck(RejectAttributeChecker.DEFINED, Attribute.COMMAND_BATCH_WINDOW.getDefinition(), Attribute.COMMAND_BATCH_SIZE.getDefinition())
+                        ;
+            }
+
             ProtocolRegistration.buildTransformation(version, builder);
         }
     }
@@ -244,6 +260,7 @@ public class ChannelResourceDefinition extends ChildResourceDefinition<Managemen
 
         if (registration.isRuntimeOnlyRegistrationValid()) {
             new MetricHandler<>(new ChannelMetricExecutor(), ChannelMetric.class).register(registration);
+            new MetricHandler<>(new CommandDispatcherMetricExecutor(), CommandDispatcherMetric.class).register(registration);
         }
 
         new ForkResourceDefinition().register(registration);
@@ -26,6 +26,7 @@ import static org.jboss.as.clustering.jgroups.subsystem.ChannelResourceDefinitio
 import static org.jboss.as.clustering.jgroups.subsystem.ChannelResourceDefinition.Attribute.*;
 import static org.jboss.as.clustering.jgroups.subsystem.ChannelResourceDefinition.Capability.*;
 
+import java.time.Duration;
 import java.util.EnumSet;
 import java.util.ServiceLoader;
 
@@ -43,6 +44,7 @@ import org.jboss.msc.service.ServiceTarget;
 import org.wildfly.clustering.jgroups.spi.JGroupsRequirement;
 import org.wildfly.clustering.service.AliasServiceBuilder;
 import org.wildfly.clustering.service.ServiceNameProvider;
+import org.wildfly.clustering.spi.BatchingCommandDispatcherFactoryBuilder;
 import org.wildfly.clustering.spi.DistributedGroupBuilderProvider;
 import org.wildfly.clustering.spi.GroupBuilderProvider;
 
@@ -56,6 +58,8 @@ public class ChannelServiceHandler implements ResourceServiceHandler {
         PathAddress address = context.getCurrentAddress();
         String name = context.getCurrentAddressValue();
         String stack = STACK.resolveModelAttribute(context, model).asString();
+        ModelNode batchWindow = COMMAND_BATCH_WINDOW.resolveModelAttribute(context, model);
+        int batchSize = COMMAND_BATCH_SIZE.resolveModelAttribute(context, model).asInt();
 
         ServiceTarget target = context.getServiceTarget();
 
@@ -72,6 +76,9 @@ public class ChannelServiceHandler implements ResourceServiceHandler {
         for (GroupBuilderProvider provider : ServiceLoader.load(DistributedGroupBuilderProvider.class, DistributedGroupBuilderProvider.class.getClassLoader())) {
             for (CapabilityServiceBuilder<?> builder : provider.getBuilders(requirement -> CLUSTERING_CAPABILITIES.get(requirement).getServiceName(address), name)) {
                 JGroupsLogger.ROOT_LOGGER.debugf("Installing %s for channel %s", builder.getServiceName(), name);
+                if (batchWindow.isDefined() && (builder instanceof BatchingCommandDispatcherFactoryBuilder)) {
+                    ((BatchingCommandDispatcherFactoryBuilder) builder).batching(Duration.ofMillis(batchWindow.asLong()), batchSize);
+                }
                 builder.configure(context).build(target).install();
             }
         }
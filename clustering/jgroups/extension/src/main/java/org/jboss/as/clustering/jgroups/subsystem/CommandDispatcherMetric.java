@@ -0,0 +1,91 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.jgroups.subsystem;
+
+import org.jboss.as.clustering.controller.Metric;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.wildfly.clustering.spi.CommandDispatcherStatistics;
+
+/**
+ * Metrics of the command dispatcher factory of a channel.
+ * @author agent
+ */
+public enum CommandDispatcherMetric implements Metric<CommandDispatcherStatistics> {
+
+    BATCHING("dispatcher-batching", ModelType.BOOLEAN, MeasurementUnit.NONE) {
+        @Override
+        public ModelNode execute(CommandDispatcherStatistics statistics) {
+            return new ModelNode(statistics.isBatching());
+        }
+    },
+    BATCH_COUNT("dispatcher-batch-count", ModelType.LONG, MeasurementUnit.NONE) {
+        @Override
+        public ModelNode execute(CommandDispatcherStatistics statistics) {
+            return new ModelNode(statistics.getBatchCount());
+        }
+    },
+    COMMAND_COUNT("dispatcher-command-count", ModelType.LONG, MeasurementUnit.NONE) {
+        @Override
+        public ModelNode execute(CommandDispatcherStatistics statistics) {
+            return new ModelNode(statistics.getCommandCount());
+        }
+    },
+    AVERAGE_BATCH_SIZE("dispatcher-average-batch-size", ModelType.DOUBLE, MeasurementUnit.NONE) {
+        @Override
+        public ModelNode execute(CommandDispatcherStatistics statistics) {
+            return new ModelNode(statistics.getAverageBatchSize());
+        }
+    },
+    MAX_BATCH_SIZE("dispatcher-max-batch-size", ModelType.INT, MeasurementUnit.NONE) {
+        @Override
+        public ModelNode execute(CommandDispatcherStatistics statistics) {
+            return new ModelNode(statistics.getMaxBatchSize());
+        }
+    },
+    AVERAGE_RESPONSE_TIME("dispatcher-average-response-time", ModelType.DOUBLE, MeasurementUnit.MILLISECONDS) {
+        @Override
+        public ModelNode execute(CommandDispatcherStatistics statistics) {
+            return new ModelNode(statistics.getAverageResponseTime());
+        }
+    },
+    MAX_RESPONSE_TIME("dispatcher-max-response-time", ModelType.LONG, MeasurementUnit.MILLISECONDS) {
+        @Override
+        public ModelNode execute(CommandDispatcherStatistics statistics) {
+            return new ModelNode(statistics.getMaxResponseTime());
+        }
+    },
+    ;
+    private final AttributeDefinition definition;
+
+    CommandDispatcherMetric(String name, ModelType type, MeasurementUnit unit) {
+        this.definition = new SimpleAttributeDefinitionBuilder(name, type, true).setMeasurementUnit(unit).setStorageRuntime().build();
+    }
+
+    @Override
+    public AttributeDefinition getDefinition() {
+        return this.definition;
+    }
+}
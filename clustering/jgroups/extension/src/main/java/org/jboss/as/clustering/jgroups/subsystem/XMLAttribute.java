@@ -34,6 +34,8 @@ public enum XMLAttribute {
     ALGORITHM(DigestAuthTokenResourceDefinition.Attribute.ALGORITHM),
     CHANNEL(RemoteSiteResourceDefinition.Attribute.CHANNEL),
     CLUSTER(ChannelResourceDefinition.Attribute.CLUSTER),
+    COMMAND_BATCH_SIZE(ChannelResourceDefinition.Attribute.COMMAND_BATCH_SIZE),
+    COMMAND_BATCH_WINDOW(ChannelResourceDefinition.Attribute.COMMAND_BATCH_WINDOW),
     DATA_SOURCE(JDBCProtocolResourceDefinition.Attribute.DATA_SOURCE),
     @Deprecated DEFAULT_EXECUTOR(TransportResourceDefinition.ThreadingAttribute.DEFAULT_EXECUTOR),
     DEFAULT("default"),
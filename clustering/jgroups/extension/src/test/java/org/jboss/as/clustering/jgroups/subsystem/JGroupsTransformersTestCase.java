@@ -362,6 +362,8 @@ public class JGroupsTransformersTestCase extends OperationTestCaseBase {
             // that would create a cyclical dependency) it has to be rejected in this subsystem test
             config.addFailedAttribute(subsystemAddress.append(ChannelResourceDefinition.WILDCARD_PATH), FailedOperationTransformationConfig.REJECTED_RESOURCE);
             config.addFailedAttribute(subsystemAddress.append(StackResourceDefinition.WILDCARD_PATH).append(TransportResourceDefinition.WILDCARD_PATH).append(ThreadPoolResourceDefinition.WILDCARD_PATH), FailedOperationTransformationConfig.REJECTED_RESOURCE);
+        } else if (JGroupsModel.VERSION_5_0_0.requiresTransformation(version)) {
+            config.addFailedAttribute(subsystemAddress.append(ChannelResourceDefinition.WILDCARD_PATH), new FailedOperationTransformationConfig.NewAttributesConfig(ChannelResourceDefinition.Attribute.COMMAND_BATCH_WINDOW.getDefinition(), ChannelResourceDefinition.Attribute.COMMAND_BATCH_SIZE.getDefinition()));
         }
 
         if (JGroupsModel.VERSION_2_0_0.requiresTransformation(version)) {
@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.marshalling.jboss;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A byte array output stream whose buffer is pooled per thread and reused across marshalling operations.
+ * The retained buffer is discarded if it grows beyond {@link #MAX_RETAINED_CAPACITY}, so that a single large object does not pin memory indefinitely.
+ * A nested acquisition on the same thread (e.g. a marshalled value containing another marshalled value) receives a non-pooled buffer.
+ * @author agent
+ */
+class PooledByteArrayOutputStream extends ByteArrayOutputStream {
+
+    static final int DEFAULT_CAPACITY = 512;
+    static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<PooledByteArrayOutputStream> POOL = new ThreadLocal<PooledByteArrayOutputStream>() {
+        @Override
+        protected PooledByteArrayOutputStream initialValue() {
+            return new PooledByteArrayOutputStream(DEFAULT_CAPACITY, true);
+        }
+    };
+
+    /**
+     * Acquires an empty output stream for the current thread, whose capacity is at least the specified size.
+     * The returned stream must be closed to return it to the pool.
+     * @param expectedSize the expected number of bytes to be written
+     * @return an output stream
+     */
+    static PooledByteArrayOutputStream acquire(int expectedSize) {
+        PooledByteArrayOutputStream output = POOL.get();
+        if (output.acquired) {
+            return new PooledByteArrayOutputStream(Math.max(expectedSize, DEFAULT_CAPACITY), false);
+        }
+        output.acquired = true;
+        output.ensureCapacity(expectedSize);
+        return output;
+    }
+
+    private final boolean pooled;
+    private boolean acquired = false;
+
+    private PooledByteArrayOutputStream(int capacity, boolean pooled) {
+        super(capacity);
+        this.pooled = pooled;
+    }
+
+    /**
+     * Grows the buffer, if necessary, to accommodate the specified size in a single allocation.
+     * @param capacity the minimum capacity
+     */
+    void ensureCapacity(int capacity) {
+        if (capacity > this.buf.length) {
+            this.buf = Arrays.copyOf(this.buf, capacity);
+        }
+    }
+
+    /**
+     * Writes the content of this stream to the specified output, without copying the underlying buffer.
+     * @param output a data output
+     * @throws IOException if the output could not be written
+     */
+    void writeData(DataOutput output) throws IOException {
+        output.write(this.buf, 0, this.count);
+    }
+
+    /**
+     * Returns this stream to the pool, if pooled.
+     */
+    @Override
+    public void close() {
+        if (this.pooled) {
+            this.reset();
+            if (this.buf.length > MAX_RETAINED_CAPACITY) {
+                this.buf = new byte[DEFAULT_CAPACITY];
+            }
+            this.acquired = false;
+        }
+    }
+}
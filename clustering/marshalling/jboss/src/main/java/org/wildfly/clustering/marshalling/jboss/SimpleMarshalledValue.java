@@ -23,7 +23,8 @@
 package org.wildfly.clustering.marshalling.jboss;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
@@ -32,7 +33,6 @@ import java.util.Arrays;
 import org.jboss.marshalling.Marshaller;
 import org.jboss.marshalling.Marshalling;
 import org.jboss.marshalling.SimpleDataInput;
-import org.jboss.marshalling.SimpleDataOutput;
 import org.jboss.marshalling.Unmarshaller;
 import org.wildfly.clustering.marshalling.spi.IndexExternalizer;
 import org.wildfly.clustering.marshalling.spi.MarshalledValue;
@@ -46,6 +46,13 @@ import org.wildfly.security.manager.WildFlySecurityManager;
 public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingContext> {
     private static final long serialVersionUID = -8852566958387608376L;
 
+    private static final ClassValue<SizeEstimate> SIZE_ESTIMATES = new ClassValue<SizeEstimate>() {
+        @Override
+        protected SizeEstimate computeValue(Class<?> targetClass) {
+            return new SizeEstimate();
+        }
+    };
+
     private transient volatile MarshallingContext context;
     private transient volatile T object;
     private transient volatile byte[] bytes;
@@ -68,20 +75,54 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
         byte[] bytes = this.bytes;
         if (bytes != null) return bytes;
         if (this.object == null) return null;
+        try (PooledByteArrayOutputStream output = this.marshal()) {
+            return output.toByteArray();
+        }
+    }
+
+    /**
+     * Writes the length-prefixed serialized form of this marshalled value to the specified output.
+     * Unlike {@link #getBytes()}, this does not create an intermediate byte array.
+     * @param output a data output
+     * @throws IOException if the object could not be marshalled
+     */
+    void writeTo(DataOutput output) throws IOException {
+        byte[] bytes = this.bytes;
+        if (bytes != null) {
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        } else if (this.object != null) {
+            try (PooledByteArrayOutputStream buffer = this.marshal()) {
+                output.writeInt(buffer.size());
+                buffer.writeData(output);
+            }
+        } else {
+            output.writeInt(0);
+        }
+    }
+
+    private PooledByteArrayOutputStream marshal() throws IOException {
+        T object = this.object;
+        SizeEstimate estimate = SIZE_ESTIMATES.get(object.getClass());
         int version = this.context.getCurrentVersion();
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PooledByteArrayOutputStream output = PooledByteArrayOutputStream.acquire(estimate.size);
         ClassLoader loader = setThreadContextClassLoader(this.context.getClassLoader());
-        try (SimpleDataOutput data = new SimpleDataOutput(Marshalling.createByteOutput(output))) {
-            IndexExternalizer.VARIABLE.writeData(data, version);
+        try {
+            // Write directly to the pooled buffer, rather than through an additional intermediate buffer
+            IndexExternalizer.VARIABLE.writeData(new DataOutputStream(output), version);
             try (Marshaller marshaller = this.context.createMarshaller(version)) {
-                marshaller.start(data);
-                marshaller.writeObject(this.object);
+                marshaller.start(Marshalling.createByteOutput(output));
+                marshaller.writeObject(object);
                 marshaller.finish();
-                return output.toByteArray();
             }
+        } catch (IOException | RuntimeException | Error e) {
+            output.close();
+            throw e;
         } finally {
             setThreadContextClassLoader(loader);
         }
+        estimate.size = output.size();
+        return output;
     }
 
     /**
@@ -149,13 +190,7 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
 
     private void writeObject(ObjectOutputStream out) throws IOException {
         out.defaultWriteObject();
-        byte[] bytes = this.getBytes();
-        if (bytes != null) {
-            out.writeInt(bytes.length);
-            out.write(bytes);
-        } else {
-            out.writeInt(0);
-        }
+        this.writeTo(out);
     }
 
     private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
@@ -169,6 +204,13 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
         this.bytes = bytes;
     }
 
+    /**
+     * Records the last serialized size of a given class, used to pre-size the buffer of the next marshalling operation for that class.
+     */
+    private static class SizeEstimate {
+        volatile int size = PooledByteArrayOutputStream.DEFAULT_CAPACITY;
+    }
+
     private static ClassLoader setThreadContextClassLoader(ClassLoader loader) {
         return (loader != null) ? WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(loader) : null;
     }
@@ -48,13 +48,7 @@ public class SimpleMarshalledValueExternalizer<T> implements Externalizer<Simple
 
     @Override
     public void writeObject(ObjectOutput output, SimpleMarshalledValue<T> object) throws IOException {
-        byte[] bytes = object.getBytes();
-        if (bytes != null) {
-            output.writeInt(bytes.length);
-            output.write(bytes);
-        } else {
-            output.writeInt(0);
-        }
+        object.writeTo(output);
     }
 
     @SuppressWarnings("unchecked")
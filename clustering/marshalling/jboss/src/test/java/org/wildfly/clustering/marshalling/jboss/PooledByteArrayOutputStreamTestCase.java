@@ -0,0 +1,68 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.marshalling.jboss;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link PooledByteArrayOutputStream}.
+ * @author agent
+ */
+public class PooledByteArrayOutputStreamTestCase {
+
+    @Test
+    public void reuse() throws IOException {
+        PooledByteArrayOutputStream output = PooledByteArrayOutputStream.acquire(16);
+        try {
+            output.write(new byte[] { 1, 2, 3 });
+            // Nested acquisition must not share the pooled buffer
+            try (PooledByteArrayOutputStream nested = PooledByteArrayOutputStream.acquire(16)) {
+                assertNotSame(output, nested);
+                assertEquals(0, nested.size());
+            }
+            ByteArrayOutputStream target = new ByteArrayOutputStream();
+            output.writeData(new DataOutputStream(target));
+            assertArrayEquals(new byte[] { 1, 2, 3 }, target.toByteArray());
+        } finally {
+            output.close();
+        }
+
+        try (PooledByteArrayOutputStream reused = PooledByteArrayOutputStream.acquire(PooledByteArrayOutputStream.MAX_RETAINED_CAPACITY * 2)) {
+            assertSame(output, reused);
+            assertEquals(0, reused.size());
+            reused.write(new byte[PooledByteArrayOutputStream.MAX_RETAINED_CAPACITY * 2]);
+        }
+
+        // Oversized buffers are not retained
+        try (PooledByteArrayOutputStream reused = PooledByteArrayOutputStream.acquire(0)) {
+            assertSame(output, reused);
+            assertEquals(0, reused.size());
+        }
+    }
+}
@@ -34,7 +34,7 @@ import org.wildfly.clustering.marshalling.Externalizer;
  * Various strategies for marshalling an array/collection index (i.e. an unsigned integer).
  * @author Paul Ferraro
  */
-public enum IndexExternalizer implements Externalizer<Integer> {
+public enum IndexExternalizer implements Externalizer<Integer>, IntSerializer {
 
     UNSIGNED_BYTE() {
         @Override
@@ -117,22 +117,6 @@ public enum IndexExternalizer implements Externalizer<Integer> {
         return VARIABLE;
     }
 
-    /**
-     * Read an index from the specified input stream.
-     * @param input a data input stream
-     * @return the index
-     * @throws IOException if an I/O error occurs
-     */
-    public abstract int readData(DataInput input) throws IOException;
-
-    /**
-     * Writes the specified index to the specified output stream
-     * @param output the data output stream
-     * @param index the index
-     * @throws IOException if an I/O error occurs
-     */
-    public abstract void writeData(DataOutput output, int index) throws IOException;
-
     @Override
     public Integer readObject(ObjectInput input) throws IOException {
         return Integer.valueOf(this.readData(input));
@@ -38,21 +38,27 @@ public class IntExternalizer<T> implements Externalizer<T> {
     private final IntFunction<T> reader;
     private final ToIntFunction<T> writer;
     private final Class<T> targetClass;
+    private final IntSerializer serializer;
 
     public IntExternalizer(Class<T> targetClass, IntFunction<T> reader, ToIntFunction<T> writer) {
+        this(targetClass, IndexExternalizer.INTEGER, reader, writer);
+    }
+
+    public IntExternalizer(Class<T> targetClass, IntSerializer serializer, IntFunction<T> reader, ToIntFunction<T> writer) {
         this.reader = reader;
         this.writer = writer;
         this.targetClass = targetClass;
+        this.serializer = serializer;
     }
 
     @Override
     public void writeObject(ObjectOutput output, T object) throws IOException {
-        output.writeInt(this.writer.applyAsInt(object));
+        this.serializer.writeData(output, this.writer.applyAsInt(object));
     }
 
     @Override
     public T readObject(ObjectInput input) throws IOException, ClassNotFoundException {
-        return this.reader.apply(input.readInt());
+        return this.reader.apply(this.serializer.readData(input));
     }
 
     @Override
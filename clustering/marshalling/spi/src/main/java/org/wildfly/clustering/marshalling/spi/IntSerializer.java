@@ -0,0 +1,50 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.marshalling.spi;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Reads/writes primitive int values, without boxing.
+ * @author agent
+ */
+public interface IntSerializer {
+
+    /**
+     * Reads an int value from the specified input stream.
+     * @param input a data input stream
+     * @return an int value
+     * @throws IOException if an I/O error occurs
+     */
+    int readData(DataInput input) throws IOException;
+
+    /**
+     * Writes the specified int value to the specified output stream.
+     * @param output a data output stream
+     * @param value an int value
+     * @throws IOException if an I/O error occurs
+     */
+    void writeData(DataOutput output, int value) throws IOException;
+}
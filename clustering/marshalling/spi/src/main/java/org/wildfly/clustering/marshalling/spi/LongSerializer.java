@@ -0,0 +1,93 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.marshalling.spi;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Reads/writes primitive long values, without boxing.
+ * @author agent
+ */
+public interface LongSerializer {
+
+    /**
+     * Reads/writes a long value using 8 bytes.
+     */
+    LongSerializer FIXED = new LongSerializer() {
+        @Override
+        public long readData(DataInput input) throws IOException {
+            return input.readLong();
+        }
+
+        @Override
+        public void writeData(DataOutput output, long value) throws IOException {
+            output.writeLong(value);
+        }
+    };
+
+    /**
+     * Reads/writes an unsigned long value using a variable-length format.
+     * Format requires between 1 and 10 bytes, depending on the magnitude of the value.
+     * Smaller values require fewer bytes.
+     */
+    LongSerializer VARIABLE = new LongSerializer() {
+        @Override
+        public long readData(DataInput input) throws IOException {
+            byte b = input.readByte();
+            long value = b & 0x7F;
+            for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+                b = input.readByte();
+                value |= (b & 0x7FL) << shift;
+            }
+            return value;
+        }
+
+        @Override
+        public void writeData(DataOutput output, long value) throws IOException {
+            long i = value;
+            while ((i & ~0x7FL) != 0) {
+                output.writeByte((byte) ((i & 0x7f) | 0x80));
+                i >>>= 7;
+            }
+            output.writeByte((byte) i);
+        }
+    };
+
+    /**
+     * Reads a long value from the specified input stream.
+     * @param input a data input stream
+     * @return a long value
+     * @throws IOException if an I/O error occurs
+     */
+    long readData(DataInput input) throws IOException;
+
+    /**
+     * Writes the specified long value to the specified output stream.
+     * @param output a data output stream
+     * @param value a long value
+     * @throws IOException if an I/O error occurs
+     */
+    void writeData(DataOutput output, long value) throws IOException;
+}
@@ -0,0 +1,98 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.marshalling.spi;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link LongSerializer} and {@link IntSerializer}.
+ * @author agent
+ */
+public class LongSerializerTestCase {
+
+    @Test
+    public void test() throws IOException {
+        long[] values = new long[Long.SIZE];
+        for (int i = 0; i < Long.SIZE - 1; ++i) {
+            values[i] = (1L << i) - 1;
+        }
+        values[Long.SIZE - 1] = Long.MAX_VALUE;
+        test(LongSerializer.FIXED, values);
+        test(LongSerializer.VARIABLE, values);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LongSerializer.VARIABLE.writeData(new DataOutputStream(out), 127L);
+        assertEquals(1, out.size());
+    }
+
+    /**
+     * Verifies that primitive serialization does not allocate per value, unlike its boxed counterpart.
+     */
+    @Test
+    public void allocation() throws IOException {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        long id = Thread.currentThread().getId();
+
+        int iterations = 100000;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(iterations * 5);
+        DataOutputStream output = new DataOutputStream(out);
+        // Warm up
+        for (int i = 0; i < iterations; ++i) {
+            IndexExternalizer.VARIABLE.writeData(output, Short.MAX_VALUE + i);
+        }
+        out.reset();
+        long start = threads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < iterations; ++i) {
+            IndexExternalizer.VARIABLE.writeData(output, Short.MAX_VALUE + i);
+        }
+        long allocated = threads.getThreadAllocatedBytes(id) - start;
+        assertTrue(Long.toString(allocated), allocated < iterations);
+    }
+
+    private static void test(LongSerializer serializer, long[] values) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(out);
+        for (long value : values) {
+            serializer.writeData(output, value);
+        }
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+        for (long value : values) {
+            assertEquals(value, serializer.readData(input));
+        }
+        assertEquals(0, input.available());
+    }
+}
@@ -78,8 +78,18 @@ public class ChannelCommandDispatcher<C> implements CommandDispatcher<C> {
     private final long timeout;
     private final CommandDispatcher<C> localDispatcher;
     private final Runnable closeTask;
+    private final CommandBatcher batcher;
 
     public ChannelCommandDispatcher(MessageDispatcher dispatcher, CommandMarshaller<C> marshaller, NodeFactory<Address> factory, long timeout, CommandDispatcher<C> localDispatcher, Runnable closeTask) {
+        this(dispatcher, marshaller, factory, timeout, localDispatcher, closeTask, null);
+    }
+
+    /**
+     * Creates a command dispatcher whose commands to individual nodes are optionally batched.
+     * @param batcher a command batcher, or null, if commands should not be batched
+     */
+    public ChannelCommandDispatcher(MessageDispatcher dispatcher, CommandMarshaller<C> marshaller, NodeFactory<Address> factory, long timeout, CommandDispatcher<C> localDispatcher, Runnable closeTask, CommandBatcher batcher) {
+        this.batcher = batcher;
         this.dispatcher = dispatcher;
         this.marshaller = marshaller;
         this.factory = factory;
@@ -188,6 +198,16 @@ public class ChannelCommandDispatcher<C> implements CommandDispatcher<C> {
         if (this.isLocal(node)) {
             return this.localDispatcher.executeOnNode(command, node);
         }
+        if (this.batcher != null) {
+            try {
+                return new SimpleCommandResponse<>(this.<R>submitBatched(command, node).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new SimpleCommandResponse<>(e);
+            } catch (ExecutionException e) {
+                return new SimpleCommandResponse<>(e);
+            }
+        }
         Message message = this.createMessage(command, node);
         RequestOptions options = this.createRequestOptions();
         try {
@@ -210,6 +230,9 @@ public class ChannelCommandDispatcher<C> implements CommandDispatcher<C> {
         if (this.isLocal(node)) {
             return this.localDispatcher.submitOnNode(command, node);
         }
+        if (this.batcher != null) {
+            return this.submitBatched(command, node);
+        }
         Message message = this.createMessage(command, node);
         RequestOptions options = this.createRequestOptions();
         try {
@@ -219,6 +242,14 @@ public class ChannelCommandDispatcher<C> implements CommandDispatcher<C> {
         }
     }
 
+    private <R> Future<R> submitBatched(Command<R, ? super C> command, Node node) {
+        try {
+            return this.batcher.submit(getAddress(node), this.marshaller.marshal(command));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
     private <R> Message createMessage(Command<R, ? super C> command) {
         return this.createMessage(command, null);
     }
@@ -252,7 +283,11 @@ public class ChannelCommandDispatcher<C> implements CommandDispatcher<C> {
     }
 
     private RequestOptions createRequestOptions() {
-        return new RequestOptions(ResponseMode.GET_ALL, this.timeout, false, FILTER, Message.Flag.DONT_BUNDLE, Message.Flag.OOB);
+        return createRequestOptions(this.timeout);
+    }
+
+    static RequestOptions createRequestOptions(long timeout) {
+        return new RequestOptions(ResponseMode.GET_ALL, timeout, false, FILTER, Message.Flag.DONT_BUNDLE, Message.Flag.OOB);
     }
 
     static <R> CommandResponse<R> createCommandResponse(Rsp<R> response) {
@@ -23,6 +23,7 @@ package org.wildfly.clustering.server.dispatcher;
 
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
+import java.time.Duration;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -63,6 +64,7 @@ import org.wildfly.clustering.server.group.JGroupsNodeFactory;
 import org.wildfly.clustering.service.concurrent.ClassLoaderThreadFactory;
 import org.wildfly.clustering.service.concurrent.ServiceExecutor;
 import org.wildfly.clustering.service.concurrent.StampedLockServiceExecutor;
+import org.wildfly.clustering.spi.CommandDispatcherStatistics;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
@@ -71,7 +73,7 @@ import org.wildfly.security.manager.WildFlySecurityManager;
  * all of which will share the same {@link MessageDispatcher} instance.
  * @author Paul Ferraro
  */
-public class ChannelCommandDispatcherFactory implements CommandDispatcherFactory, RequestHandler, AutoCloseable, Group, MembershipListener {
+public class ChannelCommandDispatcherFactory implements CommandDispatcherFactory, RequestHandler, AutoCloseable, Group, MembershipListener, CommandDispatcherStatistics {
 
     private static ThreadFactory createThreadFactory(Class<?> targetClass) {
         PrivilegedAction<ThreadFactory> action = () -> new JBossThreadFactory(new ThreadGroup(targetClass.getSimpleName()), Boolean.FALSE, null, "%G - %t", null, null);
@@ -86,6 +88,7 @@ public class ChannelCommandDispatcherFactory implements CommandDispatcherFactory
     private final MarshallingContext marshallingContext;
     private final MessageDispatcher dispatcher;
     private final long timeout;
+    private final CommandBatcher batcher;
 
     public ChannelCommandDispatcherFactory(ChannelCommandDispatcherFactoryConfiguration config) {
         this.nodeFactory = config.getNodeFactory();
@@ -105,11 +108,16 @@ public class ChannelCommandDispatcherFactory implements CommandDispatcherFactory
         this.dispatcher.setMembershipListener(this);
         this.dispatcher.asyncDispatching(true).start();
         this.view.compareAndSet(null, channel.getView());
+        Duration window = config.getBatchWindow();
+        this.batcher = (window != null) ? new CommandBatcher(this.dispatcher, this.timeout, window, config.getMaxBatchSize()) : null;
     }
 
     @Override
     public void close() {
         this.executor.close(() -> {
+            if (this.batcher != null) {
+                this.batcher.close();
+            }
             this.dispatcher.stop();
             this.dispatcher.getChannel().setUpHandler(null);
             // Cleanup any stray listeners
@@ -123,8 +131,26 @@ public class ChannelCommandDispatcherFactory implements CommandDispatcherFactory
 
     @Override
     public Object handle(Message message) throws Exception {
-        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(message.getRawBuffer(), message.getOffset(), message.getLength()))) {
+        return this.handle(message.getRawBuffer(), message.getOffset(), message.getLength());
+    }
+
+    private Object handle(byte[] buffer, int offset, int length) throws Exception {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(buffer, offset, length))) {
             int version = IndexExternalizer.VARIABLE.readData(input);
+            if (version == CommandBatcher.BATCH_VERSION) {
+                // Execute each command of the batch in order, isolating failures
+                Object[] results = new Object[IndexExternalizer.VARIABLE.readData(input)];
+                for (int i = 0; i < results.length; ++i) {
+                    byte[] command = new byte[IndexExternalizer.VARIABLE.readData(input)];
+                    input.readFully(command);
+                    try {
+                        results[i] = this.handle(command, 0, command.length);
+                    } catch (Exception e) {
+                        results[i] = new CommandFailure(e);
+                    }
+                }
+                return results;
+            }
             try (Unmarshaller unmarshaller = this.marshallingContext.createUnmarshaller(version)) {
                 unmarshaller.start(Marshalling.createByteInput(input));
                 Object clientId = unmarshaller.readObject();
@@ -157,7 +183,42 @@ public class ChannelCommandDispatcherFactory implements CommandDispatcherFactory
         return new ChannelCommandDispatcher<>(this.dispatcher, marshaller, this.nodeFactory, this.timeout, localDispatcher, () -> {
             localDispatcher.close();
             this.contexts.remove(id);
-        });
+        }, this.batcher);
+    }
+
+    @Override
+    public boolean isBatching() {
+        return this.batcher != null;
+    }
+
+    @Override
+    public long getCommandCount() {
+        return (this.batcher != null) ? this.batcher.getCommandCount() : 0L;
+    }
+
+    @Override
+    public long getBatchCount() {
+        return (this.batcher != null) ? this.batcher.getBatchCount() : 0L;
+    }
+
+    @Override
+    public double getAverageBatchSize() {
+        return (this.batcher != null) ? this.batcher.getAverageBatchSize() : 0d;
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return (this.batcher != null) ? this.batcher.getMaxBatchSize() : 0;
+    }
+
+    @Override
+    public double getAverageResponseTime() {
+        return (this.batcher != null) ? this.batcher.getAverageResponseTime() : 0d;
+    }
+
+    @Override
+    public long getMaxResponseTime() {
+        return (this.batcher != null) ? this.batcher.getMaxResponseTime() : 0L;
     }
 
     @Override
@@ -21,6 +21,7 @@
  */
 package org.wildfly.clustering.server.dispatcher;
 
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -56,13 +57,14 @@ import org.wildfly.clustering.service.Builder;
 import org.wildfly.clustering.service.InjectedValueDependency;
 import org.wildfly.clustering.service.SuppliedValueService;
 import org.wildfly.clustering.service.ValueDependency;
+import org.wildfly.clustering.spi.BatchingCommandDispatcherFactoryBuilder;
 import org.wildfly.clustering.spi.ClusteringRequirement;
 
 /**
  * Builds a channel-based {@link org.wildfly.clustering.dispatcher.CommandDispatcherFactory} service.
  * @author Paul Ferraro
  */
-public class ChannelCommandDispatcherFactoryBuilder implements CapabilityServiceBuilder<CommandDispatcherFactory>, ChannelCommandDispatcherFactoryConfiguration, MarshallingConfigurationContext {
+public class ChannelCommandDispatcherFactoryBuilder implements CapabilityServiceBuilder<CommandDispatcherFactory>, BatchingCommandDispatcherFactoryBuilder, ChannelCommandDispatcherFactoryConfiguration, MarshallingConfigurationContext {
 
     enum MarshallingVersion implements Function<MarshallingConfigurationContext, MarshallingConfiguration> {
         VERSION_1() {
@@ -97,6 +99,8 @@ public class ChannelCommandDispatcherFactoryBuilder implements CapabilityService
     private volatile ValueDependency<JGroupsNodeFactory> nodeFactory;
     private volatile ValueDependency<Module> module;
     private volatile long timeout = TimeUnit.MINUTES.toMillis(1);
+    private volatile Duration batchWindow = null;
+    private volatile int maxBatchSize = CommandBatcher.DEFAULT_MAX_BATCH_SIZE;
 
     public ChannelCommandDispatcherFactoryBuilder(ServiceName name, String group) {
         this.name = name;
@@ -134,6 +138,13 @@ public class ChannelCommandDispatcherFactoryBuilder implements CapabilityService
         return this;
     }
 
+    @Override
+    public ChannelCommandDispatcherFactoryBuilder batching(Duration window, int maxBatchSize) {
+        this.batchWindow = window;
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+
     @Override
     public Module getModule() {
         return this.module.getValue();
@@ -164,6 +175,16 @@ public class ChannelCommandDispatcherFactoryBuilder implements CapabilityService
         return this.timeout;
     }
 
+    @Override
+    public Duration getBatchWindow() {
+        return this.batchWindow;
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return this.maxBatchSize;
+    }
+
     @Override
     public ChannelFactory getChannelFactory() {
         return this.channelFactory.getValue();
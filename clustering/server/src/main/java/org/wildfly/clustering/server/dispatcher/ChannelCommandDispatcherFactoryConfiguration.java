@@ -21,6 +21,8 @@
  */
 package org.wildfly.clustering.server.dispatcher;
 
+import java.time.Duration;
+
 import org.jgroups.Channel;
 import org.wildfly.clustering.jgroups.spi.ChannelFactory;
 import org.wildfly.clustering.marshalling.jboss.MarshallingContext;
@@ -36,4 +38,16 @@ public interface ChannelCommandDispatcherFactoryConfiguration {
     JGroupsNodeFactory getNodeFactory();
     MarshallingContext getMarshallingContext();
     long getTimeout();
+
+    /**
+     * Returns the maximum duration that a command to an individual member waits for other commands to the same member, with which it is sent in a single message.
+     * @return a batch window, or null, if commands are not batched
+     */
+    Duration getBatchWindow();
+
+    /**
+     * Returns the maximum number of commands sent within a single message.
+     * @return a batch size
+     */
+    int getMaxBatchSize();
 }
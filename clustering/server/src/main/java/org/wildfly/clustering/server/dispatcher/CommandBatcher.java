@@ -0,0 +1,306 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.server.dispatcher;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.security.PrivilegedAction;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.threads.JBossThreadFactory;
+import org.jgroups.Address;
+import org.jgroups.Message;
+import org.jgroups.blocks.MessageDispatcher;
+import org.jgroups.blocks.RequestOptions;
+import org.wildfly.clustering.marshalling.spi.IndexExternalizer;
+import org.wildfly.clustering.spi.CommandDispatcherStatistics;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Gathers marshalled commands bound for the same member into a single message.
+ * A batch is sent once it reaches a maximum size, or once the first command of the batch has waited for the batch window, whichever comes first.
+ * A batch containing a single command is sent using the same format as an unbatched command.
+ * Otherwise, the message is prefixed with {@link #BATCH_VERSION}, which is never a valid marshalling version, followed by the number of commands, each of which is length-prefixed.
+ * The receiving member responds with an array containing the result of each command, in order.
+ * @author agent
+ */
+public class CommandBatcher implements CommandDispatcherStatistics, AutoCloseable {
+
+    static final int BATCH_VERSION = 0;
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+
+    private final MessageDispatcher dispatcher;
+    private final long timeout;
+    private final long window;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService executor;
+    private final ConcurrentMap<Address, PendingBatch> batches = new ConcurrentHashMap<>();
+
+    private final AtomicLong commandCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong maxSize = new AtomicLong();
+    private final AtomicLong responseCount = new AtomicLong();
+    private final AtomicLong totalResponseTime = new AtomicLong();
+    private final AtomicLong maxResponseTime = new AtomicLong();
+
+    /**
+     * Creates a new command batcher.
+     * @param dispatcher the message dispatcher used to send batches
+     * @param timeout the timeout, in milliseconds, of a batch
+     * @param window the maximum duration that a command may wait for other commands to join its batch
+     * @param maxBatchSize the maximum number of commands per batch
+     */
+    public CommandBatcher(MessageDispatcher dispatcher, long timeout, Duration window, int maxBatchSize) {
+        this.dispatcher = dispatcher;
+        this.timeout = timeout;
+        this.window = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        PrivilegedAction<ScheduledThreadPoolExecutor> action = () -> new ScheduledThreadPoolExecutor(1, new JBossThreadFactory(new ThreadGroup(CommandBatcher.class.getSimpleName()), Boolean.FALSE, null, "%G - %t", null, null));
+        ScheduledThreadPoolExecutor executor = WildFlySecurityManager.doUnchecked(action);
+        executor.setRemoveOnCancelPolicy(true);
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.executor = executor;
+    }
+
+    /**
+     * Submits the specified marshalled command to the specified member.
+     * @param target the address of the target member
+     * @param command a marshalled command
+     * @return a future result of the command
+     */
+    public <R> Future<R> submit(Address target, byte[] command) {
+        PendingCommand<R> pending = new PendingCommand<>(command);
+        PendingBatch[] created = new PendingBatch[1];
+        PendingBatch[] completed = new PendingBatch[1];
+        this.batches.compute(target, (address, batch) -> {
+            if (batch == null) {
+                batch = new PendingBatch();
+                created[0] = batch;
+            }
+            batch.add(pending);
+            if (batch.size() >= this.maxBatchSize) {
+                completed[0] = batch;
+                return null;
+            }
+            return batch;
+        });
+        if (completed[0] != null) {
+            this.send(target, completed[0]);
+        } else if (created[0] != null) {
+            PendingBatch batch = created[0];
+            Runnable task = () -> {
+                // Skip if batch was already sent upon reaching its max size
+                if (this.batches.remove(target, batch)) {
+                    this.send(target, batch);
+                }
+            };
+            try {
+                this.executor.schedule(task, this.window, TimeUnit.NANOSECONDS);
+            } catch (RuntimeException e) {
+                // Executor was shutdown
+                if (this.batches.remove(target, batch)) {
+                    batch.fail(e);
+                }
+            }
+        }
+        return pending;
+    }
+
+    private void send(Address target, PendingBatch batch) {
+        List<PendingCommand<?>> commands = batch.getCommands();
+        int size = commands.size();
+        this.batchCount.incrementAndGet();
+        this.commandCount.addAndGet(size);
+        this.maxSize.accumulateAndGet(size, Math::max);
+        try {
+            byte[] payload = (size == 1) ? commands.get(0).getCommand() : createBatch(commands);
+            Message message = new Message(target, this.dispatcher.getChannel().getAddress(), payload);
+            RequestOptions options = ChannelCommandDispatcher.createRequestOptions(this.timeout);
+            this.dispatcher.<Object>sendMessageWithFuture(message, options, future -> {
+                try {
+                    this.complete(commands, future.get());
+                } catch (ExecutionException e) {
+                    batch.fail(e.getCause());
+                } catch (CancellationException e) {
+                    batch.fail(e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    batch.fail(e);
+                }
+            });
+        } catch (Exception e) {
+            batch.fail(e);
+        }
+    }
+
+    private void complete(List<PendingCommand<?>> commands, Object result) {
+        if ((commands.size() > 1) && (result instanceof Object[])) {
+            Object[] results = (Object[]) result;
+            for (int i = 0; i < commands.size(); ++i) {
+                this.complete(commands.get(i), (i < results.length) ? results[i] : null);
+            }
+        } else {
+            // A response filtered by the request options yields null, for all commands
+            for (PendingCommand<?> command : commands) {
+                this.complete(command, result);
+            }
+        }
+    }
+
+    private void complete(PendingCommand<?> command, Object result) {
+        if (result instanceof CommandFailure) {
+            command.completeExceptionally(((CommandFailure) result).getCause());
+        } else {
+            command.completeValue((result instanceof NoSuchService) ? null : result);
+        }
+        long time = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - command.getSubmitted());
+        this.responseCount.incrementAndGet();
+        this.totalResponseTime.addAndGet(time);
+        this.maxResponseTime.accumulateAndGet(time, Math::max);
+    }
+
+    private static byte[] createBatch(List<PendingCommand<?>> commands) throws IOException {
+        int size = 0;
+        for (PendingCommand<?> command : commands) {
+            size += command.getCommand().length + 5;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(size + 10);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            IndexExternalizer.VARIABLE.writeData(output, BATCH_VERSION);
+            IndexExternalizer.VARIABLE.writeData(output, commands.size());
+            for (PendingCommand<?> command : commands) {
+                byte[] payload = command.getCommand();
+                IndexExternalizer.VARIABLE.writeData(output, payload.length);
+                output.write(payload);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public void close() {
+        PrivilegedAction<List<Runnable>> action = () -> this.executor.shutdownNow();
+        WildFlySecurityManager.doUnchecked(action);
+        for (Address address : new ArrayList<>(this.batches.keySet())) {
+            PendingBatch batch = this.batches.remove(address);
+            if (batch != null) {
+                batch.fail(new CancellationException());
+            }
+        }
+    }
+
+    @Override
+    public boolean isBatching() {
+        return true;
+    }
+
+    @Override
+    public long getCommandCount() {
+        return this.commandCount.get();
+    }
+
+    @Override
+    public long getBatchCount() {
+        return this.batchCount.get();
+    }
+
+    @Override
+    public double getAverageBatchSize() {
+        long count = this.batchCount.get();
+        return (count > 0) ? (double) this.commandCount.get() / count : 0d;
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return (int) this.maxSize.get();
+    }
+
+    @Override
+    public double getAverageResponseTime() {
+        long count = this.responseCount.get();
+        return (count > 0) ? (double) this.totalResponseTime.get() / count : 0d;
+    }
+
+    @Override
+    public long getMaxResponseTime() {
+        return this.maxResponseTime.get();
+    }
+
+    private static class PendingBatch {
+        private final List<PendingCommand<?>> commands = new ArrayList<>();
+
+        void add(PendingCommand<?> command) {
+            this.commands.add(command);
+        }
+
+        int size() {
+            return this.commands.size();
+        }
+
+        List<PendingCommand<?>> getCommands() {
+            return this.commands;
+        }
+
+        void fail(Throwable exception) {
+            for (PendingCommand<?> command : this.commands) {
+                command.completeExceptionally(exception);
+            }
+        }
+    }
+
+    private static class PendingCommand<R> extends CompletableFuture<R> {
+        private final byte[] command;
+        private final long submitted = System.nanoTime();
+
+        PendingCommand(byte[] command) {
+            this.command = command;
+        }
+
+        byte[] getCommand() {
+            return this.command;
+        }
+
+        long getSubmitted() {
+            return this.submitted;
+        }
+
+        @SuppressWarnings("unchecked")
+        void completeValue(Object result) {
+            this.complete((R) result);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.server.dispatcher;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.jgroups.Address;
+import org.jgroups.Channel;
+import org.jgroups.Message;
+import org.jgroups.blocks.MessageDispatcher;
+import org.jgroups.blocks.RequestOptions;
+import org.jgroups.util.FutureListener;
+import org.jgroups.util.UUID;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.wildfly.clustering.marshalling.spi.IndexExternalizer;
+
+/**
+ * Unit test for {@link CommandBatcher}.
+ * @author agent
+ */
+public class CommandBatcherTestCase {
+
+    private final MessageDispatcher dispatcher = mock(MessageDispatcher.class);
+    private final Channel channel = mock(Channel.class);
+    private final Address localAddress = UUID.randomUUID();
+    private final Address remoteAddress = UUID.randomUUID();
+
+    @Test
+    public void batch() throws Exception {
+        when(this.dispatcher.getChannel()).thenReturn(this.channel);
+        when(this.channel.getAddress()).thenReturn(this.localAddress);
+
+        try (CommandBatcher batcher = new CommandBatcher(this.dispatcher, 1000L, Duration.ofMinutes(1L), 3)) {
+            Future<Object> future1 = batcher.submit(this.remoteAddress, new byte[] { 1 });
+            Future<Object> future2 = batcher.submit(this.remoteAddress, new byte[] { 2, 2 });
+
+            verify(this.dispatcher, never()).sendMessageWithFuture(any(Message.class), any(RequestOptions.class), any(FutureListener.class));
+
+            // Max batch size should trigger send, without waiting for window
+            Future<Object> future3 = batcher.submit(this.remoteAddress, new byte[] { 3, 3, 3 });
+
+            ArgumentCaptor<Message> capturedMessage = ArgumentCaptor.forClass(Message.class);
+            @SuppressWarnings("rawtypes")
+            ArgumentCaptor<FutureListener> capturedListener = ArgumentCaptor.forClass(FutureListener.class);
+            verify(this.dispatcher).sendMessageWithFuture(capturedMessage.capture(), any(RequestOptions.class), capturedListener.capture());
+
+            Message message = capturedMessage.getValue();
+            assertEquals(this.remoteAddress, message.getDest());
+            try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(message.getRawBuffer(), message.getOffset(), message.getLength()))) {
+                assertEquals(CommandBatcher.BATCH_VERSION, IndexExternalizer.VARIABLE.readData(input));
+                assertEquals(3, IndexExternalizer.VARIABLE.readData(input));
+                for (int i = 1; i <= 3; ++i) {
+                    byte[] command = new byte[IndexExternalizer.VARIABLE.readData(input)];
+                    input.readFully(command);
+                    assertEquals(i, command.length);
+                    assertEquals(i, command[0]);
+                }
+                assertEquals(-1, input.read());
+            }
+
+            assertFalse(future1.isDone());
+
+            Exception exception = new Exception();
+            Future<Object> response = mock(Future.class);
+            when(response.get()).thenReturn(new Object[] { "foo", new CommandFailure(exception), NoSuchService.INSTANCE });
+            capturedListener.getValue().futureDone(response);
+
+            assertEquals("foo", future1.get());
+            try {
+                future2.get();
+                fail();
+            } catch (ExecutionException e) {
+                assertSame(exception, e.getCause());
+            }
+            assertNull(future3.get());
+
+            assertEquals(1L, batcher.getBatchCount());
+            assertEquals(3L, batcher.getCommandCount());
+            assertEquals(3, batcher.getMaxBatchSize());
+            assertEquals(3d, batcher.getAverageBatchSize(), 0d);
+        }
+    }
+
+    @Test
+    public void window() throws Exception {
+        when(this.dispatcher.getChannel()).thenReturn(this.channel);
+        when(this.channel.getAddress()).thenReturn(this.localAddress);
+
+        try (CommandBatcher batcher = new CommandBatcher(this.dispatcher, 1000L, Duration.ofMillis(1L), 3)) {
+            byte[] command = new byte[] { 1, 2, 3 };
+            Future<Object> future = batcher.submit(this.remoteAddress, command);
+
+            ArgumentCaptor<Message> capturedMessage = ArgumentCaptor.forClass(Message.class);
+            @SuppressWarnings("rawtypes")
+            ArgumentCaptor<FutureListener> capturedListener = ArgumentCaptor.forClass(FutureListener.class);
+            verify(this.dispatcher, timeout(5000L)).sendMessageWithFuture(capturedMessage.capture(), any(RequestOptions.class), capturedListener.capture());
+
+            // Batch of 1 should be sent in unbatched format
+            assertSame(command, capturedMessage.getValue().getRawBuffer());
+
+            Future<Object> response = mock(Future.class);
+            when(response.get()).thenThrow(new ExecutionException(new IOException()));
+            capturedListener.getValue().futureDone(response);
+
+            try {
+                future.get();
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IOException);
+            }
+        }
+    }
+}
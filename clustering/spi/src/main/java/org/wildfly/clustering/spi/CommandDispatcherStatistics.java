@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.spi;
+
+/**
+ * Exposes statistics of a command dispatcher factory that batches commands bound for the same member.
+ * @author agent
+ */
+public interface CommandDispatcherStatistics {
+
+    /**
+     * Indicates whether commands are batched.
+     * @return true, if commands are batched, false otherwise
+     */
+    boolean isBatching();
+
+    /**
+     * Returns the number of batched commands dispatched to remote members.
+     * @return a number of commands
+     */
+    long getCommandCount();
+
+    /**
+     * Returns the number of messages used to dispatch batched commands.
+     * @return a number of messages
+     */
+    long getBatchCount();
+
+    /**
+     * Returns the average number of commands per message.
+     * @return the average batch size
+     */
+    double getAverageBatchSize();
+
+    /**
+     * Returns the maximum number of commands sent within a single message.
+     * @return the max batch size
+     */
+    int getMaxBatchSize();
+
+    /**
+     * Returns the average time, in milliseconds, between submission of a batched command and receipt of its response.
+     * @return the average response time
+     */
+    double getAverageResponseTime();
+
+    /**
+     * Returns the maximum time, in milliseconds, between submission of a batched command and receipt of its response.
+     * @return the max response time
+     */
+    long getMaxResponseTime();
+}
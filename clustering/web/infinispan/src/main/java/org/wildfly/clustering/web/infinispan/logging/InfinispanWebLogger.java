@@ -93,4 +93,16 @@ public interface InfinispanWebLogger extends BasicLogger {
     @LogMessage(level = WARN)
     @Message(id = 13, value = "Disabling expiration for cache '%s'. Web session expiration should be configured per \u00A77.5 of the servlet specification.")
     void expirationDisabled(String cacheName);
+
+    @LogMessage(level = WARN)
+    @Message(id = 14, value = "Failed to flush last accessed times of %d sessions")
+    void failedToFlushSessionAccessMetaData(@Cause Throwable cause, int count);
+
+    @LogMessage(level = WARN)
+    @Message(id = 15, value = "Failed to schedule sessions of %d segments acquired by cache '%s'")
+    void failedToScheduleSessions(@Cause Throwable cause, int segments, String cacheName);
+
+    @LogMessage(level = WARN)
+    @Message(id = 16, value = "Attributes of session %s are missing from the cache, and will be written in full")
+    void missingSessionAttributesCacheEntry(String sessionId);
 }
@@ -0,0 +1,62 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.web.infinispan.session;
+
+import java.time.Duration;
+
+import org.wildfly.clustering.ee.Mutator;
+
+/**
+ * Session access meta data whose updates are deferred to a {@link SessionAccessMetaDataCoalescer}.
+ * @author agent
+ */
+public class CoalescingSessionAccessMetaData implements SessionAccessMetaData {
+
+    private final SessionAccessMetaDataKey key;
+    private final SessionAccessMetaData metaData;
+    private final SessionCreationMetaData creationMetaData;
+    private final SessionAccessMetaDataCoalescer coalescer;
+    private final Mutator mutator;
+
+    public CoalescingSessionAccessMetaData(SessionAccessMetaDataKey key, SessionAccessMetaData metaData, SessionCreationMetaData creationMetaData, SessionAccessMetaDataCoalescer coalescer, Mutator mutator) {
+        this.key = key;
+        this.metaData = metaData;
+        this.creationMetaData = creationMetaData;
+        this.coalescer = coalescer;
+        this.mutator = mutator;
+    }
+
+    @Override
+    public Duration getLastAccessedDuration() {
+        return this.metaData.getLastAccessedDuration();
+    }
+
+    @Override
+    public void setLastAccessedDuration(Duration duration) {
+        Duration previous = this.metaData.getLastAccessedDuration();
+        this.metaData.setLastAccessedDuration(duration);
+        if (!this.coalescer.defer(this.key, previous, duration, this.creationMetaData.getMaxInactiveInterval())) {
+            this.mutator.mutate();
+        }
+    }
+}
@@ -28,6 +28,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -46,9 +47,11 @@ import javax.servlet.http.HttpSessionBindingListener;
 import javax.servlet.http.HttpSessionEvent;
 
 import org.infinispan.Cache;
+import org.infinispan.CacheStream;
 import org.infinispan.commons.CacheException;
 import org.infinispan.context.Flag;
 import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.notifications.Listener;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryActivated;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryPassivated;
@@ -76,6 +79,9 @@ import org.wildfly.clustering.infinispan.spi.distribution.CacheLocality;
 import org.wildfly.clustering.infinispan.spi.distribution.ConsistentHashLocality;
 import org.wildfly.clustering.infinispan.spi.distribution.Key;
 import org.wildfly.clustering.infinispan.spi.distribution.Locality;
+import org.wildfly.clustering.infinispan.spi.distribution.Rebalancer;
+import org.wildfly.clustering.infinispan.spi.distribution.SegmentIndex;
+import org.wildfly.clustering.infinispan.spi.distribution.SegmentOwnershipChange;
 import org.wildfly.clustering.infinispan.spi.distribution.SimpleLocality;
 import org.wildfly.clustering.web.IdentifierFactory;
 import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
@@ -116,11 +122,13 @@ public class InfinispanSessionManager<MV, AV, L> implements SessionManager<L, Tr
     private final SessionCreationMetaDataKeyFilter filter = new SessionCreationMetaDataKeyFilter();
     private final Recordable<ImmutableSession> recorder;
     private final ServletContext context;
+    private final SessionAccessMetaDataCoalescer coalescer;
     private final AtomicReference<Future<?>> rehashFuture = new AtomicReference<>();
 
     private volatile CommandDispatcher<Scheduler> dispatcher;
     private volatile Scheduler scheduler;
     private volatile ExecutorService executor;
+    private volatile Rebalancer rebalancer;
 
     public InfinispanSessionManager(SessionFactory<MV, AV, L> factory, InfinispanSessionManagerConfiguration configuration) {
         this.factory = factory;
@@ -134,19 +142,24 @@ public class InfinispanSessionManager<MV, AV, L> implements SessionManager<L, Tr
         this.maxActiveSessions = configuration.getMaxActiveSessions();
         this.recorder = configuration.getInactiveSessionRecorder();
         this.context = configuration.getServletContext();
+        this.coalescer = configuration.getAccessMetaDataCoalescer();
     }
 
     @Override
     public void start() {
         this.executor = Executors.newSingleThreadExecutor(createThreadFactory());
+        this.rebalancer = new Rebalancer(createThreadFactory());
         if (this.recorder != null) {
             this.recorder.reset();
         }
         this.identifierFactory.start();
+        if (this.coalescer != null) {
+            this.coalescer.start();
+        }
         final List<Scheduler> schedulers = new ArrayList<>(2);
-        schedulers.add(new SessionExpirationScheduler(this.batcher, new ExpiredSessionRemover<>(this.factory, this.expirationListener)));
+        schedulers.add(new SessionExpirationScheduler(this.batcher, new ExpiredSessionRemover<>(this.factory, this.expirationListener), this.createSegmentIndex()));
         if (this.maxActiveSessions >= 0) {
-            schedulers.add(new SessionEvictionScheduler(this.cache.getName() + ".eviction", this.factory, this.batcher, this.dispatcherFactory, this.maxActiveSessions));
+            schedulers.add(new SessionEvictionScheduler(this.cache.getName() + ".eviction", this.factory, this.batcher, this.dispatcherFactory, this.maxActiveSessions, this.createSegmentIndex()));
         }
         this.scheduler = new Scheduler() {
             @Override
@@ -160,8 +173,8 @@ public class InfinispanSessionManager<MV, AV, L> implements SessionManager<L, Tr
             }
 
             @Override
-            public void cancel(Locality locality) {
-                schedulers.forEach(scheduler -> scheduler.cancel(locality));
+            public void cancel(Set<Integer> segments) {
+                schedulers.forEach(scheduler -> scheduler.cancel(segments));
             }
 
             @Override
@@ -184,6 +197,11 @@ public class InfinispanSessionManager<MV, AV, L> implements SessionManager<L, Tr
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         } finally {
+            this.rebalancer.close();
+            if (this.coalescer != null) {
+                // Flush pending last accessed times, so that they are available to other nodes
+                this.coalescer.stop();
+            }
             this.dispatcher.close();
             this.scheduler.close();
             this.identifierFactory.stop();
@@ -312,6 +330,22 @@ public class InfinispanSessionManager<MV, AV, L> implements SessionManager<L, Tr
         return this.getActiveSessions().size();
     }
 
+    @Override
+    public Duration getLastRebalanceDuration() {
+        Rebalancer rebalancer = this.rebalancer;
+        return (rebalancer != null) ? rebalancer.getLastRebalanceDuration() : Duration.ZERO;
+    }
+
+    @Override
+    public int getLastAccessFlushSize() {
+        return (this.coalescer != null) ? this.coalescer.getLastFlushSize() : 0;
+    }
+
+    @Override
+    public Duration getLastAccessFlushLag() {
+        return (this.coalescer != null) ? this.coalescer.getLastFlushLag() : Duration.ZERO;
+    }
+
     @CacheEntryActivated
     public void activated(CacheEntryActivatedEvent<SessionCreationMetaDataKey, ?> event) {
         if (!event.isPre() && !this.properties.isPersistent()) {
@@ -369,55 +403,92 @@ public class InfinispanSessionManager<MV, AV, L> implements SessionManager<L, Tr
     public void dataRehashed(DataRehashedEvent<SessionCreationMetaDataKey, ?> event) {
         Cache<SessionCreationMetaDataKey, ?> cache = event.getCache();
         Address localAddress = cache.getCacheManager().getAddress();
-        Locality newLocality = new ConsistentHashLocality(localAddress, event.getConsistentHashAtEnd());
+        ConsistentHash endHash = event.getConsistentHashAtEnd();
+        Locality newLocality = new ConsistentHashLocality(localAddress, endHash);
+        // Only segments whose primary ownership changed require any rescheduling
+        SegmentOwnershipChange change = new SegmentOwnershipChange(localAddress, event.getConsistentHashAtStart(), endHash);
         if (event.isPre()) {
             Future<?> future = this.rehashFuture.getAndSet(null);
             if (future != null) {
                 future.cancel(true);
             }
-            try {
-                this.executor.submit(() -> this.scheduler.cancel(newLocality));
-            } catch (RejectedExecutionException e) {
-                // Executor was shutdown
+            Set<Integer> segments = change.getReleasedSegments();
+            if (!segments.isEmpty()) {
+                try {
+                    this.executor.submit(() -> this.scheduler.cancel(segments));
+                } catch (RejectedExecutionException e) {
+                    // Executor was shutdown
+                }
             }
         } else {
-            Locality oldLocality = new ConsistentHashLocality(localAddress, event.getConsistentHashAtStart());
-            try {
-                this.rehashFuture.set(this.executor.submit(() -> this.schedule(oldLocality, newLocality)));
-            } catch (RejectedExecutionException e) {
-                // Executor was shutdown
+            Set<Integer> segments = change.getAcquiredSegments();
+            if (!segments.isEmpty()) {
+                try {
+                    this.rehashFuture.set(this.executor.submit(() -> this.schedule(segments, newLocality)));
+                } catch (RejectedExecutionException e) {
+                    // Executor was shutdown
+                }
             }
         }
     }
 
+    private void schedule(Set<Integer> segments, Locality newLocality) {
+        Locality oldLocality = new SimpleLocality(false);
+        try {
+            // Schedule the sessions of each acquired segment in parallel
+            Duration duration = this.rebalancer.execute(segments, partition -> {
+                try (Stream<Key<String>> stream = this.getLocalKeys().filterKeySegments(partition).filter(this.filter)) {
+                    this.schedule(stream, oldLocality, newLocality);
+                }
+            });
+            InfinispanWebLogger.ROOT_LOGGER.debugf("Scheduled sessions of cache %s for %d acquired segments in %d ms", this.cache.getName(), segments.size(), duration.toMillis());
+        } catch (InterruptedException e) {
+            // Superseded by a subsequent topology change
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            InfinispanWebLogger.ROOT_LOGGER.failedToScheduleSessions(e.getCause(), segments.size(), this.cache.getName());
+        }
+    }
+
     private void schedule(Locality oldLocality, Locality newLocality) {
+        try (Stream<Key<String>> stream = this.getLocalKeys().filter(this.filter)) {
+            this.schedule(stream, oldLocality, newLocality);
+        }
+    }
+
+    private void schedule(Stream<Key<String>> stream, Locality oldLocality, Locality newLocality) {
         SessionMetaDataFactory<MV, L> metaDataFactory = this.factory.getMetaDataFactory();
-        // Iterate over sessions in memory
-        try (Stream<Key<String>> stream = this.cache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD).keySet().stream().filter(this.filter)) {
-            Iterator<Key<String>> keys = stream.iterator();
-            while (keys.hasNext()) {
-                if (Thread.currentThread().isInterrupted()) break;
-                Key<String> key = keys.next();
-                // If we are the new primary owner of this session then schedule expiration of this session locally
-                if (this.filter.test(key) && !oldLocality.isLocal(key) && newLocality.isLocal(key)) {
-                    String id = key.getValue();
-                    try (Batch batch = this.batcher.createBatch()) {
-                        try {
-                            // We need to lookup the session to obtain its meta data
-                            MV value = metaDataFactory.tryValue(id);
-                            if (value != null) {
-                                this.scheduler.schedule(id, metaDataFactory.createImmutableSessionMetaData(id, value));
-                            }
-                            return;
-                        } catch (CacheException e) {
-                            batch.discard();
+        Iterator<Key<String>> keys = stream.iterator();
+        while (keys.hasNext()) {
+            if (Thread.currentThread().isInterrupted()) break;
+            Key<String> key = keys.next();
+            // If we are the new primary owner of this session then schedule expiration of this session locally
+            if (this.filter.test(key) && !oldLocality.isLocal(key) && newLocality.isLocal(key)) {
+                String id = key.getValue();
+                try (Batch batch = this.batcher.createBatch()) {
+                    try {
+                        // We need to lookup the session to obtain its meta data
+                        MV value = metaDataFactory.tryValue(id);
+                        if (value != null) {
+                            this.scheduler.schedule(id, metaDataFactory.createImmutableSessionMetaData(id, value));
                         }
+                    } catch (CacheException e) {
+                        batch.discard();
                     }
                 }
             }
         }
     }
 
+    // Iterate over sessions in memory
+    private SegmentIndex<String> createSegmentIndex() {
+        return new SegmentIndex<>(this.cache, id -> new SessionCreationMetaDataKey(id));
+    }
+
+    private CacheStream<Key<String>> getLocalKeys() {
+        return this.cache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD).keySet().stream();
+    }
+
     void triggerPrePassivationEvents(ImmutableSession session) {
         List<HttpSessionActivationListener> listeners = findListeners(session);
         if (!listeners.isEmpty()) {
@@ -51,4 +51,9 @@ public interface InfinispanSessionManagerConfiguration {
     NodeFactory<Address> getNodeFactory();
     int getMaxActiveSessions();
     Recordable<ImmutableSession> getInactiveSessionRecorder();
+    /**
+     * Returns the coalescer of last accessed time updates, if write-behind of these updates is enabled.
+     * @return a coalescer, or null, if last accessed time updates are written per request
+     */
+    SessionAccessMetaDataCoalescer getAccessMetaDataCoalescer();
 }
@@ -21,6 +21,8 @@
  */
 package org.wildfly.clustering.web.infinispan.session;
 
+import java.time.Duration;
+
 import javax.servlet.ServletContext;
 
 import org.infinispan.Cache;
@@ -41,6 +43,7 @@ import org.wildfly.clustering.web.IdentifierFactory;
 import org.wildfly.clustering.web.LocalContextFactory;
 import org.wildfly.clustering.web.infinispan.AffinityIdentifierFactory;
 import org.wildfly.clustering.web.infinispan.session.coarse.CoarseSessionAttributesFactory;
+import org.wildfly.clustering.web.infinispan.session.coarse.DeltaSessionAttributesFactory;
 import org.wildfly.clustering.web.infinispan.session.fine.FineSessionAttributesFactory;
 import org.wildfly.clustering.web.session.ImmutableSession;
 import org.wildfly.clustering.web.session.SessionExpirationListener;
@@ -70,6 +73,7 @@ public class InfinispanSessionManagerFactory<C extends Marshallability> implemen
         final CommandDispatcherFactory dispatcherFactory = this.config.getCommandDispatcherFactory();
         final NodeFactory<Address> nodeFactory = this.config.getNodeFactory();
         final int maxActiveSessions = this.config.getSessionManagerFactoryConfiguration().getMaxActiveSessions();
+        final SessionAccessMetaDataCoalescer coalescer = properties.isPersistent() ? createSessionAccessMetaDataCoalescer(cache, batcher, this.config.getSessionManagerFactoryConfiguration()) : null;
         InfinispanSessionManagerConfiguration config = new InfinispanSessionManagerConfiguration() {
             @Override
             public SessionExpirationListener getExpirationListener() {
@@ -120,12 +124,26 @@ public class InfinispanSessionManagerFactory<C extends Marshallability> implemen
             public Recordable<ImmutableSession> getInactiveSessionRecorder() {
                 return configuration.getInactiveSessionRecorder();
             }
+
+            @Override
+            public SessionAccessMetaDataCoalescer getAccessMetaDataCoalescer() {
+                return coalescer;
+            }
         };
-        return new InfinispanSessionManager<>(this.createSessionFactory(properties, configuration.getLocalContextFactory()), config);
+        return new InfinispanSessionManager<>(this.createSessionFactory(properties, configuration.getLocalContextFactory(), coalescer), config);
     }
 
-    private <L> SessionFactory<?, ?, L> createSessionFactory(CacheProperties properties, LocalContextFactory<L> localContextFactory) {
-        SessionMetaDataFactory<InfinispanSessionMetaData<L>, L> metaDataFactory = new InfinispanSessionMetaDataFactory<>(this.config.getCache(), properties);
+    @SuppressWarnings("unchecked")
+    private static SessionAccessMetaDataCoalescer createSessionAccessMetaDataCoalescer(Cache<Key<String>, ?> cache, Batcher<TransactionBatch> batcher, SessionManagerFactoryConfiguration<?> configuration) {
+        // Last accessed time updates are written per request, unless write-behind is enabled for this deployment
+        Duration interval = configuration.getAccessFlushInterval();
+        if (interval == null) return null;
+        Float maxDrift = configuration.getAccessMaxDrift();
+        return new SessionAccessMetaDataCoalescer((Cache<SessionAccessMetaDataKey, SessionAccessMetaData>) (Cache<?, ?>) cache, batcher, interval, (maxDrift != null) ? maxDrift.floatValue() : SessionAccessMetaDataCoalescer.DEFAULT_MAX_DRIFT, SessionAccessMetaDataCoalescer.DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    private <L> SessionFactory<?, ?, L> createSessionFactory(CacheProperties properties, LocalContextFactory<L> localContextFactory, SessionAccessMetaDataCoalescer coalescer) {
+        SessionMetaDataFactory<InfinispanSessionMetaData<L>, L> metaDataFactory = new InfinispanSessionMetaDataFactory<>(this.config.getCache(), properties, coalescer);
         return new InfinispanSessionFactory<>(metaDataFactory, this.createSessionAttributesFactory(properties), localContextFactory);
     }
 
@@ -141,6 +159,9 @@ public class InfinispanSessionManagerFactory<C extends Marshallability> implemen
             case COARSE: {
                 return new CoarseSessionAttributesFactory<>(this.config.getCache(), new MarshalledValueMarshaller<>(factory, context), properties);
             }
+            case COARSE_DELTA: {
+                return new DeltaSessionAttributesFactory<>(this.config.getCache(), new MarshalledValueMarshaller<>(factory, context), properties);
+            }
             default: {
                 // Impossible
                 throw new IllegalStateException();
@@ -39,13 +39,25 @@ public class InfinispanSessionMetaDataFactory<L> implements SessionMetaDataFacto
     private final Cache<SessionCreationMetaDataKey, SessionCreationMetaDataEntry<L>> findCreationMetaDataCache;
     private final Cache<SessionAccessMetaDataKey, SessionAccessMetaData> accessMetaDataCache;
     private final CacheProperties properties;
+    private final SessionAccessMetaDataCoalescer coalescer;
 
-    @SuppressWarnings("unchecked")
     public InfinispanSessionMetaDataFactory(Cache<? extends Key<String>, ?> cache, CacheProperties properties) {
+        this(cache, properties, null);
+    }
+
+    /**
+     * Creates a session meta data factory.
+     * @param cache the cache containing session meta data
+     * @param properties the properties of the cache
+     * @param coalescer a coalescer of last accessed time updates, or null, if updates are to be written per request
+     */
+    @SuppressWarnings("unchecked")
+    public InfinispanSessionMetaDataFactory(Cache<? extends Key<String>, ?> cache, CacheProperties properties, SessionAccessMetaDataCoalescer coalescer) {
         this.creationMetaDataCache = (Cache<SessionCreationMetaDataKey, SessionCreationMetaDataEntry<L>>) cache;
         this.findCreationMetaDataCache = properties.isLockOnRead() ? this.creationMetaDataCache.getAdvancedCache().withFlags(Flag.FORCE_WRITE_LOCK) : this.creationMetaDataCache;
         this.accessMetaDataCache = (Cache<SessionAccessMetaDataKey, SessionAccessMetaData>) cache;
         this.properties = properties;
+        this.coalescer = coalescer;
     }
 
     @Override
@@ -73,8 +85,13 @@ public class InfinispanSessionMetaDataFactory<L> implements SessionMetaDataFacto
         SessionCreationMetaDataKey key = new SessionCreationMetaDataKey(id);
         SessionCreationMetaDataEntry<L> creationMetaDataEntry = creationMetaDataCache.get(key);
         if (creationMetaDataEntry != null) {
-            SessionAccessMetaData accessMetaData = this.accessMetaDataCache.get(new SessionAccessMetaDataKey(id));
+            SessionAccessMetaDataKey accessMetaDataKey = new SessionAccessMetaDataKey(id);
+            SessionAccessMetaData accessMetaData = this.accessMetaDataCache.get(accessMetaDataKey);
             if (accessMetaData != null) {
+                if (this.coalescer != null) {
+                    // Reflect any local updates not yet written to the cache
+                    accessMetaData = this.coalescer.resolve(accessMetaDataKey, accessMetaData);
+                }
                 return new InfinispanSessionMetaData<>(creationMetaDataEntry.getMetaData(), accessMetaData, creationMetaDataEntry.getLocalContext());
             }
             // Purge orphaned entry, making sure not to trigger cache listener
@@ -91,7 +108,7 @@ public class InfinispanSessionMetaDataFactory<L> implements SessionMetaDataFacto
 
         SessionAccessMetaDataKey accessMetaDataKey = new SessionAccessMetaDataKey(id);
         Mutator accessMutator = this.properties.isTransactional() && this.accessMetaDataCache.getAdvancedCache().getCacheEntry(accessMetaDataKey).isCreated() ? Mutator.PASSIVE : new CacheEntryMutator<>(this.accessMetaDataCache, accessMetaDataKey, entry.getAccessMetaData());
-        SessionAccessMetaData accessMetaData = new MutableSessionAccessMetaData(entry.getAccessMetaData(), accessMutator);
+        SessionAccessMetaData accessMetaData = (this.coalescer != null) && (accessMutator != Mutator.PASSIVE) ? new CoalescingSessionAccessMetaData(accessMetaDataKey, entry.getAccessMetaData(), entry.getCreationMetaData(), this.coalescer, accessMutator) : new MutableSessionAccessMetaData(entry.getAccessMetaData(), accessMutator);
 
         return new SimpleSessionMetaData(creationMetaData, accessMetaData);
     }
@@ -115,7 +132,11 @@ public class InfinispanSessionMetaDataFactory<L> implements SessionMetaDataFacto
         SessionCreationMetaDataKey key = new SessionCreationMetaDataKey(id);
         if (!this.properties.isLockOnWrite() || creationMetaDataCache.getAdvancedCache().withFlags(Flag.ZERO_LOCK_ACQUISITION_TIMEOUT, Flag.FAIL_SILENTLY).lock(key)) {
             creationMetaDataCache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES).remove(key);
-            this.accessMetaDataCache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES).remove(new SessionAccessMetaDataKey(id));
+            SessionAccessMetaDataKey accessMetaDataKey = new SessionAccessMetaDataKey(id);
+            if (this.coalescer != null) {
+                this.coalescer.cancel(accessMetaDataKey);
+            }
+            this.accessMetaDataCache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES).remove(accessMetaDataKey);
             return true;
         }
         return false;
@@ -126,7 +147,12 @@ public class InfinispanSessionMetaDataFactory<L> implements SessionMetaDataFacto
         SessionCreationMetaDataKey key = new SessionCreationMetaDataKey(id);
         if (this.findCreationMetaDataCache.getAdvancedCache().withFlags(EVICTION_FLAGS).get(key) != null) {
             this.creationMetaDataCache.evict(key);
-            this.accessMetaDataCache.evict(new SessionAccessMetaDataKey(id));
+            SessionAccessMetaDataKey accessMetaDataKey = new SessionAccessMetaDataKey(id);
+            if (this.coalescer != null) {
+                // Write any pending update before it is passivated
+                this.coalescer.flush(accessMetaDataKey);
+            }
+            this.accessMetaDataCache.evict(accessMetaDataKey);
             return true;
         }
         return false;
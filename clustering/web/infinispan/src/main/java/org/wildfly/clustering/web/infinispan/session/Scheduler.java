@@ -22,7 +22,8 @@
 
 package org.wildfly.clustering.web.infinispan.session;
 
-import org.wildfly.clustering.infinispan.spi.distribution.Locality;
+import java.util.Set;
+
 import org.wildfly.clustering.web.session.ImmutableSessionMetaData;
 
 /**
@@ -43,10 +44,10 @@ public interface Scheduler extends AutoCloseable {
     void cancel(String sessionId);
 
     /**
-     * Cancels any previous scheduled tasks for session which are no longer local to the current node
-     * @param location the cache locality
+     * Cancels any previously scheduled tasks for sessions whose keys belong to the specified segments, e.g. segments no longer owned by the current node
+     * @param segments a set of cache segments
      */
-    void cancel(Locality locality);
+    void cancel(Set<Integer> segments);
 
     /**
      * Closes any resources used by this scheduler.
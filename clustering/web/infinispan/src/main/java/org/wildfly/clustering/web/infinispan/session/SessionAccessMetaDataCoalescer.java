@@ -0,0 +1,282 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.web.infinispan.session;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.clustering.ee.Batch;
+import org.wildfly.clustering.ee.Batcher;
+import org.wildfly.clustering.ee.infinispan.TransactionBatch;
+import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Coalesces updates to the last accessed time of sessions, which are written to the cache periodically in batches, rather than per request.
+ * An update is instead written immediately if it would otherwise drift from the last written value by more than a given fraction of the max inactive interval of the session.
+ * Consequently, the last accessed time observed by other nodes lags the actual last accessed time by at most the lesser of the flush interval and the max drift.
+ * @author agent
+ */
+public class SessionAccessMetaDataCoalescer implements Runnable {
+
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1L);
+    public static final float DEFAULT_MAX_DRIFT = 0.1f;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    private static ThreadFactory createThreadFactory() {
+        return AccessController.doPrivileged(new PrivilegedAction<ThreadFactory>() {
+            @Override
+            public ThreadFactory run() {
+                return new JBossThreadFactory(new ThreadGroup(SessionAccessMetaDataCoalescer.class.getSimpleName()), Boolean.FALSE, null, "%G - %t", null, null);
+            }
+        });
+    }
+
+    private final Cache<SessionAccessMetaDataKey, SessionAccessMetaData> cache;
+    private final Batcher<TransactionBatch> batcher;
+    private final Duration interval;
+    private final float maxDrift;
+    private final int maxBatchSize;
+    private final ConcurrentMap<SessionAccessMetaDataKey, PendingAccess> pending = new ConcurrentHashMap<>();
+
+    private volatile ScheduledExecutorService executor;
+    private volatile int lastFlushSize = 0;
+    private volatile long lastFlushLag = 0L;
+
+    /**
+     * Creates a new coalescer.
+     * @param cache the cache containing session access meta data
+     * @param batcher a batcher
+     * @param interval the interval at which pending updates are flushed to the cache
+     * @param maxDrift the fraction of the max inactive interval of a session by which its pending last accessed time may drift from the last written value
+     * @param maxBatchSize the maximum number of updates written within a single batch
+     */
+    public SessionAccessMetaDataCoalescer(Cache<SessionAccessMetaDataKey, SessionAccessMetaData> cache, Batcher<TransactionBatch> batcher, Duration interval, float maxDrift, int maxBatchSize) {
+        this.cache = cache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES);
+        this.batcher = batcher;
+        this.interval = interval;
+        this.maxDrift = maxDrift;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public void start() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, createThreadFactory());
+        executor.setRemoveOnCancelPolicy(true);
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        long nanos = this.interval.toNanos();
+        executor.scheduleWithFixedDelay(this, nanos, nanos, TimeUnit.NANOSECONDS);
+        this.executor = executor;
+    }
+
+    /**
+     * Stops periodic flushing, and flushes any remaining pending updates.
+     */
+    public void stop() {
+        PrivilegedAction<List<Runnable>> action = () -> this.executor.shutdownNow();
+        WildFlySecurityManager.doUnchecked(action);
+        try {
+            this.executor.awaitTermination(this.interval.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.run();
+        }
+    }
+
+    /**
+     * Defers the update of the last accessed time of a session, unless the update would exceed the max drift.
+     * @param key the cache key of the session access meta data
+     * @param previous the last accessed duration of the session, as read from the cache
+     * @param current the updated last accessed duration of the session
+     * @param maxInactiveInterval the max inactive interval of the session
+     * @return true, if the update was deferred, false if the caller must write the update immediately
+     */
+    public boolean defer(SessionAccessMetaDataKey key, Duration previous, Duration current, Duration maxInactiveInterval) {
+        long maxDriftNanos = maxInactiveInterval.isZero() ? Long.MAX_VALUE : (long) (maxInactiveInterval.toNanos() * this.maxDrift);
+        boolean[] deferred = new boolean[] { true };
+        this.pending.compute(key, (k, existing) -> {
+            // Drift is measured against the value last written to the cache
+            Duration persisted = (existing != null) ? existing.getPersisted() : previous;
+            if (current.minus(persisted).toNanos() >= maxDriftNanos) {
+                deferred[0] = false;
+                return null;
+            }
+            if ((existing != null) && (existing.getCurrent().compareTo(current) >= 0)) {
+                return existing;
+            }
+            return new PendingAccess(persisted, current, (existing != null) ? existing.getSince() : System.nanoTime());
+        });
+        return deferred[0];
+    }
+
+    /**
+     * Overlays any pending update onto the specified session access meta data, as read from the cache.
+     * @param key the cache key of the session access meta data
+     * @param metaData the session access meta data read from the cache
+     * @return session access meta data reflecting any pending update
+     */
+    public SessionAccessMetaData resolve(SessionAccessMetaDataKey key, SessionAccessMetaData metaData) {
+        PendingAccess access = this.pending.get(key);
+        if ((access != null) && (access.getCurrent().compareTo(metaData.getLastAccessedDuration()) > 0)) {
+            SessionAccessMetaData result = new SimpleSessionAccessMetaData();
+            result.setLastAccessedDuration(access.getCurrent());
+            return result;
+        }
+        return metaData;
+    }
+
+    /**
+     * Discards any pending update for the specified session, e.g. following its removal.
+     * @param key the cache key of the session access meta data
+     */
+    public void cancel(SessionAccessMetaDataKey key) {
+        this.pending.remove(key);
+    }
+
+    /**
+     * Immediately writes any pending update for the specified session, within the current batch, e.g. prior to its eviction.
+     * @param key the cache key of the session access meta data
+     */
+    public void flush(SessionAccessMetaDataKey key) {
+        PendingAccess access = this.pending.remove(key);
+        if (access != null) {
+            this.write(key, access);
+        }
+    }
+
+    @Override
+    public void run() {
+        List<SessionAccessMetaDataKey> keys = new ArrayList<>(this.pending.keySet());
+        if (keys.isEmpty()) return;
+        long now = System.nanoTime();
+        int size = 0;
+        long lag = 0L;
+        for (int i = 0; i < keys.size(); i += this.maxBatchSize) {
+            Map<SessionAccessMetaDataKey, PendingAccess> flushed = new HashMap<>();
+            try (Batch batch = this.batcher.createBatch()) {
+                for (SessionAccessMetaDataKey key : keys.subList(i, Math.min(i + this.maxBatchSize, keys.size()))) {
+                    PendingAccess access = this.pending.remove(key);
+                    if (access != null) {
+                        flushed.put(key, access);
+                        this.write(key, access);
+                    }
+                }
+            } catch (RuntimeException e) {
+                InfinispanWebLogger.ROOT_LOGGER.failedToFlushSessionAccessMetaData(e, flushed.size());
+                // Restore the updates of our failed batch, so that they are retried by the next flush
+                for (Map.Entry<SessionAccessMetaDataKey, PendingAccess> entry : flushed.entrySet()) {
+                    this.pending.merge(entry.getKey(), entry.getValue(), PendingAccess::merge);
+                }
+                continue;
+            }
+            for (PendingAccess access : flushed.values()) {
+                lag = Math.max(lag, now - access.getSince());
+            }
+            size += flushed.size();
+        }
+        this.lastFlushSize = size;
+        this.lastFlushLag = lag;
+        InfinispanWebLogger.ROOT_LOGGER.tracef("Flushed last accessed time of %d sessions, max lag = %d ms", size, TimeUnit.NANOSECONDS.toMillis(lag));
+    }
+
+    private void write(SessionAccessMetaDataKey key, PendingAccess access) {
+        SessionAccessMetaData metaData = new SimpleSessionAccessMetaData();
+        metaData.setLastAccessedDuration(access.getCurrent());
+        // Use replace, so that we do not resurrect a session that was concurrently removed by another node
+        this.cache.replace(key, metaData);
+    }
+
+    /**
+     * Returns the number of sessions with a pending update.
+     * @return the number of pending updates
+     */
+    int getPendingCount() {
+        return this.pending.size();
+    }
+
+    /**
+     * Returns the number of updates written by the most recent flush.
+     * @return the last flush batch size
+     */
+    public int getLastFlushSize() {
+        return this.lastFlushSize;
+    }
+
+    /**
+     * Returns the longest duration that an update written by the most recent flush was pending.
+     * @return the last flush lag
+     */
+    public Duration getLastFlushLag() {
+        return Duration.ofNanos(this.lastFlushLag);
+    }
+
+    private static class PendingAccess {
+        private final Duration persisted;
+        private final Duration current;
+        private final long since;
+
+        PendingAccess(Duration persisted, Duration current, long since) {
+            this.persisted = persisted;
+            this.current = current;
+            this.since = since;
+        }
+
+        Duration getPersisted() {
+            return this.persisted;
+        }
+
+        Duration getCurrent() {
+            return this.current;
+        }
+
+        long getSince() {
+            return this.since;
+        }
+
+        /**
+         * Merges a pending update that failed to flush with a pending update recorded since.
+         * @param newer a pending update recorded after this update was removed for flushing
+         * @param failed the pending update that failed to flush
+         * @return the merged pending update
+         */
+        static PendingAccess merge(PendingAccess newer, PendingAccess failed) {
+            // The failed update was never written, so its persisted value still applies
+            Duration current = (newer.getCurrent().compareTo(failed.getCurrent()) >= 0) ? newer.getCurrent() : failed.getCurrent();
+            return new PendingAccess(failed.getPersisted(), current, Math.min(newer.getSince(), failed.getSince()));
+        }
+    }
+}
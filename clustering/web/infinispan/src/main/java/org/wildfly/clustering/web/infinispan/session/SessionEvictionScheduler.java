@@ -30,7 +30,7 @@ import org.wildfly.clustering.dispatcher.CommandDispatcherFactory;
 import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ee.infinispan.Evictor;
 import org.wildfly.clustering.ee.infinispan.TransactionBatch;
-import org.wildfly.clustering.infinispan.spi.distribution.Locality;
+import org.wildfly.clustering.infinispan.spi.distribution.SegmentIndex;
 import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
 import org.wildfly.clustering.web.session.ImmutableSessionMetaData;
 
@@ -46,8 +46,10 @@ public class SessionEvictionScheduler implements Scheduler, SessionEvictionConte
     private final Batcher<TransactionBatch> batcher;
     private final CommandDispatcher<SessionEvictionContext> dispatcher;
     private final int maxSize;
+    private final SegmentIndex<String> index;
 
-    public SessionEvictionScheduler(String name, Evictor<String> evictor, Batcher<TransactionBatch> batcher, CommandDispatcherFactory dispatcherFactory, int maxSize) {
+    public SessionEvictionScheduler(String name, Evictor<String> evictor, Batcher<TransactionBatch> batcher, CommandDispatcherFactory dispatcherFactory, int maxSize, SegmentIndex<String> index) {
+        this.index = index;
         this.evictor = evictor;
         this.batcher = batcher;
         this.dispatcher = dispatcherFactory.<SessionEvictionContext>createCommandDispatcher(name, this);
@@ -67,20 +69,26 @@ public class SessionEvictionScheduler implements Scheduler, SessionEvictionConte
     @Override
     public void cancel(String sessionId) {
         synchronized (this.evictionQueue) {
-            this.evictionQueue.remove(sessionId);
+            if (this.evictionQueue.remove(sessionId)) {
+                this.index.remove(sessionId);
+            }
         }
     }
 
     @Override
     public void schedule(String sessionId, ImmutableSessionMetaData metaData) {
         synchronized (this.evictionQueue) {
-            this.evictionQueue.add(sessionId);
+            if (this.evictionQueue.add(sessionId)) {
+                this.index.add(sessionId);
+            }
             // Trigger eviction of oldest session if necessary
             if (this.evictionQueue.size() > this.maxSize) {
                 Iterator<String> sessions = this.evictionQueue.iterator();
                 try {
-                    this.dispatcher.submitOnCluster(new SessionEvictionCommand(sessions.next()));
+                    String evictedSessionId = sessions.next();
+                    this.dispatcher.submitOnCluster(new SessionEvictionCommand(evictedSessionId));
                     sessions.remove();
+                    this.index.remove(evictedSessionId);
                 } catch (Exception e) {
                     InfinispanWebLogger.ROOT_LOGGER.failedToPassivateSession(e, sessionId);
                 }
@@ -89,15 +97,11 @@ public class SessionEvictionScheduler implements Scheduler, SessionEvictionConte
     }
 
     @Override
-    public void cancel(Locality locality) {
-        synchronized (this.evictionQueue) {
-            Iterator<String> sessions = this.evictionQueue.iterator();
-            while (sessions.hasNext()) {
-                if (Thread.currentThread().isInterrupted()) break;
-                String sessionId = sessions.next();
-                if (!locality.isLocal(sessionId)) {
-                    sessions.remove();
-                }
+    public void cancel(Set<Integer> segments) {
+        Set<String> sessionIds = this.index.remove(segments);
+        if (!sessionIds.isEmpty()) {
+            synchronized (this.evictionQueue) {
+                this.evictionQueue.removeAll(sessionIds);
             }
         }
     }
@@ -106,6 +110,7 @@ public class SessionEvictionScheduler implements Scheduler, SessionEvictionConte
     public void close() {
         synchronized (this.evictionQueue) {
             this.evictionQueue.clear();
+            this.index.clear();
         }
         this.dispatcher.close();
     }
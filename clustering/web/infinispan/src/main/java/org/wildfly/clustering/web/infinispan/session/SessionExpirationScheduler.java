@@ -25,38 +25,36 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 import org.jboss.threads.JBossThreadFactory;
-import org.wildfly.clustering.ee.Batch;
 import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ee.Remover;
+import org.wildfly.clustering.ee.infinispan.TimingWheelScheduler;
 import org.wildfly.clustering.ee.infinispan.TransactionBatch;
-import org.wildfly.clustering.infinispan.spi.distribution.Locality;
+import org.wildfly.clustering.infinispan.spi.distribution.SegmentIndex;
 import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
 import org.wildfly.clustering.web.session.ImmutableSessionMetaData;
 
 /**
  * Session expiration scheduler that eagerly expires sessions as soon as they are eligible.
  * If/When Infinispan implements expiration notifications (ISPN-694), this will be obsolete.
+ * Sessions are tracked via a hierarchical timing wheel, such that scheduling and canceling are O(1),
+ * and each expired session is removed within its own batch.
  * @author Paul Ferraro
  */
 public class SessionExpirationScheduler implements Scheduler {
 
-    final Map<String, Future<?>> expirationFutures = new ConcurrentHashMap<>();
-    final Batcher<TransactionBatch> batcher;
-    final Remover<String> remover;
+    private final TimingWheelScheduler<String> scheduler;
     private final ScheduledExecutorService executor;
+    private final SegmentIndex<String> index;
 
-    public SessionExpirationScheduler(Batcher<TransactionBatch> batcher, Remover<String> remover) {
-        this(batcher, remover, createScheduledExecutor(createThreadFactory()));
+    public SessionExpirationScheduler(Batcher<TransactionBatch> batcher, Remover<String> remover, SegmentIndex<String> index) {
+        this(batcher, remover, index, createScheduledExecutor(createThreadFactory()));
     }
 
     private static ThreadFactory createThreadFactory() {
@@ -75,18 +73,16 @@ public class SessionExpirationScheduler implements Scheduler {
         return executor;
     }
 
-    public SessionExpirationScheduler(Batcher<TransactionBatch> batcher, Remover<String> remover, ScheduledExecutorService executor) {
-        this.batcher = batcher;
-        this.remover = remover;
+    public SessionExpirationScheduler(Batcher<TransactionBatch> batcher, Remover<String> remover, SegmentIndex<String> index, ScheduledExecutorService executor) {
         this.executor = executor;
+        this.index = index;
+        this.scheduler = new TimingWheelScheduler<>(batcher, new ExpirationTask(remover, index), executor);
     }
 
     @Override
     public void cancel(String sessionId) {
-        Future<?> future = this.expirationFutures.remove(sessionId);
-        if (future != null) {
-            future.cancel(false);
-        }
+        this.scheduler.cancel(sessionId);
+        this.index.remove(sessionId);
     }
 
     @Override
@@ -94,63 +90,45 @@ public class SessionExpirationScheduler implements Scheduler {
         Duration maxInactiveInterval = metaData.getMaxInactiveInterval();
         if (!maxInactiveInterval.isZero()) {
             Instant lastAccessed = metaData.getLastAccessedTime();
-            Duration delay = Duration.between(Instant.now(), lastAccessed.plus(maxInactiveInterval));
-            Runnable task = new ExpirationTask(sessionId);
-            long seconds = !delay.isNegative() ? delay.getSeconds() + 1 : 0;
-            InfinispanWebLogger.ROOT_LOGGER.tracef("Session %s will expire in %d sec", sessionId, seconds);
-            synchronized (task) {
-                this.expirationFutures.put(sessionId, this.executor.schedule(task, seconds, TimeUnit.SECONDS));
-            }
+            // Pad delay by one tick, so that the session is guaranteed to be expired when the task executes
+            Duration delay = Duration.between(Instant.now(), lastAccessed.plus(maxInactiveInterval)).plus(TimingWheelScheduler.DEFAULT_TICK);
+            InfinispanWebLogger.ROOT_LOGGER.tracef("Session %s will expire in %d ms", sessionId, delay.toMillis());
+            this.index.add(sessionId);
+            this.scheduler.schedule(sessionId, delay);
         }
     }
 
     @Override
-    public void cancel(Locality locality) {
-        for (String sessionId : this.expirationFutures.keySet()) {
-            if (Thread.currentThread().isInterrupted()) break;
-            if (!locality.isLocal(sessionId)) {
-                this.cancel(sessionId);
-            }
-        }
+    public void cancel(Set<Integer> segments) {
+        this.scheduler.cancel(this.index.remove(segments));
     }
 
     @Override
     public void close() {
+        this.scheduler.close();
         this.executor.shutdown();
-        this.expirationFutures.values().forEach(future -> future.cancel(false));
-        this.expirationFutures.values().stream().filter(future -> !future.isDone()).forEach(future -> {
-            try {
-                future.get();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            } catch (ExecutionException e) {
-                // Ignore
-            }
-        });
-        this.expirationFutures.clear();
+        this.index.clear();
     }
 
-    private class ExpirationTask implements Runnable {
-        private final String id;
+    private static class ExpirationTask implements Predicate<String> {
+        private final Remover<String> remover;
+        private final SegmentIndex<String> index;
 
-        ExpirationTask(String id) {
-            this.id = id;
+        ExpirationTask(Remover<String> remover, SegmentIndex<String> index) {
+            this.remover = remover;
+            this.index = index;
         }
 
         @Override
-        public void run() {
-            InfinispanWebLogger.ROOT_LOGGER.tracef("Expiring session %s", this.id);
-            try (Batch batch = SessionExpirationScheduler.this.batcher.createBatch()) {
-                try {
-                    SessionExpirationScheduler.this.remover.remove(this.id);
-                } catch (Throwable e) {
-                    InfinispanWebLogger.ROOT_LOGGER.failedToExpireSession(e, this.id);
-                    batch.discard();
-                }
-            } finally {
-                synchronized (this) {
-                    SessionExpirationScheduler.this.expirationFutures.remove(this.id);
-                }
+        public boolean test(String id) {
+            InfinispanWebLogger.ROOT_LOGGER.tracef("Expiring session %s", id);
+            this.index.remove(id);
+            try {
+                this.remover.remove(id);
+                return true;
+            } catch (Throwable e) {
+                InfinispanWebLogger.ROOT_LOGGER.failedToExpireSession(e, id);
+                return false;
             }
         }
     }
@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.coarse;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.marshall.NotSerializableException;
+import org.infinispan.context.Flag;
+import org.wildfly.clustering.ee.infinispan.CacheProperties;
+import org.wildfly.clustering.marshalling.spi.Marshaller;
+import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
+import org.wildfly.clustering.web.infinispan.session.SessionAttributes;
+import org.wildfly.clustering.web.session.SessionAttributeImmutability;
+
+/**
+ * Exposes session attributes for a coarse granularity session that replicates only changed attributes.
+ * Changes are recorded during the request and written to the cache, as a single delta, on {@link #close()}.
+ * @author agent
+ * @param <V> the marshalled attribute value type
+ */
+public class DeltaSessionAttributes<V> extends CoarseImmutableSessionAttributes implements SessionAttributes {
+    private final SessionAttributesKey key;
+    private final Map<String, Object> attributes;
+    private final Set<String> updates = ConcurrentHashMap.newKeySet();
+    private final Set<String> removals = ConcurrentHashMap.newKeySet();
+    private final Cache<SessionAttributesKey, DeltaSessionAttributesEntry<V>> cache;
+    private final Marshaller<Object, V> marshaller;
+    private final CacheProperties properties;
+
+    public DeltaSessionAttributes(SessionAttributesKey key, Map<String, Object> attributes, Cache<SessionAttributesKey, DeltaSessionAttributesEntry<V>> cache, Marshaller<Object, V> marshaller, CacheProperties properties) {
+        super(attributes);
+        this.key = key;
+        this.attributes = attributes;
+        this.cache = cache;
+        this.marshaller = marshaller;
+        this.properties = properties;
+    }
+
+    @Override
+    public Object removeAttribute(String name) {
+        Object value = this.attributes.remove(name);
+        this.updates.remove(name);
+        this.removals.add(name);
+        return value;
+    }
+
+    @Override
+    public Object setAttribute(String name, Object value) {
+        if (value == null) {
+            return this.removeAttribute(name);
+        }
+        if (this.properties.isMarshalling() && !this.marshaller.isMarshallable(value)) {
+            throw new IllegalArgumentException(new NotSerializableException(value.getClass().getName()));
+        }
+        Object old = this.attributes.put(name, value);
+        this.removals.remove(name);
+        this.updates.add(name);
+        return old;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        Object value = this.attributes.get(name);
+        if (!SessionAttributeImmutability.INSTANCE.test(value)) {
+            this.updates.add(name);
+        }
+        return value;
+    }
+
+    @Override
+    public void close() {
+        if (this.updates.isEmpty() && this.removals.isEmpty()) return;
+
+        // Apply our changes to the current state of the entry, which may include changes from a concurrent request
+        DeltaSessionAttributesEntry<V> current = this.cache.get(this.key);
+        DeltaSessionAttributesEntry<V> entry;
+        if (current != null) {
+            Map<String, V> updates = new HashMap<>();
+            Set<String> removals = new HashSet<>(this.removals);
+            for (String name : this.updates) {
+                Object value = this.attributes.get(name);
+                if (value != null) {
+                    updates.put(name, this.marshaller.write(value));
+                } else {
+                    removals.add(name);
+                }
+            }
+            entry = current.apply(new SessionAttributesDelta<>(updates, removals));
+        } else {
+            // There is no entry to which to apply our delta, so write our complete state rather than lose our changes
+            InfinispanWebLogger.ROOT_LOGGER.missingSessionAttributesCacheEntry(this.key.getValue());
+            Map<String, V> attributes = new ConcurrentHashMap<>();
+            for (Map.Entry<String, Object> attribute : this.attributes.entrySet()) {
+                attributes.put(attribute.getKey(), this.marshaller.write(attribute.getValue()));
+            }
+            entry = new DeltaSessionAttributesEntry<>(attributes);
+        }
+        // Use FAIL_SILENTLY to prevent mutation from failing locally due to remote exceptions
+        this.cache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES, Flag.FAIL_SILENTLY).put(this.key, entry);
+        this.updates.clear();
+        this.removals.clear();
+    }
+}
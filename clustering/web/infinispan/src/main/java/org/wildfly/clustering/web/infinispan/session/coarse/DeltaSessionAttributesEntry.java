@@ -0,0 +1,94 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.coarse;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.infinispan.atomic.CopyableDeltaAware;
+import org.infinispan.atomic.Delta;
+
+/**
+ * Cache entry containing the individually marshalled attributes of a coarse granularity session.
+ * When written to the cache, only the changes applied by the current request (i.e. its {@link #delta()}) are replicated,
+ * while the entry itself is still stored as a single cache entry.
+ * @author agent
+ * @param <V> the marshalled attribute value type
+ */
+public class DeltaSessionAttributesEntry<V> implements CopyableDeltaAware {
+
+    private final Map<String, V> attributes;
+    private final SessionAttributesDelta<V> delta;
+
+    public DeltaSessionAttributesEntry() {
+        this(new ConcurrentHashMap<>(), null);
+    }
+
+    public DeltaSessionAttributesEntry(Map<String, V> attributes) {
+        this(attributes, null);
+    }
+
+    private DeltaSessionAttributesEntry(Map<String, V> attributes, SessionAttributesDelta<V> delta) {
+        this.attributes = attributes;
+        this.delta = delta;
+    }
+
+    /**
+     * Returns the marshalled attributes of this entry.
+     * @return a map of attribute name to marshalled attribute value
+     */
+    public Map<String, V> getAttributes() {
+        return this.attributes;
+    }
+
+    /**
+     * Creates a copy of this entry with the specified delta applied, whose replication will only transmit the specified delta.
+     * @param delta a delta
+     * @return a new entry
+     */
+    public DeltaSessionAttributesEntry<V> apply(SessionAttributesDelta<V> delta) {
+        Map<String, V> attributes = new ConcurrentHashMap<>(this.attributes);
+        delta.applyTo(attributes);
+        return new DeltaSessionAttributesEntry<>(attributes, delta);
+    }
+
+    @Override
+    public Delta delta() {
+        // An entry without a delta (e.g. newly created) replicates its complete state
+        return (this.delta != null) ? this.delta : new SessionAttributesDelta<>(this.attributes);
+    }
+
+    @Override
+    public void commit() {
+        // Entries are never modified in place, so there is nothing to reset
+    }
+
+    @Override
+    public DeltaSessionAttributesEntry<V> copy() {
+        return new DeltaSessionAttributesEntry<>(new ConcurrentHashMap<>(this.attributes));
+    }
+
+    @Override
+    public String toString() {
+        return this.attributes.keySet().toString();
+    }
+}
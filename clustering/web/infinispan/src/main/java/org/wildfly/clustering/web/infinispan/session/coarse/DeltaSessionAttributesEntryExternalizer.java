@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.coarse;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.kohsuke.MetaInfServices;
+import org.wildfly.clustering.marshalling.Externalizer;
+import org.wildfly.clustering.marshalling.spi.IndexExternalizer;
+
+/**
+ * Externalizer for the complete state of a {@link DeltaSessionAttributesEntry}.
+ * @author agent
+ */
+@MetaInfServices(Externalizer.class)
+public class DeltaSessionAttributesEntryExternalizer<V> implements Externalizer<DeltaSessionAttributesEntry<V>> {
+
+    @Override
+    public void writeObject(ObjectOutput output, DeltaSessionAttributesEntry<V> entry) throws IOException {
+        writeAttributes(output, entry.getAttributes());
+    }
+
+    @Override
+    public DeltaSessionAttributesEntry<V> readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+        return new DeltaSessionAttributesEntry<>(readAttributes(input));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Class<DeltaSessionAttributesEntry<V>> getTargetClass() {
+        return (Class<DeltaSessionAttributesEntry<V>>) (Class<?>) DeltaSessionAttributesEntry.class;
+    }
+
+    static <V> void writeAttributes(ObjectOutput output, Map<String, V> attributes) throws IOException {
+        IndexExternalizer.VARIABLE.writeData(output, attributes.size());
+        for (Map.Entry<String, V> entry : attributes.entrySet()) {
+            output.writeUTF(entry.getKey());
+            output.writeObject(entry.getValue());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> Map<String, V> readAttributes(ObjectInput input) throws IOException, ClassNotFoundException {
+        int size = IndexExternalizer.VARIABLE.readData(input);
+        Map<String, V> attributes = new ConcurrentHashMap<>(size);
+        for (int i = 0; i < size; ++i) {
+            attributes.put(input.readUTF(), (V) input.readObject());
+        }
+        return attributes;
+    }
+}
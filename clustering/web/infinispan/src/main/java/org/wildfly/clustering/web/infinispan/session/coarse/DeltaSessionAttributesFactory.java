@@ -0,0 +1,106 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.coarse;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.wildfly.clustering.ee.infinispan.CacheProperties;
+import org.wildfly.clustering.marshalling.spi.InvalidSerializedFormException;
+import org.wildfly.clustering.marshalling.spi.Marshaller;
+import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
+import org.wildfly.clustering.web.infinispan.session.SessionAttributes;
+import org.wildfly.clustering.web.infinispan.session.SessionAttributesFactory;
+import org.wildfly.clustering.web.session.ImmutableSessionAttributes;
+
+/**
+ * {@link SessionAttributesFactory} for coarse granularity sessions, where all session attributes are stored in a single cache entry,
+ * but where each attribute is marshalled individually, such that only modified attributes are replicated.
+ * Unlike {@link CoarseSessionAttributesFactory}, object references shared between attributes are not preserved.
+ * @author agent
+ */
+public class DeltaSessionAttributesFactory<V> implements SessionAttributesFactory<Map.Entry<Map<String, Object>, DeltaSessionAttributesEntry<V>>> {
+
+    private final Cache<SessionAttributesKey, DeltaSessionAttributesEntry<V>> cache;
+    private final Marshaller<Object, V> marshaller;
+    private final CacheProperties properties;
+
+    public DeltaSessionAttributesFactory(Cache<SessionAttributesKey, DeltaSessionAttributesEntry<V>> cache, Marshaller<Object, V> marshaller, CacheProperties properties) {
+        this.cache = cache;
+        this.marshaller = marshaller;
+        this.properties = properties;
+    }
+
+    @Override
+    public Map.Entry<Map<String, Object>, DeltaSessionAttributesEntry<V>> createValue(String id, Void context) {
+        Map<String, Object> attributes = this.properties.isLockOnRead() ? new HashMap<>() : new ConcurrentHashMap<>();
+        DeltaSessionAttributesEntry<V> entry = new DeltaSessionAttributesEntry<>();
+        this.cache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES).put(new SessionAttributesKey(id), entry);
+        return new SimpleImmutableEntry<>(attributes, entry);
+    }
+
+    @Override
+    public Map.Entry<Map<String, Object>, DeltaSessionAttributesEntry<V>> findValue(String id) {
+        DeltaSessionAttributesEntry<V> entry = this.cache.get(new SessionAttributesKey(id));
+        if (entry != null) {
+            Map<String, V> values = entry.getAttributes();
+            Map<String, Object> attributes = this.properties.isLockOnRead() ? new HashMap<>(values.size()) : new ConcurrentHashMap<>(values.size());
+            for (Map.Entry<String, V> value : values.entrySet()) {
+                try {
+                    attributes.put(value.getKey(), this.marshaller.read(value.getValue()));
+                } catch (InvalidSerializedFormException e) {
+                    InfinispanWebLogger.ROOT_LOGGER.failedToActivateSessionAttribute(e, id, value.getKey());
+                    this.remove(id);
+                    return null;
+                }
+            }
+            return new SimpleImmutableEntry<>(attributes, entry);
+        }
+        return null;
+    }
+
+    @Override
+    public boolean remove(String id) {
+        this.cache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES).remove(new SessionAttributesKey(id));
+        return true;
+    }
+
+    @Override
+    public boolean evict(String id) {
+        this.cache.evict(new SessionAttributesKey(id));
+        return true;
+    }
+
+    @Override
+    public SessionAttributes createSessionAttributes(String id, Map.Entry<Map<String, Object>, DeltaSessionAttributesEntry<V>> entry) {
+        return new DeltaSessionAttributes<>(new SessionAttributesKey(id), entry.getKey(), this.cache, this.marshaller, this.properties);
+    }
+
+    @Override
+    public ImmutableSessionAttributes createImmutableSessionAttributes(String id, Map.Entry<Map<String, Object>, DeltaSessionAttributesEntry<V>> entry) {
+        return new CoarseImmutableSessionAttributes(entry.getKey());
+    }
+}
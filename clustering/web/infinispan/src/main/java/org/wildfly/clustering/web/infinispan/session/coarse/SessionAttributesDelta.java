@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.coarse;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import org.infinispan.atomic.Delta;
+import org.infinispan.atomic.DeltaAware;
+
+/**
+ * The changes made to the attributes of a coarse granularity session by a single request.
+ * A delta either replaces the existing attributes entirely, or updates and removes specific attributes.
+ * @author agent
+ * @param <V> the marshalled attribute value type
+ */
+public class SessionAttributesDelta<V> implements Delta {
+
+    private final boolean replace;
+    private final Map<String, V> updates;
+    private final Set<String> removals;
+
+    /**
+     * Creates a delta that replaces all existing attributes with the specified attributes.
+     * @param attributes the complete set of marshalled attributes
+     */
+    public SessionAttributesDelta(Map<String, V> attributes) {
+        this(true, attributes, Collections.emptySet());
+    }
+
+    /**
+     * Creates a delta that updates and removes the specified attributes.
+     * @param updates the marshalled values of added or modified attributes
+     * @param removals the names of removed attributes
+     */
+    public SessionAttributesDelta(Map<String, V> updates, Set<String> removals) {
+        this(false, updates, removals);
+    }
+
+    SessionAttributesDelta(boolean replace, Map<String, V> updates, Set<String> removals) {
+        this.replace = replace;
+        this.updates = updates;
+        this.removals = removals;
+    }
+
+    boolean isReplace() {
+        return this.replace;
+    }
+
+    Map<String, V> getUpdates() {
+        return this.updates;
+    }
+
+    Set<String> getRemovals() {
+        return this.removals;
+    }
+
+    void applyTo(Map<String, V> attributes) {
+        if (this.replace) {
+            attributes.clear();
+        } else {
+            attributes.keySet().removeAll(this.removals);
+        }
+        attributes.putAll(this.updates);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public DeltaAware merge(DeltaAware existing) {
+        // Infinispan already copies an existing CopyableDeltaAware entry prior to merging
+        DeltaSessionAttributesEntry<V> entry = (existing instanceof DeltaSessionAttributesEntry) ? (DeltaSessionAttributesEntry<V>) existing : new DeltaSessionAttributesEntry<>();
+        this.applyTo(entry.getAttributes());
+        return entry;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{ replace = %s, updates = %s, removals = %s }", this.replace, this.updates.keySet(), this.removals);
+    }
+}
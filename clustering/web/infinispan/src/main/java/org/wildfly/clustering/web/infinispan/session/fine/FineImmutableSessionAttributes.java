@@ -37,12 +37,14 @@ import org.wildfly.clustering.web.session.ImmutableSessionAttributes;
 public class FineImmutableSessionAttributes<V> implements ImmutableSessionAttributes {
     private final String id;
     private final Map<String, Integer> names;
+    private final PrefetchedSessionAttributes<V> attributes;
     private final Cache<SessionAttributeKey, V> cache;
     private final Marshaller<Object, V> marshaller;
 
-    public FineImmutableSessionAttributes(String id, Map<String, Integer> names, Cache<SessionAttributeKey, V> attributeCache, Marshaller<Object, V> marshaller) {
+    public FineImmutableSessionAttributes(String id, Map<String, Integer> names, PrefetchedSessionAttributes<V> attributes, Cache<SessionAttributeKey, V> attributeCache, Marshaller<Object, V> marshaller) {
         this.id = id;
         this.names = names;
+        this.attributes = attributes;
         this.cache = attributeCache;
         this.marshaller = marshaller;
     }
@@ -55,7 +57,16 @@ public class FineImmutableSessionAttributes<V> implements ImmutableSessionAttrib
     @Override
     public Object getAttribute(String name) {
         Integer attributeId = this.names.get(name);
-        return (attributeId != null) ? this.read(name, this.cache.get(this.createKey(attributeId))) : null;
+        return (attributeId != null) ? this.read(name, this.getValue(this.createKey(attributeId))) : null;
+    }
+
+    /**
+     * Returns the value of the specified attribute, preferring any value prefetched or previously retrieved during this request.
+     * @param key an attribute key
+     * @return the attribute value, or null, if no such attribute exists
+     */
+    protected V getValue(SessionAttributeKey key) {
+        return this.attributes.getValue(key, this.cache::get);
     }
 
     protected SessionAttributeKey createKey(int attributeId) {
@@ -66,8 +77,9 @@ public class FineImmutableSessionAttributes<V> implements ImmutableSessionAttrib
         try {
             return this.marshaller.read(value);
         } catch (InvalidSerializedFormException e) {
-            // This should not happen here, since attributes were pre-activated during FineSessionFactory.findValue(...)
-            throw InfinispanWebLogger.ROOT_LOGGER.failedToReadSessionAttribute(e, this.id, name);
+            // Attributes are deserialized lazily, so an incompatible attribute (e.g. following redeployment) is only detected upon access
+            InfinispanWebLogger.ROOT_LOGGER.failedToActivateSessionAttribute(e, this.id, name);
+            return null;
         }
     }
 }
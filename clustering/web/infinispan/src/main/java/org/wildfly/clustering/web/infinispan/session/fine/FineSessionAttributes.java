@@ -44,16 +44,18 @@ public class FineSessionAttributes<V> extends FineImmutableSessionAttributes<V>
     private final AtomicInteger sequence;
     private final ConcurrentMap<String, Integer> names;
     private final Mutator namesMutator;
+    private final PrefetchedSessionAttributes<V> attributes;
     private final Cache<SessionAttributeKey, V> cache;
     private final Map<String, Mutator> mutations = new ConcurrentHashMap<>();
     private final Marshaller<Object, V> marshaller;
     private final CacheProperties properties;
 
-    public FineSessionAttributes(String id, AtomicInteger sequence, ConcurrentMap<String, Integer> names, Mutator namesMutator, Cache<SessionAttributeKey, V> cache, Marshaller<Object, V> marshaller, CacheProperties properties) {
-        super(id, names, cache, marshaller);
+    public FineSessionAttributes(String id, AtomicInteger sequence, ConcurrentMap<String, Integer> names, Mutator namesMutator, PrefetchedSessionAttributes<V> attributes, Cache<SessionAttributeKey, V> cache, Marshaller<Object, V> marshaller, CacheProperties properties) {
+        super(id, names, attributes, cache, marshaller);
         this.sequence = sequence;
         this.names = names;
         this.namesMutator = namesMutator;
+        this.attributes = attributes;
         this.cache = cache;
         this.marshaller = marshaller;
         this.properties = properties;
@@ -66,6 +68,7 @@ public class FineSessionAttributes<V> extends FineImmutableSessionAttributes<V>
         this.namesMutator.mutate();
         SessionAttributeKey key = this.createKey(attributeId);
         Object result = this.read(name, this.cache.getAdvancedCache().withFlags(Flag.FORCE_SYNCHRONOUS).remove(key));
+        this.attributes.setValue(key, null);
         this.mutations.remove(name);
         return result;
     }
@@ -86,6 +89,7 @@ public class FineSessionAttributes<V> extends FineImmutableSessionAttributes<V>
         }
         SessionAttributeKey key = this.createKey(attributeId);
         Object result = this.read(name, this.cache.getAdvancedCache().withFlags(Flag.FORCE_SYNCHRONOUS).put(key, value));
+        this.attributes.setValue(key, value);
         this.mutations.remove(name);
         return result;
     }
@@ -95,7 +99,7 @@ public class FineSessionAttributes<V> extends FineImmutableSessionAttributes<V>
         Integer attributeId = this.names.get(name);
         if (attributeId == null) return null;
         SessionAttributeKey key = this.createKey(attributeId);
-        V value = this.cache.get(key);
+        V value = this.getValue(key);
         Object attribute = this.read(name, value);
         if (attribute != null) {
             // If the object is mutable, we need to indicate that the attribute should be replicated
@@ -22,12 +22,10 @@
 
 package org.wildfly.clustering.web.infinispan.session.fine;
 
-import java.util.AbstractMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.infinispan.Cache;
@@ -35,7 +33,6 @@ import org.infinispan.context.Flag;
 import org.wildfly.clustering.ee.Mutator;
 import org.wildfly.clustering.ee.infinispan.CacheEntryMutator;
 import org.wildfly.clustering.ee.infinispan.CacheProperties;
-import org.wildfly.clustering.marshalling.spi.InvalidSerializedFormException;
 import org.wildfly.clustering.marshalling.spi.Marshaller;
 import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
 import org.wildfly.clustering.web.infinispan.session.SessionAttributes;
@@ -46,9 +43,10 @@ import org.wildfly.clustering.web.session.ImmutableSessionAttributes;
  * {@link SessionAttributesFactory} for fine granularity sessions.
  * A given session's attributes are mapped to N+1 co-located cache entries, where N is the number of session attributes.
  * A separate cache entry stores the activate attribute names for the session.
+ * All attribute entries of a session are prefetched via a single bulk read, but are only deserialized upon first access.
  * @author Paul Ferraro
  */
-public class FineSessionAttributesFactory<V> implements SessionAttributesFactory<SessionAttributeNamesEntry> {
+public class FineSessionAttributesFactory<V> implements SessionAttributesFactory<PrefetchedSessionAttributes<V>> {
 
     private final Cache<SessionAttributeNamesKey, SessionAttributeNamesEntry> namesCache;
     private final Cache<SessionAttributeKey, V> attributeCache;
@@ -63,39 +61,29 @@ public class FineSessionAttributesFactory<V> implements SessionAttributesFactory
     }
 
     @Override
-    public SessionAttributeNamesEntry createValue(String id, Void context) {
+    public PrefetchedSessionAttributes<V> createValue(String id, Void context) {
         SessionAttributeNamesEntry entry = new SessionAttributeNamesEntry(new AtomicInteger(), new ConcurrentHashMap<>());
         this.namesCache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES).put(new SessionAttributeNamesKey(id), entry);
-        return entry;
+        return new PrefetchedSessionAttributes<>(entry);
     }
 
     @Override
-    public SessionAttributeNamesEntry findValue(String id) {
+    public PrefetchedSessionAttributes<V> findValue(String id) {
         SessionAttributeNamesEntry entry = this.namesCache.get(new SessionAttributeNamesKey(id));
-        if (entry != null) {
-            ConcurrentMap<String, Integer> names = entry.getNames();
-            Map<SessionAttributeKey, V> attributes = this.attributeCache.getAdvancedCache().getAll(names.values().stream().map(attributeId -> new SessionAttributeKey(id, attributeId)).collect(Collectors.toSet()));
-            Predicate<Map.Entry<String, V>> invalidAttribute = attribute -> {
-                V value = attribute.getValue();
-                if (value == null) {
-                    InfinispanWebLogger.ROOT_LOGGER.missingSessionAttributeCacheEntry(id, attribute.getKey());
-                    return true;
-                }
-                try {
-                    this.marshaller.read(attribute.getValue());
-                    return false;
-                } catch (InvalidSerializedFormException e) {
-                    InfinispanWebLogger.ROOT_LOGGER.failedToActivateSessionAttribute(e, id, attribute.getKey());
-                    return true;
-                }
-            };
-            if (names.entrySet().stream().map(name -> new AbstractMap.SimpleImmutableEntry<>(name.getKey(), attributes.get(new SessionAttributeKey(id, name.getValue())))).anyMatch(invalidAttribute)) {
-                // If any attributes are invalid - remove them all
+        if (entry == null) return null;
+        ConcurrentMap<String, Integer> names = entry.getNames();
+        if (names.isEmpty()) return new PrefetchedSessionAttributes<>(entry);
+        // Warm up all attributes of this session via a single bulk read - deserialization is deferred until first access
+        Map<SessionAttributeKey, V> values = this.attributeCache.getAdvancedCache().getAll(names.values().stream().map(attributeId -> new SessionAttributeKey(id, attributeId)).collect(Collectors.toSet()));
+        for (Map.Entry<String, Integer> name : names.entrySet()) {
+            if (values.get(new SessionAttributeKey(id, name.getValue())) == null) {
+                InfinispanWebLogger.ROOT_LOGGER.missingSessionAttributeCacheEntry(id, name.getKey());
+                // If any attributes are missing - remove them all
                 this.remove(id);
                 return null;
             }
         }
-        return entry;
+        return new PrefetchedSessionAttributes<>(entry, values);
     }
 
     @Override
@@ -124,14 +112,15 @@ public class FineSessionAttributesFactory<V> implements SessionAttributesFactory
     }
 
     @Override
-    public SessionAttributes createSessionAttributes(String id, SessionAttributeNamesEntry entry) {
+    public SessionAttributes createSessionAttributes(String id, PrefetchedSessionAttributes<V> attributes) {
         SessionAttributeNamesKey key = new SessionAttributeNamesKey(id);
+        SessionAttributeNamesEntry entry = attributes.getEntry();
         Mutator mutator = this.properties.isTransactional() && this.namesCache.getAdvancedCache().getCacheEntry(key).isCreated() ? Mutator.PASSIVE : new CacheEntryMutator<>(this.namesCache, key, entry);
-        return new FineSessionAttributes<>(id, entry.getSequence(), entry.getNames(), mutator, this.attributeCache, this.marshaller, this.properties);
+        return new FineSessionAttributes<>(id, entry.getSequence(), entry.getNames(), mutator, attributes, this.attributeCache, this.marshaller, this.properties);
     }
 
     @Override
-    public ImmutableSessionAttributes createImmutableSessionAttributes(String id, SessionAttributeNamesEntry entry) {
-        return new FineImmutableSessionAttributes<>(id, entry.getNames(), this.attributeCache, this.marshaller);
+    public ImmutableSessionAttributes createImmutableSessionAttributes(String id, PrefetchedSessionAttributes<V> attributes) {
+        return new FineImmutableSessionAttributes<>(id, attributes.getEntry().getNames(), attributes, this.attributeCache, this.marshaller);
     }
 }
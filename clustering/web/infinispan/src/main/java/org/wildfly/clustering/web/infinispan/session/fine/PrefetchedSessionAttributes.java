@@ -0,0 +1,87 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.web.infinispan.session.fine;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The attribute names entry of a session, along with the attribute values prefetched with it.
+ * Prefetched values are retained for the duration of the request, so that each attribute is retrieved from the cache at most once.
+ * Since a marshalled value retains its deserialized form, each attribute is also deserialized at most once, upon first access.
+ * @author agent
+ * @param <V> the attribute value type
+ */
+public class PrefetchedSessionAttributes<V> {
+    private final SessionAttributeNamesEntry entry;
+    private final Map<SessionAttributeKey, V> values;
+
+    public PrefetchedSessionAttributes(SessionAttributeNamesEntry entry) {
+        this(entry, Collections.emptyMap());
+    }
+
+    public PrefetchedSessionAttributes(SessionAttributeNamesEntry entry, Map<SessionAttributeKey, V> values) {
+        this.entry = entry;
+        this.values = new ConcurrentHashMap<>(values);
+    }
+
+    public SessionAttributeNamesEntry getEntry() {
+        return this.entry;
+    }
+
+    /**
+     * Returns the value of the specified attribute, retrieving it via the specified function if it was not prefetched.
+     * @param key an attribute key
+     * @param loader a function used to retrieve a value that was not prefetched
+     * @return the attribute value, or null, if no such attribute exists
+     */
+    public V getValue(SessionAttributeKey key, Function<SessionAttributeKey, V> loader) {
+        V value = this.values.get(key);
+        if (value == null) {
+            // Load outside of any map lock, since the loader may perform a remote cache read
+            value = loader.apply(key);
+            if (value != null) {
+                V existing = this.values.putIfAbsent(key, value);
+                if (existing != null) {
+                    return existing;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Updates the retained value of the specified attribute.
+     * @param key an attribute key
+     * @param value the new attribute value, or null, if the attribute was removed
+     */
+    public void setValue(SessionAttributeKey key, V value) {
+        if (value != null) {
+            this.values.put(key, value);
+        } else {
+            this.values.remove(key);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.commons.CacheException;
+import org.infinispan.context.Flag;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.wildfly.clustering.ee.Batcher;
+import org.wildfly.clustering.ee.infinispan.TransactionBatch;
+
+/**
+ * Unit test for {@link SessionAccessMetaDataCoalescer}.
+ * @author agent
+ */
+public class SessionAccessMetaDataCoalescerTestCase {
+
+    private final Cache<SessionAccessMetaDataKey, SessionAccessMetaData> cache = mock(Cache.class);
+    private final AdvancedCache<SessionAccessMetaDataKey, SessionAccessMetaData> advancedCache = mock(AdvancedCache.class);
+    private final Batcher<TransactionBatch> batcher = mock(Batcher.class);
+    private final TransactionBatch batch = mock(TransactionBatch.class);
+
+    private SessionAccessMetaDataCoalescer createCoalescer() {
+        when(this.cache.getAdvancedCache()).thenReturn(this.advancedCache);
+        when(this.advancedCache.withFlags(Flag.IGNORE_RETURN_VALUES)).thenReturn(this.advancedCache);
+        when(this.batcher.createBatch()).thenReturn(this.batch);
+        return new SessionAccessMetaDataCoalescer(this.cache, this.batcher, Duration.ofMinutes(1L), 0.1f, 2);
+    }
+
+    @Test
+    public void defer() {
+        SessionAccessMetaDataCoalescer coalescer = this.createCoalescer();
+        SessionAccessMetaDataKey key = new SessionAccessMetaDataKey("session");
+        Duration maxInactiveInterval = Duration.ofSeconds(100L);
+
+        assertTrue(coalescer.defer(key, Duration.ZERO, Duration.ofSeconds(5L), maxInactiveInterval));
+        assertTrue(coalescer.defer(key, Duration.ofSeconds(5L), Duration.ofSeconds(9L), maxInactiveInterval));
+        assertEquals(1, coalescer.getPendingCount());
+
+        // Drift is measured relative to the last written value, not the last deferred value
+        assertFalse(coalescer.defer(key, Duration.ofSeconds(9L), Duration.ofSeconds(10L), maxInactiveInterval));
+        assertEquals(0, coalescer.getPendingCount());
+
+        // Immortal sessions never exceed the max drift
+        assertTrue(coalescer.defer(key, Duration.ZERO, Duration.ofDays(1L), Duration.ZERO));
+    }
+
+    @Test
+    public void resolve() {
+        SessionAccessMetaDataCoalescer coalescer = this.createCoalescer();
+        SessionAccessMetaDataKey key = new SessionAccessMetaDataKey("session");
+        SessionAccessMetaData metaData = new SimpleSessionAccessMetaData();
+        metaData.setLastAccessedDuration(Duration.ofSeconds(1L));
+
+        assertSame(metaData, coalescer.resolve(key, metaData));
+
+        coalescer.defer(key, Duration.ofSeconds(1L), Duration.ofSeconds(2L), Duration.ofMinutes(30L));
+        assertEquals(Duration.ofSeconds(2L), coalescer.resolve(key, metaData).getLastAccessedDuration());
+
+        coalescer.cancel(key);
+        assertSame(metaData, coalescer.resolve(key, metaData));
+    }
+
+    @Test
+    public void flush() {
+        SessionAccessMetaDataCoalescer coalescer = this.createCoalescer();
+        SessionAccessMetaDataKey key1 = new SessionAccessMetaDataKey("session1");
+        SessionAccessMetaDataKey key2 = new SessionAccessMetaDataKey("session2");
+        SessionAccessMetaDataKey key3 = new SessionAccessMetaDataKey("session3");
+        SessionAccessMetaDataKey canceledKey = new SessionAccessMetaDataKey("canceled");
+        Duration maxInactiveInterval = Duration.ofMinutes(30L);
+
+        coalescer.defer(key1, Duration.ZERO, Duration.ofSeconds(1L), maxInactiveInterval);
+        coalescer.defer(key2, Duration.ZERO, Duration.ofSeconds(2L), maxInactiveInterval);
+        coalescer.defer(key3, Duration.ZERO, Duration.ofSeconds(3L), maxInactiveInterval);
+        coalescer.defer(canceledKey, Duration.ZERO, Duration.ofSeconds(4L), maxInactiveInterval);
+        coalescer.cancel(canceledKey);
+
+        coalescer.run();
+
+        ArgumentCaptor<SessionAccessMetaData> captor = ArgumentCaptor.forClass(SessionAccessMetaData.class);
+        verify(this.advancedCache).replace(eq(key1), captor.capture());
+        verify(this.advancedCache).replace(eq(key2), captor.capture());
+        verify(this.advancedCache).replace(eq(key3), captor.capture());
+        assertEquals(Duration.ofSeconds(1L), captor.getAllValues().get(0).getLastAccessedDuration());
+        assertEquals(Duration.ofSeconds(2L), captor.getAllValues().get(1).getLastAccessedDuration());
+        assertEquals(Duration.ofSeconds(3L), captor.getAllValues().get(2).getLastAccessedDuration());
+        verify(this.advancedCache, never()).replace(eq(canceledKey), any(SessionAccessMetaData.class));
+
+        assertEquals(0, coalescer.getPendingCount());
+        assertEquals(3, coalescer.getLastFlushSize());
+    }
+
+    @Test
+    public void failedFlush() {
+        SessionAccessMetaDataCoalescer coalescer = this.createCoalescer();
+        SessionAccessMetaDataKey key = new SessionAccessMetaDataKey("session");
+        Duration maxInactiveInterval = Duration.ofMinutes(30L);
+
+        coalescer.defer(key, Duration.ZERO, Duration.ofSeconds(1L), maxInactiveInterval);
+
+        doThrow(new CacheException()).when(this.batch).close();
+
+        coalescer.run();
+
+        // Failed updates must be retried by the next flush
+        assertEquals(1, coalescer.getPendingCount());
+
+        SessionAccessMetaData metaData = new SimpleSessionAccessMetaData();
+        metaData.setLastAccessedDuration(Duration.ZERO);
+        assertEquals(Duration.ofSeconds(1L), coalescer.resolve(key, metaData).getLastAccessedDuration());
+
+        // Drift is still measured relative to the last successfully written value
+        assertFalse(coalescer.defer(key, Duration.ZERO, Duration.ofMinutes(3L), maxInactiveInterval));
+    }
+}
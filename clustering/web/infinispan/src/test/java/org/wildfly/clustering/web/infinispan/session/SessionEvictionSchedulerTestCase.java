@@ -37,6 +37,7 @@ import org.wildfly.clustering.dispatcher.CommandDispatcherFactory;
 import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ee.infinispan.Evictor;
 import org.wildfly.clustering.ee.infinispan.TransactionBatch;
+import org.wildfly.clustering.infinispan.spi.distribution.SegmentIndex;
 import org.wildfly.clustering.web.session.ImmutableSessionMetaData;
 
 /**
@@ -63,7 +64,7 @@ public class SessionEvictionSchedulerTestCase {
 
         when(dispatcherFactory.createCommandDispatcher(same(name), capturedContext.capture())).thenReturn(dispatcher);
 
-        try (Scheduler scheduler = new SessionEvictionScheduler(name, evictor, batcher, dispatcherFactory, 1)) {
+        try (Scheduler scheduler = new SessionEvictionScheduler(name, evictor, batcher, dispatcherFactory, 1, new SegmentIndex<>(id -> 0))) {
             SessionEvictionContext context = capturedContext.getValue();
 
             assertSame(scheduler, context);
@@ -34,6 +34,7 @@ import org.junit.Test;
 import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ee.Remover;
 import org.wildfly.clustering.ee.infinispan.TransactionBatch;
+import org.wildfly.clustering.infinispan.spi.distribution.SegmentIndex;
 import org.wildfly.clustering.web.session.ImmutableSessionMetaData;
 
 /**
@@ -64,7 +65,7 @@ public class SessionExpirationSchedulerTestCase {
         when(expiringSessionMetaData.getLastAccessedTime()).thenReturn(now);
         when(canceledSessionMetaData.getLastAccessedTime()).thenReturn(now);
 
-        try (Scheduler scheduler = new SessionExpirationScheduler(batcher, remover)) {
+        try (Scheduler scheduler = new SessionExpirationScheduler(batcher, remover, new SegmentIndex<>(id -> 0))) {
             scheduler.schedule(immortalSessionId, immortalSessionMetaData);
             scheduler.schedule(canceledSessionId, canceledSessionMetaData);
             scheduler.schedule(expiringSessionId, expiringSessionMetaData);
@@ -0,0 +1,65 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.coarse;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.infinispan.atomic.DeltaAware;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link SessionAttributesDelta}.
+ * @author agent
+ */
+public class SessionAttributesDeltaTestCase {
+
+    @Test
+    public void merge() {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("a", "1");
+        attributes.put("b", "2");
+        DeltaSessionAttributesEntry<String> entry = new DeltaSessionAttributesEntry<>(attributes);
+
+        // An entry without a delta replicates its complete state
+        DeltaAware replica = ((SessionAttributesDelta<?>) entry.delta()).merge(null);
+        assertTrue(replica instanceof DeltaSessionAttributesEntry);
+        assertEquals(attributes, ((DeltaSessionAttributesEntry<?>) replica).getAttributes());
+
+        DeltaSessionAttributesEntry<String> updated = entry.apply(new SessionAttributesDelta<>(Collections.singletonMap("c", "3"), Collections.singleton("a")));
+        // Original entry must not be modified
+        assertEquals(attributes, entry.getAttributes());
+        assertEquals(2, updated.getAttributes().size());
+        assertEquals("2", updated.getAttributes().get("b"));
+        assertEquals("3", updated.getAttributes().get("c"));
+
+        // Only the delta is applied to the replica
+        SessionAttributesDelta<?> delta = (SessionAttributesDelta<?>) updated.delta();
+        assertFalse(delta.isReplace());
+        assertEquals(Collections.singleton("c"), delta.getUpdates().keySet());
+        DeltaSessionAttributesEntry<?> merged = (DeltaSessionAttributesEntry<?>) delta.merge(((DeltaSessionAttributesEntry<?>) replica).copy());
+        assertEquals(updated.getAttributes(), merged.getAttributes());
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.fine;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.junit.Test;
+import org.wildfly.clustering.ee.infinispan.CacheProperties;
+import org.wildfly.clustering.marshalling.spi.InvalidSerializedFormException;
+import org.wildfly.clustering.marshalling.spi.Marshaller;
+import org.wildfly.clustering.web.session.ImmutableSessionAttributes;
+
+/**
+ * Unit test for {@link FineSessionAttributesFactory}.
+ * @author agent
+ */
+public class FineSessionAttributesFactoryTestCase {
+
+    private final Cache<SessionAttributeNamesKey, SessionAttributeNamesEntry> namesCache = mock(Cache.class);
+    private final Cache<SessionAttributeKey, Object> attributeCache = mock(Cache.class);
+    private final AdvancedCache<SessionAttributeKey, Object> advancedAttributeCache = mock(AdvancedCache.class);
+    private final Marshaller<Object, Object> marshaller = mock(Marshaller.class);
+    private final CacheProperties properties = mock(CacheProperties.class);
+
+    private final FineSessionAttributesFactory<Object> factory = new FineSessionAttributesFactory<>(this.namesCache, this.attributeCache, this.marshaller, this.properties);
+
+    @Test
+    public void findValue() throws InvalidSerializedFormException {
+        String id = "session";
+        ConcurrentMap<String, Integer> names = new ConcurrentHashMap<>();
+        names.put("foo", 1);
+        names.put("bar", 2);
+        SessionAttributeNamesEntry entry = new SessionAttributeNamesEntry(new AtomicInteger(2), names);
+        SessionAttributeKey fooKey = new SessionAttributeKey(id, 1);
+        SessionAttributeKey barKey = new SessionAttributeKey(id, 2);
+        Object fooValue = new Object();
+        Object barValue = new Object();
+        Object foo = new Object();
+        Map<SessionAttributeKey, Object> values = new HashMap<>();
+        values.put(fooKey, fooValue);
+        values.put(barKey, barValue);
+
+        when(this.namesCache.get(new SessionAttributeNamesKey(id))).thenReturn(entry);
+        when(this.attributeCache.getAdvancedCache()).thenReturn(this.advancedAttributeCache);
+        when(this.advancedAttributeCache.getAll(any(Set.class))).thenReturn(values);
+        when(this.marshaller.read(fooValue)).thenReturn(foo);
+
+        PrefetchedSessionAttributes<Object> result = this.factory.findValue(id);
+
+        // Values are prefetched, but not yet deserialized
+        verify(this.marshaller, never()).read(any());
+
+        ImmutableSessionAttributes attributes = this.factory.createImmutableSessionAttributes(id, result);
+
+        assertSame(foo, attributes.getAttribute("foo"));
+        assertNull(attributes.getAttribute("missing"));
+
+        // Prefetched values should not require additional cache reads
+        verify(this.attributeCache, never()).get(any());
+        verify(this.marshaller, never()).read(barValue);
+    }
+
+    @Test
+    public void findMissingValue() {
+        String id = "session";
+        ConcurrentMap<String, Integer> names = new ConcurrentHashMap<>();
+        names.put("foo", 1);
+        SessionAttributeNamesEntry entry = new SessionAttributeNamesEntry(new AtomicInteger(1), names);
+        AdvancedCache<SessionAttributeNamesKey, SessionAttributeNamesEntry> advancedNamesCache = mock(AdvancedCache.class);
+
+        when(this.namesCache.get(new SessionAttributeNamesKey(id))).thenReturn(entry);
+        when(this.namesCache.getAdvancedCache()).thenReturn(advancedNamesCache);
+        when(advancedNamesCache.withFlags(any())).thenReturn(advancedNamesCache);
+        when(this.attributeCache.getAdvancedCache()).thenReturn(this.advancedAttributeCache);
+        when(this.advancedAttributeCache.withFlags(any())).thenReturn(this.advancedAttributeCache);
+        when(this.advancedAttributeCache.getAll(any(Set.class))).thenReturn(new HashMap<>());
+
+        assertNull(this.factory.findValue(id));
+
+        verify(advancedNamesCache).remove(new SessionAttributeNamesKey(id));
+    }
+}
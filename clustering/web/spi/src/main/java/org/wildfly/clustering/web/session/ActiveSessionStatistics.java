@@ -22,6 +22,8 @@
 
 package org.wildfly.clustering.web.session;
 
+import java.time.Duration;
+
 /**
  * Statistics for active sessions.
  * @author Paul Ferraro
@@ -36,4 +38,25 @@ public interface ActiveSessionStatistics {
      * @return The number of active sessions
      */
     long getActiveSessionCount();
+
+    /**
+     * @return the time spent rescheduling sessions following the most recent change in cache topology
+     */
+    default Duration getLastRebalanceDuration() {
+        return Duration.ZERO;
+    }
+
+    /**
+     * @return the number of deferred last accessed time updates written by the most recent flush
+     */
+    default int getLastAccessFlushSize() {
+        return 0;
+    }
+
+    /**
+     * @return the longest time that a last accessed time update written by the most recent flush was deferred
+     */
+    default Duration getLastAccessFlushLag() {
+        return Duration.ZERO;
+    }
 }
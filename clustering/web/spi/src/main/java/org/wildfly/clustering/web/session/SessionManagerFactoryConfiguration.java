@@ -21,6 +21,8 @@
  */
 package org.wildfly.clustering.web.session;
 
+import java.time.Duration;
+
 import org.wildfly.clustering.marshalling.spi.Marshallability;
 import org.wildfly.clustering.marshalling.spi.MarshalledValueFactory;
 
@@ -29,7 +31,14 @@ import org.wildfly.clustering.marshalling.spi.MarshalledValueFactory;
  * @author Paul Ferraro
  */
 public interface SessionManagerFactoryConfiguration<C extends Marshallability> {
-    enum SessionAttributePersistenceStrategy { COARSE, FINE }
+    enum SessionAttributePersistenceStrategy {
+        /** All attributes are marshalled and replicated together, within a single cache entry. */
+        COARSE,
+        /** All attributes are stored within a single cache entry, but marshalled individually, such that only modified attributes are replicated. */
+        COARSE_DELTA,
+        /** Each attribute is marshalled and replicated within a separate cache entry. */
+        FINE,
+    }
 
     int getMaxActiveSessions();
 
@@ -41,6 +50,16 @@ public interface SessionManagerFactoryConfiguration<C extends Marshallability> {
 
     String getCacheName();
 
+    /**
+     * @return the interval at which deferred last accessed time updates are written, or null, if updates should be written immediately
+     */
+    Duration getAccessFlushInterval();
+
+    /**
+     * @return the fraction of the session timeout by which a deferred last accessed time may lag before it is written immediately, or null, if the default should be used
+     */
+    Float getAccessMaxDrift();
+
     MarshalledValueFactory<C> getMarshalledValueFactory();
 
     C getMarshallingContext();
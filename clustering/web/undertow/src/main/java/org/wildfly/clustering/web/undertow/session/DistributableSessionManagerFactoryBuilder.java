@@ -23,6 +23,7 @@ package org.wildfly.clustering.web.undertow.session;
 
 import java.io.Externalizable;
 import java.io.Serializable;
+import java.time.Duration;
 import java.util.EnumMap;
 import java.util.Map;
 import java.util.function.Function;
@@ -109,7 +110,9 @@ public class DistributableSessionManagerFactoryBuilder implements CapabilityServ
 
             @Override
             public SessionAttributePersistenceStrategy getAttributePersistenceStrategy() {
-                return strategies.get(config.getGranularity());
+                SessionAttributePersistenceStrategy strategy = strategies.get(config.getGranularity());
+                // Delta replication is opt-in, since attributes are marshalled individually, and thus no longer share object references
+                return ((strategy == SessionAttributePersistenceStrategy.COARSE) && config.isDeltaReplication()) ? SessionAttributePersistenceStrategy.COARSE_DELTA : strategy;
             }
 
             @Override
@@ -127,6 +130,16 @@ public class DistributableSessionManagerFactoryBuilder implements CapabilityServ
                 return config.getCacheName();
             }
 
+            @Override
+            public Duration getAccessFlushInterval() {
+                return config.getAccessFlushInterval();
+            }
+
+            @Override
+            public Float getAccessMaxDrift() {
+                return config.getAccessMaxDrift();
+            }
+
             @Override
             public MarshalledValueFactory<MarshallingContext> getMarshalledValueFactory() {
                 return factory;
@@ -92,6 +92,21 @@ public class DistributableSessionManagerStatistics implements RecordableSessionM
         return this.inactiveSessionStatistics.getMeanSessionLifetime().toMillis();
     }
 
+    @Override
+    public long getLastRebalanceTime() {
+        return this.activeSessionStatistics.getLastRebalanceDuration().toMillis();
+    }
+
+    @Override
+    public long getLastAccessFlushSize() {
+        return this.activeSessionStatistics.getLastAccessFlushSize();
+    }
+
+    @Override
+    public long getLastAccessFlushLag() {
+        return this.activeSessionStatistics.getLastAccessFlushLag().toMillis();
+    }
+
     @Override
     public long getStartTime() {
         return this.startTime;
@@ -94,6 +94,30 @@ public interface Cache<K, V extends Identifiable<K>> extends AffinitySupport<K>,
 
     int getTotalSize();
 
+    /**
+     * Returns the number of objects removed from this cache due to expiration.
+     * @return a number of expired objects
+     */
+    default long getExpiredCount() {
+        return 0L;
+    }
+
+    /**
+     * Returns the number of objects removed from this cache to enforce its max size.
+     * @return a number of evicted objects
+     */
+    default long getEvictedCount() {
+        return 0L;
+    }
+
+    /**
+     * Returns the time spent rescheduling the objects of this cache following the most recent change in cluster topology.
+     * @return a duration in milliseconds
+     */
+    default long getRebalanceTime() {
+        return 0L;
+    }
+
     /**
      * Checks whether the supplied {@link Throwable} is remotable meaning it can be safely sent to the client over the wire.
      */
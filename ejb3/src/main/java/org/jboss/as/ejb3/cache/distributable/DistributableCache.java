@@ -219,6 +219,11 @@ public class DistributableCache<K, V extends Identifiable<K> & Contextual<Batch>
         return this.manager.getActiveCount() + this.manager.getPassiveCount();
     }
 
+    @Override
+    public long getRebalanceTime() {
+        return this.manager.getLastRebalanceDuration().toMillis();
+    }
+
     @Override
     public boolean isRemotable(Throwable throwable) {
         return this.manager.isRemotable(throwable);
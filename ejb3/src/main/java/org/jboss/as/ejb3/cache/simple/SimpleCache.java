@@ -21,14 +21,18 @@
  */
 package org.jboss.as.ejb3.cache.simple;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.jboss.as.ejb3.cache.Cache;
 import org.jboss.as.ejb3.cache.Identifiable;
@@ -41,7 +45,12 @@ import org.jboss.ejb.client.NodeAffinity;
 import org.wildfly.clustering.ejb.IdentifierFactory;
 
 /**
- * Simple {@link Cache} implementation using in-memory storage and eager expiration.
+ * Simple {@link Cache} implementation using in-memory storage.
+ * Beans not currently in use are tracked in release order, such that a single periodic sweep expires idle beans in bounded time,
+ * rather than scheduling (and cancelling) an expiration task per bean.
+ * Idle beans are partitioned by key into segments, each guarded by its own lock, so that concurrent invocations of different beans rarely contend.
+ * If a max size is specified, the least recently used idle beans are evicted once the cache exceeds that size.
+ * A newly created bean is never evicted before its first use.
  *
  * @author Paul Ferraro
  *
@@ -50,47 +59,68 @@ import org.wildfly.clustering.ejb.IdentifierFactory;
  */
 public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V> {
 
-    final Map<K, Future<?>> expirationFutures = new ConcurrentHashMap<>();
+    static final long MAX_SWEEP_INTERVAL = TimeUnit.SECONDS.toMillis(1);
+    static final long MIN_SWEEP_INTERVAL = 10L;
+
     private final ConcurrentMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    // Idle entries, i.e. not in use, partitioned by key
+    private final Segment<K, V>[] segments;
     private final StatefulObjectFactory<V> factory;
     private final IdentifierFactory<K> identifierFactory;
-    private final StatefulTimeoutInfo timeout;
     private final ServerEnvironment environment;
     private final ScheduledExecutorService executor;
+    // Idle timeout in milliseconds, or -1 if idle beans never expire
+    private final long timeout;
+    // Max number of beans, or 0 if unbounded
+    private final int maxSize;
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private volatile Future<?> sweeper;
 
     public SimpleCache(StatefulObjectFactory<V> factory, IdentifierFactory<K> identifierFactory, StatefulTimeoutInfo timeout, ServerEnvironment environment, ScheduledExecutorService executor) {
+        this(factory, identifierFactory, timeout, environment, executor, 0);
+    }
+
+    public SimpleCache(StatefulObjectFactory<V> factory, IdentifierFactory<K> identifierFactory, StatefulTimeoutInfo timeout, ServerEnvironment environment, ScheduledExecutorService executor, int maxSize) {
         this.factory = factory;
         this.identifierFactory = identifierFactory;
-        this.timeout = timeout;
+        this.timeout = ((timeout != null) && (timeout.getValue() >= 0)) ? timeout.getTimeUnit().toMillis(timeout.getValue()) : -1L;
         this.environment = environment;
         this.executor = executor;
+        this.maxSize = Math.max(maxSize, 0);
+        // Use a power of 2, so that a segment can be selected via a mask
+        int segments = Integer.highestOneBit(Math.max(Math.min(Runtime.getRuntime().availableProcessors(), 64), 1) * 2 - 1);
+        @SuppressWarnings("unchecked")
+        Segment<K, V>[] array = new Segment[segments];
+        for (int i = 0; i < segments; ++i) {
+            array[i] = new Segment<>();
+        }
+        this.segments = array;
     }
 
     @Override
     public void start() {
-        // Do nothing
+        if (this.timeout > 0) {
+            long interval = Math.max(Math.min(this.timeout, MAX_SWEEP_INTERVAL), MIN_SWEEP_INTERVAL);
+            this.sweeper = this.executor.scheduleWithFixedDelay(new ExpirationTask(), interval, interval, TimeUnit.MILLISECONDS);
+        }
     }
 
     @Override
     public void stop() {
-        for (Future<?> future: this.expirationFutures.values()) {
-            future.cancel(true);
-        }
-        for (Future<?> future: this.expirationFutures.values()) {
-            if (!future.isCancelled() && !future.isDone()) {
-                try {
-                    future.get();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                } catch (ExecutionException e) {
-                    // Ignore
-                }
+        Future<?> sweeper = this.sweeper;
+        if (sweeper != null) {
+            sweeper.cancel(false);
+            this.sweeper = null;
+        }
+        for (Segment<K, V> segment : this.segments) {
+            synchronized (segment) {
+                segment.idle.clear();
             }
         }
-        for(Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
-            this.factory.destroyInstance(entry.getValue().getValue());
+        for (Entry<V> entry : this.entries.values()) {
+            this.factory.destroyInstance(entry.getValue());
         }
-        this.expirationFutures.clear();
         this.entries.clear();
     }
 
@@ -116,32 +146,58 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V> {
             throw EjbLogger.ROOT_LOGGER.incompatibleCaches();
         }
         V bean = this.factory.createInstance();
-        this.entries.put(bean.getId(), new Entry<>(bean));
+        K id = bean.getId();
+        Entry<V> entry = new Entry<>(bean);
+        this.entries.put(id, entry);
+        if (this.isTracking()) {
+            // A bean with a 0 timeout is only eligible for removal once released
+            if (this.timeout != 0) {
+                Segment<K, V> segment = this.segment(id);
+                synchronized (segment) {
+                    entry.released = System.currentTimeMillis();
+                    segment.idle.put(id, entry);
+                }
+            }
+            // The new bean may expire, but is not evictable until its first use
+            this.evict();
+        }
         return bean;
     }
 
     @Override
     public void discard(V value) {
-        this.entries.remove(value.getId());
+        K id = value.getId();
+        Entry<V> entry = this.entries.remove(id);
+        if (entry != null) {
+            this.untrack(id, entry);
+        }
     }
 
     @Override
     public void remove(K key) {
         Entry<V> entry = this.entries.remove(key);
         if (entry != null) {
+            this.untrack(key, entry);
             this.factory.destroyInstance(entry.getValue());
         }
     }
 
     @Override
     public V get(K key) {
-        Future<?> future = this.expirationFutures.get(key);
-        if (future != null) {
-            future.cancel(true);
-        }
         Entry<V> entry = this.entries.get(key);
         if (entry == null) return null;
-        entry.use();
+        if (this.isTracking()) {
+            Segment<K, V> segment = this.segment(key);
+            synchronized (segment) {
+                // Bean was concurrently expired or evicted
+                if (entry.removed) return null;
+                segment.idle.remove(key);
+                entry.used = true;
+                entry.use();
+            }
+        } else {
+            entry.use();
+        }
         return entry.getValue();
     }
 
@@ -155,20 +211,20 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V> {
         K id = bean.getId();
         Entry<V> entry = this.entries.get(id);
         if ((entry != null) && entry.done()) {
-            if (this.timeout != null) {
-                long value = this.timeout.getValue();
-                if (value > 0) {
-                    TimeUnit unit = this.timeout.getTimeUnit();
-                    RemoveTask task = new RemoveTask(id);
-                    // Make sure the expiration future map insertion happens before map removal (during task execution).
-                    synchronized (task) {
-                        this.expirationFutures.put(id, this.executor.schedule(task, value, unit));
-                    }
-                } else if (value == 0) {
-                    // The EJB specification allows a 0 timeout, which means the bean is immediately eligible for removal.
-                    // However, removing it directly is faster than scheduling it for immediate removal.
-                    remove(id);
+            if (this.timeout == 0) {
+                // The EJB specification allows a 0 timeout, which means the bean is immediately eligible for removal.
+                this.remove(id);
+            } else if (this.isTracking()) {
+                Segment<K, V> segment = this.segment(id);
+                synchronized (segment) {
+                    // Bean may have been concurrently reacquired
+                    if (entry.removed || !entry.isIdle()) return;
+                    entry.released = System.currentTimeMillis();
+                    // Re-insert, so that this entry moves to the tail
+                    segment.idle.remove(id);
+                    segment.idle.put(id, entry);
                 }
+                this.evict();
             }
         }
     }
@@ -188,25 +244,134 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V> {
         return this.getCacheSize();
     }
 
-    class RemoveTask implements Runnable {
-        private final K key;
+    @Override
+    public long getExpiredCount() {
+        return this.expirations.get();
+    }
+
+    @Override
+    public long getEvictedCount() {
+        return this.evictions.get();
+    }
+
+    // Indicates whether idle beans need to be tracked, i.e. for expiration or eviction
+    private boolean isTracking() {
+        return (this.timeout > 0) || (this.maxSize > 0);
+    }
+
+    private void untrack(K key, Entry<V> entry) {
+        if (this.isTracking()) {
+            Segment<K, V> segment = this.segment(key);
+            synchronized (segment) {
+                entry.removed = true;
+                segment.idle.remove(key);
+            }
+        }
+    }
 
-        RemoveTask(K key) {
-            this.key = key;
+    private Segment<K, V> segment(K key) {
+        int hash = key.hashCode();
+        return this.segments[(hash ^ (hash >>> 16)) & (this.segments.length - 1)];
+    }
+
+    /**
+     * Evicts least recently used idle beans while this cache exceeds its max size.
+     * Only invoked once the cache is full, where finding the least recently used bean visits the eldest evictable bean of each segment.
+     */
+    private void evict() {
+        if (this.maxSize == 0) return;
+        for (int excess = this.entries.size() - this.maxSize; excess > 0; --excess) {
+            Segment<K, V> eldest = null;
+            long eldestReleased = Long.MAX_VALUE;
+            for (Segment<K, V> segment : this.segments) {
+                synchronized (segment) {
+                    Map.Entry<K, Entry<V>> entry = segment.eldestEvictable();
+                    if ((entry != null) && (entry.getValue().released < eldestReleased)) {
+                        eldest = segment;
+                        eldestReleased = entry.getValue().released;
+                    }
+                }
+            }
+            // N.B. beans in use, or not yet used, cannot be evicted, so the max size is a soft limit
+            if (eldest == null) return;
+            Map.Entry<K, Entry<V>> evicted;
+            synchronized (eldest) {
+                evicted = eldest.removeEldestEvictable();
+            }
+            // Destroy bean outside of lock
+            if ((evicted != null) && this.entries.remove(evicted.getKey(), evicted.getValue())) {
+                this.evictions.incrementAndGet();
+                this.factory.destroyInstance(evicted.getValue().getValue());
+            }
         }
+    }
 
+    /**
+     * Expires beans whose idle time exceeds the stateful timeout.
+     * Since all beans share the same timeout, the idle beans of each segment expire in release order, thus each sweep only visits expired beans.
+     */
+    class ExpirationTask implements Runnable {
         @Override
-        public synchronized void run() {
-            if (!Thread.currentThread().isInterrupted()) {
-                SimpleCache.this.remove(this.key);
+        public void run() {
+            long now = System.currentTimeMillis();
+            List<Map.Entry<K, Entry<V>>> expired = new ArrayList<>();
+            for (Segment<K, V> segment : SimpleCache.this.segments) {
+                synchronized (segment) {
+                    Iterator<Map.Entry<K, Entry<V>>> eldest = segment.idle.entrySet().iterator();
+                    while (eldest.hasNext()) {
+                        Map.Entry<K, Entry<V>> entry = eldest.next();
+                        if (now - entry.getValue().released < SimpleCache.this.timeout) break;
+                        entry.getValue().removed = true;
+                        eldest.remove();
+                        expired.add(entry);
+                    }
+                }
+            }
+            for (Map.Entry<K, Entry<V>> entry : expired) {
+                if (SimpleCache.this.entries.remove(entry.getKey(), entry.getValue())) {
+                    SimpleCache.this.expirations.incrementAndGet();
+                    SimpleCache.this.factory.destroyInstance(entry.getValue().getValue());
+                }
             }
-            SimpleCache.this.expirationFutures.remove(this.key);
+        }
+    }
+
+    /**
+     * The idle beans of a subset of keys.
+     */
+    static class Segment<K, V> {
+        // Guarded by the lock of this segment, least recently used first
+        final Map<K, Entry<V>> idle = new LinkedHashMap<>();
+
+        Map.Entry<K, Entry<V>> eldestEvictable() {
+            for (Map.Entry<K, Entry<V>> entry : this.idle.entrySet()) {
+                if (entry.getValue().used) return entry;
+            }
+            return null;
+        }
+
+        Map.Entry<K, Entry<V>> removeEldestEvictable() {
+            Iterator<Map.Entry<K, Entry<V>>> entries = this.idle.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<K, Entry<V>> entry = entries.next();
+                if (entry.getValue().used) {
+                    entry.getValue().removed = true;
+                    entries.remove();
+                    return entry;
+                }
+            }
+            return null;
         }
     }
 
     static class Entry<V> {
         private final V value;
         private final AtomicInteger usage = new AtomicInteger();
+        // The following are guarded by the lock of the segment of this entry
+        long released;
+        boolean removed = false;
+        // Indicates whether this bean was ever in use, i.e. whether it is evictable
+        boolean used = false;
 
         Entry(V value) {
             this.value = value;
@@ -220,6 +385,10 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V> {
             return this.usage.decrementAndGet() == 0;
         }
 
+        boolean isIdle() {
+            return this.usage.get() == 0;
+        }
+
         V getValue() {
             return this.value;
         }
@@ -57,10 +57,21 @@ public class SimpleCacheFactoryBuilderService<K, V extends Identifiable<K>> exte
     });
 
     private final String name;
+    private final int maxSize;
 
     public SimpleCacheFactoryBuilderService(String name) {
+        this(name, 0);
+    }
+
+    /**
+     * Creates a simple cache factory builder.
+     * @param name the name of the cache factory
+     * @param maxSize the maximum number of beans per cache, or 0 if unbounded
+     */
+    public SimpleCacheFactoryBuilderService(String name, int maxSize) {
         super(name);
         this.name = name;
+        this.maxSize = maxSize;
     }
 
     @Override
@@ -75,7 +86,7 @@ public class SimpleCacheFactoryBuilderService<K, V extends Identifiable<K>> exte
 
     @Override
     public ServiceBuilder<? extends CacheFactory<K, V>> build(ServiceTarget target, ServiceName name, BeanContext context, StatefulTimeoutInfo timeout) {
-        return SimpleCacheFactoryService.build(this.name, target, name, context, timeout);
+        return SimpleCacheFactoryService.build(this.name, target, name, context, timeout, this.maxSize);
     }
 
     @Override
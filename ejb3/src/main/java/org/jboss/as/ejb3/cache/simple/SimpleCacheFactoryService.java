@@ -50,7 +50,11 @@ import org.wildfly.clustering.ejb.PassivationListener;
 public class SimpleCacheFactoryService<K, V extends Identifiable<K>> extends AbstractService<CacheFactory<K, V>> implements CacheFactory<K, V> {
 
     public static <K, V extends Identifiable<K>> ServiceBuilder<CacheFactory<K, V>> build(String name, ServiceTarget target, ServiceName serviceName, BeanContext context, StatefulTimeoutInfo timeout) {
-        SimpleCacheFactoryService<K, V> service = new SimpleCacheFactoryService<>(timeout);
+        return build(name, target, serviceName, context, timeout, 0);
+    }
+
+    public static <K, V extends Identifiable<K>> ServiceBuilder<CacheFactory<K, V>> build(String name, ServiceTarget target, ServiceName serviceName, BeanContext context, StatefulTimeoutInfo timeout, int maxSize) {
+        SimpleCacheFactoryService<K, V> service = new SimpleCacheFactoryService<>(timeout, maxSize);
         return target.addService(serviceName, service)
                 .addDependency(ServerEnvironmentService.SERVICE_NAME, ServerEnvironment.class, service.environment)
                 .addDependency(context.getDeploymentUnitServiceName().append(name, "expiration"), ScheduledExecutorService.class, service.executor)
@@ -60,9 +64,11 @@ public class SimpleCacheFactoryService<K, V extends Identifiable<K>> extends Abs
     private final InjectedValue<ServerEnvironment> environment = new InjectedValue<>();
     private final InjectedValue<ScheduledExecutorService> executor = new InjectedValue<>();
     private final StatefulTimeoutInfo timeout;
+    private final int maxSize;
 
-    private SimpleCacheFactoryService(StatefulTimeoutInfo timeout) {
+    private SimpleCacheFactoryService(StatefulTimeoutInfo timeout, int maxSize) {
         this.timeout = timeout;
+        this.maxSize = maxSize;
     }
 
     @Override
@@ -72,6 +78,6 @@ public class SimpleCacheFactoryService<K, V extends Identifiable<K>> extends Abs
 
     @Override
     public Cache<K, V> createCache(IdentifierFactory<K> identifierFactory, StatefulObjectFactory<V> factory, PassivationListener<V> passivationListener) {
-        return new SimpleCache<>(factory, identifierFactory, this.timeout, this.environment.getValue(), this.executor.getValue());
+        return new SimpleCache<>(factory, identifierFactory, this.timeout, this.environment.getValue(), this.executor.getValue(), this.maxSize);
     }
 }
@@ -114,7 +114,7 @@ public abstract class EJBComponent extends BasicComponent implements ServerActiv
     private final String distinctName;
     private final String policyContextID;
 
-    private final InvocationMetrics invocationMetrics = new InvocationMetrics();
+    private final InvocationMetrics invocationMetrics;
     private final EJBSuspendHandlerService ejbSuspendHandlerService;
     private final ShutDownInterceptorFactory shutDownInterceptorFactory;
     private final TransactionManager transactionManager;
@@ -145,6 +145,7 @@ public abstract class EJBComponent extends BasicComponent implements ServerActiv
     protected EJBComponent(final EJBComponentCreateService ejbComponentCreateService) {
         super(ejbComponentCreateService);
 
+        this.invocationMetrics = new InvocationMetrics(ejbComponentCreateService.getComponentInterceptors().keySet());
 
         this.applicationExceptions = Collections.unmodifiableMap(ejbComponentCreateService.getApplicationExceptions().getApplicationExceptions());
 
@@ -22,17 +22,21 @@
 package org.jboss.as.ejb3.component.invocationmetrics;
 
 import java.lang.reflect.Method;
-import java.util.AbstractMap;
-import java.util.AbstractSet;
-import java.util.Iterator;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
+ * Invocation statistics of a component.
+ * All counters are striped (see {@link LongAdder}), so that concurrent invocations do not contend on shared state.
+ * The counters of each component method are resolved when the component is created, so that recording an invocation neither allocates nor performs a map lookup keyed by name.
+ *
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
  */
 public class InvocationMetrics {
@@ -60,101 +64,101 @@ public class InvocationMetrics {
         }
     }
 
-    private final AtomicReference<Values> values = new AtomicReference<Values>(new Values(0, 0, 0));
-    private final AtomicLong concurrent = new AtomicLong(0);
+    /**
+     * Striped counters of a method, or of the component as a whole.
+     */
+    static class Counters {
+        final LongAdder invocations = new LongAdder();
+        final LongAdder executionTime = new LongAdder();
+        final LongAdder waitTime = new LongAdder();
+
+        void record(final long invocationWaitTime, final long invocationExecutionTime) {
+            invocations.increment();
+            waitTime.add(invocationWaitTime);
+            executionTime.add(invocationExecutionTime);
+        }
+
+        Values getValues() {
+            return new Values(invocations.sum(), waitTime.sum(), executionTime.sum());
+        }
+    }
+
+    private final Counters values = new Counters();
+    private final LongAdder concurrent = new LongAdder();
     private final AtomicLong peakConcurrent = new AtomicLong(0);
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+    private final LatencyHistogram executionTimes = new LatencyHistogram();
 
-    private final ConcurrentMap<String, AtomicReference<Values>> methods = new ConcurrentHashMap<String, AtomicReference<Values>>();
+    // Counters for each known component method, resolved by identity - read-only once constructed
+    private final Map<Method, Counters> methodCounters;
+    // Counters by method name, i.e. overloaded methods share counters
+    private final ConcurrentMap<String, Counters> methods = new ConcurrentHashMap<String, Counters>();
 
-    void finishInvocation(final Method method, final long invocationWaitTime, final long invocationExecutionTime) {
-        concurrent.decrementAndGet();
-        for(;;) {
-            final Values oldv = values.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (values.compareAndSet(oldv, newv))
-                break;
+    public InvocationMetrics() {
+        this(Collections.<Method>emptySet());
+    }
+
+    /**
+     * Creates invocation metrics for a component with the specified methods.
+     * @param componentMethods the methods of the component
+     */
+    public InvocationMetrics(final Collection<Method> componentMethods) {
+        final Map<Method, Counters> methodCounters = new IdentityHashMap<Method, Counters>(componentMethods.size());
+        for (Method method : componentMethods) {
+            methodCounters.put(method, counters(method.getName()));
         }
-        final AtomicReference<Values> methodValues = ref(methods, method.getName());
-        for (;;) {
-            final Values oldv = methodValues.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (methodValues.compareAndSet(oldv, newv))
-                break;
+        this.methodCounters = methodCounters;
+    }
+
+    void finishInvocation(final Method method, final long invocationWaitTime, final long invocationExecutionTime) {
+        concurrent.decrement();
+        values.record(invocationWaitTime, invocationExecutionTime);
+        waitTimes.record(invocationWaitTime);
+        executionTimes.record(invocationExecutionTime);
+        Counters methodValues = methodCounters.get(method);
+        if (methodValues == null) {
+            methodValues = counters(method.getName());
         }
+        methodValues.record(invocationWaitTime, invocationExecutionTime);
     }
 
-    private static AtomicReference<Values> ref(final ConcurrentMap<String, AtomicReference<Values>> map, final String key) {
-        AtomicReference<Values> ref = map.get(key);
-        if (ref == null) {
-            ref = new AtomicReference<Values>(new Values(0, 0, 0));
-            final AtomicReference<Values> prevRef = map.putIfAbsent(key, ref);
-            if (prevRef != null)
-                ref = prevRef;
+    private Counters counters(final String name) {
+        Counters counters = methods.get(name);
+        if (counters == null) {
+            counters = new Counters();
+            final Counters existing = methods.putIfAbsent(name, counters);
+            if (existing != null)
+                counters = existing;
         }
-        return ref;
+        return counters;
     }
 
     public long getConcurrent() {
-        return concurrent.get();
+        return concurrent.sum();
     }
 
     public long getExecutionTime() {
-        return values.get().executionTime;
+        return values.executionTime.sum();
     }
 
     public long getInvocations() {
-        return values.get().invocations;
+        return values.invocations.sum();
     }
 
+    /**
+     * Returns a snapshot of the invocation statistics of each invoked method, keyed by method name.
+     * @return a map of method name to invocation statistics
+     */
     public Map<String, Values> getMethods() {
-        return new AbstractMap<String, Values>() {
-            @Override
-            public Set<Entry<String, Values>> entrySet() {
-                return new AbstractSet<Entry<String, Values>>() {
-                    @Override
-                    public Iterator<Entry<String, Values>> iterator() {
-                        final Iterator<Entry<String, AtomicReference<Values>>> delegate = methods.entrySet().iterator();
-                        return new Iterator<Entry<String, Values>>() {
-                            @Override
-                            public boolean hasNext() {
-                                return delegate.hasNext();
-                            }
-
-                            @Override
-                            public Entry<String, Values> next() {
-                                final Entry<String, AtomicReference<Values>> next = delegate.next();
-                                return new Entry<String, Values>() {
-                                    @Override
-                                    public String getKey() {
-                                        return next.getKey();
-                                    }
-
-                                    @Override
-                                    public Values getValue() {
-                                        return next.getValue().get();
-                                    }
-
-                                    @Override
-                                    public Values setValue(final Values value) {
-                                        throw new UnsupportedOperationException("NYI");
-                                    }
-                                };
-                            }
-
-                            @Override
-                            public void remove() {
-                                throw new UnsupportedOperationException("NYI");
-                            }
-                        };
-                    }
-
-                    @Override
-                    public int size() {
-                        return methods.size();
-                    }
-                };
+        final Map<String, Values> result = new HashMap<String, Values>();
+        for (Map.Entry<String, Counters> entry : methods.entrySet()) {
+            final Values values = entry.getValue().getValues();
+            // Counters of component methods are created eagerly, so omit those never invoked
+            if (values.getInvocations() > 0) {
+                result.put(entry.getKey(), values);
             }
-        };
+        }
+        return Collections.unmodifiableMap(result);
     }
 
     public long getPeakConcurrent() {
@@ -162,13 +166,30 @@ public class InvocationMetrics {
     }
 
     public long getWaitTime() {
-        return values.get().waitTime;
+        return values.waitTime.sum();
+    }
+
+    /**
+     * Returns the distribution of the time spent waiting to obtain an instance, per invocation.
+     * @return a histogram of wait times, in milliseconds
+     */
+    public LatencyHistogram getWaitTimes() {
+        return waitTimes;
+    }
+
+    /**
+     * Returns the distribution of the time spent within a bean method, per invocation.
+     * @return a histogram of execution times, in milliseconds
+     */
+    public LatencyHistogram getExecutionTimes() {
+        return executionTimes;
     }
 
     void startInvocation() {
-        final long v = concurrent.incrementAndGet();
+        concurrent.increment();
         // concurrent might decrement here, but we take that missing peak for granted.
+        final long v = concurrent.sum();
         if (peakConcurrent.get() < v)
-            peakConcurrent.incrementAndGet();
+            peakConcurrent.accumulateAndGet(v, Math::max);
     }
 }
@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent histogram of latencies, whose buckets are log-linear in the manner of an HDR histogram.
+ * Values below {@link #EXACT_LIMIT} are recorded exactly, whereas larger values are recorded to within 1/{@link #SUB_BUCKETS} of their magnitude.
+ * Recording a value is lock-free and allocation-free, as each bucket is a {@link LongAdder}.
+ *
+ * @author agent
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final long EXACT_LIMIT = SUB_BUCKETS << 1;
+    // Values are clamped to 2^36 - 1 ms (i.e. ~2 years)
+    static final long MAX_VALUE = (1L << 36) - 1;
+
+    private final LongAdder[] buckets = new LongAdder[index(MAX_VALUE) + 1];
+
+    public LatencyHistogram() {
+        for (int i = 0; i < this.buckets.length; ++i) {
+            this.buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records the specified value.
+     * @param value a non-negative latency
+     */
+    public void record(final long value) {
+        this.buckets[index(Math.min(Math.max(value, 0L), MAX_VALUE))].increment();
+    }
+
+    /**
+     * Returns the value at the specified percentile, i.e. the highest value equivalent to the bucket containing the specified percentile.
+     * @param percentile a percentile between 0 and 100
+     * @return a value, or 0 if no values were recorded
+     */
+    public long getValueAtPercentile(final double percentile) {
+        return this.getValuesAtPercentiles(percentile)[0];
+    }
+
+    /**
+     * Returns the values at the specified percentiles, computed from a single pass over the buckets of this histogram.
+     * @param percentiles an ascending array of percentiles, each between 0 and 100
+     * @return an array of values, corresponding to the specified percentiles
+     */
+    public long[] getValuesAtPercentiles(final double... percentiles) {
+        final long[] counts = new long[this.buckets.length];
+        long total = 0L;
+        for (int i = 0; i < counts.length; ++i) {
+            counts[i] = this.buckets[i].sum();
+            total += counts[i];
+        }
+        final long[] values = new long[percentiles.length];
+        if (total == 0L) return values;
+        int bucket = 0;
+        long count = counts[0];
+        for (int i = 0; i < percentiles.length; ++i) {
+            final long rank = Math.max((long) Math.ceil(Math.min(percentiles[i], 100d) / 100d * total), 1L);
+            while (count < rank) {
+                count += counts[++bucket];
+            }
+            values[i] = highestEquivalentValue(bucket);
+        }
+        return values;
+    }
+
+    /**
+     * Returns the total number of recorded values.
+     * @return a number of values
+     */
+    public long getCount() {
+        long total = 0L;
+        for (LongAdder bucket : this.buckets) {
+            total += bucket.sum();
+        }
+        return total;
+    }
+
+    static int index(final long value) {
+        if (value < EXACT_LIMIT) return (int) value;
+        final int exponent = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        final int mantissa = (int) (value >>> exponent);
+        return ((exponent + 1) << SUB_BUCKET_BITS) + (mantissa - SUB_BUCKETS);
+    }
+
+    static long highestEquivalentValue(final int index) {
+        if (index < EXACT_LIMIT) return index;
+        final int exponent = (index >>> SUB_BUCKET_BITS) - 1;
+        final long mantissa = (index & (SUB_BUCKETS - 1)) + SUB_BUCKETS;
+        return ((mantissa + 1) << exponent) - 1;
+    }
+}
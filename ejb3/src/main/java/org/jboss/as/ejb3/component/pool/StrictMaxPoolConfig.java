@@ -24,6 +24,7 @@ package org.jboss.as.ejb3.component.pool;
 
 import org.jboss.as.ejb3.pool.Pool;
 import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+import org.jboss.as.ejb3.pool.strictmax.PartitionedStrictMaxPool;
 import org.jboss.as.ejb3.pool.strictmax.StrictMaxPool;
 
 import java.util.concurrent.TimeUnit;
@@ -46,6 +47,10 @@ public class StrictMaxPoolConfig extends PoolConfig {
 
     private volatile long timeout;
 
+    private volatile boolean partitioned;
+
+    private volatile int minPoolSize;
+
     public StrictMaxPoolConfig(final String poolName, int maxSize, long timeout, TimeUnit timeUnit) {
         super(poolName);
         this.maxPoolSize = maxSize;
@@ -55,6 +60,10 @@ public class StrictMaxPoolConfig extends PoolConfig {
 
     @Override
     public <T> Pool<T> createPool(final StatelessObjectFactory<T> statelessObjectFactory) {
+        if (this.partitioned) {
+            int minPoolSize = (this.minPoolSize > 0) ? Math.min(this.minPoolSize, this.maxPoolSize) : this.maxPoolSize;
+            return new PartitionedStrictMaxPool<T>(statelessObjectFactory, minPoolSize, this.maxPoolSize, this.timeout, this.timeoutUnit);
+        }
         return new StrictMaxPool<T>(statelessObjectFactory, this.maxPoolSize, this.timeout, this.timeoutUnit);
     }
 
@@ -82,6 +91,26 @@ public class StrictMaxPoolConfig extends PoolConfig {
         this.timeout = timeout;
     }
 
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+
+    public void setPartitioned(boolean partitioned) {
+        this.partitioned = partitioned;
+    }
+
+    /**
+     * Returns the size at which a partitioned pool starts, before adapting to demand up to the max pool size.
+     * A value of 0 indicates that the pool size does not adapt.
+     */
+    public int getMinPoolSize() {
+        return minPoolSize;
+    }
+
+    public void setMinPoolSize(int minPoolSize) {
+        this.minPoolSize = minPoolSize;
+    }
+
     @Override
     public String toString() {
         return "StrictMaxPoolConfig{" +
@@ -89,6 +118,8 @@ public class StrictMaxPoolConfig extends PoolConfig {
                 ", maxPoolSize=" + maxPoolSize +
                 ", timeoutUnit=" + timeoutUnit +
                 ", timeout=" + timeout +
+                ", partitioned=" + partitioned +
+                ", minPoolSize=" + minPoolSize +
                 '}';
     }
 }
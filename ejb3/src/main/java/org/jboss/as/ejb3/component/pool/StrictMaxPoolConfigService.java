@@ -57,10 +57,11 @@ public class StrictMaxPoolConfigService implements Service<PoolConfig> {
     private volatile Derive derive;
 
 
-    public StrictMaxPoolConfigService(final String poolName, int declaredMaxSize, Derive derive, long timeout, TimeUnit timeUnit) {
+    public StrictMaxPoolConfigService(final String poolName, int declaredMaxSize, Derive derive, long timeout, TimeUnit timeUnit, boolean partitioned) {
         this.declaredMaxSize = declaredMaxSize;
         this.derive = derive;
         this.poolConfig = new StrictMaxPoolConfig(poolName, declaredMaxSize, timeout, timeUnit);
+        this.poolConfig.setPartitioned(partitioned);
     }
 
     @Override
@@ -88,6 +89,7 @@ public class StrictMaxPoolConfigService implements Service<PoolConfig> {
     public synchronized void setDerive(Derive derive) {
         this.derive = derive;
         int max = this.declaredMaxSize;
+        int min = 0;
         switch (derive) {
             case FROM_WORKER_POOLS: {
                 max = calcMaxFromWorkPools();
@@ -96,11 +98,18 @@ public class StrictMaxPoolConfigService implements Service<PoolConfig> {
             }
             case FROM_CPU_COUNT: {
                 max = calcMaxFromCPUCount();
+                // A partitioned pool starts with an instance per CPU, and grows towards the derived max if invocations wait
+                min = Runtime.getRuntime().availableProcessors();
                 EjbLogger.ROOT_LOGGER.strictPoolDerivedFromCPUs(poolConfig.getPoolName(), max);
                 break;
             }
         }
         poolConfig.setMaxPoolSize(max);
+        poolConfig.setMinPoolSize(min);
+    }
+
+    public void setPartitioned(boolean partitioned) {
+        poolConfig.setPartitioned(partitioned);
     }
 
     public void setTimeout(long timeout) {
@@ -67,6 +67,8 @@ public class SingletonComponent extends SessionBeanComponent implements Lockable
 
     private final DefaultAccessTimeoutService defaultAccessTimeoutProvider;
 
+    private final boolean stripedLock;
+
     private Interceptor interceptor;
 
     /**
@@ -91,6 +93,7 @@ public class SingletonComponent extends SessionBeanComponent implements Lockable
         this.methodLockTypes = singletonComponentCreateService.getMethodApplicableLockTypes();
         this.methodAccessTimeouts = singletonComponentCreateService.getMethodApplicableAccessTimeouts();
         this.defaultAccessTimeoutProvider = singletonComponentCreateService.getDefaultAccessTimeoutService();
+        this.stripedLock = singletonComponentCreateService.isStripedLockEnabled();
     }
 
     @Override
@@ -181,6 +184,11 @@ public class SingletonComponent extends SessionBeanComponent implements Lockable
         return defaultAccessTimeoutProvider.getDefaultAccessTimeout();
     }
 
+    @Override
+    public boolean isStripedLock() {
+        return this.stripedLock;
+    }
+
     @Override
     public void setConcurrencyManagementInterceptor(Interceptor interceptor) {
         this.interceptor = interceptor;
@@ -25,11 +25,14 @@ package org.jboss.as.ejb3.concurrency;
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorContext;
+import org.jboss.msc.service.ServiceName;
 
 import javax.ejb.LockType;
 import javax.interceptor.InvocationContext;
 import java.lang.reflect.Method;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -41,20 +44,41 @@ import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
 public class ContainerManagedConcurrencyInterceptor implements Interceptor {
 
     /**
-     * A spec compliant {@link org.jboss.as.ejb3.concurrency.EJBReadWriteLock}
+     * Service providing the subsystem wide flag that enables {@link EJBStripedReadWriteLock} for singleton components.
      */
-    private final ReadWriteLock readWriteLock = new EJBReadWriteLock();
+    public static final ServiceName STRIPED_LOCK_ENABLED_SERVICE_NAME = ServiceName.JBOSS.append("ejb3", "concurrency", "striped-lock", "enabled");
+
+    /**
+     * A spec compliant {@link java.util.concurrent.locks.ReadWriteLock}
+     */
+    private final ReadWriteLock readWriteLock;
 
     private final LockableComponent lockableComponent;
 
     private final Map<Method, Method> viewMethodToComponentMethodMap;
 
+    /**
+     * The lock and explicit access timeout of each view method, resolved up front
+     */
+    private final Map<Method, MethodLock> methodLocks;
+
+    /**
+     * The lock and explicit access timeout of any other invoked method, e.g. timeout methods, resolved on demand
+     */
+    private final Map<Method, MethodLock> otherMethodLocks = new ConcurrentHashMap<>();
+
     public ContainerManagedConcurrencyInterceptor(LockableComponent component, Map<Method, Method> viewMethodToComponentMethodMap) {
         this.viewMethodToComponentMethodMap = viewMethodToComponentMethodMap;
         if (component == null) {
             throw EjbLogger.ROOT_LOGGER.componentIsNull(LockableComponent.class.getName());
         }
         this.lockableComponent = component;
+        this.readWriteLock = component.isStripedLock() ? new EJBStripedReadWriteLock() : new EJBReadWriteLock();
+        Map<Method, MethodLock> methodLocks = new HashMap<>();
+        for (Map.Entry<Method, Method> entry : viewMethodToComponentMethodMap.entrySet()) {
+            methodLocks.put(entry.getKey(), this.createMethodLock(entry.getValue()));
+        }
+        this.methodLocks = methodLocks;
     }
 
     protected LockableComponent getLockableComponent() {
@@ -70,36 +94,19 @@ public class ContainerManagedConcurrencyInterceptor implements Interceptor {
         if (method == null) {
             throw EjbLogger.ROOT_LOGGER.invocationNotApplicableForMethodInvocation(invocationContext);
         }
-        Method invokedMethod = viewMethodToComponentMethodMap.get(method);
-        if(invokedMethod == null) {
-            invokedMethod = method;
+        MethodLock methodLock = this.methodLocks.get(method);
+        if (methodLock == null) {
+            methodLock = this.otherMethodLocks.computeIfAbsent(method, this::createMethodLock);
         }
         // get the Lock applicable for this method
-        Lock lock = getLock(lockableComponent, invokedMethod);
-        // the default access timeout (will be used in the absence of any explicit access timeout value for the invoked method)
-        AccessTimeoutDetails defaultAccessTimeout = lockableComponent.getDefaultAccessTimeout();
-        // set to the default values
-        long time = defaultAccessTimeout.getValue();
-        TimeUnit unit = defaultAccessTimeout.getTimeUnit();
-
-        AccessTimeoutDetails accessTimeoutOnMethod = lockableComponent.getAccessTimeout(invokedMethod);
-        if (accessTimeoutOnMethod != null) {
-            if (accessTimeoutOnMethod.getValue() < 0) {
-                // for any negative value of timeout, we just default to max timeout val and max timeout unit.
-                // violation of spec! But we don't want to wait indefinitely.
-
-                if (ROOT_LOGGER.isDebugEnabled()) {
-                    ROOT_LOGGER.debug("Ignoring a negative @AccessTimeout value: " + accessTimeoutOnMethod.getValue()
-                            + " and timeout unit: " + accessTimeoutOnMethod.getTimeUnit().name()
-                            + ". Will default to timeout value: " + defaultAccessTimeout.getValue() + " and timeout unit: "
-                            + defaultAccessTimeout.getTimeUnit().name());
-                }
-            } else {
-                // use the explicit access timeout values specified on the method
-                time = accessTimeoutOnMethod.getValue();
-                unit = accessTimeoutOnMethod.getTimeUnit();
-            }
+        Lock lock = methodLock.getLock();
+        // the default access timeout will be used in the absence of any explicit access timeout value for the invoked method
+        AccessTimeoutDetails accessTimeout = methodLock.getAccessTimeout();
+        if (accessTimeout == null) {
+            accessTimeout = lockableComponent.getDefaultAccessTimeout();
         }
+        long time = accessTimeout.getValue();
+        TimeUnit unit = accessTimeout.getTimeUnit();
         // try getting the lock
         boolean success = lock.tryLock(time, unit);
         if (!success) {
@@ -113,6 +120,31 @@ public class ContainerManagedConcurrencyInterceptor implements Interceptor {
         }
     }
 
+    private MethodLock createMethodLock(Method method) {
+        Method invokedMethod = this.viewMethodToComponentMethodMap.get(method);
+        if (invokedMethod == null) {
+            invokedMethod = method;
+        }
+        LockableComponent lockableComponent = this.getLockableComponent();
+        Lock lock = getLock(lockableComponent, invokedMethod);
+        AccessTimeoutDetails accessTimeoutOnMethod = lockableComponent.getAccessTimeout(invokedMethod);
+        // The default access timeout can change at runtime, so we do not capture it
+        if (accessTimeoutOnMethod == lockableComponent.getDefaultAccessTimeout()) {
+            accessTimeoutOnMethod = null;
+        }
+        if ((accessTimeoutOnMethod != null) && (accessTimeoutOnMethod.getValue() < 0)) {
+            // for any negative value of timeout, we just default to max timeout val and max timeout unit.
+            // violation of spec! But we don't want to wait indefinitely.
+            if (ROOT_LOGGER.isDebugEnabled()) {
+                ROOT_LOGGER.debug("Ignoring a negative @AccessTimeout value: " + accessTimeoutOnMethod.getValue()
+                        + " and timeout unit: " + accessTimeoutOnMethod.getTimeUnit().name()
+                        + " on method: " + invokedMethod + ". Will default to the default access timeout.");
+            }
+            accessTimeoutOnMethod = null;
+        }
+        return new MethodLock(lock, accessTimeoutOnMethod);
+    }
+
     private Lock getLock(LockableComponent lockableComponent, Method method) {
         LockType lockType = lockableComponent.getLockType(method);
         switch (lockType) {
@@ -124,4 +156,24 @@ public class ContainerManagedConcurrencyInterceptor implements Interceptor {
         throw EjbLogger.ROOT_LOGGER.failToObtainLockIllegalType(lockType, method, lockableComponent);
     }
 
+    private static class MethodLock {
+        private final Lock lock;
+        private final AccessTimeoutDetails accessTimeout;
+
+        MethodLock(Lock lock, AccessTimeoutDetails accessTimeout) {
+            this.lock = lock;
+            this.accessTimeout = accessTimeout;
+        }
+
+        Lock getLock() {
+            return this.lock;
+        }
+
+        /**
+         * @return the explicit access timeout for the method, or null, if the default access timeout applies
+         */
+        AccessTimeoutDetails getAccessTimeout() {
+            return this.accessTimeout;
+        }
+    }
 }
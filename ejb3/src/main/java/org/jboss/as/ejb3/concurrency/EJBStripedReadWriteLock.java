@@ -0,0 +1,368 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.concurrency;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+
+/**
+ * A spec compliant {@link ReadWriteLock} optimized for read-mostly components.
+ * Like {@link EJBReadWriteLock}, read and write locks are reentrant, a thread holding the write lock may also acquire the read lock,
+ * and a thread holding only a read lock that attempts to acquire the write lock fails with an {@link javax.ejb.IllegalLoopbackException}.
+ * <p/>
+ * Readers are counted in one of several stripes, selected per thread, each on its own cache line,
+ * so that concurrent readers do not contend on a single shared reader count.
+ * A reader first increments its stripe, then verifies that there is no writer; a writer first claims ownership, then waits for all stripes to drain.
+ * Consequently, a waiting writer blocks new readers, and cannot be starved by them.
+ * Threads only block on a lock when a writer owns, or is acquiring, the lock.
+ * The locks held by a thread are tracked via a mutable per-thread holder, so acquisition and release do not allocate.
+ *
+ * @author agent
+ */
+public class EJBStripedReadWriteLock implements ReadWriteLock {
+
+    // Spaces stripes 128 bytes apart, to avoid false sharing, including by adjacent line prefetch
+    private static final int PADDING = 16;
+
+    private final int mask;
+    private final AtomicLongArray readers;
+    private final AtomicReference<Thread> writer = new AtomicReference<>();
+    private final ThreadLocal<Holder> holders = ThreadLocal.withInitial(this::createHolder);
+    private final Lock monitor = new ReentrantLock();
+    private final Condition changed = this.monitor.newCondition();
+
+    private final Lock readLock = new ReadLock();
+    private final Lock writeLock = new WriteLock();
+
+    public EJBStripedReadWriteLock() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new lock using the specified number of reader stripes, rounded up to a power of 2.
+     * @param stripes the number of reader stripes
+     */
+    public EJBStripedReadWriteLock(int stripes) {
+        int size = (stripes > 1) ? Integer.highestOneBit(stripes - 1) << 1 : 1;
+        this.mask = size - 1;
+        this.readers = new AtomicLongArray(size * PADDING);
+    }
+
+    @Override
+    public Lock readLock() {
+        return this.readLock;
+    }
+
+    @Override
+    public Lock writeLock() {
+        return this.writeLock;
+    }
+
+    private Holder createHolder() {
+        long id = Thread.currentThread().getId();
+        // Spread thread identifiers, which are typically sequential
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return new Holder(((hash ^ (hash >>> 16)) & this.mask) * PADDING);
+    }
+
+    private boolean hasReaders() {
+        for (int i = 0; i <= this.mask; ++i) {
+            if (this.readers.get(i * PADDING) != 0L) return true;
+        }
+        return false;
+    }
+
+    private boolean tryAcquireRead(Holder holder) {
+        this.readers.incrementAndGet(holder.stripe);
+        if (this.writer.get() == null) {
+            return true;
+        }
+        // Back off in favor of the writer
+        this.releaseRead(holder);
+        return false;
+    }
+
+    private void releaseRead(Holder holder) {
+        this.readers.decrementAndGet(holder.stripe);
+        if (this.writer.get() != null) {
+            // A writer may be waiting for readers to drain
+            this.signal();
+        }
+    }
+
+    private void signal() {
+        this.monitor.lock();
+        try {
+            this.changed.signalAll();
+        } finally {
+            this.monitor.unlock();
+        }
+    }
+
+    private boolean acquireRead(Holder holder, long nanos, boolean timed) throws InterruptedException {
+        if (this.tryAcquireRead(holder)) return true;
+        long remaining = nanos;
+        this.monitor.lockInterruptibly();
+        try {
+            while (true) {
+                if (this.writer.get() == null) {
+                    if (this.tryAcquireRead(holder)) return true;
+                    // Writer arrived concurrently; we will be signaled when it releases
+                    continue;
+                }
+                if (timed) {
+                    if (remaining <= 0L) return false;
+                    remaining = this.changed.awaitNanos(remaining);
+                } else {
+                    this.changed.await();
+                }
+            }
+        } finally {
+            this.monitor.unlock();
+        }
+    }
+
+    private boolean acquireWrite(Thread thread, long nanos, boolean timed) throws InterruptedException {
+        long deadline = timed ? System.nanoTime() + nanos : 0L;
+        if (!this.writer.compareAndSet(null, thread)) {
+            this.monitor.lockInterruptibly();
+            try {
+                while (!this.writer.compareAndSet(null, thread)) {
+                    if (!this.await(deadline, timed)) return false;
+                }
+            } finally {
+                this.monitor.unlock();
+            }
+        }
+        // We now block new readers, but must wait for existing readers to drain
+        if (!this.hasReaders()) return true;
+        boolean acquired = false;
+        try {
+            this.monitor.lockInterruptibly();
+            try {
+                while (this.hasReaders()) {
+                    if (!this.await(deadline, timed)) return false;
+                }
+                acquired = true;
+                return true;
+            } finally {
+                this.monitor.unlock();
+            }
+        } finally {
+            if (!acquired) {
+                this.writer.set(null);
+                this.signal();
+            }
+        }
+    }
+
+    // Must be called while holding the monitor
+    private boolean await(long deadline, boolean timed) throws InterruptedException {
+        if (!timed) {
+            this.changed.await();
+            return true;
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0L) return false;
+        this.changed.awaitNanos(remaining);
+        return true;
+    }
+
+    private boolean lockRead(long nanos, boolean timed) throws InterruptedException {
+        Holder holder = this.holders.get();
+        if ((holder.reads > 0) || (holder.writes > 0)) {
+            // Reentrant read, or read within write; our thread already excludes writers
+            holder.reads += 1;
+            return true;
+        }
+        if (!this.acquireRead(holder, nanos, timed)) return false;
+        holder.reads = 1;
+        holder.counted = true;
+        return true;
+    }
+
+    private void unlockRead() {
+        Holder holder = this.holders.get();
+        if (holder.reads == 0) {
+            throw new IllegalMonitorStateException();
+        }
+        holder.reads -= 1;
+        if ((holder.reads == 0) && holder.counted) {
+            holder.counted = false;
+            this.releaseRead(holder);
+        }
+    }
+
+    private boolean lockWrite(long nanos, boolean timed) throws InterruptedException {
+        Holder holder = this.holders.get();
+        if (holder.writes > 0) {
+            holder.writes += 1;
+            return true;
+        }
+        if (holder.reads > 0) {
+            throw EjbLogger.ROOT_LOGGER.failToUpgradeToWriteLock();
+        }
+        if (!this.acquireWrite(Thread.currentThread(), nanos, timed)) return false;
+        holder.writes = 1;
+        return true;
+    }
+
+    private void unlockWrite() {
+        Holder holder = this.holders.get();
+        if (holder.writes == 0) {
+            throw new IllegalMonitorStateException();
+        }
+        holder.writes -= 1;
+        if (holder.writes == 0) {
+            if (holder.reads > 0) {
+                // Downgrade: count our remaining reads before admitting other writers
+                this.readers.incrementAndGet(holder.stripe);
+                holder.counted = true;
+            }
+            this.writer.set(null);
+            this.signal();
+        }
+    }
+
+    private static class Holder {
+        final int stripe;
+        int reads = 0;
+        int writes = 0;
+        // Indicates whether the reads of this thread are reflected in its stripe, i.e. they were not acquired within a write lock
+        boolean counted = false;
+
+        Holder(int stripe) {
+            this.stripe = stripe;
+        }
+    }
+
+    private class ReadLock implements Lock {
+        @Override
+        public void lock() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    EJBStripedReadWriteLock.this.lockRead(0L, false);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            if (Thread.interrupted()) throw new InterruptedException();
+            EJBStripedReadWriteLock.this.lockRead(0L, false);
+        }
+
+        @Override
+        public boolean tryLock() {
+            Holder holder = EJBStripedReadWriteLock.this.holders.get();
+            if ((holder.reads > 0) || (holder.writes > 0)) {
+                holder.reads += 1;
+                return true;
+            }
+            if (!EJBStripedReadWriteLock.this.tryAcquireRead(holder)) return false;
+            holder.reads = 1;
+            holder.counted = true;
+            return true;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            if (Thread.interrupted()) throw new InterruptedException();
+            return EJBStripedReadWriteLock.this.lockRead(unit.toNanos(time), true);
+        }
+
+        @Override
+        public void unlock() {
+            EJBStripedReadWriteLock.this.unlockRead();
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private class WriteLock implements Lock {
+        @Override
+        public void lock() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    EJBStripedReadWriteLock.this.lockWrite(0L, false);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            if (Thread.interrupted()) throw new InterruptedException();
+            EJBStripedReadWriteLock.this.lockWrite(0L, false);
+        }
+
+        @Override
+        public boolean tryLock() {
+            try {
+                return EJBStripedReadWriteLock.this.lockWrite(0L, true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            if (Thread.interrupted()) throw new InterruptedException();
+            return EJBStripedReadWriteLock.this.lockWrite(unit.toNanos(time), true);
+        }
+
+        @Override
+        public void unlock() {
+            EJBStripedReadWriteLock.this.unlockWrite();
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
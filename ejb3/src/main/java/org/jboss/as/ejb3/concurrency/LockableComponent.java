@@ -70,6 +70,16 @@ public interface LockableComponent {
      */
     String getComponentName();
 
+    /**
+     * Indicates whether container managed concurrency should use a {@link EJBStripedReadWriteLock}, optimized for
+     * read-mostly components, instead of a {@link EJBReadWriteLock}.
+     *
+     * @return true, if this component should use a striped lock, false otherwise
+     */
+    default boolean isStripedLock() {
+        return false;
+    }
+
     void setConcurrencyManagementInterceptor(Interceptor interceptor);
 
     Interceptor getConcurrencyManagementInterceptor();
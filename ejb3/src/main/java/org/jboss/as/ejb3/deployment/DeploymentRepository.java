@@ -52,6 +52,11 @@ public class DeploymentRepository implements Service<DeploymentRepository> {
      */
     private volatile Map<DeploymentModuleIdentifier, DeploymentHolder> modules;
 
+    /**
+     * Snapshot of the started modules, recomputed whenever a module is added, started, or removed.
+     */
+    private volatile Map<DeploymentModuleIdentifier, ModuleDeployment> startedModules = Collections.emptyMap();
+
     private final List<DeploymentRepositoryListener> listeners = new ArrayList<DeploymentRepositoryListener>();
 
     /**
@@ -63,11 +68,13 @@ public class DeploymentRepository implements Service<DeploymentRepository> {
     @Override
     public void start(StartContext context) throws StartException {
         modules = Collections.emptyMap();
+        startedModules = Collections.emptyMap();
     }
 
     @Override
     public void stop(StopContext context) {
         modules = null;
+        startedModules = Collections.emptyMap();
     }
 
     @Override
@@ -82,6 +89,7 @@ public class DeploymentRepository implements Service<DeploymentRepository> {
             final Map<DeploymentModuleIdentifier, DeploymentHolder> modules = new HashMap<DeploymentModuleIdentifier, DeploymentHolder>(this.modules);
             modules.put(identifier, new DeploymentHolder(deployment));
             this.modules = Collections.unmodifiableMap(modules);
+            this.updateStartedModules();
             listeners = new ArrayList<DeploymentRepositoryListener>(this.listeners);
             suspended = this.suspended;
         }
@@ -104,6 +112,7 @@ public class DeploymentRepository implements Service<DeploymentRepository> {
             deployment = modules.get(identifier);
             if (deployment == null) return false;
             deployment.started = true;
+            this.updateStartedModules();
             listeners = new ArrayList<DeploymentRepositoryListener>(this.listeners);
         }
         for (final DeploymentRepositoryListener listener : listeners) {
@@ -134,6 +143,7 @@ public class DeploymentRepository implements Service<DeploymentRepository> {
             final Map<DeploymentModuleIdentifier, DeploymentHolder> modules = new HashMap<DeploymentModuleIdentifier, DeploymentHolder>(this.modules);
             modules.remove(identifier);
             this.modules = Collections.unmodifiableMap(modules);
+            this.updateStartedModules();
             listeners = new ArrayList<DeploymentRepositoryListener>(this.listeners);
         }
         for (final DeploymentRepositoryListener listener : listeners) {
@@ -195,16 +205,23 @@ public class DeploymentRepository implements Service<DeploymentRepository> {
 
     /**
      * Returns all the deployments that are in a started state, i.e. all components are ready to receive invocations.
+     * The returned map is an immutable snapshot, which is replaced whenever a deployment is added, started, or removed.
+     * Consequently, callers may safely cache information derived from a given snapshot for as long as it remains current.
      * @return All the started deployments
      */
     public Map<DeploymentModuleIdentifier, ModuleDeployment> getStartedModules() {
+        return startedModules;
+    }
+
+    // Must be called while holding the monitor of this repository
+    private void updateStartedModules() {
         Map<DeploymentModuleIdentifier, ModuleDeployment> modules = new HashMap<DeploymentModuleIdentifier, ModuleDeployment>();
         for(Map.Entry<DeploymentModuleIdentifier, DeploymentHolder> entry : this.modules.entrySet()) {
             if(entry.getValue().started) {
                 modules.put(entry.getKey(), entry.getValue().deployment);
             }
         }
-        return modules;
+        this.startedModules = Collections.unmodifiableMap(modules);
     }
 
     private class DeploymentHolder {
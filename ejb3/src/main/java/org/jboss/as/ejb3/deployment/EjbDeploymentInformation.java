@@ -25,13 +25,17 @@ package org.jboss.as.ejb3.deployment;
 import org.jboss.as.ee.component.ComponentView;
 import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.iiop.EjbIIOPService;
+import org.jboss.ejb.client.EJBMethodLocator;
 import org.jboss.msc.value.InjectedValue;
 
+import java.lang.reflect.Method;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Runtime information about an EJB in a module
@@ -50,6 +54,7 @@ public class EjbDeploymentInformation {
 
     private final InjectedValue<EjbIIOPService> iorFactory;
     private final Set<String> remoteViewClassNames = new HashSet<String>();
+    private final Map<String, Map<EJBMethodLocator, Method>> viewMethods = new ConcurrentHashMap<String, Map<EJBMethodLocator, Method>>();
 
     /**
      * @param ejbName               The EJB name
@@ -113,6 +118,31 @@ public class EjbDeploymentInformation {
         return value.getValue();
     }
 
+    /**
+     * Returns the method of the specified view identified by the specified locator.
+     * The methods of each view are indexed by their locator upon first use, so that subsequent lookups require neither reflection nor scanning.
+     *
+     * @param viewClassName The fully qualified classname of the view
+     * @param locator The locator of a view method
+     * @return the view method, or null, if the view has no such method
+     */
+    public Method getViewMethod(final String viewClassName, final EJBMethodLocator locator) {
+        Map<EJBMethodLocator, Method> methods = this.viewMethods.get(viewClassName);
+        if (methods == null) {
+            methods = this.viewMethods.computeIfAbsent(viewClassName, name -> indexViewMethods(this.getView(name)));
+        }
+        return methods.get(locator);
+    }
+
+    private static Map<EJBMethodLocator, Method> indexViewMethods(final ComponentView view) {
+        final Set<Method> viewMethods = view.getViewMethods();
+        final Map<EJBMethodLocator, Method> methods = new HashMap<EJBMethodLocator, Method>(viewMethods.size() * 2);
+        for (Method method : viewMethods) {
+            methods.putIfAbsent(EJBMethodLocator.forMethod(method), method);
+        }
+        return Collections.unmodifiableMap(methods);
+    }
+
     public ClassLoader getDeploymentClassLoader() {
         return deploymentClassLoader;
     }
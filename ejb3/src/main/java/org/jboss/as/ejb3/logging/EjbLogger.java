@@ -3152,4 +3152,19 @@ public interface EjbLogger extends BasicLogger {
     @LogMessage(level = WARN)
     @Message(id = 495, value = "Ignoring the persisted start or end date for scheduled expression of timer ID:%s as it is not valid : %s.")
     void scheduleExpressionDateFromTimerPersistenceInvalid(String timerId, String parserMessage);
+
+    @LogMessage(level = WARN)
+    @Message(id = 496, value = "Discarded %2$d bytes of incomplete or corrupt records from timer journal %1$s")
+    void discardedCorruptTimerJournal(File file, long bytes);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 497, value = "Could not restore timer %s of %s from timer journal")
+    void failToRestoreTimerFromJournal(String timerId, String timedObjectId, @Cause Throwable e);
+
+    @LogMessage(level = WARN)
+    @Message(id = 498, value = "Could not compact timer journal in %s")
+    void failToCompactTimerJournal(File directory, @Cause Throwable e);
+
+    @Message(id = 499, value = "Could not open timer journal in %s")
+    RuntimeException failToOpenTimerJournal(File directory, @Cause Throwable e);
 }
@@ -0,0 +1,320 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.pool.strictmax;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.pool.AbstractPool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+
+/**
+ * A pool with a maximum size, whose idle instances are partitioned into stripes, one per processor.
+ * A thread returns instances to, and takes instances from, the stripe to which it hashes, stealing from other stripes only when its own is empty.
+ * Each stripe is a fixed array of slots that are claimed and vacated via atomic exchange, so neither {@link #get()} nor {@link #release(Object)} allocates or contends on shared state in the common case.
+ * The number of instances in use is bounded by a single permit counter; callers only block on a lock when no permit is available.
+ * <p/>
+ * If the minimum size is less than the maximum size, the number of permits adapts to demand:
+ * the limit starts at the minimum size and grows by one stripe's worth of permits whenever callers waited, on average, longer than {@link #WAIT_THRESHOLD_NANOS} during the previous {@link #ADAPT_INTERVAL_NANOS},
+ * and shrinks by a single permit whenever no caller waited during that interval.
+ *
+ * @author agent
+ */
+public class PartitionedStrictMaxPool<T> extends AbstractPool<T> {
+
+    static final long ADAPT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    static final long WAIT_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicReferenceArray<T>[] stripes;
+    private final int mask;
+    private final int minSize;
+    private final int maxSize;
+    private final long timeout;
+    private final TimeUnit timeUnit;
+
+    // The number of instances that may still be acquired, which is negative while the limit shrinks below the number of instances in use
+    private final AtomicInteger permits;
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final Lock lock = new ReentrantLock();
+    private final Condition available = this.lock.newCondition();
+    private volatile int limit;
+
+    private final AtomicBoolean adapting = new AtomicBoolean();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder waitTime = new LongAdder();
+    private volatile long lastAdapted = System.nanoTime();
+
+    /**
+     * Creates a pool of fixed size.
+     * @param factory the factory of pooled instances
+     * @param maxSize the maximum number of instances in use
+     * @param timeout the maximum time to wait for an instance
+     * @param timeUnit the unit of the timeout
+     */
+    public PartitionedStrictMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit) {
+        this(factory, maxSize, maxSize, timeout, timeUnit);
+    }
+
+    /**
+     * Creates a pool whose size adapts to demand within the specified bounds.
+     * @param factory the factory of pooled instances
+     * @param minSize the initial number of instances that may be in use
+     * @param maxSize the maximum number of instances in use
+     * @param timeout the maximum time to wait for an instance
+     * @param timeUnit the unit of the timeout
+     */
+    @SuppressWarnings("unchecked")
+    public PartitionedStrictMaxPool(StatelessObjectFactory<T> factory, int minSize, int maxSize, long timeout, TimeUnit timeUnit) {
+        super(factory);
+        if (minSize <= 0 || minSize > maxSize) {
+            throw new IllegalArgumentException(Integer.toString(minSize));
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.limit = minSize;
+        this.permits = new AtomicInteger(minSize);
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        // Use the smallest power of 2 no less than the number of processors, but no more stripes than instances
+        int processors = Runtime.getRuntime().availableProcessors();
+        int stripes = Math.min((processors > 1) ? Integer.highestOneBit(processors - 1) << 1 : 1, Integer.highestOneBit(maxSize));
+        this.mask = stripes - 1;
+        // Collectively, the stripes have room for every instance
+        int slots = (maxSize + stripes - 1) / stripes;
+        this.stripes = new AtomicReferenceArray[stripes];
+        for (int i = 0; i < stripes; ++i) {
+            this.stripes[i] = new AtomicReferenceArray<>(slots);
+        }
+    }
+
+    @Override
+    public void discard(T obj) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Discard instance %s#%s", this, obj);
+        }
+        this.releasePermit();
+        this.doRemove(obj);
+    }
+
+    @Override
+    public int getCurrentSize() {
+        return this.getCreateCount() - this.getRemoveCount();
+    }
+
+    @Override
+    public int getAvailableCount() {
+        return Math.max(this.permits.get(), 0);
+    }
+
+    /**
+     * Returns the current limit on the number of instances in use, which is only less than the configured maximum size if this pool is adaptive.
+     */
+    @Override
+    public int getMaxSize() {
+        return this.limit;
+    }
+
+    @Override
+    public void setMaxSize(int maxSize) {
+        throw EjbLogger.ROOT_LOGGER.methodNotImplemented();
+    }
+
+    @Override
+    public T get() {
+        if (!this.tryAcquirePermit()) {
+            this.acquirePermit();
+        }
+        if (this.minSize < this.maxSize) {
+            this.adapt();
+        }
+        T bean = this.poll();
+        if (bean != null) {
+            return bean;
+        }
+        try {
+            // Pool is empty, create an instance
+            bean = this.create();
+        } finally {
+            if (bean == null) {
+                this.releasePermit();
+            }
+        }
+        return bean;
+    }
+
+    @Override
+    public void release(T obj) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("%s/%s Free instance: %s", this.getAvailableCount(), this.limit, this);
+        }
+        if (!this.offer(obj)) {
+            // Only possible if a concurrent poll() overlooked an idle instance, and created another in its place
+            this.destroy(obj);
+        }
+        this.releasePermit();
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void stop() {
+        for (AtomicReferenceArray<T> stripe : this.stripes) {
+            for (int i = 0; i < stripe.length(); ++i) {
+                T obj = stripe.getAndSet(i, null);
+                if (obj != null) {
+                    this.destroy(obj);
+                }
+            }
+        }
+    }
+
+    private int home() {
+        long id = Thread.currentThread().getId();
+        // Spread thread identifiers, which are typically sequential
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & this.mask;
+    }
+
+    private T poll() {
+        int home = this.home();
+        for (int i = 0; i <= this.mask; ++i) {
+            AtomicReferenceArray<T> stripe = this.stripes[(home + i) & this.mask];
+            for (int j = 0; j < stripe.length(); ++j) {
+                if (stripe.get(j) != null) {
+                    T obj = stripe.getAndSet(j, null);
+                    if (obj != null) {
+                        return obj;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean offer(T obj) {
+        int home = this.home();
+        for (int i = 0; i <= this.mask; ++i) {
+            AtomicReferenceArray<T> stripe = this.stripes[(home + i) & this.mask];
+            for (int j = 0; j < stripe.length(); ++j) {
+                if ((stripe.get(j) == null) && stripe.compareAndSet(j, null, obj)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean tryAcquirePermit() {
+        int current = this.permits.get();
+        while (current > 0) {
+            if (this.permits.compareAndSet(current, current - 1)) {
+                return true;
+            }
+            current = this.permits.get();
+        }
+        return false;
+    }
+
+    private void acquirePermit() {
+        long start = System.nanoTime();
+        long remaining = this.timeUnit.toNanos(this.timeout);
+        this.lock.lock();
+        try {
+            this.waiters.incrementAndGet();
+            try {
+                // Re-check after registering as a waiter, so that a concurrent release cannot miss us
+                while (!this.tryAcquirePermit()) {
+                    if (remaining <= 0L) {
+                        throw EjbLogger.ROOT_LOGGER.failedToAcquirePermit(this.timeout, this.timeUnit);
+                    }
+                    remaining = this.available.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw EjbLogger.ROOT_LOGGER.acquireSemaphoreInterrupted();
+            } finally {
+                this.waiters.decrementAndGet();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        this.waits.increment();
+        this.waitTime.add(System.nanoTime() - start);
+    }
+
+    private void releasePermit() {
+        this.addPermits(1);
+    }
+
+    private void addPermits(int count) {
+        if ((this.permits.addAndGet(count) > 0) && (this.waiters.get() > 0)) {
+            this.lock.lock();
+            try {
+                if (count == 1) {
+                    this.available.signal();
+                } else {
+                    this.available.signalAll();
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    private void adapt() {
+        long now = System.nanoTime();
+        if ((now - this.lastAdapted < ADAPT_INTERVAL_NANOS) || !this.adapting.compareAndSet(false, true)) return;
+        try {
+            long waits = this.waits.sumThenReset();
+            long waitTime = this.waitTime.sumThenReset();
+            int limit = this.limit;
+            if (waits > 0) {
+                if ((waitTime / waits > WAIT_THRESHOLD_NANOS) && (limit < this.maxSize)) {
+                    int increment = Math.min(this.mask + 1, this.maxSize - limit);
+                    this.limit = limit + increment;
+                    this.addPermits(increment);
+                    ROOT_LOGGER.debugf("Increased limit of %s to %d instances", this, this.limit);
+                }
+            } else if (limit > this.minSize) {
+                this.limit = limit - 1;
+                // Permits become negative if more instances are in use than the new limit allows
+                this.permits.decrementAndGet();
+                ROOT_LOGGER.tracef("Decreased limit of %s to %d instances", this, this.limit);
+            }
+            this.lastAdapted = now;
+        } finally {
+            this.adapting.set(false);
+        }
+    }
+}
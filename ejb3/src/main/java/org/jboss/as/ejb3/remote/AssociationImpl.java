@@ -43,7 +43,6 @@ import org.jboss.ejb.client.Affinity;
 import org.jboss.ejb.client.EJBClientInvocationContext;
 import org.jboss.ejb.client.EJBIdentifier;
 import org.jboss.ejb.client.EJBLocator;
-import org.jboss.ejb.client.EJBMethodLocator;
 import org.jboss.ejb.client.EJBModuleIdentifier;
 import org.jboss.ejb.client.SessionID;
 import org.jboss.ejb.client.StatefulEJBLocator;
@@ -87,6 +86,9 @@ final class AssociationImpl implements Association, AutoCloseable {
     private final DeploymentRepository deploymentRepository;
     private final ClusterTopologyRegistrar clusterTopologyRegistrar;
     private volatile Executor executor;
+    private volatile Executor oneWayExecutor;
+    private volatile ResponseBatcher responseBatcher;
+    private volatile ResolvedEJBs resolvedEJBs = new ResolvedEJBs(Collections.emptyMap());
 
     AssociationImpl(final DeploymentRepository deploymentRepository, final Registry<String, List<ClientMapping>> clientMappingRegistry) {
         this.deploymentRepository = deploymentRepository;
@@ -108,7 +110,7 @@ final class AssociationImpl implements Association, AutoCloseable {
         final String distinctName = ejbIdentifier.getDistinctName();
         final String beanName = ejbIdentifier.getBeanName();
 
-        final EjbDeploymentInformation ejbDeploymentInformation = findEJB(appName, moduleName, distinctName, beanName);
+        final EjbDeploymentInformation ejbDeploymentInformation = findEJB(ejbIdentifier);
 
         if (ejbDeploymentInformation == null) {
             invocationRequest.writeNoSuchEJB();
@@ -138,7 +140,7 @@ final class AssociationImpl implements Association, AutoCloseable {
 
         final ComponentView componentView = ejbDeploymentInformation.getView(viewClassName);
 
-        final Method invokedMethod = findMethod(componentView, invocationRequest.getMethodLocator());
+        final Method invokedMethod = ejbDeploymentInformation.getViewMethod(viewClassName, invocationRequest.getMethodLocator());
         if (invokedMethod == null) {
             invocationRequest.writeNoSuchMethod();
             return CancelHandle.NULL;
@@ -159,7 +161,7 @@ final class AssociationImpl implements Association, AutoCloseable {
 
         Runnable runnable = () -> {
             if (! cancellationFlag.runIfNotCancelled()) {
-                if (! oneWay) invocationRequest.writeCancelResponse();
+                if (! oneWay) this.writeResponse(invocationRequest, invocationRequest::writeCancelResponse);
                 return;
             }
             // invoke the method
@@ -191,15 +193,15 @@ final class AssociationImpl implements Association, AutoCloseable {
                 // if the EJB is shutting down when the invocation was done, then it's as good as the EJB not being available. The client has to know about this as
                 // a "no such EJB" failure so that it can retry the invocation on a different node if possible.
                 EjbLogger.EJB3_INVOCATION_LOGGER.debugf("Cannot handle method invocation: %s on bean: %s due to EJB component unavailability exception. Returning a no such EJB available message back to client", invokedMethod, beanName);
-                if (! oneWay) invocationRequest.writeNoSuchEJB();
+                if (! oneWay) this.writeResponse(invocationRequest, invocationRequest::writeNoSuchEJB);
                 return;
             } catch (ComponentIsStoppedException ex) {
                 EjbLogger.EJB3_INVOCATION_LOGGER.debugf("Cannot handle method invocation: %s on bean: %s due to EJB component stopped exception. Returning a no such EJB available message back to client", invokedMethod, beanName);
-                if (! oneWay) invocationRequest.writeNoSuchEJB();
+                if (! oneWay) this.writeResponse(invocationRequest, invocationRequest::writeNoSuchEJB);
                 return;
                 // TODO should we write a specifc response with a specific protocol letting client know that server is suspending?
             } catch (CancellationException ex) {
-                if (! oneWay) invocationRequest.writeCancelResponse();
+                if (! oneWay) this.writeResponse(invocationRequest, invocationRequest::writeCancelResponse);
                 return;
             } catch (Exception exception) {
                 if (oneWay) return;
@@ -217,39 +219,60 @@ final class AssociationImpl implements Association, AutoCloseable {
                 } else {
                     exceptionToWrite = exception;
                 }
-                invocationRequest.writeException(exceptionToWrite);
+                this.writeResponse(invocationRequest, () -> invocationRequest.writeException(exceptionToWrite));
                 return;
             } finally {
                 SecurityActions.remotingContextClear();
             }
             // invocation was successful
-            if (! oneWay) try {
-                // attach any weak affinity if available
-                Affinity weakAffinity = null;
-                if (ejbLocator.isStateful() && componentView.getComponent() instanceof StatefulSessionComponent) {
-                    final StatefulSessionComponent statefulSessionComponent = (StatefulSessionComponent) componentView.getComponent();
-                    weakAffinity = getWeakAffinity(statefulSessionComponent, ejbLocator.asStateful());
-                } else if (componentView.getComponent() instanceof StatelessSessionComponent) {
-                    final StatelessSessionComponent statelessSessionComponent = (StatelessSessionComponent) componentView.getComponent();
-                    weakAffinity = statelessSessionComponent.getWeakAffinity();
-                }
-                if (weakAffinity != null && !weakAffinity.equals(Affinity.NONE)) {
-                    attachments.put(Affinity.WEAK_AFFINITY_CONTEXT_KEY, weakAffinity);
+            if (! oneWay) this.writeResponse(invocationRequest, () -> {
+                try {
+                    // attach any weak affinity if available
+                    Affinity weakAffinity = null;
+                    if (ejbLocator.isStateful() && componentView.getComponent() instanceof StatefulSessionComponent) {
+                        final StatefulSessionComponent statefulSessionComponent = (StatefulSessionComponent) componentView.getComponent();
+                        weakAffinity = getWeakAffinity(statefulSessionComponent, ejbLocator.asStateful());
+                    } else if (componentView.getComponent() instanceof StatelessSessionComponent) {
+                        final StatelessSessionComponent statelessSessionComponent = (StatelessSessionComponent) componentView.getComponent();
+                        weakAffinity = statelessSessionComponent.getWeakAffinity();
+                    }
+                    if (weakAffinity != null && !weakAffinity.equals(Affinity.NONE)) {
+                        attachments.put(Affinity.WEAK_AFFINITY_CONTEXT_KEY, weakAffinity);
+                    }
+                    requestContent.writeInvocationResult(result);
+                } catch (Throwable ioe) {
+                    EjbLogger.REMOTE_LOGGER.couldNotWriteMethodInvocation(ioe, invokedMethod, beanName, appName, moduleName, distinctName);
                 }
-                requestContent.writeInvocationResult(result);
-            } catch (Throwable ioe) {
-                EjbLogger.REMOTE_LOGGER.couldNotWriteMethodInvocation(ioe, invokedMethod, beanName, appName, moduleName, distinctName);
-            }
+            });
         };
         // invoke the method and write out the response, possibly on a separate thread
-        execute(invocationRequest, runnable, isAsync);
+        execute(invocationRequest, runnable, isAsync, oneWay);
         return cancellationFlag::cancel;
     }
 
     private void execute(Request request, Runnable task, final boolean isAsync) {
+        this.execute(request, task, isAsync, false);
+    }
+
+    private void writeResponse(Request request, Runnable response) {
+        ResponseBatcher batcher = this.responseBatcher;
+        if (batcher != null) {
+            batcher.write(request.getProviderInterface(Connection.class), response);
+        } else {
+            response.run();
+        }
+    }
+
+    private void execute(Request request, Runnable task, final boolean isAsync, final boolean oneWay) {
         if (request.getProtocol().equals("local") && ! isAsync) {
             task.run();
         } else {
+            // One-way invocations are isolated from request/response invocations, so that a flood of fire-and-forget calls cannot starve the latter
+            Executor oneWayExecutor = this.oneWayExecutor;
+            if (oneWay && oneWayExecutor != null) {
+                oneWayExecutor.execute(task);
+                return;
+            }
             if(executor != null) {
                 executor.execute(task);
             } else {
@@ -263,12 +286,7 @@ final class AssociationImpl implements Association, AutoCloseable {
     public CancelHandle receiveSessionOpenRequest(@NotNull final SessionOpenRequest sessionOpenRequest) {
 
         final EJBIdentifier ejbIdentifier = sessionOpenRequest.getEJBIdentifier();
-        final String appName = ejbIdentifier.getAppName();
-        final String moduleName = ejbIdentifier.getModuleName();
-        final String beanName = ejbIdentifier.getBeanName();
-        final String distinctName = ejbIdentifier.getDistinctName();
-
-        final EjbDeploymentInformation ejbDeploymentInformation = findEJB(appName, moduleName, distinctName, beanName);
+        final EjbDeploymentInformation ejbDeploymentInformation = findEJB(ejbIdentifier);
         if (ejbDeploymentInformation == null) {
             sessionOpenRequest.writeNoSuchEJB();
             return CancelHandle.NULL;
@@ -345,17 +363,42 @@ final class AssociationImpl implements Association, AutoCloseable {
         return new EJBModuleIdentifier(identifier.getApplicationName(), identifier.getModuleName(), identifier.getDistinctName());
     }
 
-    private EjbDeploymentInformation findEJB(final String appName, final String moduleName, final String distinctName, final String beanName) {
-        final DeploymentModuleIdentifier ejbModule = new DeploymentModuleIdentifier(appName, moduleName, distinctName);
+    private EjbDeploymentInformation findEJB(final EJBIdentifier ejbIdentifier) {
         final Map<DeploymentModuleIdentifier, ModuleDeployment> modules = this.deploymentRepository.getStartedModules();
         if (modules == null || modules.isEmpty()) {
             return null;
         }
-        final ModuleDeployment moduleDeployment = modules.get(ejbModule);
-        if (moduleDeployment == null) {
-            return null;
+        ResolvedEJBs resolved = this.resolvedEJBs;
+        // Resolutions are only valid for the snapshot of started modules from which they were resolved
+        if (resolved.modules != modules) {
+            resolved = new ResolvedEJBs(modules);
+            this.resolvedEJBs = resolved;
+        }
+        EjbDeploymentInformation ejbDeploymentInformation = resolved.ejbs.get(ejbIdentifier);
+        if (ejbDeploymentInformation == null) {
+            final DeploymentModuleIdentifier ejbModule = new DeploymentModuleIdentifier(ejbIdentifier.getAppName(), ejbIdentifier.getModuleName(), ejbIdentifier.getDistinctName());
+            final ModuleDeployment moduleDeployment = modules.get(ejbModule);
+            if (moduleDeployment == null) {
+                return null;
+            }
+            ejbDeploymentInformation = moduleDeployment.getEjbs().get(ejbIdentifier.getBeanName());
+            if (ejbDeploymentInformation != null) {
+                resolved.ejbs.putIfAbsent(ejbIdentifier, ejbDeploymentInformation);
+            }
+        }
+        return ejbDeploymentInformation;
+    }
+
+    /**
+     * EJBs resolved from a given snapshot of started modules.
+     */
+    private static class ResolvedEJBs {
+        final Map<DeploymentModuleIdentifier, ModuleDeployment> modules;
+        final Map<EJBIdentifier, EjbDeploymentInformation> ejbs = new ConcurrentHashMap<>();
+
+        ResolvedEJBs(final Map<DeploymentModuleIdentifier, ModuleDeployment> modules) {
+            this.modules = modules;
         }
-        return moduleDeployment.getEjbs().get(beanName);
     }
 
     private class ClusterTopologyRegistrar implements Registry.Listener<String, List<ClientMapping>> {
@@ -492,29 +535,6 @@ final class AssociationImpl implements Association, AutoCloseable {
         return securityIdentity == null ? componentView.invoke(interceptorContext) : securityIdentity.runAsFunctionEx(ComponentView::invoke, componentView, interceptorContext);
     }
 
-    private static Method findMethod(final ComponentView componentView, final EJBMethodLocator ejbMethodLocator) {
-        final Set<Method> viewMethods = componentView.getViewMethods();
-        for (final Method method : viewMethods) {
-            if (method.getName().equals(ejbMethodLocator.getMethodName())) {
-                final Class<?>[] methodParamTypes = method.getParameterTypes();
-                if (methodParamTypes.length != ejbMethodLocator.getParameterCount()) {
-                    continue;
-                }
-                boolean found = true;
-                for (int i = 0; i < methodParamTypes.length; i++) {
-                    if (!methodParamTypes[i].getName().equals(ejbMethodLocator.getParameterTypeName(i))) {
-                        found = false;
-                        break;
-                    }
-                }
-                if (found) {
-                    return method;
-                }
-            }
-        }
-        return null;
-    }
-
     private static Affinity getWeakAffinity(final StatefulSessionComponent statefulSessionComponent, final StatefulEJBLocator<?> statefulEJBLocator) {
         final SessionID sessionID = statefulEJBLocator.getSessionId();
         return statefulSessionComponent.getCache().getWeakAffinity(sessionID);
@@ -527,4 +547,12 @@ final class AssociationImpl implements Association, AutoCloseable {
     void setExecutor(Executor executor) {
         this.executor = executor;
     }
+
+    void setOneWayExecutor(Executor oneWayExecutor) {
+        this.oneWayExecutor = oneWayExecutor;
+    }
+
+    void setResponseBatcher(ResponseBatcher responseBatcher) {
+        this.responseBatcher = responseBatcher;
+    }
 }
@@ -195,5 +195,17 @@ public final class AssociationService implements Service<AssociationService> {
             value.setExecutor(executor);
         }
     }
+
+    void setOneWayExecutor(Executor executor) {
+        if(value != null) {
+            value.setOneWayExecutor(executor);
+        }
+    }
+
+    void setResponseBatcher(ResponseBatcher batcher) {
+        if(value != null) {
+            value.setResponseBatcher(batcher);
+        }
+    }
 }
 
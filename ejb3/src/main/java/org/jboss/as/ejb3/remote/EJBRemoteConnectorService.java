@@ -51,18 +51,34 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
 
     private final InjectedValue<Endpoint> endpointValue = new InjectedValue<>();
     private final InjectedValue<ExecutorService> executorService = new InjectedValue<>();
+    private final InjectedValue<ExecutorService> oneWayExecutorService = new InjectedValue<>();
     private final InjectedValue<RemotingConnectorBindingInfoService.RemotingConnectorInfo> remotingConnectorInfoInjectedValue = new InjectedValue<>();
     private final InjectedValue<AssociationService> associationServiceInjectedValue = new InjectedValue<>();
     private final InjectedValue<RemotingTransactionService> remotingTransactionServiceInjectedValue = new InjectedValue<>();
     private volatile Registration registration;
+    private volatile ResponseBatcher responseBatcher;
+    private volatile OneWayExecutor oneWayExecutor;
     private final OptionMap channelCreationOptions;
+    private final int maxResponseBatchSize;
+    private final int oneWayMaxPendingInvocations;
 
     public EJBRemoteConnectorService() {
         this(OptionMap.EMPTY);
     }
 
     public EJBRemoteConnectorService(final OptionMap channelCreationOptions) {
+        this(channelCreationOptions, 0, 0);
+    }
+
+    /**
+     * @param channelCreationOptions the options of the EJB channel
+     * @param maxResponseBatchSize the maximum number of responses written back-to-back to the same connection, or 0, if responses should not be coalesced
+     * @param oneWayMaxPendingInvocations the maximum number of one-way invocations pending on the one-way thread pool, if injected, or 0, if unbounded
+     */
+    public EJBRemoteConnectorService(final OptionMap channelCreationOptions, final int maxResponseBatchSize, final int oneWayMaxPendingInvocations) {
         this.channelCreationOptions = channelCreationOptions;
+        this.maxResponseBatchSize = maxResponseBatchSize;
+        this.oneWayMaxPendingInvocations = oneWayMaxPendingInvocations;
     }
 
     @Override
@@ -73,6 +89,15 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
         if (executor != null) {
             associationService.setExecutor(executor);
         }
+        if (this.maxResponseBatchSize > 0) {
+            this.responseBatcher = new ResponseBatcher(this.maxResponseBatchSize, executor);
+            associationService.setResponseBatcher(this.responseBatcher);
+        }
+        Executor oneWayExecutor = oneWayExecutorService.getOptionalValue();
+        if (oneWayExecutor != null) {
+            this.oneWayExecutor = new OneWayExecutor(oneWayExecutor, this.oneWayMaxPendingInvocations);
+            associationService.setOneWayExecutor(this.oneWayExecutor);
+        }
         RemoteEJBService remoteEJBService = RemoteEJBService.create(
             associationService.getAssociation(),
             remotingTransactionServiceInjectedValue.getValue()
@@ -90,8 +115,40 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
 
     @Override
     public void stop(StopContext context) {
-        associationServiceInjectedValue.getValue().setExecutor(null);
+        final AssociationService associationService = associationServiceInjectedValue.getValue();
+        associationService.setExecutor(null);
+        associationService.setResponseBatcher(null);
+        associationService.setOneWayExecutor(null);
         registration.close();
+        this.oneWayExecutor = null;
+        this.responseBatcher = null;
+    }
+
+    /**
+     * Returns the number of invocation responses waiting to be written to their connection.
+     * @return the number of pending responses, or 0, if responses are not coalesced
+     */
+    public int getPendingResponseCount() {
+        ResponseBatcher batcher = this.responseBatcher;
+        return (batcher != null) ? batcher.getPendingCount() : 0;
+    }
+
+    /**
+     * Returns the average number of invocation responses written back-to-back to the same connection.
+     * @return the average response batch size, or 0, if responses are not coalesced
+     */
+    public double getAverageResponseBatchSize() {
+        ResponseBatcher batcher = this.responseBatcher;
+        return (batcher != null) ? batcher.getAverageBatchSize() : 0d;
+    }
+
+    /**
+     * Returns the number of one-way invocations submitted to the one-way thread pool that have not yet completed.
+     * @return the number of pending one-way invocations, or 0, if one-way invocations are not isolated
+     */
+    public int getPendingOneWayInvocationCount() {
+        OneWayExecutor executor = this.oneWayExecutor;
+        return (executor != null) ? executor.getPendingCount() : 0;
     }
 
     public String getProtocol() {
@@ -122,4 +179,8 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
     public InjectedValue<ExecutorService> getExecutorService() {
         return executorService;
     }
+
+    public InjectedValue<ExecutorService> getOneWayExecutorService() {
+        return oneWayExecutorService;
+    }
 }
@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes one-way invocations via a dedicated thread pool, bounding the number of pending invocations.
+ * Once that bound is reached, a one-way invocation executes on the thread that received it, i.e. a remoting worker thread,
+ * which throttles the reading of further requests from the client, rather than spilling into the thread pool shared with request/response invocations.
+ *
+ * @author agent
+ */
+class OneWayExecutor implements Executor {
+
+    private final Executor executor;
+    private final int maxPending;
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * Creates a one-way invocation executor.
+     * @param executor the dedicated one-way thread pool
+     * @param maxPending the maximum number of one-way invocations submitted to the thread pool that have not yet completed, or 0, if unbounded
+     */
+    OneWayExecutor(Executor executor, int maxPending) {
+        this.executor = executor;
+        this.maxPending = (maxPending > 0) ? maxPending : Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (this.pending.incrementAndGet() > this.maxPending) {
+            this.pending.decrementAndGet();
+            // Apply back-pressure to the client
+            task.run();
+            return;
+        }
+        try {
+            this.executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    this.pending.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.pending.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of one-way invocations submitted to the thread pool that have not yet completed.
+     * @return the number of pending one-way invocations
+     */
+    int getPendingCount() {
+        return this.pending.get();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.remoting3.Attachments;
+import org.jboss.remoting3.Connection;
+
+/**
+ * Coalesces the responses of remote invocations destined for the same connection.
+ * Rather than each invocation thread writing its own response, and contending with other invocation threads for the same connection,
+ * responses are queued per connection and written back-to-back by a single thread.
+ * The thread that finds the queue of a connection idle writes any responses queued while it does so, until either the queue is empty (i.e. idle),
+ * or the max batch size is reached, in which case the remaining responses are handed off to an executor, so that no invocation thread is held hostage by another's responses.
+ * If the executor rejects the hand-off, the current thread continues writing, so that queued responses are never stranded.
+ * Threads that find a connection busy simply enqueue their response and return.
+ *
+ * @author agent
+ */
+class ResponseBatcher {
+
+    private static final Attachments.Key<ResponseQueue> QUEUE_KEY = new Attachments.Key<>(ResponseQueue.class);
+
+    private final int maxBatchSize;
+    private final Executor executor;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong responses = new AtomicLong();
+
+    /**
+     * Creates a response batcher.
+     * @param maxBatchSize the maximum number of responses to write per batch
+     * @param executor the executor used to write responses remaining after a full batch, or null, if the current thread should write all queued responses
+     */
+    ResponseBatcher(int maxBatchSize, Executor executor) {
+        this.maxBatchSize = maxBatchSize;
+        this.executor = executor;
+    }
+
+    /**
+     * Writes the specified response, possibly coalesced with other responses to the same connection.
+     * @param connection the connection of the request, or null, if the request was not received via a remoting connection
+     * @param response a task that writes a response
+     */
+    void write(Connection connection, Runnable response) {
+        if (connection == null) {
+            response.run();
+            return;
+        }
+        Attachments attachments = connection.getAttachments();
+        ResponseQueue queue = attachments.getAttachment(QUEUE_KEY);
+        if (queue == null) {
+            ResponseQueue newQueue = new ResponseQueue();
+            queue = attachments.attachIfAbsent(QUEUE_KEY, newQueue);
+            if (queue == null) {
+                queue = newQueue;
+            }
+        }
+        this.pending.incrementAndGet();
+        queue.responses.add(response);
+        if (queue.writing.compareAndSet(false, true)) {
+            this.drain(queue);
+        }
+    }
+
+    /**
+     * Returns the number of responses waiting to be written, across all connections.
+     * @return the number of pending responses
+     */
+    int getPendingCount() {
+        return this.pending.get();
+    }
+
+    /**
+     * Returns the number of batches written.
+     * @return the number of batches
+     */
+    long getBatchCount() {
+        return this.batches.get();
+    }
+
+    /**
+     * Returns the average number of responses written per batch.
+     * @return the average batch size
+     */
+    double getAverageBatchSize() {
+        long batches = this.batches.get();
+        return (batches > 0) ? (double) this.responses.get() / batches : 0d;
+    }
+
+    // Only invoked by the thread that owns the writing flag of the specified queue
+    private void drain(ResponseQueue queue) {
+        while (true) {
+            int count = 0;
+            Runnable response = queue.responses.poll();
+            while (response != null) {
+                this.pending.decrementAndGet();
+                try {
+                    response.run();
+                } catch (Throwable e) {
+                    EjbLogger.REMOTE_LOGGER.couldNotWriteOutToChannel(e);
+                }
+                count += 1;
+                if (count == this.maxBatchSize) break;
+                response = queue.responses.poll();
+            }
+            if (count > 0) {
+                this.batches.incrementAndGet();
+                this.responses.addAndGet(count);
+            }
+            if (count == this.maxBatchSize) {
+                // Batch is full - hand off any remaining responses, retaining ownership of the queue
+                if ((this.executor != null) && !queue.responses.isEmpty()) {
+                    try {
+                        this.executor.execute(() -> this.drain(queue));
+                        return;
+                    } catch (RejectedExecutionException e) {
+                        // Executor is saturated or shutting down - keep draining via the current thread, which still owns the queue
+                        continue;
+                    }
+                }
+            }
+            queue.writing.set(false);
+            // Re-acquire ownership if a response was enqueued after our last poll, but before we released the queue
+            if (queue.responses.isEmpty() || !queue.writing.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    static class ResponseQueue {
+        final Queue<Runnable> responses = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean writing = new AtomicBoolean(false);
+    }
+}
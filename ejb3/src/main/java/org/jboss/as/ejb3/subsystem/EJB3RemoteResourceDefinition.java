@@ -25,18 +25,24 @@ package org.jboss.as.ejb3.subsystem;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.Function;
 
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
 import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.ejb3.remote.EJBRemoteConnectorService;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
 import org.wildfly.clustering.ejb.BeanManagerFactoryBuilderConfiguration;
 
 /**
@@ -74,6 +80,42 @@ public class EJB3RemoteResourceDefinition extends SimpleResourceDefinition {
                     .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
                     .build();
 
+    static final SimpleAttributeDefinition MAX_RESPONSE_BATCH_SIZE =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.MAX_RESPONSE_BATCH_SIZE, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(1, Integer.MAX_VALUE, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
+    static final SimpleAttributeDefinition ONE_WAY_THREAD_POOL_NAME =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.ONE_WAY_THREAD_POOL_NAME, ModelType.STRING, true)
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
+    static final SimpleAttributeDefinition ONE_WAY_MAX_PENDING_INVOCATIONS =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.ONE_WAY_MAX_PENDING_INVOCATIONS, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(1, Integer.MAX_VALUE, true, true))
+                    .setRequires(EJB3SubsystemModel.ONE_WAY_THREAD_POOL_NAME)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
+    private static final AttributeDefinition PENDING_RESPONSES = new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.PENDING_RESPONSES, ModelType.INT)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition AVERAGE_RESPONSE_BATCH_SIZE = new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.AVERAGE_RESPONSE_BATCH_SIZE, ModelType.DOUBLE)
+            .setUndefinedMetricValue(new ModelNode(0d))
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition PENDING_ONE_WAY_INVOCATIONS = new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.PENDING_ONE_WAY_INVOCATIONS, ModelType.INT)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
     private static final Map<String, AttributeDefinition> ATTRIBUTES;
 
     static {
@@ -82,6 +124,9 @@ public class EJB3RemoteResourceDefinition extends SimpleResourceDefinition {
         map.put(CONNECTOR_REF.getName(), CONNECTOR_REF);
         map.put(THREAD_POOL_NAME.getName(), THREAD_POOL_NAME);
         map.put(EXECUTE_IN_WORKER.getName(), EXECUTE_IN_WORKER);
+        map.put(MAX_RESPONSE_BATCH_SIZE.getName(), MAX_RESPONSE_BATCH_SIZE);
+        map.put(ONE_WAY_THREAD_POOL_NAME.getName(), ONE_WAY_THREAD_POOL_NAME);
+        map.put(ONE_WAY_MAX_PENDING_INVOCATIONS.getName(), ONE_WAY_MAX_PENDING_INVOCATIONS);
 
         ATTRIBUTES = Collections.unmodifiableMap(map);
     }
@@ -101,6 +146,9 @@ public class EJB3RemoteResourceDefinition extends SimpleResourceDefinition {
             // TODO: Make this read-write attribute
             resourceRegistration.registerReadWriteAttribute(attr, null, new ReloadRequiredWriteAttributeHandler(attr));
         }
+        resourceRegistration.registerMetric(PENDING_RESPONSES, new ConnectorMetricHandler(service -> new ModelNode(service.getPendingResponseCount())));
+        resourceRegistration.registerMetric(AVERAGE_RESPONSE_BATCH_SIZE, new ConnectorMetricHandler(service -> new ModelNode(service.getAverageResponseBatchSize())));
+        resourceRegistration.registerMetric(PENDING_ONE_WAY_INVOCATIONS, new ConnectorMetricHandler(service -> new ModelNode(service.getPendingOneWayInvocationCount())));
     }
 
     @Override
@@ -109,4 +157,23 @@ public class EJB3RemoteResourceDefinition extends SimpleResourceDefinition {
         // register channel-creation-options as sub model for EJB remote service
         resourceRegistration.registerSubModel(new RemoteConnectorChannelCreationOptionResource());
     }
+
+    /**
+     * Reads a metric of the EJB remoting connector service, if it is running.
+     */
+    private static class ConnectorMetricHandler extends AbstractRuntimeOnlyHandler {
+        private final Function<EJBRemoteConnectorService, ModelNode> metric;
+
+        ConnectorMetricHandler(Function<EJBRemoteConnectorService, ModelNode> metric) {
+            this.metric = metric;
+        }
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) {
+            ServiceController<?> controller = context.getServiceRegistry(false).getService(EJBRemoteConnectorService.SERVICE_NAME);
+            if ((controller != null) && (controller.getState() == ServiceController.State.UP)) {
+                context.getResult().set(this.metric.apply((EJBRemoteConnectorService) controller.getValue()));
+            }
+        }
+    }
 }
@@ -82,6 +82,9 @@ public class EJB3RemoteServiceAdd extends AbstractBoottimeAddStepHandler {
         final ServiceName remotingServerInfoServiceName = RemotingConnectorBindingInfoService.serviceName(connectorName);
         final String threadPoolName = EJB3RemoteResourceDefinition.THREAD_POOL_NAME.resolveModelAttribute(context, model).asString();
         final boolean executeInWorker = EJB3RemoteResourceDefinition.EXECUTE_IN_WORKER.resolveModelAttribute(context, model).asBoolean();
+        final ModelNode maxResponseBatchSize = EJB3RemoteResourceDefinition.MAX_RESPONSE_BATCH_SIZE.resolveModelAttribute(context, model);
+        final ModelNode oneWayThreadPoolName = EJB3RemoteResourceDefinition.ONE_WAY_THREAD_POOL_NAME.resolveModelAttribute(context, model);
+        final ModelNode oneWayMaxPendingInvocations = EJB3RemoteResourceDefinition.ONE_WAY_MAX_PENDING_INVOCATIONS.resolveModelAttribute(context, model);
 
         final ServiceTarget target = context.getServiceTarget();
         // Install the client-mapping service for the remoting connector
@@ -112,7 +115,7 @@ public class EJB3RemoteServiceAdd extends AbstractBoottimeAddStepHandler {
         final OptionMap channelCreationOptions = this.getChannelCreationOptions(context);
         // Install the EJB remoting connector service which will listen for client connections on the remoting channel
         // TODO: Externalize (expose via management API if needed) the version and the marshalling strategy
-        final EJBRemoteConnectorService ejbRemoteConnectorService = new EJBRemoteConnectorService(channelCreationOptions);
+        final EJBRemoteConnectorService ejbRemoteConnectorService = new EJBRemoteConnectorService(channelCreationOptions, maxResponseBatchSize.isDefined() ? maxResponseBatchSize.asInt() : 0, oneWayMaxPendingInvocations.isDefined() ? oneWayMaxPendingInvocations.asInt() : 0);
         ServiceBuilder<EJBRemoteConnectorService> builder = target.addService(EJBRemoteConnectorService.SERVICE_NAME, ejbRemoteConnectorService);
         builder
                 // add dependency on the Remoting subsystem endpoint
@@ -125,6 +128,9 @@ public class EJB3RemoteServiceAdd extends AbstractBoottimeAddStepHandler {
         if (!executeInWorker) {
             builder.addDependency(EJB3SubsystemModel.BASE_THREAD_POOL_SERVICE_NAME.append(threadPoolName), ExecutorService.class, ejbRemoteConnectorService.getExecutorService());
         }
+        if (oneWayThreadPoolName.isDefined()) {
+            builder.addDependency(EJB3SubsystemModel.BASE_THREAD_POOL_SERVICE_NAME.append(oneWayThreadPoolName.asString()), ExecutorService.class, ejbRemoteConnectorService.getOneWayExecutorService());
+        }
         builder.install();
     }
 
@@ -134,6 +140,9 @@ public class EJB3RemoteServiceAdd extends AbstractBoottimeAddStepHandler {
         EJB3RemoteResourceDefinition.CONNECTOR_REF.validateAndSet(operation, model);
         EJB3RemoteResourceDefinition.THREAD_POOL_NAME.validateAndSet(operation, model);
         EJB3RemoteResourceDefinition.EXECUTE_IN_WORKER.validateAndSet(operation, model);
+        EJB3RemoteResourceDefinition.MAX_RESPONSE_BATCH_SIZE.validateAndSet(operation, model);
+        EJB3RemoteResourceDefinition.ONE_WAY_THREAD_POOL_NAME.validateAndSet(operation, model);
+        EJB3RemoteResourceDefinition.ONE_WAY_MAX_PENDING_INVOCATIONS.validateAndSet(operation, model);
     }
 
     private OptionMap getChannelCreationOptions(final OperationContext context) throws OperationFailedException {
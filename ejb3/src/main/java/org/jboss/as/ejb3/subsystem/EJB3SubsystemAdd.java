@@ -391,6 +391,7 @@ class EJB3SubsystemAdd extends AbstractBoottimeAddStepHandler {
         }
 
         ExceptionLoggingWriteHandler.INSTANCE.updateOrCreateDefaultExceptionLoggingEnabledService(context, model);
+        SingletonStripedLockWriteHandler.INSTANCE.updateOrCreateStripedLockEnabledService(context, model);
 
         final ServiceTarget serviceTarget = context.getServiceTarget();
 
@@ -61,6 +61,7 @@ public interface EJB3SubsystemModel {
     String DEFAULT_ENTITY_BEAN_OPTIMISTIC_LOCKING = "default-entity-bean-optimistic-locking";
     String DISABLE_DEFAULT_EJB_PERMISSIONS = "disable-default-ejb-permissions";
     String ENABLE_GRACEFUL_TXN_SHUTDOWN = "enable-graceful-txn-shutdown";
+    String ENABLE_SINGLETON_STRIPED_LOCK = "enable-singleton-striped-lock";
     String DISCOVERY = "discovery";
     String STATIC = "static";
     String LOG_SYSTEM_EXCEPTIONS = "log-system-exceptions";
@@ -69,9 +70,11 @@ public interface EJB3SubsystemModel {
     String STATISTICS_ENABLED = "statistics-enabled";
 
     String FILE_DATA_STORE = "file-data-store";
+    String JOURNAL = "journal";
 
     String MAX_POOL_SIZE = "max-pool-size";
     String DERIVE_SIZE = "derive-size";
+    String PARTITIONED = "partitioned";
 
     String STRICT_MAX_BEAN_INSTANCE_POOL = "strict-max-bean-instance-pool";
 
@@ -148,6 +151,12 @@ public interface EJB3SubsystemModel {
 
     ServiceName BASE_THREAD_POOL_SERVICE_NAME = ThreadsServices.EXECUTOR.append("ejb3");
     String EXECUTE_IN_WORKER = "execute-in-worker";
+    String MAX_RESPONSE_BATCH_SIZE = "max-response-batch-size";
+    String ONE_WAY_THREAD_POOL_NAME = "one-way-thread-pool-name";
+    String ONE_WAY_MAX_PENDING_INVOCATIONS = "one-way-max-pending-invocations";
+    String PENDING_RESPONSES = "pending-responses";
+    String AVERAGE_RESPONSE_BATCH_SIZE = "average-response-batch-size";
+    String PENDING_ONE_WAY_INVOCATIONS = "pending-one-way-invocations";
 
     // Elytron integration
     String APPLICATION_SECURITY_DOMAIN = "application-security-domain";
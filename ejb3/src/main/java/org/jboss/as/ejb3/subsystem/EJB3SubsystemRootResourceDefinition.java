@@ -164,6 +164,12 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
                     .setDefaultValue(new ModelNode(false))
                     .build();
 
+    public static final SimpleAttributeDefinition ENABLE_SINGLETON_STRIPED_LOCK =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.ENABLE_SINGLETON_STRIPED_LOCK, ModelType.BOOLEAN, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(false))
+                    .build();
+
     public static final SimpleAttributeDefinition LOG_EJB_EXCEPTIONS =
             new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.LOG_SYSTEM_EXCEPTIONS, ModelType.BOOLEAN, true)
                     .setAllowExpression(true)
@@ -225,6 +231,7 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
             DEFAULT_SFSB_PASSIVATION_DISABLED_CACHE,
             DISABLE_DEFAULT_EJB_PERMISSIONS,
             ENABLE_GRACEFUL_TXN_SHUTDOWN,
+            ENABLE_SINGLETON_STRIPED_LOCK,
             LOG_EJB_EXCEPTIONS,
             ALLOW_EJB_NAME_REGEX
     };
@@ -274,6 +281,7 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
             }
         });
         resourceRegistration.registerReadWriteAttribute(ENABLE_GRACEFUL_TXN_SHUTDOWN, null, EnableGracefulTxnShutdownWriteHandler.INSTANCE);
+        resourceRegistration.registerReadWriteAttribute(ENABLE_SINGLETON_STRIPED_LOCK, null, SingletonStripedLockWriteHandler.INSTANCE);
     }
 
     @Override
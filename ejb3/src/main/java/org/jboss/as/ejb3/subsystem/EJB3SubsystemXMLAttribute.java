@@ -62,20 +62,26 @@ public enum EJB3SubsystemXMLAttribute {
     INSTANCE_ACQUISITION_TIMEOUT("instance-acquisition-timeout"),
     INSTANCE_ACQUISITION_TIMEOUT_UNIT("instance-acquisition-timeout-unit"),
 
+    JOURNAL("journal"),
+
     KEEPALIVE_TIME("keepalive-time"),
 
     LOCAL_RECEIVER_PASS_BY_VALUE("local-receiver-pass-by-value"),
 
     MAX_POOL_SIZE("max-pool-size"),
+    MAX_RESPONSE_BATCH_SIZE("max-response-batch-size"),
     MAX_SIZE("max-size"),
     DERIVE_SIZE("derive-size"),
     MAX_THREADS("max-threads"),
 
     NAME("name"),
 
+    ONE_WAY_MAX_PENDING_INVOCATIONS("one-way-max-pending-invocations"),
+    ONE_WAY_THREAD_POOL_NAME("one-way-thread-pool-name"),
     OUTBOUND_CONNECTION_REF("outbound-connection-ref"),
 
     PARTITION("partition"),
+    PARTITIONED("partitioned"),
     REFRESH_INTERVAL("refresh-interval"),
     PASS_BY_VALUE("pass-by-value"),
     @Deprecated PASSIVATE_EVENTS_ON_REPLICATE("passivate-events-on-replicate"),
@@ -49,6 +49,7 @@ public enum EJB3SubsystemXMLElement {
     DEFAULT_MISSING_METHOD_PERMISSIONS_DENY_ACCESS(EJB3SubsystemModel.DEFAULT_MISSING_METHOD_PERMISSIONS_DENY_ACCESS),
     DISABLE_DEFAULT_EJB_PERMISSIONS(EJB3SubsystemModel.DISABLE_DEFAULT_EJB_PERMISSIONS),
     ENABLE_GRACEFUL_TXN_SHUTDOWN(EJB3SubsystemModel.ENABLE_GRACEFUL_TXN_SHUTDOWN),
+    ENABLE_SINGLETON_STRIPED_LOCK(EJB3SubsystemModel.ENABLE_SINGLETON_STRIPED_LOCK),
 
     FILE_DATA_STORE("file-data-store"),
 
@@ -46,6 +46,7 @@ import org.jboss.as.controller.transform.ResourceTransformationContext;
 import org.jboss.as.controller.transform.SubsystemTransformerRegistration;
 import org.jboss.as.controller.transform.TransformationContext;
 import org.jboss.as.controller.transform.description.AttributeConverter;
+import org.jboss.as.controller.transform.description.AttributeTransformationDescriptionBuilder;
 import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
 import org.jboss.as.controller.transform.description.RejectAttributeChecker;
 import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
@@ -105,11 +106,14 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
 
         builder.getAttributeBuilder().setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), EJB3SubsystemRootResourceDefinition.ENABLE_GRACEFUL_TXN_SHUTDOWN)
                 .addRejectCheck(RejectAttributeChecker.DEFINED, EJB3SubsystemRootResourceDefinition.ENABLE_GRACEFUL_TXN_SHUTDOWN);
+        builder.getAttributeBuilder().setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), EJB3SubsystemRootResourceDefinition.ENABLE_SINGLETON_STRIPED_LOCK)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, EJB3SubsystemRootResourceDefinition.ENABLE_SINGLETON_STRIPED_LOCK);
 
         registerPassivationStoreTransformers_1_2_1_and_1_3_0(builder);
         registerRemoteTransformers(builder);
         registerMdbDeliveryGroupTransformers(builder);
         registerStrictMaxPoolTransformers(builder);
+        registerCacheTransformers(builder);
         registerApplicationSecurityDomainDTransformers(builder);
         registerIdentityTransformers(builder);
         builder.rejectChildResource(PathElement.pathElement(EJB3SubsystemModel.REMOTING_PROFILE));
@@ -134,11 +138,15 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
         builder.getAttributeBuilder().addRejectCheck(RejectAttributeChecker.DEFINED, EJB3SubsystemRootResourceDefinition.ALLOW_EJB_NAME_REGEX);
         builder.getAttributeBuilder().setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), EJB3SubsystemRootResourceDefinition.ENABLE_GRACEFUL_TXN_SHUTDOWN);
         builder.getAttributeBuilder().addRejectCheck(RejectAttributeChecker.DEFINED, EJB3SubsystemRootResourceDefinition.ENABLE_GRACEFUL_TXN_SHUTDOWN);
+        builder.getAttributeBuilder().setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), EJB3SubsystemRootResourceDefinition.ENABLE_SINGLETON_STRIPED_LOCK);
+        builder.getAttributeBuilder().addRejectCheck(RejectAttributeChecker.DEFINED, EJB3SubsystemRootResourceDefinition.ENABLE_SINGLETON_STRIPED_LOCK);
         registerMdbDeliveryGroupTransformers(builder);
         registerRemoteTransformers(builder);
         registerStrictMaxPoolTransformers(builder);
+        registerCacheTransformers(builder);
         registerApplicationSecurityDomainDTransformers(builder);
         registerIdentityTransformers(builder);
+        registerFileDataStoreTransformers(builder.addChildResource(EJB3SubsystemModel.TIMER_SERVICE_PATH));
 
         // Rename new statistics-enabled attribute to old enable-statistics
         builder.getAttributeBuilder().addRename(EJB3SubsystemModel.STATISTICS_ENABLED, EJB3SubsystemModel.ENABLE_STATISTICS);
@@ -150,6 +158,10 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
 
         registerApplicationSecurityDomainDTransformers(builder);
         registerIdentityTransformers(builder);
+        registerPartitionedStrictMaxPoolTransformers(builder);
+        registerCacheTransformers(builder);
+        registerRemoteInvocationTransformers(builder);
+        registerFileDataStoreTransformers(builder.addChildResource(EJB3SubsystemModel.TIMER_SERVICE_PATH));
         builder.addChildResource(RemotingProfileResourceDefinition.INSTANCE).getAttributeBuilder()
                 .addRejectCheck(RejectAttributeChecker.DEFINED, StaticEJBDiscoveryDefinition.INSTANCE)
                 .end();
@@ -159,6 +171,8 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
 
         builder.getAttributeBuilder().setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), EJB3SubsystemRootResourceDefinition.ENABLE_GRACEFUL_TXN_SHUTDOWN);
         builder.getAttributeBuilder().addRejectCheck(RejectAttributeChecker.DEFINED, EJB3SubsystemRootResourceDefinition.ENABLE_GRACEFUL_TXN_SHUTDOWN);
+        builder.getAttributeBuilder().setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), EJB3SubsystemRootResourceDefinition.ENABLE_SINGLETON_STRIPED_LOCK);
+        builder.getAttributeBuilder().addRejectCheck(RejectAttributeChecker.DEFINED, EJB3SubsystemRootResourceDefinition.ENABLE_SINGLETON_STRIPED_LOCK);
 
         // Rename new statistics-enabled attribute to old enable-statistics
         builder.getAttributeBuilder()
@@ -168,14 +182,20 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
     }
 
     private static void registerRemoteTransformers(ResourceTransformationDescriptionBuilder parent) {
-        ResourceTransformationDescriptionBuilder remoteService = parent.addChildResource(EJB3SubsystemModel.REMOTE_SERVICE_PATH);
-        remoteService.getAttributeBuilder()
+        registerRemoteInvocationTransformers(parent)
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(BeanManagerFactoryBuilderConfiguration.DEFAULT_CONTAINER_NAME)), CLIENT_MAPPINGS_CLUSTER_NAME)
                 .addRejectCheck(RejectAttributeChecker.DEFINED, CLIENT_MAPPINGS_CLUSTER_NAME)
                 .setDiscard(DiscardAttributeChecker.ALWAYS, EXECUTE_IN_WORKER) //as this does not affect functionality we just discard
                 .end();
     }
 
+    private static AttributeTransformationDescriptionBuilder registerRemoteInvocationTransformers(ResourceTransformationDescriptionBuilder parent) {
+        return parent.addChildResource(EJB3SubsystemModel.REMOTE_SERVICE_PATH)
+                .getAttributeBuilder()
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, EJB3RemoteResourceDefinition.MAX_RESPONSE_BATCH_SIZE, EJB3RemoteResourceDefinition.ONE_WAY_THREAD_POOL_NAME, EJB3RemoteResourceDefinition.ONE_WAY_MAX_PENDING_INVOCATIONS)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, EJB3RemoteResourceDefinition.MAX_RESPONSE_BATCH_SIZE, EJB3RemoteResourceDefinition.ONE_WAY_THREAD_POOL_NAME, EJB3RemoteResourceDefinition.ONE_WAY_MAX_PENDING_INVOCATIONS);
+    }
+
     private  static void registerIdentityTransformers(ResourceTransformationDescriptionBuilder parent) {
         parent.rejectChildResource(EJB3SubsystemModel.IDENTITY_PATH);
     }
@@ -185,12 +205,25 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
     }
 
     private static void registerStrictMaxPoolTransformers(ResourceTransformationDescriptionBuilder parent) {
-        parent.addChildResource(PathElement.pathElement(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL))
-                .getAttributeBuilder()
+        registerPartitionedStrictMaxPoolTransformers(parent)
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(StrictMaxPoolResourceDefinition.DeriveSize.NONE.toString())), DERIVE_SIZE)
                 .addRejectCheck(RejectAttributeChecker.DEFINED, DERIVE_SIZE);
     }
 
+    private static AttributeTransformationDescriptionBuilder registerPartitionedStrictMaxPoolTransformers(ResourceTransformationDescriptionBuilder parent) {
+        return parent.addChildResource(PathElement.pathElement(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL))
+                .getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), StrictMaxPoolResourceDefinition.PARTITIONED)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, StrictMaxPoolResourceDefinition.PARTITIONED);
+    }
+
+    private static void registerCacheTransformers(ResourceTransformationDescriptionBuilder parent) {
+        parent.addChildResource(PathElement.pathElement(EJB3SubsystemModel.CACHE))
+                .getAttributeBuilder()
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, CacheFactoryResourceDefinition.MAX_SIZE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, CacheFactoryResourceDefinition.MAX_SIZE);
+    }
+
     private static void registerMdbDeliveryGroupTransformers(ResourceTransformationDescriptionBuilder parent) {
         parent.rejectChildResource(PathElement.pathElement(EJB3SubsystemModel.MDB_DELIVERY_GROUP));
     }
@@ -210,6 +243,7 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
         timerService.setCustomResourceTransformer(dataStoreTransformer);
         timerService.rejectChildResource(EJB3SubsystemModel.DATABASE_DATA_STORE_PATH);
         ResourceTransformationDescriptionBuilder fileDataStore = timerService.addChildRedirection(EJB3SubsystemModel.FILE_DATA_STORE_PATH, (current, builder) -> builder.getCurrent());
+        rejectJournal(fileDataStore);
 
         fileDataStore.addOperationTransformationOverride(ModelDescriptionConstants.ADD)
                 .inheritResourceAttributeDefinitions()
@@ -225,6 +259,17 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
                         .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(-1)), REFRESH_INTERVAL)
                         .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(true)), ALLOW_EXECUTION)
                         .addRejectCheck(RejectAttributeChecker.DEFINED, REFRESH_INTERVAL, ALLOW_EXECUTION);
+        registerFileDataStoreTransformers(timerService);
+    }
+
+    private static void registerFileDataStoreTransformers(ResourceTransformationDescriptionBuilder timerService) {
+        rejectJournal(timerService.addChildResource(EJB3SubsystemModel.FILE_DATA_STORE_PATH));
+    }
+
+    private static void rejectJournal(ResourceTransformationDescriptionBuilder fileDataStore) {
+        fileDataStore.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), FileDataStoreResourceDefinition.JOURNAL)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, FileDataStoreResourceDefinition.JOURNAL);
     }
 
     private static class DataStoreTransformer implements CombinedTransformer {
@@ -270,6 +315,9 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
                     && untransformedModel.get(EJB3SubsystemModel.DATABASE_DATA_STORE).keys().size() > 0)
                     || untransformedModel.get(EJB3SubsystemModel.FILE_DATA_STORE).keys().size() > 1) {
                 rejectIncompatibleDataStores(context, address);
+            } else if (fileStore.hasDefined(EJB3SubsystemModel.JOURNAL) && !fileStore.get(EJB3SubsystemModel.JOURNAL).equals(new ModelNode(false))) {
+                // Legacy file data store has no journal
+                rejectIncompatibleDataStores(context, address);
             }
 
             ModelNode path = fileStore.get(EJB3SubsystemModel.PATH);
@@ -96,6 +96,13 @@ public class StrictMaxPoolResourceDefinition extends SimpleResourceDefinition {
                     .setAllowExpression(true)
                     .build();
 
+    public static final SimpleAttributeDefinition PARTITIONED =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.PARTITIONED, ModelType.BOOLEAN, true)
+                    .setDefaultValue(new ModelNode(false))
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_NONE)
+                    .build();
+
     public static final Map<String, AttributeDefinition> ATTRIBUTES ;
 
     static {
@@ -104,6 +111,7 @@ public class StrictMaxPoolResourceDefinition extends SimpleResourceDefinition {
         map.put(DERIVE_SIZE.getName(), DERIVE_SIZE);
         map.put(INSTANCE_ACQUISITION_TIMEOUT.getName(), INSTANCE_ACQUISITION_TIMEOUT);
         map.put(INSTANCE_ACQUISITION_TIMEOUT_UNIT.getName(), INSTANCE_ACQUISITION_TIMEOUT_UNIT);
+        map.put(PARTITIONED.getName(), PARTITIONED);
 
         ATTRIBUTES = Collections.unmodifiableMap(map);
     }
@@ -34,11 +34,13 @@ import org.jboss.as.controller.PrimitiveListAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.component.invocationmetrics.InvocationMetrics;
+import org.jboss.as.ejb3.component.invocationmetrics.LatencyHistogram;
 import org.jboss.as.ejb3.component.stateful.StatefulSessionComponent;
 import org.jboss.as.ejb3.subsystem.EJB3Extension;
 import org.jboss.dmr.ModelNode;
@@ -85,6 +87,21 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
 
+    private static final double[] PERCENTILES = new double[] { 50d, 90d, 99d, 99.9d };
+    static final SimpleAttributeDefinition[] PERCENTILE_ATTRIBUTES = new SimpleAttributeDefinition[] {
+            percentile("p50"), percentile("p90"), percentile("p99"), percentile("p999"),
+    };
+
+    private static final AttributeDefinition EXECUTION_TIME_PERCENTILES = ObjectTypeAttributeDefinition.Builder.of("execution-time-percentiles", PERCENTILE_ATTRIBUTES)
+            .setRequired(false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition WAIT_TIME_PERCENTILES = ObjectTypeAttributeDefinition.Builder.of("wait-time-percentiles", PERCENTILE_ATTRIBUTES)
+            .setRequired(false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
     public static final SimpleAttributeDefinition RUN_AS_ROLE = new SimpleAttributeDefinitionBuilder("run-as-role", ModelType.STRING, true)
             .setValidator(new StringLengthValidator(1, true))
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
@@ -112,6 +129,22 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
 
+    private static final AttributeDefinition EXPIRED_COUNT = new SimpleAttributeDefinitionBuilder("expired-count", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition EVICTED_COUNT = new SimpleAttributeDefinitionBuilder("evicted-count", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition REBALANCE_TIME = new SimpleAttributeDefinitionBuilder("rebalance-time", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0L))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
     // Pool attributes
 
     public static final SimpleAttributeDefinition POOL_AVAILABLE_COUNT = new SimpleAttributeDefinitionBuilder("pool-available-count", ModelType.INT, false)
@@ -175,6 +208,24 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                     context.getResult().set(((StatefulSessionComponent)component).getCache().getTotalSize());
                 }
             });
+            resourceRegistration.registerMetric(EXPIRED_COUNT, new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    context.getResult().set(((StatefulSessionComponent)component).getCache().getExpiredCount());
+                }
+            });
+            resourceRegistration.registerMetric(EVICTED_COUNT, new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    context.getResult().set(((StatefulSessionComponent)component).getCache().getEvictedCount());
+                }
+            });
+            resourceRegistration.registerMetric(REBALANCE_TIME, new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    context.getResult().set(((StatefulSessionComponent)component).getCache().getRebalanceTime());
+                }
+            });
         }
 
         resourceRegistration.registerMetric(EXECUTION_TIME, new AbstractRuntimeMetricsHandler() {
@@ -201,6 +252,18 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                 context.getResult().set(component.getInvocationMetrics().getWaitTime());
             }
         });
+        resourceRegistration.registerMetric(EXECUTION_TIME_PERCENTILES, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                setPercentiles(context.getResult(), component.getInvocationMetrics().getExecutionTimes());
+            }
+        });
+        resourceRegistration.registerMetric(WAIT_TIME_PERCENTILES, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                setPercentiles(context.getResult(), component.getInvocationMetrics().getWaitTimes());
+            }
+        });
         resourceRegistration.registerMetric(METHODS, new AbstractRuntimeMetricsHandler() {
             @Override
             protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
@@ -217,6 +280,21 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
         });
     }
 
+    private static SimpleAttributeDefinition percentile(final String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG)
+                .setUndefinedMetricValue(new ModelNode(0))
+                .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                .build();
+    }
+
+    static void setPercentiles(final ModelNode result, final LatencyHistogram histogram) {
+        final long[] values = histogram.getValuesAtPercentiles(PERCENTILES);
+        result.setEmptyObject();
+        for (int i = 0; i < PERCENTILE_ATTRIBUTES.length; ++i) {
+            result.get(PERCENTILE_ATTRIBUTES[i].getName()).set(values[i]);
+        }
+    }
+
     /* (non-Javadoc)
      * @see org.jboss.as.controller.SimpleResourceDefinition#registerChildren(org.jboss.as.controller.registry.ManagementResourceRegistration)
      */
@@ -22,12 +22,23 @@
 
 package org.jboss.as.ejb3.subsystem.deployment;
 
+import javax.ejb.TimerService;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.subsystem.EJB3Extension;
 import org.jboss.as.ejb3.subsystem.EJB3SubsystemModel;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * {@link ResourceDefinition} for the timer-service resource for runtime ejb deployment.
@@ -36,6 +47,21 @@ import org.jboss.as.ejb3.subsystem.EJB3SubsystemModel;
  */
 public class TimerServiceResourceDefinition<T extends EJBComponent> extends SimpleResourceDefinition {
 
+    private static final AttributeDefinition SCHEDULED_TIMEOUTS = new SimpleAttributeDefinitionBuilder("scheduled-timeouts", ModelType.INT)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition MAX_SCHEDULING_LAG = new SimpleAttributeDefinitionBuilder("max-scheduling-lag", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0L))
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition SCHEDULING_LAG_PERCENTILES = ObjectTypeAttributeDefinition.Builder.of("scheduling-lag-percentiles", AbstractEJBComponentResourceDefinition.PERCENTILE_ATTRIBUTES)
+            .setRequired(false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
     private final AbstractEJBComponentRuntimeHandler<T> parentHandler;
     TimerServiceResourceDefinition(AbstractEJBComponentRuntimeHandler<T> parentHandler) {
         super(EJB3SubsystemModel.TIMER_SERVICE_PATH,
@@ -43,6 +69,38 @@ public class TimerServiceResourceDefinition<T extends EJBComponent> extends Simp
         this.parentHandler = parentHandler;
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        resourceRegistration.registerMetric(SCHEDULED_TIMEOUTS, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                final TimerService timerService = component.getTimerService();
+                if (timerService instanceof TimerServiceImpl) {
+                    context.getResult().set(((TimerServiceImpl) timerService).getScheduledTimeouts());
+                }
+            }
+        });
+        resourceRegistration.registerMetric(MAX_SCHEDULING_LAG, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                final TimerService timerService = component.getTimerService();
+                if (timerService instanceof TimerServiceImpl) {
+                    context.getResult().set(((TimerServiceImpl) timerService).getMaxSchedulingLag());
+                }
+            }
+        });
+        resourceRegistration.registerMetric(SCHEDULING_LAG_PERCENTILES, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                final TimerService timerService = component.getTimerService();
+                if (timerService instanceof TimerServiceImpl) {
+                    AbstractEJBComponentResourceDefinition.setPercentiles(context.getResult(), ((TimerServiceImpl) timerService).getSchedulingLag());
+                }
+            }
+        });
+    }
+
     @Override
     public void registerChildren(ManagementResourceRegistration resourceRegistration) {
         super.registerChildren(resourceRegistration);
@@ -0,0 +1,340 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import org.jboss.as.ejb3.component.invocationmetrics.LatencyHistogram;
+import org.wildfly.clustering.ee.TimingWheel;
+
+/**
+ * Dispatches the timeouts of the timers of a timer service.
+ * Timer ids are partitioned across a number of shards, each of which schedules its timers using a hierarchical {@link TimingWheel} guarded by its own lock,
+ * so that concurrent scheduling and cancellation of different timers rarely contend.
+ * The wheels of all shards are advanced together (see {@link #run()}), which dispatches expired timeouts and reschedules interval timeouts at a fixed rate.
+ * Once started, a one-shot task is armed on the shared {@link java.util.Timer} for the earliest tick at which any wheel may expire a timeout, and is re-armed after each advance.
+ * Thus idle timer services cost nothing, and timer services whose timeouts are far in the future wake only to cascade their wheels.
+ * Timeouts are never dispatched early, but may be dispatched up to one tick late.
+ * The delay between the intended and actual dispatch time of each timeout is recorded as its scheduling lag.
+ *
+ * @author agent
+ * @param <T> the task type
+ */
+class TimerDispatcher<T extends Runnable> implements Runnable {
+
+    static final long DEFAULT_TICK = 10L;
+
+    private final ConcurrentMap<String, Timeout<T>> timeouts = new ConcurrentHashMap<>();
+    private final Shard[] shards;
+    private final long tick;
+    private final long origin;
+    private final LatencyHistogram lag = new LatencyHistogram();
+    private final LongAccumulator maxLag = new LongAccumulator(Math::max, 0L);
+    // Only modified while holding the monitor of this dispatcher
+    private java.util.Timer timer;
+    private java.util.TimerTask ticker;
+    // The tick for which the ticker is armed, or Long.MAX_VALUE if it is not armed
+    private volatile long armedTick = Long.MAX_VALUE;
+
+    TimerDispatcher() {
+        this(DEFAULT_TICK, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a timer dispatcher.
+     * @param tick the resolution of this dispatcher, in milliseconds
+     * @param concurrency the expected number of threads concurrently scheduling timeouts
+     */
+    TimerDispatcher(long tick, int concurrency) {
+        this.tick = tick;
+        this.origin = System.currentTimeMillis();
+        // Use a power of 2, so that a shard can be selected via a mask
+        int shards = Integer.highestOneBit(Math.max(Math.min(concurrency, 64), 1) * 2 - 1);
+        this.shards = new Shard[shards];
+        long currentTick = this.currentTick(this.origin);
+        for (int i = 0; i < shards; ++i) {
+            this.shards[i] = new Shard(currentTick);
+        }
+    }
+
+    /**
+     * Starts advancing this dispatcher, via the specified timer, whenever timeouts are pending.
+     * @param timer a timer
+     */
+    synchronized void start(java.util.Timer timer) {
+        this.timer = timer;
+        this.arm();
+    }
+
+    /**
+     * Stops advancing this dispatcher.
+     */
+    synchronized void stop() {
+        this.timer = null;
+        this.disarm();
+    }
+
+    /**
+     * Indicates whether this dispatcher is currently armed, i.e. whether it will be advanced when its earliest timeout is due.
+     * @return true, if this dispatcher is armed, false otherwise
+     */
+    synchronized boolean isArmed() {
+        return this.ticker != null;
+    }
+
+    /**
+     * Returns the time at which this dispatcher will next be advanced.
+     * @return a time in milliseconds since the epoch, or {@link Long#MAX_VALUE} if this dispatcher is not armed
+     */
+    long getNextAdvanceTime() {
+        long tick = this.armedTick;
+        return (tick != Long.MAX_VALUE) ? this.origin + tick * this.tick : Long.MAX_VALUE;
+    }
+
+    /**
+     * Arms a one-shot ticker for the earliest tick at which any shard may expire a timeout, replacing any ticker armed for a later tick.
+     */
+    private synchronized void arm() {
+        if (this.timer == null) return;
+        long nextTick = Long.MAX_VALUE;
+        for (Shard shard : this.shards) {
+            synchronized (shard) {
+                nextTick = Math.min(nextTick, shard.wheel.nextTick());
+            }
+        }
+        this.arm(nextTick);
+    }
+
+    private void arm(long tick) {
+        // Called while holding the monitor of this dispatcher
+        if ((this.timer == null) || (tick >= this.armedTick)) return;
+        this.disarm();
+        if (tick == Long.MAX_VALUE) return;
+        java.util.TimerTask ticker = new Ticker();
+        this.timer.schedule(ticker, Math.max(this.origin + tick * this.tick - System.currentTimeMillis(), 0L));
+        this.ticker = ticker;
+        this.armedTick = tick;
+    }
+
+    private void disarm() {
+        // Called while holding the monitor of this dispatcher
+        if (this.ticker != null) {
+            this.ticker.cancel();
+            this.ticker = null;
+        }
+        this.armedTick = Long.MAX_VALUE;
+    }
+
+    private synchronized void rearm(java.util.TimerTask ticker) {
+        if (this.ticker != ticker) return;
+        this.ticker = null;
+        this.armedTick = Long.MAX_VALUE;
+        this.arm();
+    }
+
+    /**
+     * Schedules the specified task to run at the specified time, replacing any previously scheduled task for the specified timer.
+     * @param id a timer id
+     * @param task the task to run
+     * @param expiration the time at which the task should run, in milliseconds since the epoch
+     * @param interval the interval at which the task should repeat, in milliseconds, or 0 if the task does not repeat
+     * @return the task that was replaced, or null if no task was scheduled for the specified timer
+     */
+    T schedule(String id, T task, long expiration, long interval) {
+        Timeout<T> previous = this.timeouts.put(id, new Timeout<>(task, expiration, interval));
+        this.schedule(id, expiration);
+        return (previous != null) ? previous.task : null;
+    }
+
+    /**
+     * Schedules the specified task to run at the specified time, but only if a task is currently scheduled for the specified timer.
+     * @param id a timer id
+     * @param task the task to run
+     * @param expiration the time at which the task should run, in milliseconds since the epoch
+     * @param interval the interval at which the task should repeat, in milliseconds, or 0 if the task does not repeat
+     * @return true, if the task was scheduled, false if no task was scheduled for the specified timer, i.e. it was canceled
+     */
+    boolean reschedule(String id, T task, long expiration, long interval) {
+        if (this.timeouts.replace(id, new Timeout<>(task, expiration, interval)) == null) {
+            return false;
+        }
+        this.schedule(id, expiration);
+        return true;
+    }
+
+    private void schedule(String id, long expiration) {
+        // Round up to the next tick, so that timeouts never run early
+        long deadline = Math.floorDiv(expiration - this.origin + this.tick - 1, this.tick);
+        Shard shard = this.shard(id);
+        long nextTick;
+        synchronized (shard) {
+            if (shard.wheel.size() == 0) {
+                // An idle wheel is not advanced, so catch up first, which costs nothing while empty
+                shard.wheel.advance(this.currentTick(System.currentTimeMillis()));
+            }
+            shard.wheel.schedule(id, deadline);
+            nextTick = shard.wheel.nextTick();
+        }
+        // The armed tick is reset before a ticker re-arms itself, so a timeout scheduled concurrently is either seen by the ticker, or re-arms it here
+        if (nextTick < this.armedTick) {
+            synchronized (this) {
+                this.arm(nextTick);
+            }
+        }
+    }
+
+    /**
+     * Cancels the task scheduled for the specified timer.
+     * @param id a timer id
+     * @return the canceled task, or null if no task was scheduled for the specified timer
+     */
+    T cancel(String id) {
+        Timeout<T> timeout = this.timeouts.remove(id);
+        Shard shard = this.shard(id);
+        synchronized (shard) {
+            shard.wheel.cancel(id);
+        }
+        return (timeout != null) ? timeout.task : null;
+    }
+
+    /**
+     * Indicates whether a task is scheduled for the specified timer.
+     * @param id a timer id
+     * @return true, if a task is scheduled, false otherwise
+     */
+    boolean isScheduled(String id) {
+        return this.timeouts.containsKey(id);
+    }
+
+    /**
+     * Returns the number of scheduled timers.
+     * @return the number of scheduled timers
+     */
+    int size() {
+        return this.timeouts.size();
+    }
+
+    /**
+     * Returns a histogram of the scheduling lag of dispatched timeouts, i.e. the actual dispatch time minus the intended dispatch time, in milliseconds.
+     * @return a latency histogram
+     */
+    LatencyHistogram getSchedulingLag() {
+        return this.lag;
+    }
+
+    /**
+     * Returns the maximum scheduling lag of any dispatched timeout, in milliseconds.
+     * @return the max scheduling lag
+     */
+    long getMaxSchedulingLag() {
+        return this.maxLag.get();
+    }
+
+    /**
+     * Advances the timing wheel of each shard to the current time, and runs any expired tasks.
+     */
+    @Override
+    public void run() {
+        if (this.timeouts.isEmpty()) return;
+        long now = System.currentTimeMillis();
+        long currentTick = this.currentTick(now);
+        for (Shard shard : this.shards) {
+            List<Timeout<T>> expired = Collections.emptyList();
+            synchronized (shard) {
+                if (shard.wheel.size() == 0) continue;
+                for (String id : shard.wheel.advance(currentTick)) {
+                    Timeout<T> timeout = this.timeouts.get(id);
+                    if (timeout == null) continue;
+                    long expiration = timeout.expiration;
+                    if (expiration > now) {
+                        // This timeout was rescheduled concurrently, but its deadline was not yet updated
+                        shard.wheel.schedule(id, Math.floorDiv(expiration - this.origin + this.tick - 1, this.tick));
+                        continue;
+                    }
+                    if (timeout.interval > 0) {
+                        // Fixed rate, i.e. relative to the intended, rather than actual, dispatch time
+                        long next = expiration + timeout.interval;
+                        timeout.expiration = next;
+                        shard.wheel.schedule(id, Math.floorDiv(next - this.origin + this.tick - 1, this.tick));
+                    } else {
+                        this.timeouts.remove(id, timeout);
+                    }
+                    if (expired.isEmpty()) {
+                        expired = new ArrayList<>();
+                    }
+                    expired.add(new Timeout<>(timeout.task, expiration, timeout.interval));
+                }
+            }
+            // Run tasks outside of the shard lock
+            for (Timeout<T> timeout : expired) {
+                long lag = now - timeout.expiration;
+                this.lag.record(lag);
+                this.maxLag.accumulate(lag);
+                timeout.task.run();
+            }
+        }
+    }
+
+    private long currentTick(long time) {
+        return Math.floorDiv(time - this.origin, this.tick);
+    }
+
+    private Shard shard(String id) {
+        int hash = id.hashCode();
+        return this.shards[(hash ^ (hash >>> 16)) & (this.shards.length - 1)];
+    }
+
+    private class Ticker extends java.util.TimerTask {
+        @Override
+        public void run() {
+            TimerDispatcher.this.run();
+            TimerDispatcher.this.rearm(this);
+        }
+    }
+
+    private static class Shard {
+        final TimingWheel<String> wheel;
+
+        Shard(long currentTick) {
+            this.wheel = new TimingWheel<>(currentTick);
+        }
+    }
+
+    private static class Timeout<T> {
+        final T task;
+        final long interval;
+        // Only modified while holding the lock of the shard of this timeout
+        volatile long expiration;
+
+        Timeout(T task, long expiration, long interval) {
+            this.task = task;
+            this.expiration = expiration;
+            this.interval = interval;
+        }
+    }
+}
@@ -45,12 +45,15 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.sql.DataSource;
@@ -102,6 +105,9 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     private final InjectedValue<java.util.Timer> timerInjectedValue = new InjectedValue<java.util.Timer>();
 
     private final Map<String, Set<String>> knownTimerIds = new HashMap<>();
+    /** Identifiers of due timers claimed by this node, but not yet run */
+    private final Set<String> claimedTimerIds = new HashSet<>();
+    private final ConcurrentMap<String, Object> claimLocks = new ConcurrentHashMap<>();
 
     /** Identifier for the database dialect to be used for the timer-sql.properties */
     private String database;
@@ -130,6 +136,9 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     private static final String LOAD_TIMER = "load-timer";
     private static final String DELETE_TIMER = "delete-timer";
     private static final String UPDATE_RUNNING = "update-running";
+    private static final String LOAD_TIMER_IDS = "load-timer-ids";
+    /** The maximum number of due timers claimed at once*/
+    private static final int CLAIM_BATCH_SIZE = 100;
     /** The format for scheduler start and end date*/
     private static final String SCHEDULER_DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
 
@@ -174,6 +183,8 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
             refreshTask.cancel();
         }
         knownTimerIds.clear();
+        claimedTimerIds.clear();
+        claimLocks.clear();
         managedReference.release();
         managedReference = null;
         dataSource = null;
@@ -363,17 +374,13 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
                 }
                 String updateTimer = sql(UPDATE_TIMER);
                 statement = connection.prepareStatement(updateTimer);
-                statement.setTimestamp(1, timestamp(timerEntity.getNextExpiration()));
-                statement.setTimestamp(2, timestamp(timerEntity.getPreviousRun()));
-                statement.setString(3, timerEntity.getState().name());
-                setNodeName(timerEntity.getState(), statement, 4);
-                // WHERE CLAUSE
-                statement.setString(5, timerEntity.getTimedObjectId());
-                statement.setString(6, timerEntity.getId());
-                statement.setString(7, partition);
-                statement.setString(8, nodeName);   // only persist if this node or empty
+                updateStatementParameters(timerEntity, statement);
                 statement.execute();
             }
+            // Any claim on this timer is superseded by its persistent state
+            synchronized (this) {
+                claimedTimerIds.remove(timerEntity.getId());
+            }
         } catch (SQLException e) {
             throw new RuntimeException(e);
         } finally {
@@ -389,6 +396,16 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
             //timers never execute on this node
             return false;
         }
+        // serialize claims per timed object, so that a timer claimed on behalf of a concurrent invocation is never excluded from our own claim
+        synchronized (getClaimLock(timer.getTimedObjectId())) {
+            if (consumeClaim(timer.getId())) {
+                return true;
+            }
+            if (claimDueTimers(timer, tm).contains(timer.getId())) {
+                // our timer was due, and was either claimed by this node, or is already claimed by another
+                return consumeClaim(timer.getId());
+            }
+        }
         String loadTimer = sql(UPDATE_RUNNING);
         Connection connection = null;
         PreparedStatement statement = null;
@@ -433,9 +450,124 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         }
     }
 
+    private Object getClaimLock(final String timedObjectId) {
+        return claimLocks.computeIfAbsent(timedObjectId, key -> new Object());
+    }
+
+    private synchronized boolean consumeClaim(final String timerId) {
+        return claimedTimerIds.remove(timerId);
+    }
+
+    /**
+     * Attempts to claim, for this node, up to {@link #CLAIM_BATCH_SIZE} due timers of the given timer's timed object, using a single batch update.
+     * Only timers that this node would run now are claimed, i.e. active local timers whose next expiration has passed.
+     * Each timer is claimed using the same conditional update used to claim a single timer, against its locally expected next expiration,
+     * so that each due timer is claimed by exactly one node, and never on the basis of a stale local view.
+     *
+     * @param timer The timer on whose behalf the claim is made
+     * @param tm The transaction manager
+     * @return The identifiers of the due timers for which a claim was attempted
+     */
+    private Set<String> claimDueTimers(final TimerImpl timer, final TransactionManager tm) {
+        final String timedObjectId = timer.getTimedObjectId();
+        final Set<String> known;
+        synchronized (this) {
+            final Set<String> ids = knownTimerIds.get(timedObjectId);
+            if (ids == null) {
+                return Collections.emptySet();
+            }
+            known = new HashSet<>(ids);
+        }
+        final Date now = new Date();
+        final Map<String, Date> due = new LinkedHashMap<>();
+        final Date expiration = timer.getNextExpiration();
+        if (!known.remove(timer.getId()) || expiration == null || expiration.after(now)) {
+            // our own timer is not due, so there is nothing to claim on its behalf
+            return Collections.emptySet();
+        }
+        due.put(timer.getId(), expiration);
+        for (String id : known) {
+            if (due.size() == CLAIM_BATCH_SIZE) {
+                break;
+            }
+            final TimerImpl local = timer.getTimerService().getTimer(id);
+            // timers of this node that are not running, and whose timeout task is due to fire now
+            if (local != null && local.isActive() && local.getState() != TimerState.IN_TIMEOUT && local.getState() != TimerState.RETRY_TIMEOUT) {
+                final Date localExpiration = local.getNextExpiration();
+                if (localExpiration != null && !localExpiration.after(now)) {
+                    due.put(id, localExpiration);
+                }
+            }
+        }
+        Connection connection = null;
+        PreparedStatement statement = null;
+        try {
+            connection = dataSource.getConnection();
+            statement = connection.prepareStatement(sql(UPDATE_RUNNING));
+            for (Map.Entry<String, Date> entry : due.entrySet()) {
+                statement.setString(1, TimerState.IN_TIMEOUT.name());
+                setNodeName(TimerState.IN_TIMEOUT, statement, 2);
+                statement.setString(3, entry.getKey());
+                statement.setString(4, TimerState.IN_TIMEOUT.name());
+                statement.setString(5, TimerState.RETRY_TIMEOUT.name());
+                statement.setTimestamp(6, timestamp(entry.getValue()));
+                statement.addBatch();
+            }
+        } catch (SQLException e) {
+            EjbLogger.EJB3_TIMER_LOGGER.debugf(e, "Failed to prepare claim of due timers of %s", timedObjectId);
+            safeClose(statement);
+            safeClose(connection);
+            return Collections.emptySet();
+        }
+        try {
+            tm.begin();
+            final int[] counts = statement.executeBatch();
+            if (counts.length != due.size()) {
+                // cannot determine which timers were claimed, so claim none
+                tm.rollback();
+                return Collections.emptySet();
+            }
+            for (int count : counts) {
+                if (count < 0) {
+                    tm.rollback();
+                    return Collections.emptySet();
+                }
+            }
+            tm.commit();
+            int index = 0;
+            synchronized (this) {
+                for (String id : due.keySet()) {
+                    if (counts[index++] == 1) {
+                        claimedTimerIds.add(id);
+                    }
+                }
+            }
+            return due.keySet();
+        } catch (SQLException | SystemException | SecurityException | IllegalStateException | RollbackException | HeuristicMixedException | HeuristicRollbackException e) {
+            try {
+                tm.rollback();
+            } catch (IllegalStateException | SecurityException | SystemException rbe) {
+                EjbLogger.EJB3_TIMER_LOGGER.timerUpdateFailedAndRollbackNotPossible(rbe);
+            }
+            EjbLogger.EJB3_TIMER_LOGGER.debugf(e, "Failed to claim due timers of %s", timedObjectId);
+            return Collections.emptySet();
+        } catch (NotSupportedException e) {
+            // happen from tm.begin, no rollback necessary
+            EjbLogger.EJB3_TIMER_LOGGER.debugf(e, "Failed to claim due timers of %s", timedObjectId);
+            return Collections.emptySet();
+        } finally {
+            safeClose(statement);
+            safeClose(connection);
+        }
+    }
+
     @Override
     public synchronized void timerUndeployed(final String timedObjectId) {
-        knownTimerIds.remove(timedObjectId);
+        claimLocks.remove(timedObjectId);
+        Set<String> ids = knownTimerIds.remove(timedObjectId);
+        if (ids != null) {
+            claimedTimerIds.removeAll(ids);
+        }
     }
 
     @Override
@@ -451,19 +583,16 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
             statement.setString(2, partition);
             resultSet = statement.executeQuery();
             final List<Holder> timers = new ArrayList<>();
+            // timers whose persistent state is obsolete are deleted or reset in batches, once all rows are read
+            final List<String> deletedIds = new ArrayList<>();
+            final List<TimerImpl> resetTimers = new ArrayList<>();
             while (resultSet.next()) {
                 try {
                     final Holder timerImpl = timerFromResult(resultSet, timerService);
                     if (timerImpl != null) {
                         timers.add(timerImpl);
                     } else {
-                        final String deleteTimer = sql(DELETE_TIMER);
-                        try (final PreparedStatement deleteStatement = connection.prepareStatement(deleteTimer)) {
-                            deleteStatement.setString(1, resultSet.getString(2));
-                            deleteStatement.setString(2, resultSet.getString(1));
-                            deleteStatement.setString(3, partition);
-                            deleteStatement.execute();
-                        }
+                        deletedIds.add(resultSet.getString(1));
                     }
                 } catch (Exception e) {
                     EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(resultSet.getString(2), resultSet.getString(1), e);
@@ -481,14 +610,35 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
                         EjbLogger.DEPLOYMENT_LOGGER.loadedPersistentTimerInTimeout(ret.getId(), ret.getTimedObjectId());
                         if(ret.getNextExpiration() == null) {
                             ret.setTimerState(TimerState.CANCELED);
-                            persistTimer(ret);
+                            ids.remove(ret.getId());
+                            deletedIds.add(ret.getId());
                         } else {
                             ret.setTimerState(TimerState.ACTIVE);
-                            persistTimer(ret);
+                            resetTimers.add(ret);
                         }
                     }
                 }
             }
+            if (!deletedIds.isEmpty()) {
+                try (final PreparedStatement deleteStatement = connection.prepareStatement(sql(DELETE_TIMER))) {
+                    for (String id : deletedIds) {
+                        deleteStatement.setString(1, timedObjectId);
+                        deleteStatement.setString(2, id);
+                        deleteStatement.setString(3, partition);
+                        deleteStatement.addBatch();
+                    }
+                    deleteStatement.executeBatch();
+                }
+            }
+            if (!resetTimers.isEmpty()) {
+                try (final PreparedStatement updateStatement = connection.prepareStatement(sql(UPDATE_TIMER))) {
+                    for (TimerImpl timer : resetTimers) {
+                        updateStatementParameters(timer, updateStatement);
+                        updateStatement.addBatch();
+                    }
+                    updateStatement.executeBatch();
+                }
+            }
             List<TimerImpl> ret = new ArrayList<>();
             for(Holder timer : timers) {
                 ret.add(timer.timer);
@@ -579,6 +729,18 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         return new Holder(ret, requiresReset);
     }
 
+    private void updateStatementParameters(final TimerImpl timerEntity, final PreparedStatement statement) throws SQLException {
+        statement.setTimestamp(1, timestamp(timerEntity.getNextExpiration()));
+        statement.setTimestamp(2, timestamp(timerEntity.getPreviousRun()));
+        statement.setString(3, timerEntity.getState().name());
+        setNodeName(timerEntity.getState(), statement, 4);
+        // WHERE CLAUSE
+        statement.setString(5, timerEntity.getTimedObjectId());
+        statement.setString(6, timerEntity.getId());
+        statement.setString(7, partition);
+        statement.setString(8, nodeName);   // only persist if this node or empty
+    }
+
     private void statementParameters(final TimerImpl timerEntity, final PreparedStatement statement) throws SQLException {
         statement.setString(1, timerEntity.getId());
         statement.setString(2, timerEntity.getTimedObjectId());
@@ -779,6 +941,10 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         }
     }
 
+    /**
+     * Reconciles the timers known to this node with those in the database.
+     * Only timer identifiers are queried, using a single query for the partition; the full state of a timer is only loaded if it was added by another node.
+     */
     private class RefreshTask extends TimerTask {
 
         private volatile AtomicBoolean running = new AtomicBoolean();
@@ -787,60 +953,107 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         public void run() {
             if (running.compareAndSet(false, true)) {
                 try {
-                    Set<String> timedObjects;
+                    final Map<String, TimerChangeListener> listeners = new HashMap<>();
                     synchronized (DatabaseTimerPersistence.this) {
-                        timedObjects = new HashSet<>(knownTimerIds.keySet());
-                    }
-                    for (String timedObjectId : timedObjects) {
-                        TimerChangeListener listener = changeListeners.get(timedObjectId);
-                        if (listener == null) {
-                            continue;
+                        for (String timedObjectId : knownTimerIds.keySet()) {
+                            TimerChangeListener listener = changeListeners.get(timedObjectId);
+                            if (listener != null) {
+                                listeners.put(timedObjectId, listener);
+                            }
                         }
-                        final Set<String> existing;
-                        synchronized (DatabaseTimerPersistence.this) {
-                            existing = new HashSet<>(knownTimerIds.get(timedObjectId));
+                    }
+                    if (listeners.isEmpty()) {
+                        return;
+                    }
+                    Connection connection = null;
+                    PreparedStatement statement = null;
+                    ResultSet resultSet = null;
+                    try {
+                        connection = dataSource.getConnection();
+                        final Map<String, Set<String>> persistentTimerIds = new HashMap<>();
+                        statement = connection.prepareStatement(sql(LOAD_TIMER_IDS));
+                        statement.setString(1, partition);
+                        resultSet = statement.executeQuery();
+                        while (resultSet.next()) {
+                            final String timedObjectId = resultSet.getString(2);
+                            if (listeners.containsKey(timedObjectId)) {
+                                Set<String> ids = persistentTimerIds.get(timedObjectId);
+                                if (ids == null) {
+                                    ids = new HashSet<>();
+                                    persistentTimerIds.put(timedObjectId, ids);
+                                }
+                                ids.add(resultSet.getString(1));
+                            }
                         }
-                        String loadTimer = sql(LOAD_ALL_TIMERS);
-                        Connection connection = null;
-                        PreparedStatement statement = null;
-                        ResultSet resultSet = null;
-                        try {
-                            connection = dataSource.getConnection();
-                            statement = connection.prepareStatement(loadTimer);
-                            statement.setString(1, timedObjectId);
-                            statement.setString(2, partition);
-                            resultSet = statement.executeQuery();
-                            while (resultSet.next()) {
-                                try {
-                                    String id = resultSet.getString(1);
+                        safeClose(resultSet);
+                        resultSet = null;
+                        safeClose(statement);
+                        statement = null;
+
+                        for (Map.Entry<String, TimerChangeListener> entry : listeners.entrySet()) {
+                            final String timedObjectId = entry.getKey();
+                            final TimerChangeListener listener = entry.getValue();
+                            final Set<String> ids = persistentTimerIds.containsKey(timedObjectId) ? persistentTimerIds.get(timedObjectId) : Collections.<String>emptySet();
+                            final Set<String> existing;
+                            final List<String> added = new ArrayList<>();
+                            synchronized (DatabaseTimerPersistence.this) {
+                                final Set<String> known = knownTimerIds.get(timedObjectId);
+                                if (known == null) {
+                                    // undeployed concurrently
+                                    continue;
+                                }
+                                existing = new HashSet<>(known);
+                                for (String id : ids) {
                                     if (!existing.remove(id)) {
-                                        synchronized (DatabaseTimerPersistence.this) {
-                                            knownTimerIds.get(timedObjectId).add(id);
-                                        }
-                                        final Holder holder = timerFromResult(resultSet, listener.getTimerService());
-                                        if(holder != null) {
-                                            listener.timerAdded(holder.timer);
+                                        known.add(id);
+                                        added.add(id);
+                                    }
+                                }
+                            }
+                            if (!added.isEmpty()) {
+                                if (statement == null) {
+                                    statement = connection.prepareStatement(sql(LOAD_TIMER));
+                                }
+                                for (String id : added) {
+                                    statement.setString(1, timedObjectId);
+                                    statement.setString(2, id);
+                                    statement.setString(3, partition);
+                                    resultSet = statement.executeQuery();
+                                    try {
+                                        if (resultSet.next()) {
+                                            final Holder holder = timerFromResult(resultSet, listener.getTimerService());
+                                            if (holder != null) {
+                                                listener.timerAdded(holder.timer);
+                                            }
                                         }
+                                    } catch (Exception e) {
+                                        EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(timedObjectId, id, e);
+                                    } finally {
+                                        safeClose(resultSet);
+                                        resultSet = null;
                                     }
-                                } catch (Exception e) {
-                                    EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(resultSet.getString(2), resultSet.getString(1), e);
                                 }
                             }
 
                             synchronized (DatabaseTimerPersistence.this) {
                                 Set<String> timers = knownTimerIds.get(timedObjectId);
                                 for (String timer : existing) {
-                                    timers.remove(timer);
+                                    if (timers != null) {
+                                        timers.remove(timer);
+                                    }
+                                    claimedTimerIds.remove(timer);
                                     listener.timerRemoved(timer);
                                 }
                             }
-                        } catch (SQLException e) {
+                        }
+                    } catch (SQLException e) {
+                        for (String timedObjectId : listeners.keySet()) {
                             EjbLogger.EJB3_TIMER_LOGGER.failedToRefreshTimers(timedObjectId);
-                        } finally {
-                            safeClose(resultSet);
-                            safeClose(statement);
-                            safeClose(connection);
                         }
+                    } finally {
+                        safeClose(resultSet);
+                        safeClose(statement);
+                        safeClose(connection);
                     }
                 } finally {
                     running.set(false);
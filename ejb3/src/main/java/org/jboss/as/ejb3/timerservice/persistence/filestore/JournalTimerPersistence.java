@@ -0,0 +1,546 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static java.security.AccessController.doPrivileged;
+import static org.jboss.as.ejb3.logging.EjbLogger.EJB3_TIMER_LOGGER;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilePermission;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.SystemException;
+import javax.transaction.TransactionManager;
+import javax.transaction.TransactionSynchronizationRegistry;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.as.ejb3.component.stateful.CurrentSynchronizationCallback;
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.ModularClassResolver;
+import org.jboss.marshalling.river.RiverMarshallerFactory;
+import org.jboss.modules.ModuleLoader;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+import org.jboss.staxmapper.XMLMapper;
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Journal based persistent timer store.
+ * Rather than a file per timer, all timers of this store are recorded within a single append-only {@link TimerJournal},
+ * whose records contain the same XML representation of a timer written by {@link FileTimerPersistence}.
+ * All timers persisted within a given transaction are appended together upon commit, requiring a single fsync.
+ * The journal is compacted by a periodic background task, never while persisting a timer.
+ * Timers previously persisted by {@link FileTimerPersistence} (in either its XML or legacy binary format) are imported into the journal when first loaded.
+ * @author agent
+ */
+public class JournalTimerPersistence implements TimerPersistence, Service<JournalTimerPersistence> {
+
+    private static final FilePermission FILE_PERMISSION = new FilePermission("<<ALL FILES>>", "read,write,delete");
+    private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+    private static final String DELETED_TIMER = "deleted-timer";
+    private static final long COMPACTION_INTERVAL_SECONDS = 10L;
+    private static final ThreadFactory THREAD_FACTORY = doPrivileged(new PrivilegedAction<JBossThreadFactory>() {
+        @Override
+        public JBossThreadFactory run() {
+            return new JBossThreadFactory(new ThreadGroup(TimerJournal.class.getSimpleName()), Boolean.FALSE, null, "%G - %t", null, null);
+        }
+    });
+
+    static {
+        setIfSupported(INPUT_FACTORY, XMLInputFactory.IS_VALIDATING, Boolean.FALSE);
+        setIfSupported(INPUT_FACTORY, XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+    }
+
+    private final boolean createIfNotExists;
+    private final InjectedValue<TransactionManager> transactionManager = new InjectedValue<>();
+    private final InjectedValue<TransactionSynchronizationRegistry> transactionSynchronizationRegistry = new InjectedValue<>();
+    private final InjectedValue<ModuleLoader> moduleLoader = new InjectedValue<>();
+    private final InjectedValue<PathManager> pathManager = new InjectedValue<>();
+    private final String path;
+    private final String pathRelativeTo;
+    private final Set<String> imported = ConcurrentHashMap.newKeySet();
+    private volatile MarshallerFactory factory;
+    private volatile MarshallingConfiguration configuration;
+    private volatile File baseDir;
+    private volatile String transactionKey;
+    private volatile TimerJournal journal;
+    private volatile ScheduledExecutorService executor;
+    private PathManager.Callback.Handle callbackHandle;
+
+    public JournalTimerPersistence(final boolean createIfNotExists, final String path, final String pathRelativeTo) {
+        final SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            sm.checkPermission(FILE_PERMISSION);
+        }
+        this.createIfNotExists = createIfNotExists;
+        this.path = path;
+        this.pathRelativeTo = pathRelativeTo;
+    }
+
+    @Override
+    public void start(final StartContext context) {
+        if (WildFlySecurityManager.isChecking()) {
+            WildFlySecurityManager.doUnchecked(new PrivilegedAction<Void>() {
+                @Override
+                public Void run() {
+                    doStart();
+                    return null;
+                }
+            });
+        } else {
+            this.doStart();
+        }
+    }
+
+    private void doStart() {
+        final MarshallingConfiguration configuration = new MarshallingConfiguration();
+        configuration.setClassResolver(ModularClassResolver.getInstance(this.moduleLoader.getValue()));
+        configuration.setVersion(3);
+
+        this.configuration = configuration;
+        this.factory = new RiverMarshallerFactory();
+        if (this.pathRelativeTo != null) {
+            this.callbackHandle = this.pathManager.getValue().registerCallback(this.pathRelativeTo, PathManager.ReloadServerCallback.create(), PathManager.Event.UPDATED, PathManager.Event.REMOVED);
+        }
+        final File baseDir = new File(this.pathManager.getValue().resolveRelativePathEntry(this.path, this.pathRelativeTo));
+        if (!baseDir.exists()) {
+            if (this.createIfNotExists) {
+                if (!baseDir.mkdirs()) {
+                    throw EJB3_TIMER_LOGGER.failToCreateTimerFileStoreDir(baseDir);
+                }
+            } else {
+                throw EJB3_TIMER_LOGGER.timerFileStoreDirNotExist(baseDir);
+            }
+        }
+        if (!baseDir.isDirectory()) {
+            throw EJB3_TIMER_LOGGER.invalidTimerFileStoreDir(baseDir);
+        }
+        this.baseDir = baseDir;
+        this.transactionKey = "org.jboss.as.ejb3.timerJournalTransactionKey." + baseDir.getAbsolutePath();
+        try {
+            this.journal = new TimerJournal(baseDir);
+        } catch (IOException e) {
+            throw EJB3_TIMER_LOGGER.failToOpenTimerJournal(baseDir, e);
+        }
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, THREAD_FACTORY);
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        executor.scheduleWithFixedDelay(new CompactionTask(this.journal, baseDir), COMPACTION_INTERVAL_SECONDS, COMPACTION_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        this.executor = executor;
+    }
+
+    @Override
+    public void stop(final StopContext context) {
+        // Let any compaction in progress complete before closing the journal
+        this.executor.shutdown();
+        try {
+            this.executor.awaitTermination(COMPACTION_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.executor = null;
+        try {
+            this.journal.close();
+        } catch (IOException e) {
+            EJB3_TIMER_LOGGER.failToCloseFile(e);
+        }
+        this.journal = null;
+        this.imported.clear();
+        if (this.callbackHandle != null) {
+            this.callbackHandle.remove();
+        }
+        this.factory = null;
+        this.configuration = null;
+    }
+
+    @Override
+    public JournalTimerPersistence getValue() {
+        return this;
+    }
+
+    @Override
+    public void addTimer(final TimerImpl timer) {
+        if (WildFlySecurityManager.isChecking()) {
+            WildFlySecurityManager.doUnchecked(new PrivilegedAction<Void>() {
+                @Override
+                public Void run() {
+                    persistTimer(timer, true);
+                    return null;
+                }
+            });
+        } else {
+            this.persistTimer(timer, true);
+        }
+    }
+
+    @Override
+    public void persistTimer(final TimerImpl timer) {
+        if (WildFlySecurityManager.isChecking()) {
+            WildFlySecurityManager.doUnchecked(new PrivilegedAction<Void>() {
+                @Override
+                public Void run() {
+                    persistTimer(timer, false);
+                    return null;
+                }
+            });
+        } else {
+            this.persistTimer(timer, false);
+        }
+    }
+
+    @Override
+    public boolean shouldRun(TimerImpl timer, TransactionManager tm) {
+        return true;
+    }
+
+    private void persistTimer(final TimerImpl timer, final boolean newTimer) {
+        try {
+            final int status = this.transactionManager.getValue().getStatus();
+            if (status == Status.STATUS_MARKED_ROLLBACK || status == Status.STATUS_ROLLEDBACK || status == Status.STATUS_ROLLING_BACK) {
+                //no need to persist anyway
+                return;
+            }
+            if (status == Status.STATUS_NO_TRANSACTION || status == Status.STATUS_UNKNOWN || isBeforeCompletion() || status == Status.STATUS_COMMITTED) {
+                this.write(Collections.singletonList(new PendingTimer(timer, newTimer)));
+            } else {
+                // Defer all timers persisted within this transaction to a single synchronization, so that they are written with a single fsync
+                final TransactionSynchronizationRegistry registry = this.transactionSynchronizationRegistry.getValue();
+                PersistTransactionSynchronization synchronization = (PersistTransactionSynchronization) registry.getResource(this.transactionKey);
+                if (synchronization == null) {
+                    synchronization = new PersistTransactionSynchronization();
+                    registry.registerInterposedSynchronization(synchronization);
+                    registry.putResource(this.transactionKey, synchronization);
+                }
+                synchronization.add(timer, newTimer);
+            }
+        } catch (SystemException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void timerUndeployed(final String timedObjectId) {
+        // Nothing is cached per timed object
+    }
+
+    private static boolean isBeforeCompletion() {
+        final CurrentSynchronizationCallback.CallbackType type = CurrentSynchronizationCallback.get();
+        return type == CurrentSynchronizationCallback.CallbackType.BEFORE_COMPLETION;
+    }
+
+    @Override
+    public List<TimerImpl> loadActiveTimers(final String timedObjectId, final TimerServiceImpl timerService) {
+        if (this.imported.add(timedObjectId)) {
+            this.importTimers(timedObjectId, timerService);
+        }
+        final XMLMapper mapper = this.createMapper(timerService);
+        final List<TimerImpl> entities = new ArrayList<>();
+        for (Map.Entry<String, byte[]> entry : this.journal.getTimers(timedObjectId).entrySet()) {
+            try {
+                for (TimerImpl timer : parse(mapper, entry.getValue())) {
+                    entities.add(this.mostRecentEntityVersion(timer));
+                }
+            } catch (XMLStreamException e) {
+                EJB3_TIMER_LOGGER.failToRestoreTimerFromJournal(entry.getKey(), timedObjectId, e);
+            }
+        }
+        return entities;
+    }
+
+    @Override
+    public Closeable registerChangeListener(String timedObjectId, TimerChangeListener listener) {
+        return new Closeable() {
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    /**
+     * Returns either the loaded entity or the most recent version of the entity that has
+     * been persisted in this transaction.
+     */
+    private TimerImpl mostRecentEntityVersion(final TimerImpl timer) {
+        try {
+            final int status = this.transactionManager.getValue().getStatus();
+            if (status == Status.STATUS_UNKNOWN || status == Status.STATUS_NO_TRANSACTION) {
+                return timer;
+            }
+            final PersistTransactionSynchronization synchronization = (PersistTransactionSynchronization) this.transactionSynchronizationRegistry.getValue().getResource(this.transactionKey);
+            final TimerImpl existing = (synchronization != null) ? synchronization.get(timer.getId()) : null;
+            return (existing != null) ? existing : timer;
+        } catch (SystemException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Imports the timers of the specified timed object persisted by {@link FileTimerPersistence} into the journal, and removes their files.
+     * Legacy binary timers are marked as migrated, but only once the journal contains them.
+     * Timers already contained in the journal (e.g. following an interrupted import) take precedence over their files.
+     */
+    private void importTimers(final String timedObjectId, final TimerServiceImpl timerService) {
+        final File directory = new File(this.baseDir, timedObjectId.replace(File.separator, "-"));
+        if (!directory.isDirectory()) return;
+
+        final List<TimerJournal.Record> records = new ArrayList<>();
+        final Collection<TimerImpl> legacyTimers = LegacyFileStore.loadTimersFromFile(timedObjectId, timerService, directory.getAbsolutePath(), this.factory, this.configuration, false).values();
+        for (TimerImpl timer : legacyTimers) {
+            records.add(TimerJournal.put(timedObjectId, timer.getId(), this.serialize(timer)));
+        }
+        final XMLMapper mapper = this.createMapper(timerService);
+        final List<File> files = new ArrayList<>();
+        for (File file : directory.listFiles()) {
+            if (!file.getName().endsWith(".xml")) continue;
+            try {
+                final byte[] bytes = Files.readAllBytes(file.toPath());
+                final List<TimerImpl> timers = parse(mapper, bytes);
+                for (TimerImpl timer : timers) {
+                    if (!timer.getId().equals(DELETED_TIMER)) {
+                        records.add(TimerJournal.put(timedObjectId, timer.getId(), (timers.size() == 1) ? bytes : this.serialize(timer)));
+                    }
+                }
+                files.add(file);
+            } catch (IOException | XMLStreamException e) {
+                EJB3_TIMER_LOGGER.failToRestoreTimersFromFile(file, e);
+            }
+        }
+        final TimerJournal journal = this.journal;
+        try {
+            synchronized (journal) {
+                final List<TimerJournal.Record> imports = new ArrayList<>(records.size());
+                for (TimerJournal.Record record : records) {
+                    if (!journal.contains(record.timedObjectId, record.timerId)) {
+                        imports.add(record);
+                    }
+                }
+                journal.write(imports);
+            }
+        } catch (IOException e) {
+            EJB3_TIMER_LOGGER.failToRestoreTimersForObjectId(timedObjectId, e);
+            return;
+        }
+        if (!legacyTimers.isEmpty()) {
+            try {
+                LegacyFileStore.markMigrated(directory);
+            } catch (IOException e) {
+                // Legacy timers will be imported again, but will not replace those already in the journal
+                EJB3_TIMER_LOGGER.failToRestoreTimersForObjectId(timedObjectId, e);
+            }
+        }
+        for (File file : files) {
+            file.delete();
+        }
+        // Only succeeds if the directory is now empty, i.e. it contained no legacy binary timers
+        directory.delete();
+    }
+
+    /**
+     * Writes the specified timers to the journal, using a single write and fsync.
+     * A canceled or expired timer is removed from the journal.
+     * A timer that is neither new, nor already in the journal, was removed by another thread, and is ignored.
+     */
+    private void write(final Collection<PendingTimer> timers) {
+        // Serialize timers before acquiring the journal lock
+        final List<TimerJournal.Record> records = new ArrayList<>(timers.size());
+        for (PendingTimer pending : timers) {
+            final TimerImpl timer = pending.timer;
+            final boolean removed = (timer.getState() == TimerState.CANCELED) || (timer.getState() == TimerState.EXPIRED);
+            records.add(removed ? TimerJournal.remove(timer.getTimedObjectId(), timer.getId()) : TimerJournal.put(timer.getTimedObjectId(), timer.getId(), this.serialize(timer)));
+        }
+        final TimerJournal journal = this.journal;
+        try {
+            synchronized (journal) {
+                final List<TimerJournal.Record> changes = new ArrayList<>(records.size());
+                int index = 0;
+                for (PendingTimer pending : timers) {
+                    final TimerJournal.Record record = records.get(index++);
+                    final boolean exists = journal.contains(record.timedObjectId, record.timerId);
+                    if (exists || ((record.timer != null) && pending.newTimer)) {
+                        changes.add(record);
+                    }
+                }
+                journal.write(changes);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private byte[] serialize(final TimerImpl timer) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            final XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(output);
+            XMLMapper.Factory.create().deparseDocument(new EjbTimerXmlPersister(this.factory, this.configuration), Collections.singletonList(timer), writer);
+            writer.flush();
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new RuntimeException(e);
+        }
+        return output.toByteArray();
+    }
+
+    private static List<TimerImpl> parse(final XMLMapper mapper, final byte[] bytes) throws XMLStreamException {
+        final XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(bytes));
+        try {
+            final List<TimerImpl> timers = new ArrayList<>(1);
+            mapper.parseDocument(timers, reader);
+            return timers;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private XMLMapper createMapper(final TimerServiceImpl timerService) {
+        final XMLMapper mapper = XMLMapper.Factory.create();
+        mapper.registerRootElement(new QName(EjbTimerXmlParser_1_0.NAMESPACE, EjbTimerXmlPersister.TIMERS), new EjbTimerXmlParser_1_0(timerService, this.factory, this.configuration, timerService.getTimedObjectInvoker().getValue().getClassLoader()));
+        return mapper;
+    }
+
+    public InjectedValue<TransactionManager> getTransactionManager() {
+        return this.transactionManager;
+    }
+
+    public InjectedValue<TransactionSynchronizationRegistry> getTransactionSynchronizationRegistry() {
+        return this.transactionSynchronizationRegistry;
+    }
+
+    public InjectedValue<ModuleLoader> getModuleLoader() {
+        return this.moduleLoader;
+    }
+
+    public InjectedValue<PathManager> getPathManager() {
+        return this.pathManager;
+    }
+
+    private static void setIfSupported(final XMLInputFactory inputFactory, final String property, final Object value) {
+        if (inputFactory.isPropertySupported(property)) {
+            inputFactory.setProperty(property, value);
+        }
+    }
+
+    /**
+     * Compacts the journal, if necessary.
+     */
+    private static class CompactionTask implements Runnable {
+        private final TimerJournal journal;
+        private final File directory;
+
+        CompactionTask(TimerJournal journal, File directory) {
+            this.journal = journal;
+            this.directory = directory;
+        }
+
+        @Override
+        public void run() {
+            try {
+                this.journal.compactIfNecessary();
+            } catch (IOException e) {
+                // Journal remains intact, so compaction will be retried by the next execution of this task
+                EJB3_TIMER_LOGGER.failToCompactTimerJournal(this.directory, e);
+            }
+        }
+    }
+
+    private static class PendingTimer {
+        final TimerImpl timer;
+        final boolean newTimer;
+
+        PendingTimer(TimerImpl timer, boolean newTimer) {
+            this.timer = timer;
+            this.newTimer = newTimer;
+        }
+    }
+
+    /**
+     * Collects the most recent version of each timer persisted within a transaction, and writes them to the journal upon commit.
+     */
+    private final class PersistTransactionSynchronization implements Synchronization {
+
+        private final Map<String, PendingTimer> timers = new LinkedHashMap<>();
+
+        synchronized void add(final TimerImpl timer, final boolean newTimer) {
+            final PendingTimer existing = this.timers.get(timer.getId());
+            this.timers.put(timer.getId(), new PendingTimer(timer, newTimer || ((existing != null) && existing.newTimer)));
+        }
+
+        synchronized TimerImpl get(final String timerId) {
+            final PendingTimer pending = this.timers.get(timerId);
+            return (pending != null) ? pending.timer : null;
+        }
+
+        @Override
+        public void beforeCompletion() {
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            if (status != Status.STATUS_COMMITTED) return;
+            final List<PendingTimer> timers;
+            synchronized (this) {
+                timers = new ArrayList<>(this.timers.values());
+            }
+            if (timers.isEmpty()) return;
+            doPrivileged(new PrivilegedAction<Void>() {
+                @Override
+                public Void run() {
+                    write(timers);
+                    return null;
+                }
+            });
+        }
+    }
+}
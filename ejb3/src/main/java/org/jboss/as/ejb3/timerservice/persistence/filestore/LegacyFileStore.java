@@ -37,6 +37,15 @@ public class LegacyFileStore {
     public static final String MIGRATION_MARKER = "migrated-to-xml.marker";
 
     static Map<String, TimerImpl> loadTimersFromFile(final String timedObjectId, final TimerServiceImpl timerService, String directory, MarshallerFactory factory, MarshallingConfiguration configuration) {
+        return loadTimersFromFile(timedObjectId, timerService, directory, factory, configuration, true);
+    }
+
+    /**
+     * Loads the legacy timers of the specified directory.
+     * @param markMigrated indicates whether to create the marker file once any timers were loaded.
+     * If false, the caller is responsible for calling {@link #markMigrated(File)} once the loaded timers were stored elsewhere.
+     */
+    static Map<String, TimerImpl> loadTimersFromFile(final String timedObjectId, final TimerServiceImpl timerService, String directory, MarshallerFactory factory, MarshallingConfiguration configuration, boolean markMigrated) {
         final Map<String, TimerImpl> timers = new HashMap<String, TimerImpl>();
         try {
             final File file = new File(directory);
@@ -110,17 +119,24 @@ public class LegacyFileStore {
                 }
 
             }
-            if (!timers.isEmpty()) {
-                FileOutputStream out = new FileOutputStream(marker);
-                try {
-                    out.write(new Date().toString().getBytes());
-                } finally {
-                    out.close();
-                }
+            if (markMigrated && !timers.isEmpty()) {
+                markMigrated(file);
             }
         } catch (Exception e) {
             EJB3_TIMER_LOGGER.failToRestoreTimersForObjectId(timedObjectId, e);
         }
         return timers;
     }
+
+    /**
+     * Creates the marker file indicating that the legacy timers of the specified directory have already been read.
+     */
+    static void markMigrated(File directory) throws IOException {
+        FileOutputStream out = new FileOutputStream(new File(directory, MIGRATION_MARKER));
+        try {
+            out.write(new Date().toString().getBytes());
+        } finally {
+            out.close();
+        }
+    }
 }
@@ -0,0 +1,434 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.EJB3_TIMER_LOGGER;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal of serialized timers, keyed by timed object identifier and timer identifier.
+ * Each record is framed by its length and a CRC32 checksum of its content, so that a torn or corrupt tail (e.g. following a crash mid-write) is detected and truncated when the journal is replayed.
+ * Records written together are appended using a single write, and forced to disk using a single fsync.
+ * Once the journal grows sufficiently large relative to the live timers, it can be compacted (e.g. by a background task) into a snapshot containing only live timers, which atomically replaces the previous snapshot.
+ * The snapshot is written without blocking concurrent writes, which are carried over to a new journal that atomically replaces the previous journal.
+ * Since records are absolute (i.e. put or remove), replaying a journal over a snapshot that already reflects it is harmless, thus a crash during compaction loses nothing.
+ * @author agent
+ */
+class TimerJournal implements Closeable {
+
+    static final String SNAPSHOT = "timers.snapshot";
+    static final String JOURNAL = "timers.journal";
+    static final long DEFAULT_COMPACTION_THRESHOLD = 4L * 1024 * 1024;
+
+    private static final int MAGIC = 0x454A4254;
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 5;
+    // Length + checksum
+    private static final int FRAME_OVERHEAD = 8;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+
+    private final File directory;
+    private final File snapshot;
+    private final File journal;
+    private final long compactionThreshold;
+    private final Map<String, Map<String, byte[]>> timers = new HashMap<>();
+    private final Object compactionLock = new Object();
+    private FileChannel channel;
+    private long liveBytes = 0L;
+
+    /**
+     * Opens the journal within the specified directory, replaying any existing snapshot and journal, using the default compaction threshold.
+     * @param directory the directory containing the snapshot and journal
+     * @throws IOException if the journal could not be opened
+     */
+    TimerJournal(File directory) throws IOException {
+        this(directory, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Opens the journal within the specified directory, replaying any existing snapshot and journal.
+     * If the replayed journal contains any records, it is compacted immediately, so that a subsequent boot need only read the snapshot.
+     * @param directory the directory containing the snapshot and journal
+     * @param compactionThreshold the journal size, in bytes, below which the journal need not be compacted
+     * @throws IOException if the journal could not be opened
+     */
+    TimerJournal(File directory, long compactionThreshold) throws IOException {
+        this.directory = directory;
+        this.snapshot = new File(directory, SNAPSHOT);
+        this.journal = new File(directory, JOURNAL);
+        this.compactionThreshold = compactionThreshold;
+
+        // Discard any incomplete snapshot or journal from an interrupted compaction
+        Files.deleteIfExists(this.temporarySnapshot().toPath());
+        Files.deleteIfExists(this.temporaryJournal().toPath());
+
+        if (this.snapshot.exists()) {
+            long length = this.snapshot.length();
+            long valid = this.replay(this.snapshot);
+            if (valid < length) {
+                EJB3_TIMER_LOGGER.discardedCorruptTimerJournal(this.snapshot, length - valid);
+            }
+        }
+
+        this.channel = FileChannel.open(this.journal.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long length = this.channel.size();
+            long valid = (length > 0) ? this.replay(this.journal) : 0L;
+            if (valid < length) {
+                EJB3_TIMER_LOGGER.discardedCorruptTimerJournal(this.journal, length - valid);
+            }
+            if (valid < HEADER_SIZE) {
+                this.channel.truncate(0L);
+                this.channel.write(ByteBuffer.wrap(header()), 0L);
+                this.channel.force(true);
+            } else if (valid < length) {
+                this.channel.truncate(valid);
+                this.channel.force(true);
+            }
+            this.channel.position(this.channel.size());
+            if (this.channel.size() > HEADER_SIZE) {
+                this.compact();
+            }
+        } catch (IOException | RuntimeException e) {
+            this.channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the serialized timers of the specified timed object.
+     * @param timedObjectId a timed object identifier
+     * @return an unmodifiable map of serialized timer per timer identifier
+     */
+    synchronized Map<String, byte[]> getTimers(String timedObjectId) {
+        Map<String, byte[]> timers = this.timers.get(timedObjectId);
+        return (timers != null) ? Collections.unmodifiableMap(new HashMap<>(timers)) : Collections.<String, byte[]>emptyMap();
+    }
+
+    /**
+     * Indicates whether this journal contains the specified timer.
+     * @param timedObjectId a timed object identifier
+     * @param timerId a timer identifier
+     * @return true, if this journal contains the specified timer, false otherwise
+     */
+    synchronized boolean contains(String timedObjectId, String timerId) {
+        Map<String, byte[]> timers = this.timers.get(timedObjectId);
+        return (timers != null) && timers.containsKey(timerId);
+    }
+
+    /**
+     * Appends the specified records to the journal, and forces them to disk, using a single write and fsync.
+     * The journal is never compacted by this method, see {@link #compactIfNecessary()}.
+     * @param records a collection of records
+     * @throws IOException if the records could not be written, in which case the in-memory state of the journal is unchanged
+     */
+    synchronized void write(Collection<Record> records) throws IOException {
+        if (records.isEmpty()) return;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        for (Record record : records) {
+            record.writeTo(output);
+        }
+        output.flush();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        long position = this.channel.position();
+        try {
+            while (buffer.hasRemaining()) {
+                this.channel.write(buffer);
+            }
+            this.channel.force(false);
+        } catch (IOException e) {
+            // Discard any partially written records
+            try {
+                this.channel.truncate(position);
+                this.channel.position(position);
+            } catch (IOException ignored) {
+                // Any torn record will be truncated on replay
+            }
+            throw e;
+        }
+        for (Record record : records) {
+            this.apply(record);
+        }
+    }
+
+    /**
+     * Compacts the journal, if it grew sufficiently large relative to the live timers.
+     * @return true, if the journal was compacted, false otherwise
+     * @throws IOException if the journal could not be compacted
+     */
+    boolean compactIfNecessary() throws IOException {
+        synchronized (this) {
+            if (this.channel.size() <= Math.max(this.compactionThreshold, 2 * this.liveBytes)) return false;
+        }
+        this.compact();
+        return true;
+    }
+
+    /**
+     * Writes the live timers to a new snapshot, which atomically replaces the existing snapshot.
+     * Any records appended to the journal while the snapshot was written are then moved to a new journal, which atomically replaces the existing journal.
+     * @throws IOException if the journal could not be compacted
+     */
+    void compact() throws IOException {
+        synchronized (this.compactionLock) {
+            Map<String, Map<String, byte[]>> timers = new HashMap<>();
+            long position;
+            synchronized (this) {
+                // Serialized timers are never modified, so a shallow copy suffices
+                for (Map.Entry<String, Map<String, byte[]>> entry : this.timers.entrySet()) {
+                    timers.put(entry.getKey(), new HashMap<>(entry.getValue()));
+                }
+                position = this.channel.position();
+            }
+            File file = this.temporarySnapshot();
+            try (FileOutputStream output = new FileOutputStream(file)) {
+                DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output));
+                data.write(header());
+                for (Map.Entry<String, Map<String, byte[]>> entry : timers.entrySet()) {
+                    for (Map.Entry<String, byte[]> timer : entry.getValue().entrySet()) {
+                        put(entry.getKey(), timer.getKey(), timer.getValue()).writeTo(data);
+                    }
+                }
+                data.flush();
+                output.getFD().sync();
+            }
+            Files.move(file.toPath(), this.snapshot.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            synchronized (this) {
+                // Carry over any records appended since the snapshot was taken
+                ByteBuffer tail = ByteBuffer.allocate((int) (this.channel.size() - position));
+                while (tail.hasRemaining()) {
+                    if (this.channel.read(tail, position + tail.position()) < 0) break;
+                }
+                tail.flip();
+                File journal = this.temporaryJournal();
+                // The new channel remains valid across the move, and is positioned at the end of the journal
+                FileChannel channel = FileChannel.open(journal.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                try {
+                    ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + tail.remaining()).put(header()).put(tail);
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(true);
+                    Files.move(journal.toPath(), this.journal.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException e) {
+                    channel.close();
+                    throw e;
+                }
+                FileChannel previous = this.channel;
+                this.channel = channel;
+                previous.close();
+            }
+        }
+    }
+
+    /**
+     * Returns the current size of the journal, excluding the snapshot.
+     * @return a number of bytes
+     * @throws IOException if the size could not be determined
+     */
+    synchronized long size() throws IOException {
+        return this.channel.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        this.channel.close();
+        this.timers.clear();
+        this.liveBytes = 0L;
+    }
+
+    private File temporarySnapshot() {
+        return new File(this.directory, SNAPSHOT + ".tmp");
+    }
+
+    private File temporaryJournal() {
+        return new File(this.directory, JOURNAL + ".tmp");
+    }
+
+    /**
+     * Replays the records of the specified file into memory.
+     * @param file a snapshot or journal
+     * @return the offset following the last valid record
+     */
+    private long replay(File file) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            long length = file.length();
+            if ((length < HEADER_SIZE) || (input.readInt() != MAGIC) || (input.readByte() != VERSION)) {
+                return 0L;
+            }
+            long position = HEADER_SIZE;
+            CRC32 checksum = new CRC32();
+            while (position + FRAME_OVERHEAD <= length) {
+                int size = input.readInt();
+                int crc = input.readInt();
+                if ((size <= 0) || (size > length - position - FRAME_OVERHEAD)) break;
+                byte[] content = new byte[size];
+                input.readFully(content);
+                checksum.reset();
+                checksum.update(content, 0, size);
+                if ((int) checksum.getValue() != crc) break;
+                Record record;
+                try {
+                    record = Record.read(content);
+                } catch (IOException e) {
+                    break;
+                }
+                if (record == null) break;
+                this.apply(record);
+                position += FRAME_OVERHEAD + size;
+            }
+            return position;
+        }
+    }
+
+    private void apply(Record record) {
+        Map<String, byte[]> timers = this.timers.get(record.timedObjectId);
+        if (record.timer != null) {
+            if (timers == null) {
+                timers = new HashMap<>();
+                this.timers.put(record.timedObjectId, timers);
+            }
+            byte[] previous = timers.put(record.timerId, record.timer);
+            if (previous != null) {
+                this.liveBytes -= record.size(previous);
+            }
+            this.liveBytes += record.size(record.timer);
+        } else if (timers != null) {
+            byte[] previous = timers.remove(record.timerId);
+            if (previous != null) {
+                this.liveBytes -= record.size(previous);
+            }
+            if (timers.isEmpty()) {
+                this.timers.remove(record.timedObjectId);
+            }
+        }
+    }
+
+    private static byte[] header() {
+        return ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).put(VERSION).array();
+    }
+
+    /**
+     * Creates a record that stores the specified serialized timer.
+     * @param timedObjectId a timed object identifier
+     * @param timerId a timer identifier
+     * @param timer a serialized timer
+     * @return a journal record
+     */
+    static Record put(String timedObjectId, String timerId, byte[] timer) {
+        return new Record(timedObjectId, timerId, timer);
+    }
+
+    /**
+     * Creates a record that removes the specified timer.
+     * @param timedObjectId a timed object identifier
+     * @param timerId a timer identifier
+     * @return a journal record
+     */
+    static Record remove(String timedObjectId, String timerId) {
+        return new Record(timedObjectId, timerId, null);
+    }
+
+    /**
+     * A journal record, i.e. the put or removal of a single timer.
+     */
+    static class Record {
+        final String timedObjectId;
+        final String timerId;
+        final byte[] timer;
+
+        Record(String timedObjectId, String timerId, byte[] timer) {
+            this.timedObjectId = timedObjectId;
+            this.timerId = timerId;
+            this.timer = timer;
+        }
+
+        void writeTo(DataOutputStream output) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream content = new DataOutputStream(bytes);
+            content.writeByte((this.timer != null) ? PUT : REMOVE);
+            content.writeUTF(this.timedObjectId);
+            content.writeUTF(this.timerId);
+            if (this.timer != null) {
+                content.writeInt(this.timer.length);
+                content.write(this.timer);
+            }
+            content.flush();
+            CRC32 checksum = new CRC32();
+            checksum.update(bytes.toByteArray(), 0, bytes.size());
+            output.writeInt(bytes.size());
+            output.writeInt((int) checksum.getValue());
+            bytes.writeTo(output);
+        }
+
+        // Approximate size of the framed record for the specified timer, used to determine when to compact
+        int size(byte[] timer) {
+            return FRAME_OVERHEAD + 9 + this.timedObjectId.getBytes(StandardCharsets.UTF_8).length + this.timerId.getBytes(StandardCharsets.UTF_8).length + timer.length;
+        }
+
+        static Record read(byte[] content) throws IOException {
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(content));
+            byte type = input.readByte();
+            String timedObjectId = input.readUTF();
+            String timerId = input.readUTF();
+            switch (type) {
+                case PUT: {
+                    byte[] timer = new byte[input.readInt()];
+                    input.readFully(timer);
+                    return new Record(timedObjectId, timerId, timer);
+                }
+                case REMOVE: {
+                    return new Record(timedObjectId, timerId, null);
+                }
+                default: {
+                    return null;
+                }
+            }
+        }
+    }
+}
@@ -21,6 +21,10 @@
  */
 package org.jboss.as.ejb3.timerservice.schedule;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
@@ -72,24 +76,9 @@ public class CalendarBasedTimeout {
     private Hour hour;
 
     /**
-     * The {@link DayOfWeek} created out of the {@link javax.ejb.ScheduleExpression#getDayOfWeek()} value
+     * The compiled form of the date and time attributes of the {@link javax.ejb.ScheduleExpression}
      */
-    private DayOfWeek dayOfWeek;
-
-    /**
-     * The {@link org.jboss.as.ejb3.timerservice.schedule.attribute.DayOfMonth} created out of the {@link javax.ejb.ScheduleExpression#getDayOfMonth()} value
-     */
-    private DayOfMonth dayOfMonth;
-
-    /**
-     * The {@link Month} created out of the {@link javax.ejb.ScheduleExpression#getMonth()} value
-     */
-    private Month month;
-
-    /**
-     * The {@link org.jboss.as.ejb3.timerservice.schedule.attribute.Year} created out of the {@link javax.ejb.ScheduleExpression#getYear()} value
-     */
-    private Year year;
+    private CompiledSchedule schedule;
 
     /**
      * The first timeout relative to the time when this {@link CalendarBasedTimeout} was created
@@ -102,6 +91,11 @@ public class CalendarBasedTimeout {
      */
     private TimeZone timezone;
 
+    /**
+     * The {@link ZoneId} equivalent of the timezone being used for this {@link CalendarBasedTimeout}
+     */
+    private ZoneId zone;
+
     /**
      * Creates a {@link CalendarBasedTimeout} from the passed <code>schedule</code>.
      * <p>
@@ -129,10 +123,11 @@ public class CalendarBasedTimeout {
         this.second = new Second(schedule.getSecond());
         this.minute = new Minute(schedule.getMinute());
         this.hour = new Hour(schedule.getHour());
-        this.dayOfWeek = new DayOfWeek(schedule.getDayOfWeek());
-        this.dayOfMonth = new DayOfMonth(schedule.getDayOfMonth());
-        this.month = new Month(schedule.getMonth());
-        this.year = new Year(schedule.getYear());
+        DayOfWeek dayOfWeek = new DayOfWeek(schedule.getDayOfWeek());
+        DayOfMonth dayOfMonth = new DayOfMonth(schedule.getDayOfMonth());
+        Month month = new Month(schedule.getMonth());
+        Year year = new Year(schedule.getYear());
+        this.schedule = new CompiledSchedule(this.second, this.minute, this.hour, dayOfMonth, dayOfWeek, month, year);
         String timezoneId = schedule.getTimezone();
         if (timezoneId != null && !(timezoneId = timezoneId.trim()).isEmpty()) {
             // If the timezone ID wasn't valid, then Timezone.getTimeZone returns
@@ -151,6 +146,7 @@ public class CalendarBasedTimeout {
         } else {
             this.timezone = TimeZone.getDefault();
         }
+        this.zone = this.timezone.toZoneId();
 
         // Now that we have parsed the values from the ScheduleExpression,
         // determine and set the first timeout (relative to the current time)
@@ -198,306 +194,43 @@ public class CalendarBasedTimeout {
         if (this.noMoreTimeouts(currentCal)) {
             return null;
         }
-        Calendar nextCal = (Calendar) currentCal.clone();
-        nextCal.setTimeZone(this.timezone);
+        long time = currentCal.getTimeInMillis();
         Date start = this.scheduleExpression.getStart();
-        if (start != null && currentCal.getTime().before(start)) {
+        if (start != null && time < start.getTime()) {
             //this may result in a millisecond component, however that is ok
             //otherwise WFLY-6561 will rear its only head
             //also as the start time may include milliseconds this is technically correct
-            nextCal.setTime(start);
+            time = start.getTime();
         } else {
             if (increment) {
                 // increment the current second by 1
-                nextCal.add(Calendar.SECOND, 1);
+                time += 1000L;
             }
-            nextCal.add(Calendar.MILLISECOND, -nextCal.get(Calendar.MILLISECOND));
+            time -= Math.floorMod(time, 1000L);
         }
-        nextCal.setFirstDayOfWeek(Calendar.SUNDAY);
-
-        nextCal = this.computeNextTime(nextCal);
-        if (nextCal == null) {
-            return null;
-        }
-
-        nextCal = this.computeNextMonth(nextCal);
-        if (nextCal == null) {
-            return null;
-        }
-
-        nextCal = this.computeNextDate(nextCal);
-        if (nextCal == null) {
+        LocalDateTime current = LocalDateTime.ofInstant(Instant.ofEpochMilli(time), this.zone);
+        LocalDateTime truncated = current.withNano(0);
+        LocalDateTime next = this.schedule.getNextMatch(truncated);
+        if (next == null) {
             return null;
         }
-
-        nextCal = this.computeNextYear(nextCal);
-        if (nextCal == null) {
-            return null;
+        if (!next.equals(truncated)) {
+            // A local time skipped by a daylight saving transition is shifted forward by the length of the gap,
+            // while a local time repeated by a daylight saving transition resolves to its later (i.e. standard time) offset, consistent with GregorianCalendar
+            time = ZonedDateTime.ofLocal(next, this.zone, null).withLaterOffsetAtOverlap().toInstant().toEpochMilli();
         }
+        Calendar nextCal = (Calendar) currentCal.clone();
+        nextCal.setTimeZone(this.timezone);
+        nextCal.setFirstDayOfWeek(Calendar.SUNDAY);
+        nextCal.setTimeInMillis(time);
 
         // one final check
-        if (this.noMoreTimeouts(nextCal)) {
-            return null;
-        }
-        return nextCal;
-    }
-
-    private Calendar computeNextTime(Calendar nextCal) {
-        int currentSecond = nextCal.get(Calendar.SECOND);
-        int currentMinute = nextCal.get(Calendar.MINUTE);
-        int currentHour = nextCal.get(Calendar.HOUR_OF_DAY);
-        final int currentTimeInSeconds = currentHour*3600 + currentMinute*60 + currentSecond;
-
-        // compute next second
-        Integer nextSecond = this.second.getNextMatch(currentSecond);
-        if (nextSecond == null) {
-            return null;
-        }
-        // compute next minute
-        if (nextSecond < currentSecond) {
-            currentMinute++;
-        }
-        Integer nextMinute = this.minute.getNextMatch(currentMinute < 60 ? currentMinute : 0);
-        if (nextMinute == null) {
-            return null;
-        }
-        // reset second if minute was changed  (Fix WFLY-5955)
-        if( nextMinute != currentMinute) {
-            nextSecond = this.second.getNextMatch(0);
-        }
-        // compute next hour
-        if (nextMinute < currentMinute) {
-            currentHour++;
-        }
-        Integer nextHour = this.hour.getNextMatch(currentHour < 24 ? currentHour : 0);
-        if (nextHour == null) {
-            return null;
-        }
-        if(nextHour != currentHour) {
-            // reset second/minute if hour changed  (Fix WFLY-5955)
-            nextSecond = this.second.getNextMatch(0);
-            nextMinute = this.minute.getNextMatch(0);
-        }
-
-        final int nextTimeInSeconds = nextHour*3600 + nextMinute*60 + nextSecond;
-        if (nextTimeInSeconds == currentTimeInSeconds) {
-            // no change in time
-            return nextCal;
-        }
-        // time change
-        if (nextTimeInSeconds < currentTimeInSeconds) {
-            // advance to next day
-            nextCal.add(Calendar.DATE, 1);
-        }
-        setTime(nextCal, nextHour, nextMinute, nextSecond);
-
-        return nextCal;
-    }
-
-    private Calendar computeNextDayOfWeek(Calendar nextCal) {
-        Integer nextDayOfWeek = this.dayOfWeek.getNextMatch(nextCal);
-
-        if (nextDayOfWeek == null) {
-            return null;
-        }
-        int currentDayOfWeek = nextCal.get(Calendar.DAY_OF_WEEK);
-        // if the current day-of-week is a match, then nothing else to
-        // do. Just return back the calendar
-        if (currentDayOfWeek == nextDayOfWeek) {
-            return nextCal;
-        }
-        int currentMonth = nextCal.get(Calendar.MONTH);
-
-        // At this point, a suitable "next" day-of-week has been identified.
-        // There can be 2 cases
-        // 1) The "next" day-of-week is greater than the current day-of-week : This
-        // implies that the next day-of-week is within the "current" week.
-        // 2) The "next" day-of-week is lesser than the current day-of-week : This implies
-        // that the next day-of-week is in the next week (i.e. current week needs to
-        // be advanced to next week).
-        if (nextDayOfWeek < currentDayOfWeek) {
-            // advance one week
-            nextCal.add(Calendar.WEEK_OF_MONTH, 1);
-        }
-        // set the chosen day of week
-        nextCal.set(Calendar.DAY_OF_WEEK, nextDayOfWeek);
-        // since we are moving to a different day-of-week (as compared to the current day-of-week),
-        // we should reset the second, minute and hour appropriately, to their first possible
-        // values
-        resetTimeToFirstValues(nextCal);
-
-        if (nextCal.get(Calendar.MONTH) != currentMonth) {
-            nextCal = computeNextMonth(nextCal);
-        }
-        return nextCal;
-    }
-
-    private Calendar computeNextMonth(Calendar nextCal) {
-        Integer nextMonth = this.month.getNextMatch(nextCal);
-
-        if (nextMonth == null) {
+        if (this.isAfterEnd(nextCal)) {
             return null;
         }
-        int currentMonth = nextCal.get(Calendar.MONTH);
-        // if the current month is a match, then nothing else to
-        // do. Just return back the calendar
-        if (currentMonth == nextMonth) {
-            return nextCal;
-        }
-
-        // At this point, a suitable "next" month has been identified.
-        // There can be 2 cases
-        // 1) The "next" month is greater than the current month : This
-        // implies that the next month is within the "current" year.
-        // 2) The "next" month is lesser than the current month : This implies
-        // that the next month is in the next year (i.e. current year needs to
-        // be advanced to next year).
-        if (nextMonth < currentMonth) {
-            // advance to next year
-            nextCal.add(Calendar.YEAR, 1);
-        }
-        // set the chosen month
-        nextCal.set(Calendar.MONTH, nextMonth);
-        // since we are moving to a different month (as compared to the current month),
-        // we should reset the second, minute, hour, day-of-week and dayofmonth appropriately, to their first possible
-        // values
-        nextCal.set(Calendar.DAY_OF_WEEK, this.dayOfWeek.getFirst());
-        nextCal.set(Calendar.DAY_OF_MONTH, 1);
-        resetTimeToFirstValues(nextCal);
-
         return nextCal;
     }
 
-    private Calendar computeNextDate(Calendar nextCal) {
-        if (this.isDayOfMonthWildcard()) {
-            return this.computeNextDayOfWeek(nextCal);
-        }
-
-        if (this.isDayOfWeekWildcard()) {
-            return this.computeNextDayOfMonth(nextCal);
-        }
-
-        // both day-of-month and day-of-week are *non-wildcards*
-        Calendar nextDayOfMonthCal = this.computeNextDayOfMonth((Calendar) nextCal.clone());
-        Calendar nextDayOfWeekCal = this.computeNextDayOfWeek((Calendar) nextCal.clone());
-
-        if (nextDayOfMonthCal == null) {
-            return nextDayOfWeekCal;
-        }
-        if (nextDayOfWeekCal == null) {
-            return nextDayOfMonthCal;
-        }
-
-        return nextDayOfWeekCal.getTime().before(nextDayOfMonthCal.getTime()) ? nextDayOfWeekCal : nextDayOfMonthCal;
-    }
-
-    private Calendar computeNextDayOfMonth(Calendar nextCal) {
-        Integer nextDayOfMonth = this.dayOfMonth.getNextMatch(nextCal);
-
-        if (nextDayOfMonth == null) {
-            return null;
-        }
-        int currentDayOfMonth = nextCal.get(Calendar.DAY_OF_MONTH);
-        // if the current day-of-month is a match, then nothing else to
-        // do. Just return back the calendar
-        if (currentDayOfMonth == nextDayOfMonth) {
-            return nextCal;
-        }
-
-        if (nextDayOfMonth > currentDayOfMonth) {
-            if (this.monthHasDate(nextCal, nextDayOfMonth)) {
-                // set the chosen day-of-month
-                nextCal.set(Calendar.DAY_OF_MONTH, nextDayOfMonth);
-                // since we are moving to a different day-of-month (as compared to the current day-of-month),
-                // we should reset the second, minute and hour appropriately, to their first possible
-                // values
-                resetTimeToFirstValues(nextCal);
-
-            } else {
-                nextCal = this.advanceTillMonthHasDate(nextCal, nextDayOfMonth);
-            }
-        } else {
-            // since the next day is before the current day we need to shift to the next month
-            nextCal.add(Calendar.MONTH, 1);
-            // also we need to reset the time
-            resetTimeToFirstValues(nextCal);
-            nextCal = this.computeNextMonth(nextCal);
-            if (nextCal == null) {
-                return null;
-            }
-            nextDayOfMonth = this.dayOfMonth.getFirstMatch(nextCal);
-            if (nextDayOfMonth == null) {
-                return null;
-            }
-            // make sure the month can handle the date
-            nextCal = this.advanceTillMonthHasDate(nextCal, nextDayOfMonth);
-        }
-        return nextCal;
-    }
-
-    private Calendar computeNextYear(Calendar nextCal) {
-        Integer nextYear = this.year.getNextMatch(nextCal);
-
-        if (nextYear == null || nextYear > Year.MAX_YEAR) {
-            return null;
-        }
-        int currentYear = nextCal.get(Calendar.YEAR);
-        // if the current year is a match, then nothing else to
-        // do. Just return back the calendar
-        if (currentYear == nextYear) {
-            return nextCal;
-        }
-        // If the next year is lesser than the current year, then
-        // we have no more timeouts for the calendar expression
-        if (nextYear < currentYear) {
-            return null;
-        }
-
-        // at this point we have chosen a year which is greater than the current
-        // year.
-        // set the chosen year
-        nextCal.set(Calendar.YEAR, nextYear);
-        // since we are moving to a different year (as compared to the current year),
-        // we should reset all other calendar attribute expressions appropriately, to their first possible
-        // values
-        nextCal.set(Calendar.MONTH, this.month.getFirstMatch());
-        nextCal.set(Calendar.DAY_OF_MONTH, 1);
-        resetTimeToFirstValues(nextCal);
-
-        // recompute date
-        nextCal = this.computeNextDate(nextCal);
-
-        return nextCal;
-    }
-
-    private Calendar advanceTillMonthHasDate(Calendar cal, Integer date) {
-        resetTimeToFirstValues(cal);
-
-        // make sure the month can handle the date
-        while (monthHasDate(cal, date) == false) {
-            if (cal.get(Calendar.YEAR) > Year.MAX_YEAR) {
-                return null;
-            }
-            // this month can't handle the date, so advance month to next month
-            // and get the next suitable matching month
-            cal.add(Calendar.MONTH, 1);
-            cal = this.computeNextMonth(cal);
-            if (cal == null) {
-                return null;
-            }
-            date = this.dayOfMonth.getFirstMatch(cal);
-            if (date == null) {
-                return null;
-            }
-        }
-        cal.set(Calendar.DAY_OF_MONTH, date);
-        return cal;
-    }
-
-    private boolean monthHasDate(Calendar cal, int date) {
-        return date <= cal.getActualMaximum(Calendar.DAY_OF_MONTH);
-    }
-
     private boolean isAfterEnd(Calendar cal) {
         Date end = this.scheduleExpression.getEnd();
         if (end == null) {
@@ -514,14 +247,6 @@ public class CalendarBasedTimeout {
         return false;
     }
 
-    private boolean isDayOfWeekWildcard() {
-        return this.scheduleExpression.getDayOfWeek().equals("*");
-    }
-
-    private boolean isDayOfMonthWildcard() {
-        return this.scheduleExpression.getDayOfMonth().equals("*");
-    }
-
     private void nullCheckScheduleAttributes(ScheduleExpression schedule) {
         if (schedule.getSecond() == null) {
             throw EJB3_TIMER_LOGGER.invalidScheduleExpressionSecond(schedule);
@@ -0,0 +1,211 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.schedule;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+
+import org.jboss.as.ejb3.timerservice.schedule.attribute.DayOfMonth;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.DayOfWeek;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Hour;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Minute;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Month;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Second;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Year;
+
+/**
+ * Compiled form of the attributes of a {@link javax.ejb.ScheduleExpression}, in which each time and date field is represented by a bit mask of matching values.
+ * The next matching date/time is located by jumping directly to the next set bit of each field, from the most significant field to the least significant field,
+ * rather than by incrementally adjusting a {@link java.util.Calendar}.
+ * Relative days of the month (e.g. "last", "-2", "3rd Fri") are resolved per month, and cached for the most recently visited month.
+ *
+ * @author agent
+ */
+class CompiledSchedule {
+
+    private static final long WEEK_MASK = (1L << 7) - 1L;
+
+    private final long seconds;
+    private final long minutes;
+    private final long hours;
+    private final int months;
+    // Bit n is set for matching day of week n, where Sunday is 0
+    private final int daysOfWeek;
+    private final DayOfMonth dayOfMonth;
+    private final boolean dayOfMonthWildcard;
+    private final boolean dayOfWeekWildcard;
+    private final Year year;
+    private final int firstSecond;
+    private final int firstMinute;
+    private final int firstHour;
+
+    private volatile MonthDays cachedDays;
+
+    CompiledSchedule(Second second, Minute minute, Hour hour, DayOfMonth dayOfMonth, DayOfWeek dayOfWeek, Month month, Year year) {
+        this.seconds = second.getBitMask();
+        this.minutes = minute.getBitMask();
+        this.hours = hour.getBitMask();
+        this.months = (int) month.getBitMask();
+        // Day of week 7 is an alias for Sunday
+        long daysOfWeek = dayOfWeek.getBitMask();
+        this.daysOfWeek = (int) ((daysOfWeek | (daysOfWeek >> 7)) & WEEK_MASK);
+        this.dayOfMonth = dayOfMonth;
+        this.dayOfMonthWildcard = dayOfMonth.isWildcard();
+        this.dayOfWeekWildcard = dayOfWeek.isWildcard();
+        this.year = year;
+        this.firstSecond = nextSetBit(this.seconds, 0);
+        this.firstMinute = nextSetBit(this.minutes, 0);
+        this.firstHour = nextSetBit(this.hours, 0);
+    }
+
+    /**
+     * Returns the first date/time matching this schedule that is equal to or after the specified date/time.
+     *
+     * @param current a local date/time, whose nanosecond field is ignored
+     * @return the next matching local date/time, or null if no such date/time exists before the end of {@link Year#MAX_YEAR}
+     */
+    LocalDateTime getNextMatch(LocalDateTime current) {
+        if (this.firstSecond < 0 || this.firstMinute < 0 || this.firstHour < 0) {
+            return null;
+        }
+        LocalDate date = this.getNextDate(current.toLocalDate());
+        if (date == null) {
+            return null;
+        }
+        if (date.equals(current.toLocalDate())) {
+            LocalTime time = this.getNextTime(current.getHour(), current.getMinute(), current.getSecond());
+            if (time != null) {
+                return date.atTime(time);
+            }
+            date = this.getNextDate(date.plusDays(1));
+            if (date == null) {
+                return null;
+            }
+        }
+        return date.atTime(this.firstHour, this.firstMinute, this.firstSecond);
+    }
+
+    private LocalTime getNextTime(int hour, int minute, int second) {
+        int nextHour = nextSetBit(this.hours, hour);
+        if (nextHour == hour) {
+            int nextMinute = nextSetBit(this.minutes, minute);
+            if (nextMinute == minute) {
+                int nextSecond = nextSetBit(this.seconds, second);
+                if (nextSecond >= 0) {
+                    return LocalTime.of(hour, minute, nextSecond);
+                }
+                nextMinute = nextSetBit(this.minutes, minute + 1);
+            }
+            if (nextMinute >= 0) {
+                return LocalTime.of(hour, nextMinute, this.firstSecond);
+            }
+            nextHour = nextSetBit(this.hours, hour + 1);
+        }
+        return (nextHour >= 0) ? LocalTime.of(nextHour, this.firstMinute, this.firstSecond) : null;
+    }
+
+    private LocalDate getNextDate(LocalDate date) {
+        int year = date.getYear();
+        int month = date.getMonthValue();
+        int day = date.getDayOfMonth();
+        while (year <= Year.MAX_YEAR) {
+            Integer nextYear = this.year.getNextMatch(year);
+            if (nextYear == null || nextYear < year) {
+                return null;
+            }
+            if (nextYear != year) {
+                year = nextYear;
+                month = 1;
+                day = 1;
+            }
+            int nextMonth = nextSetBit(this.months, month);
+            if (nextMonth < 0) {
+                year += 1;
+                month = 1;
+                day = 1;
+                continue;
+            }
+            if (nextMonth != month) {
+                month = nextMonth;
+                day = 1;
+            }
+            int nextDay = nextSetBit(this.getDays(YearMonth.of(year, month)), day);
+            if (nextDay > 0) {
+                return LocalDate.of(year, month, nextDay);
+            }
+            if (month == 12) {
+                year += 1;
+                month = 1;
+            } else {
+                month += 1;
+            }
+            day = 1;
+        }
+        return null;
+    }
+
+    private int getDays(YearMonth yearMonth) {
+        MonthDays days = this.cachedDays;
+        if (days == null || !days.month.equals(yearMonth)) {
+            days = new MonthDays(yearMonth, this.computeDays(yearMonth));
+            this.cachedDays = days;
+        }
+        return days.days;
+    }
+
+    private int computeDays(YearMonth yearMonth) {
+        int daysOfMonth = this.dayOfMonth.getBitMask(yearMonth);
+        if (this.dayOfWeekWildcard) {
+            return daysOfMonth;
+        }
+        // Rotate the matching days of week such that bit 1 corresponds to the day of week of the first day of the month, then repeat weekly
+        int first = yearMonth.atDay(1).getDayOfWeek().getValue() % 7;
+        long week = ((this.daysOfWeek | ((long) this.daysOfWeek << 7)) >> first) & WEEK_MASK;
+        long daysOfWeek = 0L;
+        for (int offset = 1; offset <= 31; offset += 7) {
+            daysOfWeek |= week << offset;
+        }
+        int daysOfWeekInMonth = (int) (daysOfWeek & ((1L << (yearMonth.lengthOfMonth() + 1)) - 2L));
+        // If both day of month and day of week are specified, a day matches if it matches either
+        return this.dayOfMonthWildcard ? daysOfWeekInMonth : daysOfMonth | daysOfWeekInMonth;
+    }
+
+    private static int nextSetBit(long mask, int from) {
+        if (from >= Long.SIZE) {
+            return -1;
+        }
+        long remaining = mask & (-1L << from);
+        return (remaining != 0L) ? Long.numberOfTrailingZeros(remaining) : -1;
+    }
+
+    private static class MonthDays {
+        final YearMonth month;
+        final int days;
+
+        MonthDays(YearMonth month, int days) {
+            this.month = month;
+            this.days = days;
+        }
+    }
+}
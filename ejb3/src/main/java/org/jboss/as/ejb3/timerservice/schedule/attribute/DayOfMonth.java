@@ -22,12 +22,13 @@
 package org.jboss.as.ejb3.timerservice.schedule.attribute;
 
 import org.jboss.as.ejb3.logging.EjbLogger;
-import org.jboss.as.ejb3.timerservice.schedule.util.CalendarUtil;
 import org.jboss.as.ejb3.timerservice.schedule.value.RangeValue;
 import org.jboss.as.ejb3.timerservice.schedule.value.ScheduleExpressionType;
 import org.jboss.as.ejb3.timerservice.schedule.value.ScheduleValue;
 import org.jboss.as.ejb3.timerservice.schedule.value.SingleValue;
 
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
 import java.util.Calendar;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -104,6 +105,9 @@ public class DayOfMonth extends IntegerBasedExpression {
 
     }
 
+    // one or more spaces (which includes tabs and other forms of space)
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
     private static final Set<String> ORDINALS = new HashSet<String>();
 
     private static final Map<String, Integer> ORDINAL_TO_WEEK_NUMBER_MAPPING = new HashMap<String, Integer>();
@@ -258,51 +262,92 @@ public class DayOfMonth extends IntegerBasedExpression {
         return eligibleDaysOfMonth;
     }
 
+    /**
+     * Returns the days of the specified month matched by this expression as a bit mask,
+     * in which bit <code>n</code> is set if this expression matches day <code>n</code> of the month.
+     * Relative values (e.g. "last", "-3", "2nd Mon") are resolved against the specified month.
+     *
+     * @param yearMonth a month of a year
+     * @return a bit mask of matching days of the month
+     */
+    public int getBitMask(YearMonth yearMonth) {
+        long mask = this.getBitMask();
+        for (ScheduleValue relativeValue : this.relativeValues) {
+            if (relativeValue instanceof SingleValue) {
+                mask |= 1L << this.getAbsoluteDayOfMonth(yearMonth, ((SingleValue) relativeValue).getValue());
+            } else if (relativeValue instanceof RangeValue) {
+                RangeValue range = (RangeValue) relativeValue;
+                String start = range.getStart();
+                String end = range.getEnd();
+                int dayOfMonthStart = this.isRelativeValue(start) ? this.getAbsoluteDayOfMonth(yearMonth, start) : this.parseInt(start);
+                int dayOfMonthEnd = this.isRelativeValue(end) ? this.getAbsoluteDayOfMonth(yearMonth, end) : this.parseInt(end);
+                this.assertValid(dayOfMonthStart);
+                this.assertValid(dayOfMonthEnd);
+                if (dayOfMonthStart <= dayOfMonthEnd) {
+                    mask |= range(dayOfMonthStart, dayOfMonthEnd);
+                } else {
+                    // In range "x-y", if x is larger than y, the range is equivalent to "x-max, min-y"
+                    mask |= range(dayOfMonthStart, MAX_DAY_OF_MONTH) | range(1, dayOfMonthEnd);
+                }
+            }
+        }
+        // Retain only those days that exist within this month
+        return (int) (mask & ((1L << (yearMonth.lengthOfMonth() + 1)) - 2L));
+    }
+
+    private static long range(int start, int end) {
+        return (end < start || end < 1) ? 0L : ((1L << (end + 1)) - 1L) & -(1L << Math.max(start, 1));
+    }
+
     private int getAbsoluteDayOfMonth(Calendar cal, String relativeDayOfMonth) {
+        return this.getAbsoluteDayOfMonth(YearMonth.of(cal.get(Calendar.YEAR), cal.get(Calendar.MONTH) + 1), relativeDayOfMonth);
+    }
+
+    private int getAbsoluteDayOfMonth(YearMonth yearMonth, String relativeDayOfMonth) {
         if (relativeDayOfMonth == null || relativeDayOfMonth.trim().isEmpty()) {
             throw EjbLogger.EJB3_TIMER_LOGGER.relativeDayOfMonthIsNull();
         }
         String trimmedRelativeDayOfMonth = relativeDayOfMonth.trim();
+        int lastDayOfCurrentMonth = yearMonth.lengthOfMonth();
         if (trimmedRelativeDayOfMonth.equalsIgnoreCase("last")) {
-            int lastDayOfCurrentMonth = CalendarUtil.getLastDateOfMonth(cal);
             return lastDayOfCurrentMonth;
         }
         if (this.isValidNegativeDayOfMonth(trimmedRelativeDayOfMonth)) {
             Integer negativeRelativeDayOfMonth = Integer.parseInt(trimmedRelativeDayOfMonth);
-            int lastDayOfCurrentMonth = CalendarUtil.getLastDateOfMonth(cal);
             return lastDayOfCurrentMonth + negativeRelativeDayOfMonth;
         }
         if (this.isDayOfWeekBased(trimmedRelativeDayOfMonth)) {
 
-            String[] parts = trimmedRelativeDayOfMonth.split("\\s+");
+            String[] parts = WHITESPACE.split(trimmedRelativeDayOfMonth);
             String ordinal = parts[0];
             String day = parts[1];
-            int dayOfWeek = DAY_OF_MONTH_ALIAS.get(day.toLowerCase(Locale.ENGLISH));
+            int calendarDayOfWeek = DAY_OF_MONTH_ALIAS.get(day.toLowerCase(Locale.ENGLISH));
+            // Calendar.SUNDAY is 1, whereas DayOfWeek.SUNDAY is 7
+            java.time.DayOfWeek dayOfWeek = java.time.DayOfWeek.SUNDAY.plus(calendarDayOfWeek - Calendar.SUNDAY);
 
-            Integer date = null;
             if (ordinal.equalsIgnoreCase("last")) {
-                date = CalendarUtil.getDateOfLastDayOfWeekInMonth(cal, dayOfWeek);
-            } else {
-                int weekNumber = ORDINAL_TO_WEEK_NUMBER_MAPPING.get(ordinal.toLowerCase(Locale.ENGLISH));
-                date = CalendarUtil.getNthDayOfMonth(cal, weekNumber, dayOfWeek);
+                return yearMonth.atEndOfMonth().with(TemporalAdjusters.previousOrSame(dayOfWeek)).getDayOfMonth();
             }
+            int weekNumber = ORDINAL_TO_WEEK_NUMBER_MAPPING.get(ordinal.toLowerCase(Locale.ENGLISH));
+            int date = yearMonth.atDay(1).with(TemporalAdjusters.nextOrSame(dayOfWeek)).getDayOfMonth() + ((weekNumber - 1) * 7);
 
             // TODO: Rethink about this. The reason why we have this currently is to handle cases like:
             // 5th Wed which may not be valid for all months (i.e. all months do not have 5 weeks). In such
             // cases we set the date to last date of the month.
             // This needs to be thought about a bit more in detail, to understand it's impact on other scenarios.
-            if (date == null) {
-                date = CalendarUtil.getLastDateOfMonth(cal);
-            }
-
-            return date;
+            return (date <= lastDayOfCurrentMonth) ? date : lastDayOfCurrentMonth;
         }
         throw EjbLogger.EJB3_TIMER_LOGGER.invalidRelativeValue(relativeDayOfMonth);
     }
 
     private boolean isValidNegativeDayOfMonth(String dayOfMonth) {
+        String trimmedDayOfMonth = dayOfMonth.trim();
+        // Avoid the cost of a NumberFormatException for the common relative values, e.g. "last" or "2nd Tue"
+        if (trimmedDayOfMonth.length() < 2 || trimmedDayOfMonth.charAt(0) != '-') {
+            return false;
+        }
         try {
-            Integer val = Integer.parseInt(dayOfMonth.trim());
+            Integer val = Integer.parseInt(trimmedDayOfMonth);
             if (val <= -1 && val >= -7) {
                 return true;
             }
@@ -315,9 +360,7 @@ public class DayOfMonth extends IntegerBasedExpression {
 
     private boolean isDayOfWeekBased(String relativeVal) {
         String trimmedVal = relativeVal.trim();
-        // one or more spaces (which includes tabs and other forms of space)
-        Pattern p = Pattern.compile("\\s+");
-        String[] relativeParts = p.split(trimmedVal);
+        String[] relativeParts = WHITESPACE.split(trimmedVal);
         if (relativeParts == null) {
             return false;
         }
@@ -213,4 +213,34 @@ public abstract class IntegerBasedExpression {
 
     public abstract boolean isRelativeValue(String value);
 
+    /**
+     * Indicates whether this expression is a wildcard, i.e. matches every possible value.
+     *
+     * @return true, if this expression is a wildcard, false otherwise
+     */
+    public boolean isWildcard() {
+        return this.scheduleExpressionType == ScheduleExpressionType.WILDCARD;
+    }
+
+    /**
+     * Returns the absolute values of this expression as a bit mask, in which bit <code>n</code> is set if this expression matches value <code>n</code>.
+     * Only values between 0 and 63 are representable. Relative values are not included.
+     *
+     * @return a bit mask of matching values
+     */
+    public long getBitMask() {
+        long mask = 0L;
+        if (this.isWildcard()) {
+            for (int value = Math.max(this.getMinValue(), 0); value <= Math.min(this.getMaxValue(), Long.SIZE - 1); ++value) {
+                mask |= 1L << value;
+            }
+        } else {
+            for (Integer value : this.absoluteValues) {
+                if (value >= 0 && value < Long.SIZE) {
+                    mask |= 1L << value;
+                }
+            }
+        }
+        return mask;
+    }
 }
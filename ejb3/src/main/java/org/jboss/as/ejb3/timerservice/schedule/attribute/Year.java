@@ -24,6 +24,7 @@ package org.jboss.as.ejb3.timerservice.schedule.attribute;
 import org.jboss.as.ejb3.timerservice.schedule.value.ScheduleExpressionType;
 
 import java.util.Calendar;
+import java.util.SortedSet;
 
 /**
  * Represents in the year value part constructed out of a {@link javax.ejb.ScheduleExpression#getYear()}
@@ -114,21 +115,17 @@ public class Year extends IntegerBasedExpression {
     }
 
     public Integer getNextMatch(Calendar currentCal) {
+        return this.getNextMatch(currentCal.get(Calendar.YEAR));
+    }
+
+    public Integer getNextMatch(int currentYear) {
         if (this.scheduleExpressionType == ScheduleExpressionType.WILDCARD) {
-            return currentCal.get(Calendar.YEAR);
+            return currentYear;
         }
         if (this.absoluteValues.isEmpty()) {
             return null;
         }
-        int currentYear = currentCal.get(Calendar.YEAR);
-        for (Integer year : this.absoluteValues) {
-            if (currentYear == year) {
-                return currentYear;
-            }
-            if (year > currentYear) {
-                return year;
-            }
-        }
-        return this.absoluteValues.first();
+        SortedSet<Integer> years = this.absoluteValues.tailSet(currentYear);
+        return years.isEmpty() ? this.absoluteValues.first() : years.first();
     }
 }
@@ -0,0 +1,187 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.cache.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.ejb3.cache.Identifiable;
+import org.jboss.as.ejb3.cache.StatefulObjectFactory;
+import org.jboss.as.ejb3.component.stateful.StatefulTimeoutInfo;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link SimpleCache}.
+ *
+ * @author agent
+ */
+public class SimpleCacheTestCase {
+
+    private final ScheduledExecutorService executor = new ScheduledThreadPoolExecutor(1);
+    private final Factory factory = new Factory();
+
+    @After
+    public void destroy() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void expiration() throws InterruptedException {
+        SimpleCache<UUID, Bean> cache = new SimpleCache<>(this.factory, UUID::randomUUID, new StatefulTimeoutInfo(50L, TimeUnit.MILLISECONDS), null, this.executor);
+        cache.start();
+        try {
+            Bean bean = cache.create();
+            UUID id = bean.getId();
+            assertSame(bean, cache.get(id));
+
+            // Beans in use never expire
+            Thread.sleep(200L);
+            assertTrue(cache.contains(id));
+            assertEquals(0L, cache.getExpiredCount());
+
+            cache.release(bean);
+            long deadline = System.currentTimeMillis() + 5000L;
+            while (cache.contains(id) && (System.currentTimeMillis() < deadline)) {
+                Thread.sleep(10L);
+            }
+            assertFalse(cache.contains(id));
+            assertNull(cache.get(id));
+            assertEquals(1L, cache.getExpiredCount());
+            assertTrue(this.factory.destroyed.contains(id));
+            assertEquals(0, cache.getCacheSize());
+
+            // Beans not yet used still expire
+            Bean unused = cache.create();
+            deadline = System.currentTimeMillis() + 5000L;
+            while (cache.contains(unused.getId()) && (System.currentTimeMillis() < deadline)) {
+                Thread.sleep(10L);
+            }
+            assertFalse(cache.contains(unused.getId()));
+            assertEquals(2L, cache.getExpiredCount());
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    public void zeroTimeout() {
+        SimpleCache<UUID, Bean> cache = new SimpleCache<>(this.factory, UUID::randomUUID, new StatefulTimeoutInfo(0L, TimeUnit.MILLISECONDS), null, this.executor);
+        cache.start();
+        try {
+            Bean bean = cache.create();
+            UUID id = bean.getId();
+            assertSame(bean, cache.get(id));
+            cache.release(bean);
+            assertFalse(cache.contains(id));
+            assertTrue(this.factory.destroyed.contains(id));
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    public void eviction() {
+        SimpleCache<UUID, Bean> cache = new SimpleCache<>(this.factory, UUID::randomUUID, null, null, this.executor, 2);
+        cache.start();
+        try {
+            Bean first = cache.create();
+            Bean second = cache.create();
+            assertSame(first, cache.get(first.getId()));
+            cache.release(first);
+            assertSame(second, cache.get(second.getId()));
+            cache.release(second);
+            Bean third = cache.create();
+            // Least recently used bean was evicted
+            assertEquals(2, cache.getCacheSize());
+            assertFalse(cache.contains(first.getId()));
+            assertTrue(this.factory.destroyed.contains(first.getId()));
+            assertEquals(1L, cache.getEvictedCount());
+
+            // Using a bean makes it most recently used
+            assertSame(third, cache.get(third.getId()));
+            cache.release(third);
+            Bean fourth = cache.create();
+            assertFalse(cache.contains(second.getId()));
+            assertTrue(cache.contains(third.getId()));
+            assertTrue(cache.contains(fourth.getId()));
+            assertEquals(2L, cache.getEvictedCount());
+
+            // Beans in use are never evicted, nor are beans not yet used, so max size is a soft limit
+            assertSame(third, cache.get(third.getId()));
+            Bean fifth = cache.create();
+            assertEquals(3, cache.getCacheSize());
+            assertEquals(2L, cache.getEvictedCount());
+            // Once released, the least recently used evictable bean is evicted
+            cache.release(third);
+            assertFalse(cache.contains(third.getId()));
+            assertTrue(cache.contains(fourth.getId()));
+            assertTrue(cache.contains(fifth.getId()));
+            assertEquals(3L, cache.getEvictedCount());
+
+            // Removed beans no longer count towards the max size
+            cache.remove(fourth.getId());
+            Bean sixth = cache.create();
+            assertTrue(cache.contains(fifth.getId()));
+            assertTrue(cache.contains(sixth.getId()));
+            assertEquals(3L, cache.getEvictedCount());
+            assertEquals(0L, cache.getExpiredCount());
+        } finally {
+            cache.stop();
+        }
+        assertEquals(6, this.factory.destroyed.size());
+    }
+
+    static class Bean implements Identifiable<UUID> {
+        private final UUID id = UUID.randomUUID();
+
+        @Override
+        public UUID getId() {
+            return this.id;
+        }
+    }
+
+    static class Factory implements StatefulObjectFactory<Bean> {
+        final Set<UUID> destroyed = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public Bean createInstance() {
+            return new Bean();
+        }
+
+        @Override
+        public void destroyInstance(Bean instance) {
+            this.destroyed.add(instance.getId());
+        }
+    }
+}
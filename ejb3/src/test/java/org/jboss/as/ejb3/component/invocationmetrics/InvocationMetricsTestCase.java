@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link InvocationMetrics} and {@link LatencyHistogram}.
+ *
+ * @author agent
+ */
+public class InvocationMetricsTestCase {
+
+    @Test
+    public void metrics() throws NoSuchMethodException {
+        Method hashCode = Object.class.getMethod("hashCode");
+        Method toString = Object.class.getMethod("toString");
+        Method getClass = Object.class.getMethod("getClass");
+        InvocationMetrics metrics = new InvocationMetrics(Arrays.asList(hashCode, toString));
+
+        metrics.startInvocation();
+        metrics.startInvocation();
+        assertEquals(2L, metrics.getConcurrent());
+        metrics.finishInvocation(hashCode, 1L, 10L);
+        metrics.finishInvocation(hashCode, 2L, 20L);
+        metrics.startInvocation();
+        // Methods unknown to the component are resolved on demand
+        metrics.finishInvocation(getClass, 3L, 30L);
+
+        assertEquals(0L, metrics.getConcurrent());
+        assertEquals(2L, metrics.getPeakConcurrent());
+        assertEquals(3L, metrics.getInvocations());
+        assertEquals(6L, metrics.getWaitTime());
+        assertEquals(60L, metrics.getExecutionTime());
+
+        Map<String, InvocationMetrics.Values> methods = metrics.getMethods();
+        assertEquals(2, methods.size());
+        assertFalse(methods.containsKey("toString"));
+        assertEquals(2L, methods.get("hashCode").getInvocations());
+        assertEquals(3L, methods.get("hashCode").getWaitTime());
+        assertEquals(30L, methods.get("hashCode").getExecutionTime());
+        assertEquals(1L, methods.get("getClass").getInvocations());
+
+        assertEquals(3L, metrics.getExecutionTimes().getCount());
+        assertEquals(20L, metrics.getExecutionTimes().getValueAtPercentile(50d));
+        assertEquals(3L, metrics.getWaitTimes().getValueAtPercentile(100d));
+    }
+
+    @Test
+    public void histogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0L, histogram.getValueAtPercentile(99d));
+
+        // Every value maps to a bucket whose highest equivalent value is within 1/16 of the value
+        for (long value = 0; value < 1000000L; value += 1 + (value >> 6)) {
+            int index = LatencyHistogram.index(value);
+            long highest = LatencyHistogram.highestEquivalentValue(index);
+            assertTrue(highest >= value);
+            assertTrue((highest - value) * LatencyHistogram.SUB_BUCKETS <= value);
+            assertEquals(index, LatencyHistogram.index(highest));
+            assertEquals(index + 1, LatencyHistogram.index(highest + 1));
+        }
+
+        Random random = new Random(0L);
+        long[] values = new long[10000];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = random.nextInt(100000);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        double[] percentiles = new double[] { 50d, 90d, 99d, 99.9d, 100d };
+        long[] results = histogram.getValuesAtPercentiles(percentiles);
+        for (int i = 0; i < percentiles.length; ++i) {
+            long expected = values[(int) Math.ceil(percentiles[i] / 100d * values.length) - 1];
+            assertTrue(results[i] >= expected);
+            assertTrue(results[i] - expected <= expected / LatencyHistogram.SUB_BUCKETS);
+        }
+        assertEquals(values.length, histogram.getCount());
+
+        // Values are clamped
+        histogram.record(-1L);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.getValueAtPercentile(100d));
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.concurrency;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import javax.ejb.IllegalLoopbackException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link EJBStripedReadWriteLock}.
+ *
+ * @author agent
+ */
+public class EJBStripedReadWriteLockTestCase {
+
+    private final ReadWriteLock lock = new EJBStripedReadWriteLock(4);
+    private ExecutorService executor;
+
+    @Before
+    public void init() {
+        this.executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void destroy() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void illegalLoopback() {
+        Lock readLock = this.lock.readLock();
+        readLock.lock();
+        try {
+            readLock.lock();
+            readLock.unlock();
+            this.lock.writeLock().lock();
+            fail("Unexpected acquired write lock");
+        } catch (IllegalLoopbackException e) {
+            // Expected
+        } finally {
+            readLock.unlock();
+        }
+        // Once read lock is released, write lock is obtainable
+        assertTrue(this.lock.writeLock().tryLock());
+        this.lock.writeLock().unlock();
+    }
+
+    @Test
+    public void reentrantWrite() throws Exception {
+        Lock writeLock = this.lock.writeLock();
+        Lock readLock = this.lock.readLock();
+        writeLock.lock();
+        assertTrue(writeLock.tryLock());
+        assertTrue(readLock.tryLock());
+        readLock.unlock();
+        writeLock.unlock();
+        assertFalse(this.executor.submit(() -> readLock.tryLock(10, TimeUnit.MILLISECONDS)).get());
+        writeLock.unlock();
+        assertTrue(this.executor.submit(() -> {
+            boolean locked = readLock.tryLock(10, TimeUnit.MILLISECONDS);
+            readLock.unlock();
+            return locked;
+        }).get());
+    }
+
+    @Test
+    public void downgrade() throws Exception {
+        Lock writeLock = this.lock.writeLock();
+        Lock readLock = this.lock.readLock();
+        writeLock.lock();
+        readLock.lock();
+        writeLock.unlock();
+        // Other readers are admitted, but not writers
+        assertTrue(this.executor.submit(() -> {
+            boolean locked = readLock.tryLock(10, TimeUnit.MILLISECONDS);
+            readLock.unlock();
+            return locked;
+        }).get());
+        assertFalse(this.executor.submit(() -> writeLock.tryLock(10, TimeUnit.MILLISECONDS)).get());
+        readLock.unlock();
+        assertTrue(this.executor.submit(() -> {
+            boolean locked = writeLock.tryLock(10, TimeUnit.MILLISECONDS);
+            writeLock.unlock();
+            return locked;
+        }).get());
+    }
+
+    @Test
+    public void writerWaitsForReaders() throws Exception {
+        Lock readLock = this.lock.readLock();
+        Lock writeLock = this.lock.writeLock();
+        readLock.lock();
+        CountDownLatch waiting = new CountDownLatch(1);
+        Future<Boolean> writer = this.executor.submit(() -> {
+            waiting.countDown();
+            boolean locked = writeLock.tryLock(1, TimeUnit.MINUTES);
+            writeLock.unlock();
+            return locked;
+        });
+        waiting.await();
+        Thread.sleep(10);
+        assertFalse(writer.isDone());
+        readLock.unlock();
+        assertTrue(writer.get(1, TimeUnit.MINUTES));
+    }
+
+    @Test
+    public void writerTimeout() throws Exception {
+        Lock readLock = this.lock.readLock();
+        Lock writeLock = this.lock.writeLock();
+        readLock.lock();
+        try {
+            assertFalse(this.executor.submit(() -> writeLock.tryLock(10, TimeUnit.MILLISECONDS)).get());
+            // A writer that timed out must not block subsequent readers
+            assertTrue(this.executor.submit(() -> {
+                boolean locked = readLock.tryLock();
+                readLock.unlock();
+                return locked;
+            }).get());
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Test
+    public void mutualExclusion() throws Exception {
+        Lock readLock = this.lock.readLock();
+        Lock writeLock = this.lock.writeLock();
+        AtomicInteger readers = new AtomicInteger();
+        AtomicInteger writers = new AtomicInteger();
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; ++i) {
+            boolean write = (i % 4) == 0;
+            futures.add(this.executor.submit(() -> {
+                for (int j = 0; j < 5000; ++j) {
+                    Lock target = write ? writeLock : readLock;
+                    assertTrue(target.tryLock(1, TimeUnit.MINUTES));
+                    try {
+                        if (write) {
+                            assertEquals(1, writers.incrementAndGet());
+                            assertEquals(0, readers.get());
+                            writers.decrementAndGet();
+                        } else {
+                            readers.incrementAndGet();
+                            assertEquals(0, writers.get());
+                            readers.decrementAndGet();
+                        }
+                    } finally {
+                        target.unlock();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<Void> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.pool.strictmax;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ejb.EJBException;
+
+import org.jboss.as.ejb3.pool.Pool;
+import org.jboss.as.ejb3.pool.common.MockBean;
+import org.jboss.as.ejb3.pool.common.MockFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link PartitionedStrictMaxPool}.
+ *
+ * @author agent
+ */
+public class PartitionedStrictMaxPoolTestCase {
+
+    @Before
+    public void setUp() {
+        MockBean.reset();
+    }
+
+    @Test
+    public void reuse() {
+        Pool<MockBean> pool = new PartitionedStrictMaxPool<>(new MockFactory(), 10, 1, TimeUnit.SECONDS);
+        pool.start();
+
+        for (int i = 0; i < 3; ++i) {
+            MockBean[] beans = new MockBean[10];
+            for (int j = 0; j < beans.length; ++j) {
+                beans[j] = pool.get();
+            }
+            assertEquals(0, pool.getAvailableCount());
+            for (MockBean bean : beans) {
+                pool.release(bean);
+            }
+            assertEquals(10, pool.getAvailableCount());
+        }
+
+        MockBean bean = pool.get();
+        pool.discard(bean);
+        assertEquals(10, pool.getAvailableCount());
+        assertEquals(9, pool.getCurrentSize());
+
+        pool.stop();
+
+        assertEquals(10, MockBean.getPostConstructs());
+        assertEquals(10, MockBean.getPreDestroys());
+        assertEquals(0, pool.getCurrentSize());
+    }
+
+    @Test
+    public void timeout() {
+        Pool<MockBean> pool = new PartitionedStrictMaxPool<>(new MockFactory(), 2, 10, TimeUnit.MILLISECONDS);
+        pool.start();
+
+        MockBean bean1 = pool.get();
+        MockBean bean2 = pool.get();
+        try {
+            pool.get();
+            fail("should have thrown an exception");
+        } catch (EJBException e) {
+            // Expected
+        }
+        pool.release(bean1);
+        pool.release(bean2);
+        pool.stop();
+
+        assertEquals(2, MockBean.getPostConstructs());
+        assertEquals(2, MockBean.getPreDestroys());
+    }
+
+    /**
+     * More threads than the pool size.
+     */
+    @Test
+    public void concurrent() throws Exception {
+        int size = 4;
+        int threads = 16;
+        Pool<MockBean> pool = new PartitionedStrictMaxPool<>(new MockFactory(), size, 1, TimeUnit.MINUTES);
+        pool.start();
+
+        AtomicInteger used = new AtomicInteger();
+        AtomicInteger maxUsed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> futures = new ArrayList<>(threads);
+            for (int i = 0; i < threads; ++i) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < 10000; ++j) {
+                        MockBean bean = pool.get();
+                        try {
+                            maxUsed.accumulateAndGet(used.incrementAndGet(), Math::max);
+                            Thread.yield();
+                        } finally {
+                            used.decrementAndGet();
+                            pool.release(bean);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(maxUsed.toString(), maxUsed.get() <= size);
+        assertEquals(size, pool.getAvailableCount());
+        assertTrue(pool.getCurrentSize() <= size);
+
+        pool.stop();
+
+        assertEquals(0, pool.getCurrentSize());
+        assertEquals(MockBean.getPostConstructs(), MockBean.getPreDestroys());
+    }
+
+    @Test
+    public void adaptive() throws Exception {
+        PartitionedStrictMaxPool<MockBean> pool = new PartitionedStrictMaxPool<>(new MockFactory(), 1, 4, 1, TimeUnit.MINUTES);
+        pool.start();
+        assertEquals(1, pool.getMaxSize());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            MockBean bean = pool.get();
+            Future<MockBean> future = executor.submit(pool::get);
+            // Force the submitted task to wait for longer than the threshold
+            Thread.sleep(TimeUnit.NANOSECONDS.toMillis(PartitionedStrictMaxPool.WAIT_THRESHOLD_NANOS) * 10);
+            pool.release(bean);
+            bean = future.get();
+            pool.release(bean);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(PartitionedStrictMaxPool.ADAPT_INTERVAL_NANOS));
+        // Next acquisition observes the prior wait, and grows the pool
+        pool.release(pool.get());
+        int limit = pool.getMaxSize();
+        assertTrue(Integer.toString(limit), limit > 1);
+        assertEquals(limit, pool.getAvailableCount());
+
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(PartitionedStrictMaxPool.ADAPT_INTERVAL_NANOS));
+        // Next acquisition observes no waits, and shrinks the pool
+        pool.release(pool.get());
+        assertEquals(limit - 1, pool.getMaxSize());
+        assertEquals(limit - 1, pool.getAvailableCount());
+
+        pool.stop();
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.remoting3.Attachments;
+import org.jboss.remoting3.Connection;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link ResponseBatcher}.
+ *
+ * @author agent
+ */
+
+public class ResponseBatcherTestCase {
+
+    @Test
+    public void withoutConnection() {
+        ResponseBatcher batcher = new ResponseBatcher(10, null);
+        List<Integer> written = new ArrayList<>();
+        batcher.write(null, () -> written.add(1));
+        assertEquals(1, written.size());
+        assertEquals(0L, batcher.getBatchCount());
+    }
+
+    @Test
+    public void coalesce() throws InterruptedException {
+        Connection connection = mock(Connection.class);
+        when(connection.getAttachments()).thenReturn(new Attachments());
+        ResponseBatcher batcher = new ResponseBatcher(100, null);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        List<Integer> written = new ArrayList<>();
+
+        Thread writer = new Thread(() -> batcher.write(connection, () -> {
+            writing.countDown();
+            try {
+                proceed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.add(0);
+        }));
+        writer.start();
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+
+        // Connection is busy, so these responses are queued and written by the writer thread
+        for (int i = 1; i <= 5; ++i) {
+            int response = i;
+            batcher.write(connection, () -> written.add(response));
+        }
+        assertEquals(5, batcher.getPendingCount());
+        assertEquals(0, written.size());
+
+        proceed.countDown();
+        writer.join(10000);
+
+        assertEquals(0, batcher.getPendingCount());
+        assertEquals(6, written.size());
+        for (int i = 0; i < 6; ++i) {
+            assertEquals(i, written.get(i).intValue());
+        }
+        assertEquals(1L, batcher.getBatchCount());
+        assertEquals(6d, batcher.getAverageBatchSize(), 0d);
+    }
+
+    @Test
+    public void handOff() throws InterruptedException {
+        Connection connection = mock(Connection.class);
+        when(connection.getAttachments()).thenReturn(new Attachments());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            ResponseBatcher batcher = new ResponseBatcher(2, executor);
+            CountDownLatch writing = new CountDownLatch(1);
+            CountDownLatch proceed = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(5);
+
+            Thread writer = new Thread(() -> batcher.write(connection, () -> {
+                writing.countDown();
+                try {
+                    proceed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            }));
+            writer.start();
+            assertTrue(writing.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < 4; ++i) {
+                batcher.write(connection, done::countDown);
+            }
+            proceed.countDown();
+
+            // Writer thread is released after a full batch, remaining responses are written by the executor
+            writer.join(10000);
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            // Batch statistics are recorded after the last response of the batch is written
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            assertEquals(3L, batcher.getBatchCount());
+            assertEquals(0, batcher.getPendingCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void rejectedHandOff() throws InterruptedException {
+        Connection connection = mock(Connection.class);
+        when(connection.getAttachments()).thenReturn(new Attachments());
+        ResponseBatcher batcher = new ResponseBatcher(2, task -> {
+            throw new RejectedExecutionException();
+        });
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+
+        Thread writer = new Thread(() -> batcher.write(connection, () -> {
+            writing.countDown();
+            try {
+                proceed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writers.add(Thread.currentThread());
+        }));
+        writer.start();
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 4; ++i) {
+            batcher.write(connection, () -> writers.add(Thread.currentThread()));
+        }
+        proceed.countDown();
+
+        // Executor rejected the hand-off, so the writer thread writes the remaining responses itself
+        writer.join(10000);
+        assertEquals(5, writers.size());
+        for (Thread thread : writers) {
+            assertEquals(writer, thread);
+        }
+        assertEquals(3L, batcher.getBatchCount());
+        assertEquals(0, batcher.getPendingCount());
+
+        // Connection is idle again
+        batcher.write(connection, () -> writers.add(Thread.currentThread()));
+        assertEquals(6, writers.size());
+        assertEquals(Thread.currentThread(), writers.get(5));
+    }
+}
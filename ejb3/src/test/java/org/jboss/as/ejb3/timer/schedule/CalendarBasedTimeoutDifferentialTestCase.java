@@ -0,0 +1,108 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timer.schedule;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Random;
+import java.util.TimeZone;
+
+import javax.ejb.ScheduleExpression;
+
+import org.jboss.as.ejb3.timerservice.schedule.CalendarBasedTimeout;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Differential test of the compiled schedule of {@link CalendarBasedTimeout} against the iterative {@link LegacyCalendarBasedTimeout}.
+ * Each schedule is evaluated from random instants, in time zones with and without daylight saving transitions, and must yield identical sequences of timeouts.
+ *
+ * @author agent
+ */
+public class CalendarBasedTimeoutDifferentialTestCase {
+
+    private static final String[] TIME_ZONES = new String[] { "UTC", "America/New_York", "Europe/Berlin", "Australia/Lord_Howe", "Asia/Kolkata" };
+    private static final int STARTS = 40;
+    private static final int TIMEOUTS = 25;
+
+    // second, minute, hour, day-of-month, day-of-week, month, year
+    private static final String[][] SCHEDULES = new String[][] {
+        { "*", "*", "*", "*", "*", "*", "*" },
+        { "*/10", "*", "*", "*", "*", "*", "*" },
+        { "5/20", "10/7", "*", "*", "*", "*", "*" },
+        { "0", "*/15", "*", "*", "*", "*", "*" },
+        { "0", "15", "5", "*", "*", "*", "*" },
+        { "0", "15", "8", "*", "Mon-Fri", "*", "*" },
+        { "0", "30", "12", "*", "Mon,Wed,Fri", "*", "*" },
+        { "0", "0", "22-2", "*", "*", "*", "*" },
+        { "0", "0", "0", "*", "Fri-Mon", "*", "*" },
+        { "0", "0", "0", "*", "7", "*", "*" },
+        { "0", "0", "0", "31", "*", "*", "*" },
+        { "0", "0", "12", "29", "*", "Feb", "*" },
+        { "0", "0", "0", "last", "*", "*", "*" },
+        { "0", "0", "0", "-3", "*", "*", "*" },
+        { "0", "0", "9", "2nd Tue", "*", "*", "*" },
+        { "0", "0", "17", "last Fri", "*", "*", "*" },
+        { "0", "0", "6", "5th Wed", "*", "*", "*" },
+        { "0", "0", "0", "1st Mon-3rd Mon", "*", "*", "*" },
+        { "0", "0", "0", "1,15,last", "*", "*", "*" },
+        { "0", "0", "0", "15", "Sun", "*", "*" },
+        { "0", "0", "0", "1", "*", "Jan,Jul", "*" },
+        { "30", "59", "23", "31", "*", "Dec", "*" },
+        { "0", "0", "2", "*", "*", "Mar,Oct,Nov", "*" },
+        { "0", "30", "2", "*", "Sun", "*", "*" },
+        { "0", "0", "0", "*", "*", "*", "2020,2024,2028" },
+        { "0", "0", "0", "1", "*", "*", "2030-2032" },
+    };
+
+    @Test
+    public void test() {
+        Random random = new Random(0L);
+        for (String zone : TIME_ZONES) {
+            for (String[] values : SCHEDULES) {
+                ScheduleExpression schedule = new ScheduleExpression()
+                        .second(values[0]).minute(values[1]).hour(values[2])
+                        .dayOfMonth(values[3]).dayOfWeek(values[4]).month(values[5]).year(values[6])
+                        .timezone(zone);
+                CalendarBasedTimeout compiled = new CalendarBasedTimeout(schedule);
+                LegacyCalendarBasedTimeout legacy = new LegacyCalendarBasedTimeout(schedule);
+                for (int i = 0; i < STARTS; ++i) {
+                    Calendar start = new GregorianCalendar(TimeZone.getTimeZone(zone));
+                    start.setTimeInMillis(1420070400000L + (long) (random.nextDouble() * 15L * 365L * 24L * 3600L * 1000L));
+                    Calendar expected = start;
+                    Calendar actual = start;
+                    for (int j = 0; (j < TIMEOUTS) && (expected != null); ++j) {
+                        expected = legacy.getNextTimeout(expected);
+                        actual = compiled.getNextTimeout(actual);
+                        String message = String.format("%s from %s", schedule, start.getTime());
+                        if (expected == null) {
+                            Assert.assertNull(message, actual);
+                        } else {
+                            Assert.assertNotNull(message, actual);
+                            Assert.assertEquals(message, expected.getTime(), actual.getTime());
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link TimerDispatcher}.
+ *
+ * @author agent
+ */
+public class TimerDispatcherTestCase {
+
+    private static final long TICK = 5L;
+
+    @Test
+    public void singleAction() throws InterruptedException {
+        TimerDispatcher<Counter> dispatcher = new TimerDispatcher<>(TICK, 4);
+        Counter task = new Counter();
+        long expiration = System.currentTimeMillis() + 50L;
+        assertNull(dispatcher.schedule("timer", task, expiration, 0L));
+        assertTrue(dispatcher.isScheduled("timer"));
+
+        // Timeouts never run early
+        dispatcher.run();
+        assertEquals(0, task.count.get());
+
+        sleepUntil(expiration + TICK);
+        dispatcher.run();
+        assertEquals(1, task.count.get());
+        assertFalse(dispatcher.isScheduled("timer"));
+        assertEquals(0, dispatcher.size());
+
+        dispatcher.run();
+        assertEquals(1, task.count.get());
+        assertEquals(1L, dispatcher.getSchedulingLag().getCount());
+        assertTrue(dispatcher.getMaxSchedulingLag() >= TICK);
+    }
+
+    @Test
+    public void interval() throws InterruptedException {
+        TimerDispatcher<Counter> dispatcher = new TimerDispatcher<>(TICK, 4);
+        Counter task = new Counter();
+        long expiration = System.currentTimeMillis() + 20L;
+        dispatcher.schedule("timer", task, expiration, 50L);
+
+        sleepUntil(expiration + 50L * 2 + TICK);
+        // A late tick dispatches the first missed timeout, whose successor is scheduled relative to its intended time, i.e. at a fixed rate
+        dispatcher.run();
+        assertEquals(1, task.count.get());
+        // Missed timeouts are dispatched on subsequent ticks
+        Thread.sleep(TICK);
+        dispatcher.run();
+        assertEquals(2, task.count.get());
+        Thread.sleep(TICK);
+        dispatcher.run();
+        assertEquals(3, task.count.get());
+        Thread.sleep(TICK);
+        dispatcher.run();
+        assertEquals(3, task.count.get());
+        assertTrue(dispatcher.isScheduled("timer"));
+
+        assertSame(task, dispatcher.cancel("timer"));
+        assertFalse(dispatcher.isScheduled("timer"));
+        sleepUntil(expiration + 50L * 4);
+        dispatcher.run();
+        assertEquals(3, task.count.get());
+    }
+
+    @Test
+    public void reschedule() throws InterruptedException {
+        TimerDispatcher<Counter> dispatcher = new TimerDispatcher<>(TICK, 4);
+        Counter first = new Counter();
+        Counter second = new Counter();
+        long now = System.currentTimeMillis();
+
+        // Rescheduling a canceled timer is a no-op
+        assertFalse(dispatcher.reschedule("timer", first, now, 0L));
+        assertFalse(dispatcher.isScheduled("timer"));
+
+        dispatcher.schedule("timer", first, now + 10L, 0L);
+        assertTrue(dispatcher.reschedule("timer", second, now + 30L, 0L));
+
+        sleepUntil(now + 10L + TICK);
+        dispatcher.run();
+        assertEquals(0, first.count.get());
+        assertEquals(0, second.count.get());
+
+        sleepUntil(now + 30L + TICK);
+        dispatcher.run();
+        assertEquals(0, first.count.get());
+        assertEquals(1, second.count.get());
+    }
+
+    @Test
+    public void concurrent() throws InterruptedException {
+        TimerDispatcher<Counter> dispatcher = new TimerDispatcher<>(TICK, 4);
+        Counter task = new Counter();
+        long expiration = System.currentTimeMillis() + 20L;
+        int threads = 4;
+        int timers = 1000;
+        List<Thread> schedulers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; ++i) {
+            int offset = i * timers;
+            schedulers.add(new Thread(() -> {
+                for (int j = 0; j < timers; ++j) {
+                    String id = Integer.toString(offset + j);
+                    dispatcher.schedule(id, task, expiration + (j % 10), 0L);
+                    // Cancel every other timer
+                    if ((j % 2) == 0) {
+                        dispatcher.cancel(id);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : schedulers) {
+            thread.start();
+        }
+        for (Thread thread : schedulers) {
+            thread.join();
+        }
+        assertEquals(threads * timers / 2, dispatcher.size());
+
+        sleepUntil(expiration + 10L + TICK);
+        dispatcher.run();
+        assertEquals(threads * timers / 2, task.count.get());
+        assertEquals(0, dispatcher.size());
+    }
+
+    @Test
+    public void arm() throws InterruptedException {
+        TimerDispatcher<Counter> dispatcher = new TimerDispatcher<>(TICK, 4);
+        java.util.Timer timer = new java.util.Timer();
+        try {
+            Counter task = new Counter();
+            long now = System.currentTimeMillis();
+            // Timeouts scheduled before the dispatcher starts arm its tick on start
+            dispatcher.schedule("early", task, now + 10L, 0L);
+            assertFalse(dispatcher.isArmed());
+
+            dispatcher.start(timer);
+            assertTrue(dispatcher.isArmed());
+
+            // Once no timeouts are pending, the tick disarms itself
+            sleepUntil(now + 10L + TICK * 10);
+            assertEquals(1, task.count.get());
+            assertFalse(dispatcher.isArmed());
+
+            // Scheduling a timeout re-arms the tick
+            now = System.currentTimeMillis();
+            dispatcher.schedule("late", task, now + 10L, 0L);
+            assertTrue(dispatcher.isArmed());
+            sleepUntil(now + 10L + TICK * 10);
+            assertEquals(2, task.count.get());
+            assertFalse(dispatcher.isArmed());
+
+            // A stopped dispatcher is never armed
+            dispatcher.stop();
+            dispatcher.schedule("stopped", task, System.currentTimeMillis(), 0L);
+            assertFalse(dispatcher.isArmed());
+            assertTrue(dispatcher.isScheduled("stopped"));
+        } finally {
+            timer.cancel();
+        }
+    }
+
+    @Test
+    public void farFuture() throws InterruptedException {
+        TimerDispatcher<Counter> dispatcher = new TimerDispatcher<>(TICK, 4);
+        java.util.Timer timer = new java.util.Timer();
+        try {
+            dispatcher.start(timer);
+            Counter task = new Counter();
+            long now = System.currentTimeMillis();
+            long expiration = now + 3600000L;
+            dispatcher.schedule("far", task, expiration, 0L);
+
+            // A far future timeout arms the dispatcher for when its wheel next cascades, rather than for every tick
+            assertTrue(dispatcher.isArmed());
+            assertTrue(dispatcher.getNextAdvanceTime() > now + 1000L);
+            assertTrue(dispatcher.getNextAdvanceTime() <= expiration);
+
+            // An earlier timeout re-arms the dispatcher for its own deadline
+            long soon = System.currentTimeMillis() + 20L;
+            dispatcher.schedule("soon", task, soon, 0L);
+            assertTrue(dispatcher.getNextAdvanceTime() < soon + TICK);
+            sleepUntil(soon + TICK * 10);
+            assertEquals(1, task.count.get());
+
+            // Once dispatched, the dispatcher is armed for the far future timeout again
+            assertTrue(dispatcher.isArmed());
+            assertTrue(dispatcher.getNextAdvanceTime() > System.currentTimeMillis() + 1000L);
+            assertTrue(dispatcher.isScheduled("far"));
+        } finally {
+            timer.cancel();
+        }
+    }
+
+    private static void sleepUntil(long time) throws InterruptedException {
+        long delay = time - System.currentTimeMillis();
+        while (delay > 0) {
+            Thread.sleep(delay);
+            delay = time - System.currentTimeMillis();
+        }
+    }
+
+    private static class Counter implements Runnable {
+        final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public void run() {
+            this.count.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice.persistence.database;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.Date;
+
+import javax.sql.DataSource;
+import javax.transaction.TransactionManager;
+
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.naming.ManagedReference;
+import org.jboss.as.naming.ManagedReferenceFactory;
+import org.jboss.modules.ModuleLoader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for the claiming of due timers by {@link DatabaseTimerPersistence}.
+ *
+ * @author agent
+ */
+public class DatabaseTimerPersistenceTestCase {
+
+    private static final String TIMED_OBJECT_ID = "bean";
+
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+    private final TransactionManager tm = mock(TransactionManager.class);
+    private final TimerServiceImpl timerService = mock(TimerServiceImpl.class);
+    private DatabaseTimerPersistence persistence;
+
+    @Before
+    public void init() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        ManagedReference reference = mock(ManagedReference.class);
+        ManagedReferenceFactory factory = mock(ManagedReferenceFactory.class);
+        when(factory.getReference()).thenReturn(reference);
+        when(reference.getInstance()).thenReturn(dataSource);
+        when(dataSource.getConnection()).thenReturn(this.connection);
+        when(this.connection.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_READ_COMMITTED);
+        when(this.connection.prepareStatement(anyString())).thenReturn(this.statement);
+        when(this.statement.executeQuery()).thenReturn(mock(ResultSet.class));
+
+        this.persistence = new DatabaseTimerPersistence("h2", "partition", "node", 0, true);
+        this.persistence.getDataSourceInjectedValue().inject(factory);
+        this.persistence.getModuleLoader().inject(mock(ModuleLoader.class));
+        this.persistence.start(null);
+        this.persistence.loadActiveTimers(TIMED_OBJECT_ID, this.timerService);
+    }
+
+    @After
+    public void destroy() {
+        this.persistence.stop(null);
+    }
+
+    @Test
+    public void claimedOnBehalfOfAnotherTimer() throws Exception {
+        Date now = new Date();
+        TimerImpl first = this.createTimer("first", now);
+        TimerImpl second = this.createTimer("second", now);
+        when(this.statement.executeBatch()).thenReturn(new int[] { 1, 1 });
+
+        assertTrue(this.persistence.shouldRun(first, this.tm));
+        // the second timer was claimed by the same batch
+        assertTrue(this.persistence.shouldRun(second, this.tm));
+
+        verify(this.statement, times(1)).executeBatch();
+        verify(this.statement, never()).executeUpdate();
+    }
+
+    @Test
+    public void contended() throws Exception {
+        Date now = new Date();
+        TimerImpl first = this.createTimer("first", now);
+        TimerImpl second = this.createTimer("second", now);
+        // the second timer was already claimed by another node
+        when(this.statement.executeBatch()).thenReturn(new int[] { 1, 0 }, new int[] { 0 });
+
+        assertTrue(this.persistence.shouldRun(first, this.tm));
+        // the first timer has run, and is now scheduled for its next timeout
+        when(first.getNextExpiration()).thenReturn(new Date(now.getTime() + 60000L));
+
+        assertFalse(this.persistence.shouldRun(second, this.tm));
+
+        verify(this.statement, times(2)).executeBatch();
+        verify(this.statement, never()).executeUpdate();
+    }
+
+    @Test
+    public void stale() throws Exception {
+        Date now = new Date();
+        Date expected = new Date(now.getTime() - 1000L);
+        TimerImpl due = this.createTimer("due", expected);
+        TimerImpl pending = this.createTimer("pending", new Date(now.getTime() + 60000L));
+        // our view of the due timer is stale, e.g. it has since been run by another node
+        when(this.statement.executeBatch()).thenReturn(new int[] { 0 });
+
+        assertFalse(this.persistence.shouldRun(due, this.tm));
+
+        // the claim is conditional on our expected expiration
+        verify(this.statement).setTimestamp(6, new Timestamp(expected.getTime()));
+        // timers that are not yet due are never claimed
+        verify(this.statement, never()).setString(3, pending.getId());
+        verify(this.statement, times(1)).addBatch();
+    }
+
+    @Test
+    public void cancel() throws Exception {
+        Date now = new Date();
+        TimerImpl first = this.createTimer("first", now);
+        TimerImpl second = this.createTimer("second", now);
+        when(this.statement.executeBatch()).thenReturn(new int[] { 1, 1 });
+
+        assertTrue(this.persistence.shouldRun(first, this.tm));
+
+        // cancelling the second timer deletes it, along with our claim
+        when(second.getState()).thenReturn(TimerState.CANCELED);
+        when(second.isActive()).thenReturn(false);
+        this.persistence.persistTimer(second);
+
+        assertFalse(this.persistence.shouldRun(second, this.tm));
+        verify(this.statement).executeUpdate();
+    }
+
+    private TimerImpl createTimer(String id, Date nextExpiration) {
+        TimerImpl timer = mock(TimerImpl.class);
+        when(timer.getId()).thenReturn(id);
+        when(timer.getTimedObjectId()).thenReturn(TIMED_OBJECT_ID);
+        when(timer.getTimerService()).thenReturn(this.timerService);
+        when(timer.getNextExpiration()).thenReturn(nextExpiration);
+        when(timer.getInitialExpiration()).thenReturn(nextExpiration);
+        when(timer.getState()).thenReturn(TimerState.ACTIVE);
+        when(timer.isActive()).thenReturn(true);
+        when(this.timerService.getTimer(eq(id))).thenReturn(timer);
+        this.persistence.addTimer(timer);
+        return timer;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit test for {@link TimerJournal}.
+ *
+ * @author agent
+ */
+public class TimerJournalTestCase {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void replay() throws IOException {
+        File directory = this.folder.getRoot();
+        try (TimerJournal journal = new TimerJournal(directory)) {
+            journal.write(Arrays.asList(TimerJournal.put("bean", "1", bytes("one")), TimerJournal.put("bean", "2", bytes("two")), TimerJournal.put("other", "3", bytes("three"))));
+            journal.write(Collections.singletonList(TimerJournal.put("bean", "1", bytes("uno"))));
+            journal.write(Collections.singletonList(TimerJournal.remove("other", "3")));
+            // Removal of an unknown timer is harmless
+            journal.write(Collections.singletonList(TimerJournal.remove("other", "4")));
+
+            assertTrue(journal.contains("bean", "1"));
+            assertFalse(journal.contains("other", "3"));
+        }
+        assertTrue(new File(directory, TimerJournal.JOURNAL).length() > new File(directory, TimerJournal.SNAPSHOT).length());
+
+        try (TimerJournal journal = new TimerJournal(directory)) {
+            Map<String, byte[]> timers = journal.getTimers("bean");
+            assertEquals(2, timers.size());
+            assertArrayEquals(bytes("uno"), timers.get("1"));
+            assertArrayEquals(bytes("two"), timers.get("2"));
+            assertTrue(journal.getTimers("other").isEmpty());
+            // Replayed journal was compacted into the snapshot
+            assertEquals(5L, journal.size());
+            assertTrue(new File(directory, TimerJournal.SNAPSHOT).exists());
+        }
+
+        try (TimerJournal journal = new TimerJournal(directory)) {
+            assertEquals(2, journal.getTimers("bean").size());
+        }
+    }
+
+    @Test
+    public void truncate() throws IOException {
+        File directory = this.folder.getRoot();
+        try (TimerJournal journal = new TimerJournal(directory)) {
+            journal.write(Collections.singletonList(TimerJournal.put("bean", "1", bytes("one"))));
+            journal.write(Collections.singletonList(TimerJournal.put("bean", "2", bytes("two"))));
+        }
+        File file = new File(directory, TimerJournal.JOURNAL);
+        long length = file.length();
+        // Simulate a torn write of the last record
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(length - 2);
+        }
+        try (TimerJournal journal = new TimerJournal(directory)) {
+            Map<String, byte[]> timers = journal.getTimers("bean");
+            assertEquals(1, timers.size());
+            assertArrayEquals(bytes("one"), timers.get("1"));
+            // Subsequent writes are not obscured by the torn record
+            journal.write(Collections.singletonList(TimerJournal.put("bean", "3", bytes("three"))));
+        }
+        try (TimerJournal journal = new TimerJournal(directory)) {
+            assertEquals(2, journal.getTimers("bean").size());
+        }
+    }
+
+    @Test
+    public void corrupt() throws IOException {
+        File directory = this.folder.getRoot();
+        File file = new File(directory, TimerJournal.JOURNAL);
+        long offset;
+        try (TimerJournal journal = new TimerJournal(directory)) {
+            journal.write(Collections.singletonList(TimerJournal.put("bean", "1", bytes("one"))));
+            offset = file.length();
+            journal.write(Collections.singletonList(TimerJournal.put("bean", "2", bytes("two"))));
+            journal.write(Collections.singletonList(TimerJournal.put("bean", "3", bytes("three"))));
+        }
+        // Flip the last byte of the second record's content
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            long position = offset + 8 + 1 + 2 + "bean".length() + 2 + 1 + 4 + 2;
+            raf.seek(position);
+            byte value = raf.readByte();
+            raf.seek(position);
+            raf.writeByte(value ^ 0xFF);
+        }
+        try (TimerJournal journal = new TimerJournal(directory)) {
+            // Every record following the corrupt record is discarded
+            Map<String, byte[]> timers = journal.getTimers("bean");
+            assertEquals(Collections.singleton("1"), timers.keySet());
+        }
+    }
+
+    @Test
+    public void compact() throws IOException {
+        File directory = this.folder.getRoot();
+        byte[] timer = new byte[100];
+        try (TimerJournal journal = new TimerJournal(directory, 1024)) {
+            for (int i = 0; i < 100; ++i) {
+                List<TimerJournal.Record> records = new ArrayList<>();
+                records.add(TimerJournal.put("bean", Integer.toString(i), timer));
+                if (i > 0) {
+                    records.add(TimerJournal.remove("bean", Integer.toString(i - 1)));
+                }
+                journal.write(records);
+                journal.compactIfNecessary();
+                // Journal never grows much beyond the compaction threshold
+                assertTrue(journal.size() <= 1024 + 2 * 256);
+            }
+            assertEquals(Collections.singleton("99"), journal.getTimers("bean").keySet());
+
+            // Writes never compact the journal
+            for (int i = 100; i < 120; ++i) {
+                journal.write(Arrays.asList(TimerJournal.put("bean", Integer.toString(i), timer), TimerJournal.remove("bean", Integer.toString(i - 1))));
+            }
+            assertTrue(journal.size() > 1024 + 2 * 256);
+            assertTrue(journal.compactIfNecessary());
+            assertEquals(5L, journal.size());
+            assertFalse(journal.compactIfNecessary());
+
+            // Journal remains writable following compaction
+            journal.write(Collections.singletonList(TimerJournal.put("bean", "120", timer)));
+        }
+        try (TimerJournal journal = new TimerJournal(directory)) {
+            assertEquals(new HashSet<>(Arrays.asList("119", "120")), journal.getTimers("bean").keySet());
+        }
+        // A snapshot or journal left behind by an interrupted compaction is ignored
+        assertTrue(new File(directory, TimerJournal.SNAPSHOT + ".tmp").createNewFile());
+        assertTrue(new File(directory, TimerJournal.JOURNAL + ".tmp").createNewFile());
+        try (TimerJournal journal = new TimerJournal(directory)) {
+            assertEquals(new HashSet<>(Arrays.asList("119", "120")), journal.getTimers("bean").keySet());
+        }
+        assertFalse(new File(directory, TimerJournal.SNAPSHOT + ".tmp").exists());
+        assertFalse(new File(directory, TimerJournal.JOURNAL + ".tmp").exists());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
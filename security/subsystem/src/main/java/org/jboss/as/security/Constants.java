@@ -43,6 +43,8 @@ public interface Constants {
     String AUTHENTICATION_MANAGER_CLASS_NAME = "authentication-manager-class-name";
     String AUTHORIZATION = "authorization";
     String AUTHORIZATION_MANAGER_CLASS_NAME = "authorization-manager-class-name";
+    String CACHE_LIFESPAN = "cache-lifespan";
+    String CACHE_MAX_SIZE = "cache-max-size";
     String CACHE_TYPE = "cache-type";
     String CIPHER_SUITES = "cipher-suites";
     String CLASSIC = "classic";
@@ -118,6 +120,9 @@ public interface Constants {
     String LIST_CACHED_PRINCIPALS = "list-cached-principals";
     String FLUSH_CACHE = "flush-cache";
     String PRINCIPAL_ARGUMENT = "principal";
+    String CACHE_HIT_RATE = "cache-hit-rate";
+    String CACHE_EVICTIONS = "cache-evictions";
+    String CACHE_EXPIRATIONS = "cache-expirations";
     // ELYTRON INTEGRATION CONSTANTS
     String ELYTRON_INTEGRATION = "elytron-integration";
     String SECURITY_REALMS = "security-realms";
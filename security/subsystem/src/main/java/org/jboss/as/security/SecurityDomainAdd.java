@@ -129,7 +129,7 @@ class SecurityDomainAdd extends AbstractAddStepHandler {
      * Private to ensure a singleton.
      */
     private SecurityDomainAdd() {
-        super(SecurityDomainResourceDefinition.CACHE_TYPE);
+        super(SecurityDomainResourceDefinition.CACHE_TYPE, SecurityDomainResourceDefinition.CACHE_MAX_SIZE, SecurityDomainResourceDefinition.CACHE_LIFESPAN);
     }
 
     @Override
@@ -149,6 +149,12 @@ class SecurityDomainAdd extends AbstractAddStepHandler {
         }, OperationContext.Stage.RUNTIME);
     }
 
+    @Override
+    protected void populateModel(OperationContext context, ModelNode operation, Resource resource) throws OperationFailedException {
+        super.populateModel(context, operation, resource);
+        validateAuthenticationCache(context, resource.getModel());
+    }
+
     @Override
     protected void recordCapabilitiesAndRequirements(OperationContext context, ModelNode operation, Resource resource) throws OperationFailedException {
         super.recordCapabilitiesAndRequirements(context, operation, resource);
@@ -164,9 +170,11 @@ class SecurityDomainAdd extends AbstractAddStepHandler {
         final ApplicationPolicy applicationPolicy = createApplicationPolicy(context, securityDomain, model);
         final JSSESecurityDomain jsseSecurityDomain = createJSSESecurityDomain(context, securityDomain, model);
         final String cacheType = getAuthenticationCacheType(model);
+        final int cacheMaxSize = SecurityDomainResourceDefinition.CACHE_MAX_SIZE.resolveModelAttribute(context, model).asInt();
+        final ModelNode cacheLifespan = SecurityDomainResourceDefinition.CACHE_LIFESPAN.resolveModelAttribute(context, model);
 
         final SecurityDomainService securityDomainService = new SecurityDomainService(securityDomain,
-                applicationPolicy, jsseSecurityDomain, cacheType);
+                applicationPolicy, jsseSecurityDomain, cacheType, cacheMaxSize, cacheLifespan.isDefined() ? cacheLifespan.asLong() : 0L);
         final ServiceTarget target = context.getServiceTarget();
         ServiceBuilder<SecurityDomainContext> builder = target
                 .addService(SecurityDomainService.SERVICE_NAME.append(securityDomain), securityDomainService)
@@ -654,6 +662,18 @@ class SecurityDomainAdd extends AbstractAddStepHandler {
         }
     }
 
+    /**
+     * Validates that the authentication cache attributes are supported by the configured cache type.
+     */
+    static void validateAuthenticationCache(OperationContext context, ModelNode model) throws OperationFailedException {
+        if (SecurityDomainResourceDefinition.CACHE_LIFESPAN.resolveModelAttribute(context, model).isDefined()) {
+            ModelNode cacheType = SecurityDomainResourceDefinition.CACHE_TYPE.resolveModelAttribute(context, model);
+            if (!cacheType.isDefined() || !SecurityDomainResourceDefinition.FREQUENCY_CACHE_TYPE.equals(cacheType.asString())) {
+                throw SecurityLogger.ROOT_LOGGER.cacheLifespanNotSupported(SecurityDomainResourceDefinition.CACHE_LIFESPAN.getName(), cacheType.isDefined() ? cacheType.asString() : null);
+            }
+        }
+    }
+
     static String getAuthenticationCacheType(ModelNode node) {
         String type = null;
         if (node.hasDefined(CACHE_TYPE)) {
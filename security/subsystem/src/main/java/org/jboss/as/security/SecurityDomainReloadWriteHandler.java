@@ -54,5 +54,8 @@ public class SecurityDomainReloadWriteHandler extends RestartParentWriteAttribut
     @Override
     protected void validateUpdatedModel(OperationContext context, Resource model) throws OperationFailedException {
         SecurityDomainResourceDefinition.CACHE_TYPE.validateOperation(model.getModel());
+        SecurityDomainResourceDefinition.CACHE_MAX_SIZE.validateOperation(model.getModel());
+        SecurityDomainResourceDefinition.CACHE_LIFESPAN.validateOperation(model.getModel());
+        SecurityDomainAdd.validateAuthenticationCache(context, model.getModel());
     }
 }
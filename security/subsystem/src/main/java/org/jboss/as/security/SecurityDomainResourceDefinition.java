@@ -28,6 +28,7 @@ import java.security.Principal;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 
 import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.OperationContext;
@@ -44,11 +45,18 @@ import org.jboss.as.controller.access.management.AccessConstraintDefinition;
 import org.jboss.as.controller.access.management.ApplicationTypeAccessConstraintDefinition;
 import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.operations.validation.StringAllowedValuesValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.security.logging.SecurityLogger;
+import org.jboss.as.security.lru.FrequencyCache;
+import org.jboss.as.security.plugins.AuthenticationCacheFactory;
+import org.jboss.as.security.plugins.DefaultAuthenticationCacheFactory;
+import org.jboss.as.security.plugins.FrequencyAuthenticationCacheFactory;
 import org.jboss.as.security.plugins.SecurityDomainContext;
 import org.jboss.as.security.service.SecurityDomainService;
 import org.jboss.dmr.ModelNode;
@@ -66,13 +74,38 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
 
     static final String CACHE_CONTAINER_NAME = "security";
     static final String INFINISPAN_CACHE_TYPE = "infinispan";
+    static final String FREQUENCY_CACHE_TYPE = "frequency";
     static final RuntimeCapability<Void> LEGACY_SECURITY_DOMAIN = RuntimeCapability.Builder.of("org.wildfly.security.legacy-security-domain", true)
             .setServiceType(SecurityDomainContext.class)
             .build();
 
     public static final SimpleAttributeDefinition CACHE_TYPE = new SimpleAttributeDefinitionBuilder(Constants.CACHE_TYPE, ModelType.STRING, true)
             .setAllowExpression(true)
-            .setValidator(new StringAllowedValuesValidator("default", INFINISPAN_CACHE_TYPE))
+            .setValidator(new StringAllowedValuesValidator("default", INFINISPAN_CACHE_TYPE, FREQUENCY_CACHE_TYPE))
+            .build();
+
+    public static final SimpleAttributeDefinition CACHE_MAX_SIZE = new SimpleAttributeDefinitionBuilder(Constants.CACHE_MAX_SIZE, ModelType.INT, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(DefaultAuthenticationCacheFactory.DEFAULT_MAX_ENTRIES))
+            .setValidator(new IntRangeValidator(1, Integer.MAX_VALUE, true, true))
+            .build();
+
+    public static final SimpleAttributeDefinition CACHE_LIFESPAN = new SimpleAttributeDefinitionBuilder(Constants.CACHE_LIFESPAN, ModelType.LONG, true)
+            .setAllowExpression(true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setValidator(new LongRangeValidator(1, Long.MAX_VALUE, true, true))
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_HIT_RATE = new SimpleAttributeDefinitionBuilder(Constants.CACHE_HIT_RATE, ModelType.DOUBLE, true)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_EVICTIONS = new SimpleAttributeDefinitionBuilder(Constants.CACHE_EVICTIONS, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_EXPIRATIONS = new SimpleAttributeDefinitionBuilder(Constants.CACHE_EXPIRATIONS, ModelType.LONG, true)
+            .setStorageRuntime()
             .build();
 
     private final boolean registerRuntimeOnly;
@@ -93,7 +126,15 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
 
     @Override
     public void registerAttributes(final ManagementResourceRegistration resourceRegistration) {
-        resourceRegistration.registerReadWriteAttribute(CACHE_TYPE, null, new SecurityDomainReloadWriteHandler());
+        SecurityDomainReloadWriteHandler writeHandler = new SecurityDomainReloadWriteHandler();
+        resourceRegistration.registerReadWriteAttribute(CACHE_TYPE, null, writeHandler);
+        resourceRegistration.registerReadWriteAttribute(CACHE_MAX_SIZE, null, writeHandler);
+        resourceRegistration.registerReadWriteAttribute(CACHE_LIFESPAN, null, writeHandler);
+        if (registerRuntimeOnly) {
+            resourceRegistration.registerMetric(CACHE_HIT_RATE, new CacheMetricHandler(cache -> new ModelNode(cache.getHitRate())));
+            resourceRegistration.registerMetric(CACHE_EVICTIONS, new CacheMetricHandler(cache -> new ModelNode(cache.getEvictions())));
+            resourceRegistration.registerMetric(CACHE_EXPIRATIONS, new CacheMetricHandler(cache -> new ModelNode(cache.getExpirations())));
+        }
     }
 
     @Override
@@ -164,6 +205,32 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
         }
     }
 
+    /**
+     * Reads the statistics of a frequency-aware authentication cache. Metrics are undefined for any other cache type.
+     */
+    static final class CacheMetricHandler extends AbstractRuntimeOnlyHandler {
+        private final Function<FrequencyCache<?, ?>, ModelNode> metric;
+
+        CacheMetricHandler(Function<FrequencyCache<?, ?>, ModelNode> metric) {
+            this.metric = metric;
+        }
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final String securityDomain = context.getCurrentAddressValue();
+
+            ServiceController<?> controller = context.getServiceRegistry(false).getService(SecurityDomainService.SERVICE_NAME.append(securityDomain));
+            if (controller != null && controller.getState() == ServiceController.State.UP) {
+                AuthenticationCacheFactory factory = ((SecurityDomainService) controller.getService()).getAuthenticationCacheFactory();
+                FrequencyCache<?, ?> cache = (factory instanceof FrequencyAuthenticationCacheFactory) ? ((FrequencyAuthenticationCacheFactory) factory).getActiveCache() : null;
+                if (cache != null) {
+                    context.getResult().set(this.metric.apply(cache));
+                }
+            }
+            context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
+        }
+    }
+
     static final class FlushOperation extends AbstractRuntimeOnlyHandler {
         static final FlushOperation INSTANCE = new FlushOperation();
         static final SimpleOperationDefinition DEFINITION = new SimpleOperationDefinitionBuilder(Constants.FLUSH_CACHE,
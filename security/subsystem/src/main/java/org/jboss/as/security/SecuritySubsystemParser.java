@@ -229,6 +229,20 @@ public class SecuritySubsystemParser implements XMLStreamConstants, XMLElementRe
                     SecurityDomainResourceDefinition.CACHE_TYPE.parseAndSetParameter(value, op, reader);
                     break;
                 }
+                case CACHE_MAX_SIZE: {
+                    if (Namespace.forUri(reader.getNamespaceURI()).compareTo(Namespace.SECURITY_2_0) < 0) {
+                        throw unexpectedAttribute(reader, i);
+                    }
+                    SecurityDomainResourceDefinition.CACHE_MAX_SIZE.parseAndSetParameter(value, op, reader);
+                    break;
+                }
+                case CACHE_LIFESPAN: {
+                    if (Namespace.forUri(reader.getNamespaceURI()).compareTo(Namespace.SECURITY_2_0) < 0) {
+                        throw unexpectedAttribute(reader, i);
+                    }
+                    SecurityDomainResourceDefinition.CACHE_LIFESPAN.parseAndSetParameter(value, op, reader);
+                    break;
+                }
                 default:
                     throw unexpectedAttribute(reader, i);
             }
@@ -63,8 +63,13 @@ public class SecurityTransformers implements ExtensionTransformerRegistration {
                 .addRejectCheck(RejectAttributeChecker.DEFINED, INITIALIZE_JACC);
 
 
-        builder
-                .addChildResource(SecurityExtension.SECURITY_DOMAIN_PATH)
+        ResourceTransformationDescriptionBuilder securityDomain = builder.addChildResource(SecurityExtension.SECURITY_DOMAIN_PATH);
+        securityDomain.getAttributeBuilder()
+                .addRejectCheck(new RejectAttributeChecker.SimpleRejectAttributeChecker(new ModelNode(SecurityDomainResourceDefinition.FREQUENCY_CACHE_TYPE)), SecurityDomainResourceDefinition.CACHE_TYPE)
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, SecurityDomainResourceDefinition.CACHE_MAX_SIZE, SecurityDomainResourceDefinition.CACHE_LIFESPAN)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, SecurityDomainResourceDefinition.CACHE_MAX_SIZE, SecurityDomainResourceDefinition.CACHE_LIFESPAN)
+                .end();
+        securityDomain
                 .addChildResource(SecurityExtension.PATH_AUDIT_CLASSIC)
                 .addChildResource(PATH_PROVIDER_MODULE)
                 .getAttributeBuilder()
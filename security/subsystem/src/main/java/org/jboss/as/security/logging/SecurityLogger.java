@@ -885,4 +885,14 @@ public interface SecurityLogger extends BasicLogger {
      */
     @Message(id = 103, value = "Unable to create AuthorizationIdentity: no authenticated Subject was found")
     IllegalStateException unableToCreateAuthorizationIdentity();
+
+    /**
+     * Creates an exception indicating that an authentication cache attribute is not supported by the configured cache type.
+     *
+     * @param attribute the name of the unsupported attribute
+     * @param cacheType the configured cache type, or null, if no cache type is configured
+     * @return an {@link OperationFailedException} instance.
+     */
+    @Message(id = 104, value = "%s is only supported by the 'frequency' cache type, but the cache type is %s")
+    OperationFailedException cacheLifespanNotSupported(String attribute, String cacheType);
 }
@@ -0,0 +1,711 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.security.lru;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded cache using a W-TinyLFU eviction policy, which protects frequently used entries from being flushed by a burst of
+ * entries that are used only once (e.g. a login storm from more principals than the cache can hold).
+ * <p>
+ * New entries are admitted to a small LRU window. Entries leaving the window compete for admission to the main space,
+ * a segmented LRU, against its next victim; the entry with the higher estimated frequency, as recorded by a
+ * {@link FrequencySketch}, is retained. Reads are recorded in lossy, striped ring buffers and replayed against the policy
+ * in batches by whichever thread acquires the eviction lock, so that the read path never blocks.
+ * Entries may optionally expire a fixed duration after they were last written.
+ * Besides being removed upon access, expired entries are swept at most once per lifespan by whichever thread next acquires the eviction lock,
+ * so that principals that are never authenticated again do not linger until evicted.
+ * </p>
+ *
+ * @author agent
+ */
+public class FrequencyCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+    private static final int READ_BUFFER_STRIPES = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1;
+    private static final int READ_BUFFER_SIZE = 32;
+    private static final int READ_BUFFER_DRAIN_THRESHOLD = READ_BUFFER_SIZE / 2;
+
+    private final ConcurrentMap<K, Node<K, V>> map = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final ReadBuffer[] readBuffers = new ReadBuffer[READ_BUFFER_STRIPES];
+    private final RemoveCallback<K, V> removeCallback;
+    private final LongSupplier ticker;
+    private final long lifespan;
+
+    // Guarded by evictionLock
+    private final FrequencySketch sketch;
+    private final AccessOrderDeque<K, V> window = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K, V> probation = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K, V> protectedQueue = new AccessOrderDeque<>();
+    private final int maxWindowSize;
+    private final int maxMainSize;
+    private final int maxProtectedSize;
+    private long nextSweepTime;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public FrequencyCache(int maxEntries) {
+        this(maxEntries, 0, TimeUnit.MILLISECONDS, null);
+    }
+
+    /**
+     * Creates a new cache.
+     * @param maxEntries the maximum number of entries retained by this cache
+     * @param lifespan the duration after which an entry expires, following its last write, or 0 if entries should not expire
+     * @param unit the unit of the lifespan
+     * @param removeCallback an optional callback notified of each entry removed, evicted, expired, or replaced
+     */
+    public FrequencyCache(int maxEntries, long lifespan, TimeUnit unit, RemoveCallback<K, V> removeCallback) {
+        this(maxEntries, lifespan, unit, removeCallback, System::nanoTime);
+    }
+
+    FrequencyCache(int maxEntries, long lifespan, TimeUnit unit, RemoveCallback<K, V> removeCallback, LongSupplier ticker) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException(Integer.toString(maxEntries));
+        }
+        this.maxWindowSize = Math.max(maxEntries / 100, 1);
+        this.maxMainSize = maxEntries - this.maxWindowSize;
+        this.maxProtectedSize = this.maxMainSize * 4 / 5;
+        this.sketch = new FrequencySketch(maxEntries);
+        this.lifespan = unit.toNanos(lifespan);
+        this.removeCallback = removeCallback;
+        this.ticker = ticker;
+        this.nextSweepTime = ticker.getAsLong() + this.lifespan;
+        for (int i = 0; i < this.readBuffers.length; ++i) {
+            this.readBuffers[i] = new ReadBuffer();
+        }
+    }
+
+    @Override
+    public V get(Object key) {
+        Node<K, V> node = this.map.get(key);
+        if (node == null) {
+            this.misses.increment();
+            return null;
+        }
+        if (this.isExpired(node, this.ticker.getAsLong())) {
+            this.misses.increment();
+            if (this.map.remove(node.key, node)) {
+                this.expirations.increment();
+                this.afterRemove(node, node.value);
+            }
+            return null;
+        }
+        this.hits.increment();
+        this.afterRead(node);
+        return node.value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        Node<K, V> node = this.map.get(key);
+        return (node != null) && !this.isExpired(node, this.ticker.getAsLong());
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return this.put(key, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return this.put(key, value, true);
+    }
+
+    private V put(K key, V value, boolean ifAbsent) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+        long now = this.ticker.getAsLong();
+        List<Node<K, V>> added = new ArrayList<>(1);
+        List<Node<K, V>> expired = new ArrayList<>(1);
+        List<V> old = new ArrayList<>(1);
+        Node<K, V> current = this.map.compute(key, (k, node) -> {
+            if ((node == null) || this.isExpired(node, now)) {
+                if (node != null) {
+                    expired.add(node);
+                }
+                Node<K, V> result = new Node<>(k, value, now);
+                added.add(result);
+                return result;
+            }
+            old.add(node.value);
+            if (!ifAbsent) {
+                node.value = value;
+                node.writeTime = now;
+            }
+            return node;
+        });
+        if (added.isEmpty()) {
+            this.afterRead(current);
+            V previous = old.get(0);
+            if (!ifAbsent && (previous != value)) {
+                this.notify(key, previous);
+            }
+            return previous;
+        }
+        if (!expired.isEmpty()) {
+            this.expirations.increment();
+        }
+        this.afterWrite(added.get(0), expired);
+        return null;
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+        long now = this.ticker.getAsLong();
+        List<Node<K, V>> expired = new ArrayList<>(1);
+        List<V> old = new ArrayList<>(1);
+        Node<K, V> current = this.map.computeIfPresent(key, (k, node) -> {
+            if (this.isExpired(node, now)) {
+                expired.add(node);
+                return null;
+            }
+            old.add(node.value);
+            node.value = value;
+            node.writeTime = now;
+            return node;
+        });
+        if (!expired.isEmpty()) {
+            this.expirations.increment();
+            this.afterRemove(expired.get(0), expired.get(0).value);
+        }
+        if (current == null) return null;
+        this.afterRead(current);
+        V previous = old.get(0);
+        if (previous != value) {
+            this.notify(key, previous);
+        }
+        return previous;
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        if (newValue == null) {
+            throw new NullPointerException();
+        }
+        long now = this.ticker.getAsLong();
+        List<V> replaced = new ArrayList<>(1);
+        Node<K, V> current = this.map.computeIfPresent(key, (k, node) -> {
+            if (!this.isExpired(node, now) && node.value.equals(oldValue)) {
+                replaced.add(node.value);
+                node.value = newValue;
+                node.writeTime = now;
+            }
+            return node;
+        });
+        if (replaced.isEmpty()) return false;
+        this.afterRead(current);
+        V previous = replaced.get(0);
+        if (previous != newValue) {
+            this.notify(key, previous);
+        }
+        return true;
+    }
+
+    @Override
+    public V remove(Object key) {
+        Node<K, V> node = this.map.remove(key);
+        if (node == null) return null;
+        V value = node.value;
+        this.afterRemove(node, value);
+        return this.isExpired(node, this.ticker.getAsLong()) ? null : value;
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        if (value == null) return false;
+        @SuppressWarnings("unchecked")
+        K k = (K) key;
+        List<Node<K, V>> removed = new ArrayList<>(1);
+        this.map.computeIfPresent(k, (ignored, node) -> {
+            if (node.value.equals(value)) {
+                removed.add(node);
+                return null;
+            }
+            return node;
+        });
+        if (removed.isEmpty()) return false;
+        Node<K, V> node = removed.get(0);
+        this.afterRemove(node, node.value);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        List<Node<K, V>> removed = new ArrayList<>();
+        this.evictionLock.lock();
+        try {
+            for (ReadBuffer buffer : this.readBuffers) {
+                buffer.drain(null);
+            }
+            for (Node<K, V> node : this.map.values()) {
+                if (this.map.remove(node.key, node)) {
+                    removed.add(node);
+                }
+                this.retire(node);
+            }
+        } finally {
+            this.evictionLock.unlock();
+        }
+        for (Node<K, V> node : removed) {
+            this.notify(node.key, node.value);
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.map.size();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    /**
+     * Returns the number of lookups that found a live entry.
+     * @return the number of cache hits
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that found no entry, or an expired entry.
+     * @return the number of cache misses
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Returns the fraction of lookups that found a live entry.
+     * @return a hit rate between 0 and 1
+     */
+    public double getHitRate() {
+        long hits = this.hits.sum();
+        long requests = hits + this.misses.sum();
+        return (requests > 0) ? (double) hits / requests : 0d;
+    }
+
+    /**
+     * Returns the number of entries evicted by the size bound of this cache.
+     * @return the number of evictions
+     */
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * Returns the number of entries removed due to their lifespan.
+     * @return the number of expirations
+     */
+    public long getExpirations() {
+        return this.expirations.sum();
+    }
+
+    private boolean isExpired(Node<K, V> node, long now) {
+        return (this.lifespan > 0) && (now - node.writeTime >= this.lifespan);
+    }
+
+    private void afterRead(Node<K, V> node) {
+        ReadBuffer buffer = this.readBuffers[(int) Thread.currentThread().getId() & (READ_BUFFER_STRIPES - 1)];
+        if (buffer.offer(node) && this.evictionLock.tryLock()) {
+            List<Node<K, V>> evicted = new ArrayList<>();
+            List<Node<K, V>> expired = new ArrayList<>();
+            try {
+                this.drainReadBuffers();
+                this.evict(evicted);
+                this.sweep(expired);
+            } finally {
+                this.evictionLock.unlock();
+            }
+            this.notifyEvicted(evicted);
+            this.notifyExpired(expired);
+        }
+    }
+
+    private void afterWrite(Node<K, V> node, List<Node<K, V>> removed) {
+        List<Node<K, V>> evicted = new ArrayList<>();
+        List<Node<K, V>> expired = new ArrayList<>();
+        this.evictionLock.lock();
+        try {
+            this.drainReadBuffers();
+            for (Node<K, V> replaced : removed) {
+                this.retire(replaced);
+            }
+            if (!node.retired) {
+                this.sketch.increment(node.key);
+                this.window.addLast(node);
+                node.queue = Queue.WINDOW;
+                this.evict(evicted);
+            }
+            this.sweep(expired);
+        } finally {
+            this.evictionLock.unlock();
+        }
+        for (Node<K, V> replaced : removed) {
+            this.notify(replaced.key, replaced.value);
+        }
+        this.notifyEvicted(evicted);
+        this.notifyExpired(expired);
+    }
+
+    // Must be called while holding the eviction lock
+    private void sweep(List<Node<K, V>> expired) {
+        if (this.lifespan <= 0) return;
+        long now = this.ticker.getAsLong();
+        if (now - this.nextSweepTime < 0) return;
+        this.nextSweepTime = now + this.lifespan;
+        for (Node<K, V> node : this.map.values()) {
+            if (this.isExpired(node, now)) {
+                // Re-check atomically, in case the entry was concurrently rewritten
+                this.map.computeIfPresent(node.key, (key, current) -> {
+                    if ((current == node) && this.isExpired(current, now)) {
+                        expired.add(current);
+                        return null;
+                    }
+                    return current;
+                });
+            }
+        }
+        for (Node<K, V> node : expired) {
+            this.retire(node);
+        }
+    }
+
+    private void afterRemove(Node<K, V> node, V value) {
+        this.evictionLock.lock();
+        try {
+            this.retire(node);
+        } finally {
+            this.evictionLock.unlock();
+        }
+        this.notify(node.key, value);
+    }
+
+    private void notifyExpired(List<Node<K, V>> expired) {
+        for (Node<K, V> node : expired) {
+            this.expirations.increment();
+            this.notify(node.key, node.value);
+        }
+    }
+
+    private void notifyEvicted(List<Node<K, V>> evicted) {
+        for (Node<K, V> node : evicted) {
+            this.evictions.increment();
+            this.notify(node.key, node.value);
+        }
+    }
+
+    private void notify(K key, V value) {
+        if (this.removeCallback != null) {
+            this.removeCallback.afterRemove(key, value);
+        }
+    }
+
+    // Must be called while holding the eviction lock
+    private void drainReadBuffers() {
+        for (ReadBuffer buffer : this.readBuffers) {
+            buffer.drain(this);
+        }
+    }
+
+    // Must be called while holding the eviction lock
+    void onAccess(Node<K, V> node) {
+        this.sketch.increment(node.key);
+        switch (node.queue) {
+            case WINDOW: {
+                this.window.moveToBack(node);
+                break;
+            }
+            case PROBATION: {
+                this.probation.remove(node);
+                this.protectedQueue.addLast(node);
+                node.queue = Queue.PROTECTED;
+                // Demote the least recently used protected entries, if necessary
+                while (this.protectedQueue.size > this.maxProtectedSize) {
+                    Node<K, V> demoted = this.protectedQueue.pollFirst();
+                    this.probation.addLast(demoted);
+                    demoted.queue = Queue.PROBATION;
+                }
+                break;
+            }
+            case PROTECTED: {
+                this.protectedQueue.moveToBack(node);
+                break;
+            }
+            default: {
+                // Not yet added, or already removed
+            }
+        }
+    }
+
+    // Must be called while holding the eviction lock
+    private void evict(List<Node<K, V>> evicted) {
+        while (this.window.size > this.maxWindowSize) {
+            Node<K, V> candidate = this.window.pollFirst();
+            if (this.probation.size + this.protectedQueue.size < this.maxMainSize) {
+                this.probation.addLast(candidate);
+                candidate.queue = Queue.PROBATION;
+                continue;
+            }
+            Node<K, V> victim = (this.probation.head != null) ? this.probation.head : this.protectedQueue.head;
+            // Admit the candidate only if it is more popular than the victim
+            if ((victim != null) && (this.sketch.frequency(candidate.key) > this.sketch.frequency(victim.key))) {
+                this.evict(victim, evicted);
+                this.probation.addLast(candidate);
+                candidate.queue = Queue.PROBATION;
+            } else {
+                candidate.queue = Queue.NONE;
+                this.evict(candidate, evicted);
+            }
+        }
+    }
+
+    private void evict(Node<K, V> node, List<Node<K, V>> evicted) {
+        this.retire(node);
+        if (this.map.remove(node.key, node)) {
+            evicted.add(node);
+        }
+    }
+
+    // Must be called while holding the eviction lock
+    private void retire(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW: {
+                this.window.remove(node);
+                break;
+            }
+            case PROBATION: {
+                this.probation.remove(node);
+                break;
+            }
+            case PROTECTED: {
+                this.protectedQueue.remove(node);
+                break;
+            }
+            default: {
+                // Not linked
+            }
+        }
+        node.queue = Queue.NONE;
+        node.retired = true;
+    }
+
+    enum Queue {
+        NONE, WINDOW, PROBATION, PROTECTED;
+    }
+
+    static final class Node<K, V> {
+        final K key;
+        volatile V value;
+        volatile long writeTime;
+
+        // Guarded by evictionLock
+        Queue queue = Queue.NONE;
+        boolean retired = false;
+        Node<K, V> previous;
+        Node<K, V> next;
+
+        Node(K key, V value, long writeTime) {
+            this.key = key;
+            this.value = value;
+            this.writeTime = writeTime;
+        }
+    }
+
+    /**
+     * An intrusive doubly-linked list of nodes, in access order.
+     */
+    static final class AccessOrderDeque<K, V> {
+        Node<K, V> head;
+        Node<K, V> tail;
+        int size = 0;
+
+        void addLast(Node<K, V> node) {
+            node.previous = this.tail;
+            node.next = null;
+            if (this.tail == null) {
+                this.head = node;
+            } else {
+                this.tail.next = node;
+            }
+            this.tail = node;
+            this.size += 1;
+        }
+
+        Node<K, V> pollFirst() {
+            Node<K, V> node = this.head;
+            if (node != null) {
+                this.remove(node);
+            }
+            return node;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.previous == null) {
+                this.head = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+            if (node.next == null) {
+                this.tail = node.previous;
+            } else {
+                node.next.previous = node.previous;
+            }
+            node.previous = null;
+            node.next = null;
+            this.size -= 1;
+        }
+
+        void moveToBack(Node<K, V> node) {
+            if (node != this.tail) {
+                this.remove(node);
+                this.addLast(node);
+            }
+        }
+    }
+
+    /**
+     * A bounded, lossy, multiple-producer ring buffer of reads, drained by the owner of the eviction lock.
+     * A read is simply dropped if the buffer is full, which only degrades the accuracy of the policy.
+     */
+    static final class ReadBuffer {
+        private final AtomicReferenceArray<Node<?, ?>> buffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+        private final AtomicLong writeCounter = new AtomicLong();
+        private final AtomicLong readCounter = new AtomicLong();
+
+        /**
+         * Records the specified read.
+         * @return true, if this buffer should be drained
+         */
+        boolean offer(Node<?, ?> node) {
+            long head = this.readCounter.get();
+            long tail = this.writeCounter.get();
+            long size = tail - head;
+            if (size >= READ_BUFFER_SIZE) return true;
+            if (this.writeCounter.compareAndSet(tail, tail + 1)) {
+                this.buffer.lazySet((int) tail & (READ_BUFFER_SIZE - 1), node);
+                return size + 1 >= READ_BUFFER_DRAIN_THRESHOLD;
+            }
+            return false;
+        }
+
+        /**
+         * Replays buffered reads against the policy of the specified cache, or discards them if the cache is null.
+         * Must be called while holding the eviction lock.
+         */
+        @SuppressWarnings({ "rawtypes", "unchecked" })
+        void drain(FrequencyCache cache) {
+            long head = this.readCounter.get();
+            long tail = this.writeCounter.get();
+            for (; head < tail; ++head) {
+                int index = (int) head & (READ_BUFFER_SIZE - 1);
+                Node<?, ?> node = this.buffer.get(index);
+                // Slot was claimed, but not yet published
+                if (node == null) break;
+                this.buffer.lazySet(index, null);
+                if (cache != null) {
+                    cache.onAccess((Node) node);
+                }
+            }
+            this.readCounter.lazySet(head);
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            Iterator<Node<K, V>> nodes = FrequencyCache.this.map.values().iterator();
+            return new Iterator<Entry<K, V>>() {
+                private Node<K, V> last;
+
+                @Override
+                public boolean hasNext() {
+                    return nodes.hasNext();
+                }
+
+                @Override
+                public Entry<K, V> next() {
+                    this.last = nodes.next();
+                    return new SimpleImmutableEntry<>(this.last.key, this.last.value);
+                }
+
+                @Override
+                public void remove() {
+                    if (this.last == null) {
+                        throw new IllegalStateException("next() not called");
+                    }
+                    FrequencyCache.this.remove(this.last.key);
+                    this.last = null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return FrequencyCache.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) return false;
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            Node<K, V> node = FrequencyCache.this.map.get(entry.getKey());
+            return (node != null) && !FrequencyCache.this.isExpired(node, FrequencyCache.this.ticker.getAsLong()) && node.value.equals(entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry)) return false;
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            return FrequencyCache.this.remove(entry.getKey(), entry.getValue());
+        }
+
+        @Override
+        public void clear() {
+            FrequencyCache.this.clear();
+        }
+    }
+}
@@ -35,13 +35,28 @@ import org.jboss.security.authentication.JBossCachedAuthenticationManager.Domain
  */
 public class DefaultAuthenticationCacheFactory implements AuthenticationCacheFactory {
 
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private final int maxEntries;
+
+    public DefaultAuthenticationCacheFactory() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param maxEntries the maximum number of principals to cache
+     */
+    public DefaultAuthenticationCacheFactory(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
     /**
      * Returns a default cache implementation
      *
      * @return cache implementation
      */
     public ConcurrentMap<Principal, DomainInfo> getCache() {
-        return new LRUCache<>(1000, (key, value) -> {
+        return new LRUCache<>(this.maxEntries, (key, value) -> {
             if (value != null) {
                 value.logout();
             }
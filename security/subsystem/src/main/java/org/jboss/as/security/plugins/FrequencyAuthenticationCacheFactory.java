@@ -0,0 +1,76 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.security.plugins;
+
+import java.security.Principal;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.security.lru.FrequencyCache;
+import org.jboss.security.authentication.JBossCachedAuthenticationManager.DomainInfo;
+
+/**
+ * Factory that creates frequency-aware {@code ConcurrentMap}s for authentication cache,
+ * which retain frequently authenticated principals when more principals authenticate than the cache can hold.
+ *
+ * @author agent
+ */
+public class FrequencyAuthenticationCacheFactory implements AuthenticationCacheFactory {
+
+    private final int maxEntries;
+    private final long lifespan;
+    private volatile FrequencyCache<Principal, DomainInfo> cache;
+
+    /**
+     * @param maxEntries the maximum number of principals to cache
+     * @param lifespan the number of milliseconds after which a cached principal expires, or 0 if cached principals should not expire
+     */
+    public FrequencyAuthenticationCacheFactory(int maxEntries, long lifespan) {
+        this.maxEntries = maxEntries;
+        this.lifespan = lifespan;
+    }
+
+    /**
+     * Returns a frequency-aware cache implementation
+     *
+     * @return cache implementation
+     */
+    public ConcurrentMap<Principal, DomainInfo> getCache() {
+        FrequencyCache<Principal, DomainInfo> cache = new FrequencyCache<>(this.maxEntries, this.lifespan, TimeUnit.MILLISECONDS, (key, value) -> {
+            if (value != null) {
+                value.logout();
+            }
+        });
+        this.cache = cache;
+        return cache;
+    }
+
+    /**
+     * Returns the cache most recently created by this factory, e.g. to read its statistics.
+     *
+     * @return a cache, or null if no cache was created yet
+     */
+    public FrequencyCache<Principal, DomainInfo> getActiveCache() {
+        return this.cache;
+    }
+}
@@ -25,6 +25,9 @@ package org.jboss.as.security.service;
 import static org.jboss.as.security.service.SecurityBootstrapService.JACC_MODULE;
 
 import java.security.Policy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.security.jacc.PolicyConfiguration;
 import javax.security.jacc.PolicyConfigurationFactory;
@@ -51,6 +54,22 @@ public abstract class JaccService<T> implements Service<PolicyConfiguration> {
 
     public static final ServiceName SERVICE_NAME = SecurityExtension.JBOSS_SECURITY.append("jacc");
 
+    // Incremented whenever any policy configuration is committed or deleted
+    private static final AtomicLong POLICY_GENERATION = new AtomicLong();
+    // The policy generation at which each policy configuration was last committed
+    private static final Map<String, Long> POLICY_GENERATIONS = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the generation of the JACC policy configuration with the specified context identifier, which changes whenever that policy configuration,
+     * or a policy configuration linked to it, is committed or deleted.
+     * Authorization decisions computed for a previous generation of the same policy context may no longer be valid.
+     * @param contextId a policy context identifier, or null, if no policy context is set
+     * @return the current generation of the specified policy context, or the generation of all policy contexts, if the context identifier is null
+     */
+    public static long getPolicyGeneration(String contextId) {
+        return (contextId != null) ? POLICY_GENERATIONS.getOrDefault(contextId, 0L) : POLICY_GENERATION.get();
+    }
+
     private final String contextId;
 
     private final T metaData;
@@ -94,6 +113,7 @@ public abstract class JaccService<T> implements Service<PolicyConfiguration> {
                         parent.linkConfiguration(policyConfiguration);
                         policyConfiguration.commit();
                         parent.commit();
+                        POLICY_GENERATIONS.put(parent.getContextID(), POLICY_GENERATION.incrementAndGet());
                     } else {
                         SecurityLogger.ROOT_LOGGER.debugf("Could not retrieve parent policy for policy %s", contextId);
                     }
@@ -102,6 +122,7 @@ public abstract class JaccService<T> implements Service<PolicyConfiguration> {
                 }
                 // Allow the policy to incorporate the policy configs
                 Policy.getPolicy().refresh();
+                POLICY_GENERATIONS.put(contextId, POLICY_GENERATION.incrementAndGet());
             }
         } catch (Exception e) {
             throw SecurityLogger.ROOT_LOGGER.unableToStartException("JaccService", e);
@@ -140,6 +161,10 @@ public abstract class JaccService<T> implements Service<PolicyConfiguration> {
             }
         } catch (Exception e) {
             SecurityLogger.ROOT_LOGGER.errorDeletingJACCPolicy(e);
+        } finally {
+            POLICY_GENERATION.incrementAndGet();
+            // Revert to the initial generation, which differs from that of any decision computed while this configuration was committed
+            POLICY_GENERATIONS.remove(contextId);
         }
         policyConfiguration = null;
     }
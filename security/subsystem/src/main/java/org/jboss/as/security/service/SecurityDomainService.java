@@ -28,6 +28,7 @@ import org.jboss.as.security.SecurityExtension;
 import org.jboss.as.security.logging.SecurityLogger;
 import org.jboss.as.security.plugins.AuthenticationCacheFactory;
 import org.jboss.as.security.plugins.DefaultAuthenticationCacheFactory;
+import org.jboss.as.security.plugins.FrequencyAuthenticationCacheFactory;
 import org.jboss.as.security.plugins.InfinispanAuthenticationCacheFactory;
 import org.jboss.as.security.plugins.JNDIBasedSecurityManagement;
 import org.jboss.as.security.plugins.SecurityDomainContext;
@@ -68,12 +69,20 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
 
     private final String cacheType;
 
+    private final int cacheMaxSize;
+
+    private final long cacheLifespan;
+
+    private volatile AuthenticationCacheFactory cacheFactory;
+
     public SecurityDomainService(String name, ApplicationPolicy applicationPolicy, JSSESecurityDomain jsseSecurityDomain,
-            String cacheType) {
+            String cacheType, int cacheMaxSize, long cacheLifespan) {
         this.name = name;
         this.applicationPolicy = applicationPolicy;
         this.jsseSecurityDomain = jsseSecurityDomain;
         this.cacheType = cacheType;
+        this.cacheMaxSize = cacheMaxSize;
+        this.cacheLifespan = cacheLifespan;
     }
 
     /** {@inheritDoc} */
@@ -90,8 +99,11 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
         if ("infinispan".equals(cacheType)) {
             cacheFactory = new InfinispanAuthenticationCacheFactory(cacheManagerValue.getValue(), name);
         } else if ("default".equals(cacheType)) {
-            cacheFactory = new DefaultAuthenticationCacheFactory();
+            cacheFactory = new DefaultAuthenticationCacheFactory(cacheMaxSize);
+        } else if ("frequency".equals(cacheType)) {
+            cacheFactory = new FrequencyAuthenticationCacheFactory(cacheMaxSize, cacheLifespan);
         }
+        this.cacheFactory = cacheFactory;
         SecurityDomainContext sdc;
         try {
             sdc = securityManagement.createSecurityDomainContext(name, cacheFactory, jsseSecurityDomain);
@@ -119,6 +131,7 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
         final ApplicationPolicyRegistration applicationPolicyRegistration = (ApplicationPolicyRegistration) configurationValue
                 .getValue();
         applicationPolicyRegistration.removeApplicationPolicy(name);
+        this.cacheFactory = null;
     }
 
     /** {@inheritDoc} */
@@ -127,6 +140,15 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
         return securityDomainContext;
     }
 
+    /**
+     * Returns the factory of the authentication cache of this security domain.
+     *
+     * @return a cache factory, or null if this security domain is not started, or does not use an authentication cache
+     */
+    public AuthenticationCacheFactory getAuthenticationCacheFactory() {
+        return cacheFactory;
+    }
+
     /**
      * Target {@code Injector}
      *
@@ -37,6 +37,7 @@ import org.jboss.as.subsystem.test.AbstractSubsystemBaseTest;
 import org.jboss.as.subsystem.test.AdditionalInitialization;
 import org.jboss.as.subsystem.test.KernelServices;
 import org.jboss.as.subsystem.test.KernelServicesBuilder;
+import org.jboss.dmr.ModelNode;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -124,6 +125,11 @@ public class SecurityTransformersTestCase extends AbstractSubsystemBaseTest {
                                         PathElement.pathElement(Constants.PROVIDER_MODULE,
                                                 "org.myorg.security.MyCustomLogAuditProvider")),
                                 new FailedOperationTransformationConfig.NewAttributesConfig(Constants.MODULE))
+                        .addFailedAttribute(PathAddress.pathAddress(subsystemAddress, PathElement.pathElement(Constants.SECURITY_DOMAIN, "frequency-cache")),
+                                FailedOperationTransformationConfig.ChainedConfig.createBuilder(Constants.CACHE_TYPE, Constants.CACHE_MAX_SIZE, Constants.CACHE_LIFESPAN)
+                                        .addConfig(new CorrectFrequencyCacheType())
+                                        .addConfig(new FailedOperationTransformationConfig.NewAttributesConfig(Constants.CACHE_MAX_SIZE, Constants.CACHE_LIFESPAN))
+                                        .build())
                         .addFailedAttribute(PathAddress.pathAddress(subsystemAddress),
                                 new FailedOperationTransformationConfig.NewAttributesConfig(Constants.INITIALIZE_JACC)));
         legacyServices.shutdown();
@@ -152,4 +158,26 @@ public class SecurityTransformersTestCase extends AbstractSubsystemBaseTest {
     @Override
     public void testSchema() throws Exception {
     }
+
+    private static class CorrectFrequencyCacheType extends FailedOperationTransformationConfig.AttributesPathAddressConfig<CorrectFrequencyCacheType> {
+
+        CorrectFrequencyCacheType() {
+            super(Constants.CACHE_TYPE);
+        }
+
+        @Override
+        protected boolean isAttributeWritable(String attributeName) {
+            return true;
+        }
+
+        @Override
+        protected boolean checkValue(String attrName, ModelNode attribute, boolean isWriteAttribute) {
+            return attribute.isDefined() && attribute.asString().equals("frequency");
+        }
+
+        @Override
+        protected ModelNode correctValue(ModelNode toResolve, boolean isWriteAttribute) {
+            return new ModelNode("default");
+        }
+    }
 }
@@ -0,0 +1,223 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.security.lru;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link FrequencyCache}.
+ *
+ * @author agent
+ */
+public class FrequencyCacheTestCase {
+
+    @Test
+    public void map() {
+        List<String> removed = new ArrayList<>();
+        FrequencyCache<String, String> cache = new FrequencyCache<>(10, 0, TimeUnit.MILLISECONDS, (key, value) -> removed.add(value));
+
+        assertNull(cache.put("a", "1"));
+        assertEquals("1", cache.putIfAbsent("a", "2"));
+        assertEquals("1", cache.get("a"));
+        assertTrue(removed.isEmpty());
+
+        assertEquals("1", cache.put("a", "3"));
+        assertEquals("3", cache.replace("a", "4"));
+        assertTrue(cache.replace("a", "4", "5"));
+        assertFalse(cache.replace("a", "4", "6"));
+        assertEquals(3, removed.size());
+
+        assertFalse(cache.remove("a", "4"));
+        assertTrue(cache.remove("a", "5"));
+        assertNull(cache.remove("a"));
+        assertFalse(cache.containsKey("a"));
+        assertEquals(4, removed.size());
+
+        cache.put("b", "1");
+        cache.put("c", "2");
+        assertEquals(2, cache.keySet().size());
+        cache.clear();
+        assertTrue(cache.isEmpty());
+        assertEquals(6, removed.size());
+
+        assertEquals(1L, cache.getHits());
+        assertEquals(0L, cache.getMisses());
+    }
+
+    @Test
+    public void bounded() {
+        AtomicLong evicted = new AtomicLong();
+        FrequencyCache<Integer, Integer> cache = new FrequencyCache<>(100, 0, TimeUnit.MILLISECONDS, (key, value) -> evicted.incrementAndGet());
+        for (int i = 0; i < 1000; ++i) {
+            cache.put(i, i);
+            assertTrue(cache.size() <= 100);
+        }
+        assertEquals(100, cache.size());
+        assertEquals(900L, cache.getEvictions());
+        assertEquals(900L, evicted.get());
+    }
+
+    @Test
+    public void scanResistance() {
+        FrequencyCache<Integer, Integer> cache = new FrequencyCache<>(100);
+        // Establish a popular working set
+        for (int i = 0; i < 20; ++i) {
+            for (int key = 0; key < 50; ++key) {
+                if (cache.get(key) == null) {
+                    cache.put(key, key);
+                }
+            }
+        }
+        // A burst of keys that are each used only once must not flush the working set
+        for (int key = 1000; key < 11000; ++key) {
+            if (cache.get(key) == null) {
+                cache.put(key, key);
+            }
+        }
+        int retained = 0;
+        for (int key = 0; key < 50; ++key) {
+            if (cache.containsKey(key)) {
+                retained += 1;
+            }
+        }
+        assertTrue(Integer.toString(retained), retained >= 45);
+    }
+
+    @Test
+    public void hitRate() {
+        // Compares the hit rate against LRUCache for a skewed workload with a long tail
+        FrequencyCache<Integer, Integer> frequencyCache = new FrequencyCache<>(100);
+        LRUCache<Integer, Integer> lruCache = new LRUCache<>(100);
+        long lruHits = 0;
+        Random random = new Random(0L);
+        for (int i = 0; i < 100000; ++i) {
+            int key = (random.nextInt(4) != 0) ? random.nextInt(80) : 1000 + random.nextInt(100000);
+            if (frequencyCache.get(key) == null) {
+                frequencyCache.put(key, key);
+            }
+            if (lruCache.get(key) != null) {
+                lruHits += 1;
+            } else {
+                lruCache.put(key, key);
+            }
+        }
+        double lruHitRate = lruHits / 100000d;
+        assertTrue(String.format("%f vs %f", frequencyCache.getHitRate(), lruHitRate), frequencyCache.getHitRate() > lruHitRate);
+    }
+
+    @Test
+    public void expiration() {
+        AtomicLong time = new AtomicLong();
+        List<String> removed = new ArrayList<>();
+        FrequencyCache<String, String> cache = new FrequencyCache<>(10, 10, TimeUnit.NANOSECONDS, (key, value) -> removed.add(value), time::get);
+
+        cache.put("a", "1");
+        time.set(9L);
+        assertEquals("1", cache.get("a"));
+        time.set(10L);
+        assertFalse(cache.containsKey("a"));
+        assertNull(cache.get("a"));
+        assertEquals(1L, cache.getExpirations());
+        assertEquals(1, removed.size());
+
+        // Expired entries are replaced, not updated
+        cache.put("b", "2");
+        time.set(20L);
+        assertNull(cache.putIfAbsent("b", "3"));
+        assertEquals("3", cache.get("b"));
+        assertEquals(2L, cache.getExpirations());
+        assertEquals(2, removed.size());
+
+        // Expired entries are swept, even if never accessed again
+        cache.put("c", "4");
+        time.set(40L);
+        cache.put("d", "5");
+        assertEquals(1, cache.size());
+        assertEquals(4L, cache.getExpirations());
+        assertEquals(4, removed.size());
+        assertTrue(removed.containsAll(Arrays.asList("3", "4")));
+    }
+
+    @Test
+    public void concurrent() throws Exception {
+        ConcurrentMap<Integer, Integer> cache = new FrequencyCache<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; ++t) {
+                long seed = t;
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 100000; ++i) {
+                        int key = random.nextInt(256);
+                        switch (random.nextInt(8)) {
+                            case 0: {
+                                cache.remove(key);
+                                break;
+                            }
+                            case 1: {
+                                cache.put(key, key);
+                                break;
+                            }
+                            default: {
+                                Integer value = cache.get(key);
+                                if (value == null) {
+                                    cache.putIfAbsent(key, key);
+                                } else {
+                                    assertEquals(key, value.intValue());
+                                }
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(cache.size() <= 64);
+        for (Map.Entry<Integer, Integer> entry : cache.entrySet()) {
+            assertEquals(entry.getKey(), entry.getValue());
+        }
+    }
+}
@@ -226,6 +226,9 @@ public interface Constants {
     String DEFAULT_SECURITY_DOMAIN = "default-security-domain";
     String DISABLE_FILE_WATCH_SERVICE = "disable-file-watch-service";
     String DISABLE_SESSION_ID_REUSE = "disable-session-id-reuse";
+    String FILE_CACHE_METADATA_SIZE = "file-cache-metadata-size";
+    String FILE_CACHE_MAX_FILE_SIZE = "file-cache-max-file-size";
+    String FILE_CACHE_TIME_TO_LIVE = "file-cache-time-to-live";
     String PER_MESSAGE_DEFLATE = "per-message-deflate";
     String DEFLATER_LEVEL = "deflater-level";
     String MAX_RETRIES = "max-retries";
@@ -38,6 +38,7 @@ import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -47,9 +48,13 @@ import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.ServiceController;
 import org.wildfly.extension.undertow.deployment.UndertowDeploymentService;
 import org.wildfly.extension.undertow.logging.UndertowLogger;
+import org.wildfly.extension.undertow.security.jacc.JACCAuthorizationManager;
+import org.wildfly.extension.undertow.session.CoalescingSessionManagerStatistics;
+import org.wildfly.extension.undertow.session.RebalancingSessionManagerStatistics;
 import io.undertow.server.session.Session;
 import io.undertow.server.session.SessionManager;
 import io.undertow.server.session.SessionManagerStatistics;
+import io.undertow.servlet.api.AuthorizationManager;
 import io.undertow.servlet.api.Deployment;
 
 /**
@@ -64,6 +69,10 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
     public static final AttributeDefinition SERVER = new SimpleAttributeDefinitionBuilder("server", ModelType.STRING).setStorageRuntime().build();
     public static final AttributeDefinition CONTEXT_ROOT = new SimpleAttributeDefinitionBuilder("context-root", ModelType.STRING).setStorageRuntime().build();
     public static final AttributeDefinition VIRTUAL_HOST = new SimpleAttributeDefinitionBuilder("virtual-host", ModelType.STRING).setStorageRuntime().build();
+    static final AttributeDefinition JACC_DECISION_CACHE_HITS = new SimpleAttributeDefinitionBuilder("jacc-decision-cache-hits", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0L)).setStorageRuntime().build();
+    static final AttributeDefinition JACC_DECISION_CACHE_MISSES = new SimpleAttributeDefinitionBuilder("jacc-decision-cache-misses", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0L)).setStorageRuntime().build();
     static final AttributeDefinition SESSIOND_ID = new SimpleAttributeDefinitionBuilder("session-id", ModelType.STRING)
             .setRequired(true)
             .setAllowExpression(false)
@@ -89,6 +98,8 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
         for (SessionStat stat : SessionStat.values()) {
             resourceRegistration.registerMetric(stat.definition, SessionManagerStatsHandler.getInstance());
         }
+        resourceRegistration.registerMetric(JACC_DECISION_CACHE_HITS, JACCDecisionCacheStatsHandler.INSTANCE);
+        resourceRegistration.registerMetric(JACC_DECISION_CACHE_MISSES, JACCDecisionCacheStatsHandler.INSTANCE);
     }
 
     @Override
@@ -187,6 +198,27 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
                             result.set((int)sms.getRejectedSessions());
                         }
                         break;
+                    case SESSION_REBALANCE_TIME:
+                        if (sms instanceof RebalancingSessionManagerStatistics) {
+                            result.set(((RebalancingSessionManagerStatistics) sms).getLastRebalanceTime());
+                        } else {
+                            result.set(0L);
+                        }
+                        break;
+                    case SESSION_ACCESS_FLUSH_SIZE:
+                        if (sms instanceof CoalescingSessionManagerStatistics) {
+                            result.set((int) ((CoalescingSessionManagerStatistics) sms).getLastAccessFlushSize());
+                        } else {
+                            result.set(0);
+                        }
+                        break;
+                    case SESSION_ACCESS_FLUSH_LAG:
+                        if (sms instanceof CoalescingSessionManagerStatistics) {
+                            result.set(((CoalescingSessionManagerStatistics) sms).getLastAccessFlushLag());
+                        } else {
+                            result.set(0L);
+                        }
+                        break;
                     default:
                         throw new IllegalStateException(UndertowLogger.ROOT_LOGGER.unknownMetric(stat));
                 }
@@ -195,6 +227,48 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
         }
     }
 
+    static class JACCDecisionCacheStatsHandler extends AbstractRuntimeOnlyHandler {
+
+        static final JACCDecisionCacheStatsHandler INSTANCE = new JACCDecisionCacheStatsHandler();
+
+        private JACCDecisionCacheStatsHandler() {
+        }
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+
+            final PathAddress address = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR));
+
+            final Resource web = context.readResourceFromRoot(address.subAddress(0, address.size()), false);
+            final ModelNode subModel = web.getModel();
+
+            final String host = VIRTUAL_HOST.resolveModelAttribute(context, subModel).asString();
+            final String path = CONTEXT_ROOT.resolveModelAttribute(context, subModel).asString();
+            final String server = SERVER.resolveModelAttribute(context, subModel).asString();
+
+            final ServiceController<?> controller = context.getServiceRegistry(false).getService(UndertowService.deploymentServiceName(server, host, path));
+            if (controller == null || controller.getState() != ServiceController.State.UP) {//check if deployment is active at all
+                return;
+            }
+            final UndertowDeploymentService deploymentService = (UndertowDeploymentService) controller.getService();
+            if (deploymentService == null || deploymentService.getDeployment() == null) { //we might be in shutdown and it is possible
+                return;
+            }
+            // Only deployments using JACC have a decision cache
+            AuthorizationManager manager = deploymentService.getDeployment().getDeploymentInfo().getAuthorizationManager();
+            if (manager instanceof JACCAuthorizationManager) {
+                JACCAuthorizationManager jaccManager = (JACCAuthorizationManager) manager;
+                String name = operation.require(ModelDescriptionConstants.NAME).asString();
+                if (name.equals(JACC_DECISION_CACHE_HITS.getName())) {
+                    context.getResult().set(jaccManager.getDecisionCacheHits());
+                } else if (name.equals(JACC_DECISION_CACHE_MISSES.getName())) {
+                    context.getResult().set(jaccManager.getDecisionCacheMisses());
+                } else {
+                    context.getFailureDescription().set(UndertowLogger.ROOT_LOGGER.unknownMetric(name));
+                }
+            }
+        }
+    }
 
     static class SessionInvalidateHandler extends AbstractRuntimeOnlyHandler {
 
@@ -259,7 +333,13 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
         REJECTED_SESSIONS(new SimpleAttributeDefinitionBuilder("rejected-sessions", ModelType.INT)
                 .setUndefinedMetricValue(new ModelNode(0)).setStorageRuntime().build()),
         MAX_ACTIVE_SESSIONS(new SimpleAttributeDefinitionBuilder("max-active-sessions", ModelType.INT)
-                .setUndefinedMetricValue(new ModelNode(0)).setStorageRuntime().build());
+                .setUndefinedMetricValue(new ModelNode(0)).setStorageRuntime().build()),
+        SESSION_REBALANCE_TIME(new SimpleAttributeDefinitionBuilder("session-rebalance-time", ModelType.LONG)
+                .setUndefinedMetricValue(new ModelNode(0L)).setMeasurementUnit(MeasurementUnit.MILLISECONDS).setStorageRuntime().build()),
+        SESSION_ACCESS_FLUSH_SIZE(new SimpleAttributeDefinitionBuilder("session-access-flush-size", ModelType.INT)
+                .setUndefinedMetricValue(new ModelNode(0)).setStorageRuntime().build()),
+        SESSION_ACCESS_FLUSH_LAG(new SimpleAttributeDefinitionBuilder("session-access-flush-lag", ModelType.LONG)
+                .setUndefinedMetricValue(new ModelNode(0L)).setMeasurementUnit(MeasurementUnit.MILLISECONDS).setStorageRuntime().build());
 
         private static final Map<String, SessionStat> MAP = new HashMap<>();
 
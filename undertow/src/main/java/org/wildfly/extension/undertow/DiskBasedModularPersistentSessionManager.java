@@ -21,30 +21,60 @@
  */
 package org.wildfly.extension.undertow;
 
+import io.undertow.servlet.UndertowServletLogger;
 import org.jboss.as.controller.services.path.PathManager;
 import org.jboss.marshalling.InputStreamByteInput;
 import org.jboss.marshalling.Marshaller;
-import org.jboss.marshalling.OutputStreamByteOutput;
 import org.jboss.marshalling.Unmarshaller;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.jboss.threads.JBossThreadFactory;
 import org.wildfly.extension.undertow.logging.UndertowLogger;
 import org.xnio.IoUtils;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Persistent session manager that stores persistent session information to disk
+ * Persistent session manager that stores persistent session information to disk.
+ * Sessions are written as a stream of per-session records (see {@link PersistentSessionFile}), so that only a single session
+ * is held in marshalled form at a time. On restart, expired sessions are skipped without being unmarshalled, and the
+ * remaining sessions are unmarshalled in parallel. Files written in the legacy format, i.e. a single marshalled map, are still readable.
  *
  * @author Stuart Douglas
  */
 public class DiskBasedModularPersistentSessionManager extends AbstractPersistentSessionManager {
+    private static final int LOAD_BATCH_SIZE = 256;
+
+    private static ThreadFactory createThreadFactory() {
+        return AccessController.doPrivileged(new PrivilegedAction<ThreadFactory>() {
+            @Override
+            public ThreadFactory run() {
+                return new JBossThreadFactory(new ThreadGroup("Persistent session loader"), Boolean.FALSE, null, "%G - %t", null, null);
+            }
+        });
+    }
+
     private final String path;
     private final String pathRelativeTo;
     private File baseDir;
@@ -82,25 +112,110 @@ public class DiskBasedModularPersistentSessionManager extends AbstractPersistent
         }
     }
 
-
     @Override
-    protected void persistSerializedSessions(String deploymentName, Map<String, SessionEntry> serializedData) throws IOException {
-        File file = new File(baseDir, deploymentName);
-        FileOutputStream out = new FileOutputStream(file, false);
+    public void persistSessions(String deploymentName, Map<String, PersistentSession> sessionData) {
         try {
-            Marshaller marshaller = createMarshaller();
+            final Marshaller marshaller = createMarshaller();
             try {
-                marshaller.start(new OutputStreamByteOutput(out));
-                marshaller.writeObject(serializedData);
-                marshaller.finish();
+                // Write to a temporary file, so that a failure mid-write does not destroy previously persisted sessions
+                File file = new File(baseDir, deploymentName);
+                File temp = new File(baseDir, deploymentName + ".tmp");
+                try (PersistentSessionFile.Writer writer = new PersistentSessionFile.Writer(new BufferedOutputStream(new FileOutputStream(temp, false)))) {
+                    for (Map.Entry<String, PersistentSession> sessionEntry : sessionData.entrySet()) {
+                        PersistentSession session = sessionEntry.getValue();
+                        writer.write(sessionEntry.getKey(), session.getExpiration().getTime(), marshalSessionAttributes(marshaller, sessionEntry.getKey(), session.getSessionData()));
+                    }
+                }
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
             } finally {
                 marshaller.close();
             }
+        } catch (Exception e) {
+            UndertowServletLogger.ROOT_LOGGER.failedToPersistSessions(e);
+        }
+    }
+
+    @Override
+    public Map<String, PersistentSession> loadSessionAttributes(String deploymentName, ClassLoader classLoader) {
+        File file = new File(baseDir, deploymentName);
+        if (!file.exists()) {
+            return null;
+        }
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            if (PersistentSessionFile.isRecordFormat(in)) {
+                return loadSessions(deploymentName, new PersistentSessionFile.Reader(in));
+            }
+        } catch (Exception e) {
+            UndertowServletLogger.ROOT_LOGGER.failedtoLoadPersistentSessions(e);
+            return null;
+        }
+        return super.loadSessionAttributes(deploymentName, classLoader);
+    }
+
+    private Map<String, PersistentSession> loadSessions(String deploymentName, PersistentSessionFile.Reader reader) throws IOException {
+        final Map<String, PersistentSession> sessions = new ConcurrentHashMap<>();
+        final int threads = Runtime.getRuntime().availableProcessors();
+        // Bound the number of pending batches, so that the reader blocks (by running batches itself) rather than buffering the whole file
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(threads), createThreadFactory(), new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            long now = System.currentTimeMillis();
+            List<PersistentSessionFile.Record> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+            PersistentSessionFile.Record record = reader.next(now);
+            while (record != null) {
+                batch.add(record);
+                if (batch.size() == LOAD_BATCH_SIZE) {
+                    List<PersistentSessionFile.Record> records = batch;
+                    executor.execute(() -> loadSessions(records, sessions));
+                    batch = new ArrayList<>(LOAD_BATCH_SIZE);
+                }
+                record = reader.next(now);
+            }
+            loadSessions(batch, sessions);
         } finally {
-            IoUtils.safeClose(out);
+            executor.shutdown();
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        UndertowLogger.ROOT_LOGGER.debugf("Loaded %d persistent sessions for %s, skipped %d expired sessions", Integer.valueOf(sessions.size()), deploymentName, Integer.valueOf(reader.getSkipped()));
+        return sessions;
+    }
+
+    private void loadSessions(List<PersistentSessionFile.Record> records, Map<String, PersistentSession> sessions) {
+        try {
+            Unmarshaller unmarshaller = createUnmarshaller();
+            try {
+                for (PersistentSessionFile.Record record : records) {
+                    try {
+                        Map<String, Object> attributes = unmarshalSessionAttributes(unmarshaller, record.getAttributes());
+                        sessions.put(record.getId(), new PersistentSession(new Date(record.getExpiry()), attributes));
+                    } catch (Exception e) {
+                        UndertowLogger.ROOT_LOGGER.failedToLoadPersistentSession(record.getId(), e);
+                    }
+                }
+            } finally {
+                unmarshaller.close();
+            }
+        } catch (IOException e) {
+            UndertowServletLogger.ROOT_LOGGER.failedtoLoadPersistentSessions(e);
+        }
+    }
+
+    @Override
+    protected void persistSerializedSessions(String deploymentName, Map<String, SessionEntry> serializedData) throws IOException {
+        File file = new File(baseDir, deploymentName);
+        try (PersistentSessionFile.Writer writer = new PersistentSessionFile.Writer(new BufferedOutputStream(new FileOutputStream(file, false)))) {
+            for (Map.Entry<String, SessionEntry> entry : serializedData.entrySet()) {
+                writer.write(entry.getKey(), entry.getValue().getExpiry().getTime(), entry.getValue().getData());
+            }
         }
     }
 
+    /**
+     * Loads sessions persisted in the legacy format, i.e. a single marshalled map.
+     */
     @Override
     protected Map<String, SessionEntry> loadSerializedSessions(String deploymentName) throws IOException {
         File file = new File(baseDir, deploymentName);
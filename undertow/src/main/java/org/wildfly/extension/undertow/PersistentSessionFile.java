@@ -0,0 +1,210 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Record-oriented file format for persistent sessions, written and read one session at a time.
+ * <pre>
+ * file      := MAGIC VERSION record* END
+ * record    := length:int expiry:long id:UTF count:int attribute{count}
+ * attribute := name:UTF length:int value:byte{length}
+ * </pre>
+ * The length of a record excludes the length field itself, so that an expired record can be skipped by its header
+ * without reading, much less unmarshalling, its attributes.
+ *
+ * @author agent
+ */
+final class PersistentSessionFile {
+
+    static final int MAGIC = 0x57465053;
+    static final int VERSION = 1;
+    private static final int END = -1;
+
+    private PersistentSessionFile() {
+    }
+
+    /**
+     * Indicates whether the specified stream starts with a record-oriented session file, without consuming the stream.
+     * @param input an input stream that supports mark/reset
+     * @return true, if the stream uses the record-oriented format, false otherwise (e.g. a legacy marshalled map)
+     * @throws IOException if the stream could not be read
+     */
+    static boolean isRecordFormat(InputStream input) throws IOException {
+        input.mark(Integer.BYTES);
+        try {
+            return new DataInputStream(input).readInt() == MAGIC;
+        } catch (EOFException e) {
+            return false;
+        } finally {
+            input.reset();
+        }
+    }
+
+    static class Writer implements Closeable {
+        private final DataOutputStream output;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final DataOutputStream record = new DataOutputStream(this.buffer);
+
+        Writer(OutputStream output) throws IOException {
+            this.output = new DataOutputStream(output);
+            this.output.writeInt(MAGIC);
+            this.output.writeInt(VERSION);
+        }
+
+        /**
+         * Appends a record for the specified session.
+         * @param id a session identifier
+         * @param expiry the expiration time of the session, in milliseconds since the epoch
+         * @param attributes the marshalled attributes of the session
+         * @throws IOException if the record could not be written
+         */
+        void write(String id, long expiry, Map<String, byte[]> attributes) throws IOException {
+            this.buffer.reset();
+            this.record.writeLong(expiry);
+            this.record.writeUTF(id);
+            this.record.writeInt(attributes.size());
+            for (Map.Entry<String, byte[]> attribute : attributes.entrySet()) {
+                this.record.writeUTF(attribute.getKey());
+                this.record.writeInt(attribute.getValue().length);
+                this.record.write(attribute.getValue());
+            }
+            this.output.writeInt(this.buffer.size());
+            this.buffer.writeTo(this.output);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                this.output.writeInt(END);
+                this.output.flush();
+            } finally {
+                this.output.close();
+            }
+        }
+    }
+
+    static class Reader implements Closeable {
+        private final DataInputStream input;
+        private int skipped = 0;
+
+        Reader(InputStream input) throws IOException {
+            this.input = new DataInputStream(input);
+            if (this.input.readInt() != MAGIC) {
+                throw new StreamCorruptedException();
+            }
+            int version = this.input.readInt();
+            if (version != VERSION) {
+                throw new StreamCorruptedException(Integer.toString(version));
+            }
+        }
+
+        /**
+         * Reads the next record whose session has not expired, skipping the content of any expired records.
+         * @param now the current time, in milliseconds since the epoch
+         * @return the next unexpired record, or null if there are no more records
+         * @throws IOException if the file could not be read, or is truncated
+         */
+        Record next(long now) throws IOException {
+            int length = this.input.readInt();
+            while (length != END) {
+                long expiry = this.input.readLong();
+                if (expiry > now) {
+                    String id = this.input.readUTF();
+                    int count = this.input.readInt();
+                    Map<String, byte[]> attributes = new HashMap<>(count * 2);
+                    for (int i = 0; i < count; ++i) {
+                        String name = this.input.readUTF();
+                        byte[] value = new byte[this.input.readInt()];
+                        this.input.readFully(value);
+                        attributes.put(name, value);
+                    }
+                    return new Record(id, expiry, attributes);
+                }
+                this.skip(length - Long.BYTES);
+                this.skipped += 1;
+                length = this.input.readInt();
+            }
+            return null;
+        }
+
+        /**
+         * Returns the number of expired records skipped so far.
+         * @return a number of records
+         */
+        int getSkipped() {
+            return this.skipped;
+        }
+
+        private void skip(int bytes) throws IOException {
+            int remaining = bytes;
+            while (remaining > 0) {
+                int skipped = this.input.skipBytes(remaining);
+                if (skipped <= 0) {
+                    throw new EOFException();
+                }
+                remaining -= skipped;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.input.close();
+        }
+    }
+
+    static class Record {
+        private final String id;
+        private final long expiry;
+        private final Map<String, byte[]> attributes;
+
+        Record(String id, long expiry, Map<String, byte[]> attributes) {
+            this.id = id;
+            this.expiry = expiry;
+            this.attributes = attributes;
+        }
+
+        String getId() {
+            return this.id;
+        }
+
+        long getExpiry() {
+            return this.expiry;
+        }
+
+        Map<String, byte[]> getAttributes() {
+            return this.attributes;
+        }
+    }
+}
@@ -161,6 +161,30 @@ class ServletContainerDefinition extends PersistentResourceDefinition {
                     .setAllowExpression(true)
                     .build();
 
+    protected static final AttributeDefinition FILE_CACHE_METADATA_SIZE =
+            new SimpleAttributeDefinitionBuilder(Constants.FILE_CACHE_METADATA_SIZE, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setDefaultValue(new ModelNode(100))
+                    .build();
+
+    protected static final AttributeDefinition FILE_CACHE_MAX_FILE_SIZE =
+            new SimpleAttributeDefinitionBuilder(Constants.FILE_CACHE_MAX_FILE_SIZE, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(0, true, true))
+                    .setMeasurementUnit(MeasurementUnit.BYTES)
+                    .setDefaultValue(new ModelNode(10 * 1024 * 1024))
+                    .build();
+
+    protected static final AttributeDefinition FILE_CACHE_TIME_TO_LIVE =
+            new SimpleAttributeDefinitionBuilder(Constants.FILE_CACHE_TIME_TO_LIVE, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setAllowExpression(true)
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .build();
+
     private static final List<? extends PersistentResourceDefinition> CHILDREN;
     static final Collection<AttributeDefinition> ATTRIBUTES = Arrays.asList(
             ALLOW_NON_STANDARD_WRAPPERS,
@@ -177,7 +201,10 @@ class ServletContainerDefinition extends PersistentResourceDefinition {
             SESSION_ID_LENGTH,
             MAX_SESSIONS,
             DISABLE_FILE_WATCH_SERVICE,
-            DISABLE_SESSION_ID_REUSE
+            DISABLE_SESSION_ID_REUSE,
+            FILE_CACHE_METADATA_SIZE,
+            FILE_CACHE_MAX_FILE_SIZE,
+            FILE_CACHE_TIME_TO_LIVE
             );
 
     static final ServletContainerDefinition INSTANCE = new ServletContainerDefinition();
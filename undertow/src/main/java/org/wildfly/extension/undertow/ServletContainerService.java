@@ -82,13 +82,17 @@ public class ServletContainerService implements Service<ServletContainerService>
     private final Integer maxSessions;
     private final boolean disableFileWatchService;
     private final boolean disableSessionIdReuse;
+    private final int fileCacheMetadataSize;
+    private final int fileCacheMaxFileSize;
+    private final Integer fileCacheTimeToLive;
 
     public ServletContainerService(boolean allowNonStandardWrappers, ServletStackTraces stackTraces, SessionCookieConfig sessionCookieConfig, JSPConfig jspConfig,
                                    String defaultEncoding, boolean useListenerEncoding, boolean ignoreFlush, boolean eagerFilterInit, int defaultSessionTimeout,
                                    boolean disableCachingForSecuredPages, boolean websocketsEnabled, boolean dispatchWebsocketInvocationToWorker, boolean perMessageDeflate,
                                    int deflaterLevel, Map<String, String> mimeMappings, List<String> welcomeFiles, Boolean directoryListingEnabled, boolean proactiveAuth,
                                    int sessionIdLength, Map<String, AuthenticationMechanismFactory> authenticationMechanisms, Integer maxSessions,
-                                   CrawlerSessionManagerConfig crawlerSessionManagerConfig, boolean disableFileWatchService, boolean disableSessionIdReuse) {
+                                   CrawlerSessionManagerConfig crawlerSessionManagerConfig, boolean disableFileWatchService, boolean disableSessionIdReuse,
+                                   int fileCacheMetadataSize, int fileCacheMaxFileSize, Integer fileCacheTimeToLive) {
 
         this.allowNonStandardWrappers = allowNonStandardWrappers;
         this.stackTraces = stackTraces;
@@ -114,6 +118,9 @@ public class ServletContainerService implements Service<ServletContainerService>
         this.sessionIdLength = sessionIdLength;
         this.authenticationMechanisms = authenticationMechanisms;
         this.disableSessionIdReuse = disableSessionIdReuse;
+        this.fileCacheMetadataSize = fileCacheMetadataSize;
+        this.fileCacheMaxFileSize = fileCacheMaxFileSize;
+        this.fileCacheTimeToLive = fileCacheTimeToLive;
     }
 
     @Override
@@ -255,4 +262,16 @@ public class ServletContainerService implements Service<ServletContainerService>
     public CrawlerSessionManagerConfig getCrawlerSessionManagerConfig() {
         return crawlerSessionManagerConfig;
     }
+
+    public int getFileCacheMetadataSize() {
+        return fileCacheMetadataSize;
+    }
+
+    public int getFileCacheMaxFileSize() {
+        return fileCacheMaxFileSize;
+    }
+
+    public Integer getFileCacheTimeToLive() {
+        return fileCacheTimeToLive;
+    }
 }
@@ -30,6 +30,7 @@ import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.PersistentResourceXMLDescription;
 import org.jboss.as.controller.PersistentResourceXMLParser;
 import org.jboss.as.controller.operations.common.Util;
+import org.wildfly.extension.undertow.filters.AdaptiveRequestLimitFilterDefinition;
 import org.wildfly.extension.undertow.filters.CustomFilterDefinition;
 import org.wildfly.extension.undertow.filters.ErrorPageDefinition;
 import org.wildfly.extension.undertow.filters.ExpressionFilterDefinition;
@@ -160,6 +161,9 @@ public class UndertowSubsystemParser_4_0 extends PersistentResourceXMLParser {
                                 .addAttribute(ServletContainerDefinition.MAX_SESSIONS)
                                 .addAttribute(ServletContainerDefinition.DISABLE_FILE_WATCH_SERVICE)
                                 .addAttribute(ServletContainerDefinition.DISABLE_SESSION_ID_REUSE)
+                                .addAttribute(ServletContainerDefinition.FILE_CACHE_METADATA_SIZE)
+                                .addAttribute(ServletContainerDefinition.FILE_CACHE_MAX_FILE_SIZE)
+                                .addAttribute(ServletContainerDefinition.FILE_CACHE_TIME_TO_LIVE)
                                 .addChild(
                                         builder(JspDefinition.INSTANCE.getPathElement())
                                                 .setXmlElementName(Constants.JSP_CONFIG)
@@ -319,6 +323,13 @@ public class UndertowSubsystemParser_4_0 extends PersistentResourceXMLParser {
                         ).addChild(
                                 builder(RewriteFilterDefinition.INSTANCE.getPathElement())
                                         .addAttributes(RewriteFilterDefinition.TARGET, RewriteFilterDefinition.REDIRECT)
+                        ).addChild(
+                                builder(AdaptiveRequestLimitFilterDefinition.INSTANCE.getPathElement())
+                                        .addAttributes(AdaptiveRequestLimitFilterDefinition.INITIAL_LIMIT,
+                                                AdaptiveRequestLimitFilterDefinition.MIN_LIMIT,
+                                                AdaptiveRequestLimitFilterDefinition.MAX_LIMIT,
+                                                AdaptiveRequestLimitFilterDefinition.QUEUE_SIZE,
+                                                AdaptiveRequestLimitFilterDefinition.PRIORITY_PREDICATE)
                         )
 
                 )
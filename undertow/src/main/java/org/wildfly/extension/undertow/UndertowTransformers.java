@@ -36,6 +36,7 @@ import org.jboss.as.controller.transform.description.ResourceTransformationDescr
 import org.jboss.as.controller.transform.description.TransformationDescription;
 import org.jboss.as.controller.transform.description.TransformationDescriptionBuilder;
 import org.jboss.dmr.ModelNode;
+import org.wildfly.extension.undertow.filters.AdaptiveRequestLimitFilterDefinition;
 import org.wildfly.extension.undertow.filters.ModClusterDefinition;
 import org.wildfly.extension.undertow.handlers.ReverseProxyHandler;
 
@@ -90,6 +91,10 @@ public class UndertowTransformers implements ExtensionTransformerRegistration {
                 .addRejectCheck(RejectAttributeChecker.DEFINED, ServletContainerDefinition.DISABLE_FILE_WATCH_SERVICE)
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), ServletContainerDefinition.DISABLE_SESSION_ID_REUSE)
                 .addRejectCheck(RejectAttributeChecker.DEFINED, ServletContainerDefinition.DISABLE_SESSION_ID_REUSE)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(ServletContainerDefinition.FILE_CACHE_METADATA_SIZE.getDefaultValue()), ServletContainerDefinition.FILE_CACHE_METADATA_SIZE)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(ServletContainerDefinition.FILE_CACHE_MAX_FILE_SIZE.getDefaultValue()), ServletContainerDefinition.FILE_CACHE_MAX_FILE_SIZE)
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, ServletContainerDefinition.FILE_CACHE_TIME_TO_LIVE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, ServletContainerDefinition.FILE_CACHE_METADATA_SIZE, ServletContainerDefinition.FILE_CACHE_MAX_FILE_SIZE, ServletContainerDefinition.FILE_CACHE_TIME_TO_LIVE)
                 .end()
                 .addChildResource(UndertowExtension.PATH_WEBSOCKETS)
                 .getAttributeBuilder()
@@ -113,8 +118,9 @@ public class UndertowTransformers implements ExtensionTransformerRegistration {
                 .setDiscard(DiscardAttributeChecker.ALWAYS, Constants.ENABLE_HTTP2) //we just discard, as older versions will just continue to use HTTP/1.1, and enabling this does not guarentee a HTTP/2 connection anyway (if the backend does not support it)
                 .end();
 
-        subsystemBuilder.addChildResource(UndertowExtension.PATH_FILTERS)
-                .addChildResource(PathElement.pathElement(Constants.MOD_CLUSTER))
+        ResourceTransformationDescriptionBuilder filtersBuilder = subsystemBuilder.addChildResource(UndertowExtension.PATH_FILTERS);
+        filtersBuilder.rejectChildResource(AdaptiveRequestLimitFilterDefinition.INSTANCE.getPathElement());
+        filtersBuilder.addChildResource(PathElement.pathElement(Constants.MOD_CLUSTER))
                 .getAttributeBuilder()
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(ModClusterDefinition.FAILOVER_STRATEGY.getDefaultValue()), ModClusterDefinition.FAILOVER_STRATEGY)
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(ModClusterDefinition.MAX_RETRIES.getDefaultValue()), ModClusterDefinition.MAX_RETRIES)
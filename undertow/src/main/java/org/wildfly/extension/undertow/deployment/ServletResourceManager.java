@@ -27,25 +27,36 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.jboss.vfs.VirtualFile;
+import io.undertow.server.handlers.cache.LRUCache;
 import io.undertow.server.handlers.resource.PathResourceManager;
 import io.undertow.server.handlers.resource.Resource;
 import io.undertow.server.handlers.resource.ResourceChangeListener;
 import io.undertow.server.handlers.resource.ResourceManager;
 
 /**
- * Resource manager that deals with overlays
+ * Resource manager that deals with overlays.
+ * <p>
+ * Resolved paths, including paths that do not resolve to any resource, are indexed so that the deployment and its
+ * overlays are only probed on the first request for a given path. The index is discarded whenever a change to the
+ * deployment or an external overlay is reported. If such changes cannot be reported, i.e. for an exploded deployment
+ * with the file watch service disabled, paths are not indexed.
  *
  * @author Stuart Douglas
  */
 public class ServletResourceManager implements ResourceManager {
 
     public static final int TRANSFER_MIN_SIZE = 1024 * 1024;
+    static final int INDEX_MAX_ENTRIES = 4096;
+
     private final PathResourceManager deploymentResourceManager;
     private final Collection<VirtualFile> overlays;
     private final ResourceManager[] externalOverlays;
     private final boolean explodedDeployment;
+    private final ResourceChangeListener indexInvalidator = changes -> this.index = newIndex();
+    private volatile LRUCache<String, Optional<Resource>> index;
 
     public ServletResourceManager(final VirtualFile resourcesRoot, final Collection<VirtualFile> overlays, boolean explodedDeployment, boolean followSymlink, boolean disableFileWatchService, List<String> externalOverlays) throws IOException {
         this.explodedDeployment = explodedDeployment;
@@ -62,10 +73,43 @@ public class ServletResourceManager implements ResourceManager {
                 this.externalOverlays[i] = pr;
             }
         }
+        if (explodedDeployment || this.externalOverlays.length > 0) {
+            // Content can change while deployed, so only index paths if we are notified of changes
+            if (!disableFileWatchService) {
+                this.index = newIndex();
+                if (explodedDeployment) {
+                    deploymentResourceManager.registerResourceChangeListener(this.indexInvalidator);
+                }
+                for (ResourceManager external : this.externalOverlays) {
+                    external.registerResourceChangeListener(this.indexInvalidator);
+                }
+            }
+        } else {
+            this.index = newIndex();
+        }
+    }
+
+    private static LRUCache<String, Optional<Resource>> newIndex() {
+        return new LRUCache<>(INDEX_MAX_ENTRIES, -1);
     }
 
     @Override
     public Resource getResource(final String path) throws IOException {
+        // Resolved resources are added to the index that was current when resolution started
+        // so that a resource resolved concurrently with a change is never added to the new index
+        LRUCache<String, Optional<Resource>> index = this.index;
+        if (index == null) {
+            return this.resolveResource(path);
+        }
+        Optional<Resource> resource = index.get(path);
+        if (resource == null) {
+            resource = Optional.ofNullable(this.resolveResource(path));
+            index.add(path, resource);
+        }
+        return resource.orElse(null);
+    }
+
+    private Resource resolveResource(final String path) throws IOException {
         Resource res = deploymentResourceManager.getResource(path);
         if (res != null) {
             return new ServletResource(this, res);
@@ -123,6 +167,15 @@ public class ServletResourceManager implements ResourceManager {
 
     @Override
     public void close() throws IOException {
+        if (this.index != null) {
+            if (explodedDeployment) {
+                deploymentResourceManager.removeResourceChangeListener(this.indexInvalidator);
+            }
+            for (ResourceManager external : externalOverlays) {
+                external.removeResourceChangeListener(this.indexInvalidator);
+            }
+            this.index = null;
+        }
         deploymentResourceManager.close();
     }
 
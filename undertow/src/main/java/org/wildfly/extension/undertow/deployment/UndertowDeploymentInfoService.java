@@ -572,12 +572,13 @@ public class UndertowDeploymentInfoService implements Service<DeploymentInfo> {
 
             final ServletContainerService servletContainer = container.getValue();
             try {
-                //TODO: make the caching limits configurable
                 List<String> externalOverlays = mergedMetaData.getOverlays();
 
                 ResourceManager resourceManager = new ServletResourceManager(deploymentRoot, overlays, explodedDeployment, mergedMetaData.isSymbolicLinkingEnabled(), servletContainer.isDisableFileWatchService(), externalOverlays);
 
-                resourceManager = new CachingResourceManager(100, 10 * 1024 * 1024, servletContainer.getBufferCache(), resourceManager, explodedDeployment ? 2000 : -1);
+                Integer fileCacheTimeToLive = servletContainer.getFileCacheTimeToLive();
+                int maxAge = (fileCacheTimeToLive != null) ? fileCacheTimeToLive : (explodedDeployment ? 2000 : -1);
+                resourceManager = new CachingResourceManager(servletContainer.getFileCacheMetadataSize(), servletContainer.getFileCacheMaxFileSize(), servletContainer.getBufferCache(), resourceManager, maxAge);
                 if(externalResources != null && !externalResources.isEmpty()) {
                     //TODO: we don't cache external deployments, as they are intended for development use
                     //should be make this configurable or something?
@@ -0,0 +1,229 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.undertow.predicate.Predicate;
+import io.undertow.server.Connectors;
+import io.undertow.server.ExchangeCompletionListener;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.ResponseCodeHandler;
+import io.undertow.util.SameThreadExecutor;
+import io.undertow.util.StatusCodes;
+
+/**
+ * Limits the number of concurrent requests to a {@link GradientLimit}, shared by every reference to an adaptive-request-limit filter.
+ * Requests beyond the limit are queued, and dispatched as requests complete, priority requests first.
+ * Once the queue is full, a priority request displaces the most recently queued non-priority request;
+ * otherwise, requests are rejected with a 503 response.
+ *
+ * @author agent
+ */
+class AdaptiveRequestLimit {
+
+    private static final HttpHandler REJECTION_HANDLER = new ResponseCodeHandler(StatusCodes.SERVICE_UNAVAILABLE);
+
+    private final GradientLimit limit;
+    private final Predicate priority;
+    private final int queueSize;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final Deque<SuspendedRequest> priorityQueue = new ArrayDeque<>();
+    private final Deque<SuspendedRequest> queue = new ArrayDeque<>();
+    // Number of queued requests, written while holding the monitor of this object
+    private volatile int queued;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dequeued = new LongAdder();
+    private final LongAdder queueTime = new LongAdder();
+
+    /**
+     * Creates a new adaptive request limit.
+     * @param limit a concurrency limit
+     * @param priority a predicate that selects priority requests, or null, if all requests share the same priority
+     * @param queueSize the maximum number of requests to queue
+     */
+    AdaptiveRequestLimit(GradientLimit limit, Predicate priority, int queueSize) {
+        this.limit = limit;
+        this.priority = priority;
+        this.queueSize = queueSize;
+    }
+
+    void handleRequest(HttpServerExchange exchange, HttpHandler next) throws Exception {
+        if (this.tryAcquire()) {
+            this.start(exchange, System.nanoTime());
+            next.handleRequest(exchange);
+        } else {
+            boolean priority = (this.priority != null) && this.priority.resolve(exchange);
+            exchange.dispatch(SameThreadExecutor.INSTANCE, () -> this.enqueue(new SuspendedRequest(exchange, next, priority)));
+        }
+    }
+
+    private void enqueue(SuspendedRequest request) {
+        List<SuspendedRequest> admitted = new ArrayList<>(1);
+        SuspendedRequest displaced = null;
+        boolean rejected = false;
+        synchronized (this) {
+            // Dispatch any requests queued ahead of this one first
+            this.drain(admitted);
+            if (this.queued == 0 && this.tryAcquire()) {
+                admitted.add(request);
+            } else if (this.queued < this.queueSize) {
+                this.offer(request);
+            } else if (request.priority && !this.queue.isEmpty()) {
+                displaced = this.queue.pollLast();
+                this.offer(request);
+                this.queued -= 1;
+            } else {
+                rejected = true;
+            }
+            // A request may have completed since we last tried to acquire a permit
+            this.drain(admitted);
+        }
+        this.dispatch(admitted);
+        if (displaced != null) {
+            this.rejected.increment();
+            displaced.exchange.dispatch(REJECTION_HANDLER);
+        }
+        if (rejected) {
+            this.rejected.increment();
+            Connectors.executeRootHandler(REJECTION_HANDLER, request.exchange);
+        }
+    }
+
+    private void offer(SuspendedRequest request) {
+        (request.priority ? this.priorityQueue : this.queue).addLast(request);
+        this.queued += 1;
+    }
+
+    private void drain(List<SuspendedRequest> admitted) {
+        while (this.queued > 0 && this.tryAcquire()) {
+            SuspendedRequest request = this.priorityQueue.pollFirst();
+            admitted.add((request != null) ? request : this.queue.pollFirst());
+            this.queued -= 1;
+        }
+    }
+
+    private void dispatch(List<SuspendedRequest> requests) {
+        if (!requests.isEmpty()) {
+            long now = System.nanoTime();
+            for (SuspendedRequest request : requests) {
+                this.dequeued.increment();
+                this.queueTime.add(now - request.time);
+                this.start(request.exchange, now);
+                request.exchange.dispatch(request.next);
+            }
+        }
+    }
+
+    private void start(HttpServerExchange exchange, long start) {
+        exchange.addExchangeCompleteListener(new CompletionListener(start));
+    }
+
+    private boolean tryAcquire() {
+        int limit = this.limit.getLimit();
+        int active = this.active.get();
+        while (active < limit) {
+            if (this.active.compareAndSet(active, active + 1)) {
+                return true;
+            }
+            active = this.active.get();
+        }
+        return false;
+    }
+
+    void release(long latency) {
+        this.limit.sample(latency, this.active.getAndDecrement());
+        // Reading the queue size after releasing our permit guarantees that either we dispatch a request queued concurrently,
+        // or that the enqueuing thread sees our released permit
+        if (this.queued > 0) {
+            List<SuspendedRequest> admitted = new ArrayList<>(1);
+            synchronized (this) {
+                this.drain(admitted);
+            }
+            this.dispatch(admitted);
+        }
+    }
+
+    int getLimit() {
+        return this.limit.getLimit();
+    }
+
+    int getActiveRequests() {
+        return this.active.get();
+    }
+
+    int getQueuedRequests() {
+        return this.queued;
+    }
+
+    long getRejectedRequests() {
+        return this.rejected.sum();
+    }
+
+    /**
+     * Returns the average time that dispatched requests spent queued.
+     * @return a duration in nanoseconds
+     */
+    long getAverageQueueTime() {
+        long dequeued = this.dequeued.sum();
+        return (dequeued > 0) ? this.queueTime.sum() / dequeued : 0L;
+    }
+
+    private class CompletionListener implements ExchangeCompletionListener {
+        private final long start;
+
+        CompletionListener(long start) {
+            this.start = start;
+        }
+
+        @Override
+        public void exchangeEvent(HttpServerExchange exchange, NextListener nextListener) {
+            try {
+                AdaptiveRequestLimit.this.release(System.nanoTime() - this.start);
+            } finally {
+                nextListener.proceed();
+            }
+        }
+    }
+
+    private static class SuspendedRequest {
+        final HttpServerExchange exchange;
+        final HttpHandler next;
+        final boolean priority;
+        final long time = System.nanoTime();
+
+        SuspendedRequest(HttpServerExchange exchange, HttpHandler next, boolean priority) {
+            this.exchange = exchange;
+            this.next = next;
+            this.priority = priority;
+        }
+    }
+}
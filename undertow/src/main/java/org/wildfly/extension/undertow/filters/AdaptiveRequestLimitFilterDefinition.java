@@ -0,0 +1,164 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Function;
+
+import io.undertow.server.HttpHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+import org.wildfly.extension.undertow.PredicateValidator;
+import org.wildfly.extension.undertow.UndertowService;
+
+/**
+ * Filter that limits concurrent requests to a limit that adapts to the latency of completed requests.
+ *
+ * @author agent
+ */
+public class AdaptiveRequestLimitFilterDefinition extends Filter {
+
+    public static final AttributeDefinition INITIAL_LIMIT = new SimpleAttributeDefinitionBuilder("initial-limit", ModelType.INT)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setAllowExpression(true)
+            .setRequired(false)
+            .setDefaultValue(new ModelNode(20))
+            .setRestartAllServices()
+            .build();
+
+    public static final AttributeDefinition MIN_LIMIT = new SimpleAttributeDefinitionBuilder("min-limit", ModelType.INT)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setAllowExpression(true)
+            .setRequired(false)
+            .setDefaultValue(new ModelNode(1))
+            .setRestartAllServices()
+            .build();
+
+    public static final AttributeDefinition MAX_LIMIT = new SimpleAttributeDefinitionBuilder("max-limit", ModelType.INT)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setAllowExpression(true)
+            .setRequired(false)
+            .setDefaultValue(new ModelNode(1000))
+            .setRestartAllServices()
+            .build();
+
+    public static final AttributeDefinition QUEUE_SIZE = new SimpleAttributeDefinitionBuilder("queue-size", ModelType.INT)
+            .setValidator(new IntRangeValidator(0, true, true))
+            .setAllowExpression(true)
+            .setRequired(false)
+            .setDefaultValue(new ModelNode(100))
+            .setRestartAllServices()
+            .build();
+
+    public static final AttributeDefinition PRIORITY_PREDICATE = new SimpleAttributeDefinitionBuilder("priority-predicate", ModelType.STRING)
+            .setValidator(PredicateValidator.INSTANCE)
+            .setAllowExpression(true)
+            .setRequired(false)
+            .setRestartAllServices()
+            .build();
+
+    enum Metric {
+        CURRENT_LIMIT(new SimpleAttributeDefinitionBuilder("current-limit", ModelType.INT)
+                .setUndefinedMetricValue(new ModelNode(0)).setStorageRuntime().build(), limit -> new ModelNode(limit.getLimit())),
+        ACTIVE_REQUESTS(new SimpleAttributeDefinitionBuilder("active-requests", ModelType.INT)
+                .setUndefinedMetricValue(new ModelNode(0)).setStorageRuntime().build(), limit -> new ModelNode(limit.getActiveRequests())),
+        QUEUED_REQUESTS(new SimpleAttributeDefinitionBuilder("queued-requests", ModelType.INT)
+                .setUndefinedMetricValue(new ModelNode(0)).setStorageRuntime().build(), limit -> new ModelNode(limit.getQueuedRequests())),
+        REJECTED_REQUESTS(new SimpleAttributeDefinitionBuilder("rejected-requests", ModelType.LONG)
+                .setUndefinedMetricValue(new ModelNode(0L)).setStorageRuntime().build(), limit -> new ModelNode(limit.getRejectedRequests())),
+        AVERAGE_QUEUE_TIME(new SimpleAttributeDefinitionBuilder("average-queue-time", ModelType.LONG)
+                .setMeasurementUnit(MeasurementUnit.NANOSECONDS)
+                .setUndefinedMetricValue(new ModelNode(0L)).setStorageRuntime().build(), limit -> new ModelNode(limit.getAverageQueueTime()));
+
+        final AttributeDefinition definition;
+        final Function<AdaptiveRequestLimit, ModelNode> reader;
+
+        Metric(AttributeDefinition definition, Function<AdaptiveRequestLimit, ModelNode> reader) {
+            this.definition = definition;
+            this.reader = reader;
+        }
+    }
+
+    public static final AdaptiveRequestLimitFilterDefinition INSTANCE = new AdaptiveRequestLimitFilterDefinition();
+
+    private AdaptiveRequestLimitFilterDefinition() {
+        super("adaptive-request-limit");
+    }
+
+    @Override
+    public Collection<AttributeDefinition> getAttributes() {
+        return Arrays.asList(INITIAL_LIMIT, MIN_LIMIT, MAX_LIMIT, QUEUE_SIZE, PRIORITY_PREDICATE);
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        for (Metric metric : Metric.values()) {
+            resourceRegistration.registerMetric(metric.definition, new ReadMetricHandler(metric));
+        }
+    }
+
+    @Override
+    FilterService createService(ModelNode model) {
+        return new AdaptiveRequestLimitFilterService(model);
+    }
+
+    @Override
+    public Class<? extends HttpHandler> getHandlerClass() {
+        return AdaptiveRequestLimitingHandler.class;
+    }
+
+    @Override
+    protected Class[] getConstructorSignature() {
+        throw new IllegalStateException(); //should not be used, as the handler is constructed by the filter service
+    }
+
+    private static class ReadMetricHandler implements OperationStepHandler {
+        private final Metric metric;
+
+        ReadMetricHandler(Metric metric) {
+            this.metric = metric;
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            ServiceController<?> controller = context.getServiceRegistry(false).getService(UndertowService.FILTER.append(context.getCurrentAddressValue()));
+            AdaptiveRequestLimit limit = ((controller != null) && (controller.getState() == ServiceController.State.UP)) ? ((AdaptiveRequestLimitFilterService) controller.getValue()).getLimit() : null;
+            if (limit != null) {
+                context.getResult().set(this.metric.reader.apply(limit));
+            } else {
+                context.getResult().set(this.metric.definition.getUndefinedMetricValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import io.undertow.Handlers;
+import io.undertow.predicate.Predicate;
+import io.undertow.predicate.PredicateParser;
+import io.undertow.server.HttpHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+
+/**
+ * Filter service for an adaptive request limit, whose limit is shared by every reference to the filter.
+ *
+ * @author agent
+ */
+class AdaptiveRequestLimitFilterService extends FilterService {
+
+    private final ModelNode model;
+    private volatile AdaptiveRequestLimit limit;
+
+    AdaptiveRequestLimitFilterService(ModelNode model) {
+        super(AdaptiveRequestLimitFilterDefinition.INSTANCE, model);
+        this.model = model;
+    }
+
+    @Override
+    public void start(StartContext context) throws StartException {
+        int initialLimit = this.model.get(AdaptiveRequestLimitFilterDefinition.INITIAL_LIMIT.getName()).asInt();
+        int minLimit = this.model.get(AdaptiveRequestLimitFilterDefinition.MIN_LIMIT.getName()).asInt();
+        int maxLimit = this.model.get(AdaptiveRequestLimitFilterDefinition.MAX_LIMIT.getName()).asInt();
+        int queueSize = this.model.get(AdaptiveRequestLimitFilterDefinition.QUEUE_SIZE.getName()).asInt();
+        ModelNode priorityPredicate = this.model.get(AdaptiveRequestLimitFilterDefinition.PRIORITY_PREDICATE.getName());
+        Predicate priority = priorityPredicate.isDefined() ? PredicateParser.parse(priorityPredicate.asString(), this.getClass().getClassLoader()) : null;
+        this.limit = new AdaptiveRequestLimit(new GradientLimit(initialLimit, minLimit, maxLimit), priority, queueSize);
+    }
+
+    @Override
+    public void stop(StopContext context) {
+        this.limit = null;
+    }
+
+    @Override
+    public HttpHandler createHttpHandler(Predicate predicate, HttpHandler next) {
+        HttpHandler handler = new AdaptiveRequestLimitingHandler(this.limit, next);
+        return (predicate != null) ? Handlers.predicate(predicate, handler, next) : handler;
+    }
+
+    AdaptiveRequestLimit getLimit() {
+        return this.limit;
+    }
+}
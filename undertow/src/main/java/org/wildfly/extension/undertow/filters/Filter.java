@@ -58,6 +58,10 @@ abstract class Filter extends AbstractHandlerDefinition {
 
     }
 
+    FilterService createService(final ModelNode model) {
+        return new FilterService(this, model);
+    }
+
     public HttpHandler createHttpHandler(final Predicate predicate, final ModelNode model, HttpHandler next) {
         List<AttributeDefinition> attributes = new ArrayList<>(getAttributes());
         HttpHandler handler = createHandler(getHandlerClass(), model, attributes, next);
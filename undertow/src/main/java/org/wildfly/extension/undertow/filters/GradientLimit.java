@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that adapts to the latency of completed requests.
+ * <p>
+ * Latency samples are aggregated into windows of at least as many requests as the current limit.
+ * At the end of each window, the average latency of the window is compared with a long-term baseline.
+ * While latency stays within tolerance of the baseline, the estimated limit increases additively, by the square root of the limit.
+ * Once latency exceeds that tolerance, the estimated limit decreases in proportion to the latency increase, by at most half.
+ * The limit moves a fraction of the way towards each new estimate, and only changes while at least half of it is in use.
+ *
+ * @author agent
+ */
+class GradientLimit {
+
+    static final int MIN_WINDOW_SAMPLES = 10;
+    // Number of windows over which the latency baseline is averaged
+    static final int BASELINE_WINDOWS = 100;
+    // Ratio of window latency to baseline latency tolerated before the limit decreases
+    static final double TOLERANCE = 1.5;
+    // Weight of a new limit estimate relative to the current limit
+    static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final LongAdder latency = new LongAdder();
+    private final AtomicInteger samples = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private double baseline;
+
+    /**
+     * Creates a new limit.
+     * @param initialLimit the initial limit, which is constrained to the minimum and maximum limits
+     * @param minLimit the lowest possible limit
+     * @param maxLimit the highest possible limit
+     */
+    GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = Math.max(minLimit, maxLimit);
+        this.limit = this.constrain(initialLimit);
+    }
+
+    /**
+     * Returns the current limit.
+     * @return the maximum number of concurrent requests
+     */
+    int getLimit() {
+        return (int) this.limit;
+    }
+
+    /**
+     * Records the latency of a completed request.
+     * @param latency the latency of the request, in nanoseconds
+     * @param inFlight the number of requests in flight while the request was processed, including the request itself
+     */
+    void sample(long latency, int inFlight) {
+        this.latency.add(latency);
+        this.maxInFlight.accumulateAndGet(inFlight, Math::max);
+        int samples = this.samples.incrementAndGet();
+        // Only the thread that resets the sample count completes the window
+        if ((samples >= Math.max(MIN_WINDOW_SAMPLES, this.getLimit())) && this.samples.compareAndSet(samples, 0)) {
+            double windowLatency = (double) this.latency.sumThenReset() / samples;
+            this.update(windowLatency, this.maxInFlight.getAndSet(0));
+        }
+    }
+
+    private synchronized void update(double windowLatency, int inFlight) {
+        if (windowLatency <= 0) {
+            return;
+        }
+        this.baseline = (this.baseline > 0) ? this.baseline + (windowLatency - this.baseline) / BASELINE_WINDOWS : windowLatency;
+        // If latency dropped substantially, e.g. once a slow dependency recovers, let the baseline catch up sooner
+        if (this.baseline / windowLatency > 2) {
+            this.baseline *= 0.95;
+        }
+        double limit = this.limit;
+        // An under-utilized limit says nothing about the capacity of the server
+        if (inFlight < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * this.baseline / windowLatency));
+        double estimate = limit * gradient + Math.sqrt(limit);
+        this.limit = this.constrain(limit * (1 - SMOOTHING) + estimate * SMOOTHING);
+    }
+
+    private double constrain(double limit) {
+        return Math.max(this.minLimit, Math.min(this.maxLimit, limit));
+    }
+}
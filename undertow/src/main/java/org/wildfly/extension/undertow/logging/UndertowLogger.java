@@ -396,4 +396,8 @@ public interface UndertowLogger extends BasicLogger {
 
     @Message(id = 97, value = "If http-upgrade is enabled, remoting worker and http(s) worker must be the same. Please adjust values if need be.")
     String workerValueInHTTPListenerMustMatchRemoting();
+
+    @LogMessage(level = WARN)
+    @Message(id = 98, value = "Failed to load persistent session %s")
+    void failedToLoadPersistentSession(String sessionID, @Cause Throwable cause);
 }
@@ -0,0 +1,143 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.security.jacc;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A bounded cache of JACC authorization decisions for a single deployment.
+ * A decision is only valid for the {@link java.security.Policy} and generation of the JACC policy configuration from which it was computed.
+ * Consequently, all cached decisions are discarded upon the first lookup following a change of either.
+ * Once the cache reaches its maximum size, each new decision evicts the oldest cached decision, rather than tracking the recency of each decision, so that lookups remain lock-free.
+ * @author agent
+ * @param <K> the decision key type
+ * @param <V> the decision type
+ */
+class DecisionCache<K, V> {
+
+    static final int DEFAULT_MAX_SIZE = 1024;
+
+    private final ConcurrentMap<K, V> decisions = new ConcurrentHashMap<>();
+    // Keys of cached decisions, in approximate insertion order
+    private final Queue<K> keys = new ConcurrentLinkedQueue<>();
+    private final int maxSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile Version version = new Version(null, -1L);
+
+    DecisionCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    DecisionCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the cached decision for the specified key, computing it if necessary.
+     * @param policy the current policy
+     * @param generation the current generation of the JACC policy configuration of the current policy context
+     * @param key a decision key
+     * @param decision computes the decision for a given key
+     * @return a decision
+     */
+    V get(Object policy, long generation, K key, Function<K, V> decision) {
+        Version version = this.validate(policy, generation);
+        V value = this.decisions.get(key);
+        if (value != null) {
+            this.hits.increment();
+            return value;
+        }
+        this.misses.increment();
+        value = decision.apply(key);
+        if (this.decisions.put(key, value) == null) {
+            this.keys.add(key);
+            while (this.decisions.size() > this.maxSize) {
+                K eldest = this.keys.poll();
+                if (eldest == null) break;
+                this.decisions.remove(eldest);
+            }
+        }
+        // If the cache was invalidated while we computed our decision, our decision may be stale
+        if (this.version != version) {
+            this.decisions.remove(key);
+        }
+        return value;
+    }
+
+    private Version validate(Object policy, long generation) {
+        Version version = this.version;
+        if ((version.policy == policy) && (version.generation == generation)) {
+            return version;
+        }
+        synchronized (this) {
+            version = this.version;
+            if ((version.policy != policy) || (version.generation != generation)) {
+                version = new Version(policy, generation);
+                this.version = version;
+                this.decisions.clear();
+                this.keys.clear();
+            }
+            return version;
+        }
+    }
+
+    /**
+     * Returns the number of cached decisions.
+     * @return the number of cached decisions
+     */
+    int size() {
+        return this.decisions.size();
+    }
+
+    /**
+     * Returns the number of lookups satisfied by a cached decision.
+     * @return the number of cache hits
+     */
+    long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups requiring a policy decision.
+     * @return the number of cache misses
+     */
+    long getMisses() {
+        return this.misses.sum();
+    }
+
+    private static class Version {
+        final Object policy;
+        final long generation;
+
+        Version(Object policy, long generation) {
+            this.policy = policy;
+            this.generation = generation;
+        }
+    }
+}
@@ -32,11 +32,15 @@ import java.security.PrivilegedAction;
 import java.security.ProtectionDomain;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import javax.security.jacc.PolicyContext;
 import javax.security.jacc.WebResourcePermission;
 import javax.security.jacc.WebRoleRefPermission;
 import javax.security.jacc.WebUserDataPermission;
@@ -48,32 +52,56 @@ import io.undertow.servlet.api.Deployment;
 import io.undertow.servlet.api.ServletInfo;
 import io.undertow.servlet.api.SingleConstraintMatch;
 import io.undertow.servlet.api.TransportGuaranteeType;
+import org.jboss.as.security.service.JaccService;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * <p>
  * An implementation of {@link AuthorizationManager} that uses JACC permissions to grant or deny access to web resources.
  * </p>
+ * <p>
+ * Since an instance of this class serves a single deployment, policy decisions are cached per instance, keyed by canonical request URI,
+ * HTTP method, and granted roles, and are discarded whenever the policy, or the JACC policy configuration of the current policy context, changes.
+ * Role reference decisions, whose number is bounded by the deployment itself, are cached separately,
+ * so that a high number of distinct request URIs cannot evict them.
+ * The role principals of an account are likewise interned per distinct set of granted roles.
+ * </p>
  *
  * @author <a href="mailto:sguilhen@redhat.com">Stefan Guilhen</a>
  */
 public class JACCAuthorizationManager implements AuthorizationManager {
 
+    private static final ProtectionDomain EMPTY_DOMAIN = new ProtectionDomain(null, null, null, null);
+
+    private final DecisionCache<DecisionKey, Boolean> permissions = new DecisionCache<>();
+    private final DecisionCache<DecisionKey, Boolean> roleRefs = new DecisionCache<>();
+    private final DecisionCache<DecisionKey, TransportGuaranteeType> transportGuarantees = new DecisionCache<>();
+    private final ConcurrentMap<Set<String>, GrantedRoles> grantedRoles = new ConcurrentHashMap<>();
+
     @Override
     public boolean isUserInRole(final String roleName, final Account account, final ServletInfo servletInfo, final HttpServletRequest request, final Deployment deployment) {
-        return hasPermission(account, deployment, servletInfo, new WebRoleRefPermission(servletInfo.getName(), roleName));
+        GrantedRoles roles = getGrantedRoles(account, deployment);
+        DecisionKey key = new DecisionKey(WebRoleRefPermission.class, servletInfo.getName(), roleName, null, roles);
+        return this.roleRefs.get(getPolicy(), JaccService.getPolicyGeneration(PolicyContext.getContextID()), key, k -> hasPermission(roles, servletInfo, new WebRoleRefPermission(servletInfo.getName(), roleName)));
     }
 
     @Override
     public boolean canAccessResource(List<SingleConstraintMatch> constraints, final Account account, final ServletInfo servletInfo, final HttpServletRequest request, Deployment deployment) {
-        return hasPermission(account, deployment, servletInfo, new WebResourcePermission(request));
+        GrantedRoles roles = getGrantedRoles(account, deployment);
+        DecisionKey key = new DecisionKey(WebResourcePermission.class, servletInfo.getName(), getCanonicalURI(request), request.getMethod(), roles);
+        return this.permissions.get(getPolicy(), JaccService.getPolicyGeneration(PolicyContext.getContextID()), key, k -> hasPermission(roles, servletInfo, new WebResourcePermission(request)));
     }
 
     @Override
     public TransportGuaranteeType transportGuarantee(TransportGuaranteeType currentConnGuarantee, TransportGuaranteeType configuredRequiredGuarantee, final HttpServletRequest request) {
-        final ProtectionDomain domain = new ProtectionDomain(null, null, null, null);
-        final String[] httpMethod = new String[] {request.getMethod()};
+        final String httpMethod = request.getMethod();
         final String canonicalURI = getCanonicalURI(request);
+        DecisionKey key = new DecisionKey(WebUserDataPermission.class, null, canonicalURI, httpMethod, currentConnGuarantee);
+        return this.transportGuarantees.get(getPolicy(), JaccService.getPolicyGeneration(PolicyContext.getContextID()), key, k -> transportGuarantee(currentConnGuarantee, canonicalURI, new String[] { httpMethod }));
+    }
+
+    private static TransportGuaranteeType transportGuarantee(TransportGuaranteeType currentConnGuarantee, String canonicalURI, String[] httpMethod) {
+        final ProtectionDomain domain = EMPTY_DOMAIN;
 
         switch (currentConnGuarantee) {
             case NONE: {
@@ -119,6 +147,22 @@ public class JACCAuthorizationManager implements AuthorizationManager {
         }
     }
 
+    /**
+     * Returns the number of authorization checks satisfied by a cached decision.
+     * @return the number of cache hits
+     */
+    public long getDecisionCacheHits() {
+        return this.permissions.getHits() + this.roleRefs.getHits() + this.transportGuarantees.getHits();
+    }
+
+    /**
+     * Returns the number of authorization checks that required a policy decision.
+     * @return the number of cache misses
+     */
+    public long getDecisionCacheMisses() {
+        return this.permissions.getMisses() + this.roleRefs.getMisses() + this.transportGuarantees.getMisses();
+    }
+
     /**
      * <p>
      * Gets the canonical request URI - that is, the request URI minus the context path.
@@ -134,27 +178,115 @@ public class JACCAuthorizationManager implements AuthorizationManager {
         return canonicalURI;
     }
 
-    private boolean hasPermission(Account account, Deployment deployment, ServletInfo servletInfo, Permission permission) {
+    private static boolean hasPermission(GrantedRoles roles, ServletInfo servletInfo, Permission permission) {
         CodeSource codeSource = servletInfo.getServletClass().getProtectionDomain().getCodeSource();
-        ProtectionDomain domain = new ProtectionDomain(codeSource, null, null, getGrantedRoles(account, deployment));
+        ProtectionDomain domain = new ProtectionDomain(codeSource, null, null, roles.principals);
         return hasPermission(domain, permission);
     }
 
-    private boolean hasPermission(ProtectionDomain domain, Permission permission) {
-        Policy policy = WildFlySecurityManager.isChecking() ? doPrivileged((PrivilegedAction<Policy>) Policy::getPolicy) : Policy.getPolicy();
-        return policy.implies(domain, permission);
+    private static boolean hasPermission(ProtectionDomain domain, Permission permission) {
+        return getPolicy().implies(domain, permission);
+    }
+
+    private static Policy getPolicy() {
+        return WildFlySecurityManager.isChecking() ? doPrivileged((PrivilegedAction<Policy>) Policy::getPolicy) : Policy.getPolicy();
     }
 
-    private Principal[] getGrantedRoles(Account account, Deployment deployment) {
+    private GrantedRoles getGrantedRoles(Account account, Deployment deployment) {
         if (account == null) {
-            return new Principal[] {};
+            return GrantedRoles.NONE;
         }
 
-        Set<String> roles = new HashSet<>(account.getRoles());
+        Set<String> accountRoles = account.getRoles();
         Map<String, Set<String>> principalVersusRolesMap = deployment.getDeploymentInfo().getPrincipalVersusRolesMap();
+        Set<String> principalRoles = principalVersusRolesMap.getOrDefault(account.getPrincipal().getName(), Collections.emptySet());
 
-        roles.addAll(principalVersusRolesMap.getOrDefault(account.getPrincipal().getName(), Collections.emptySet()));
+        Set<String> roles = accountRoles;
+        if (!principalRoles.isEmpty() && !accountRoles.containsAll(principalRoles)) {
+            roles = new HashSet<>(accountRoles);
+            roles.addAll(principalRoles);
+        }
+        // Avoid copying roles and creating principals for role sets we have already seen
+        GrantedRoles granted = this.grantedRoles.get(roles);
+        if (granted == null) {
+            granted = new GrantedRoles(roles);
+            if (this.grantedRoles.size() >= DecisionCache.DEFAULT_MAX_SIZE) {
+                // Evict an arbitrary role set, rather than all of them
+                Iterator<Set<String>> names = this.grantedRoles.keySet().iterator();
+                if (names.hasNext()) {
+                    this.grantedRoles.remove(names.next());
+                }
+            }
+            GrantedRoles existing = this.grantedRoles.putIfAbsent(granted.names, granted);
+            if (existing != null) {
+                granted = existing;
+            }
+        }
+        return granted;
+    }
+
+    /**
+     * An immutable set of granted roles, along with their corresponding role principals.
+     */
+    private static class GrantedRoles {
+        static final GrantedRoles NONE = new GrantedRoles(Collections.emptySet());
+
+        final Set<String> names;
+        final Principal[] principals;
+        private final int hashCode;
+
+        GrantedRoles(Set<String> roles) {
+            this.names = Collections.unmodifiableSet(new HashSet<>(roles));
+            this.principals = this.names.stream().map(roleName -> (Principal) () -> roleName).toArray(Principal[]::new);
+            this.hashCode = this.names.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) return true;
+            if (!(object instanceof GrantedRoles)) return false;
+            GrantedRoles roles = (GrantedRoles) object;
+            return (this.hashCode == roles.hashCode) && this.names.equals(roles.names);
+        }
+    }
+
+    /**
+     * Identifies a policy decision for a given permission type, servlet, permission name and actions, and subject (i.e. granted roles or connection guarantee).
+     */
+    private static class DecisionKey {
+        private final Class<? extends Permission> type;
+        private final String servletName;
+        private final String name;
+        private final String actions;
+        private final Object subject;
+        private final int hashCode;
 
-        return roles.stream().map((Function<String, Principal>) roleName -> (Principal) () -> roleName).toArray(Principal[]::new);
+        DecisionKey(Class<? extends Permission> type, String servletName, String name, String actions, Object subject) {
+            this.type = type;
+            this.servletName = servletName;
+            this.name = name;
+            this.actions = actions;
+            this.subject = subject;
+            this.hashCode = Objects.hash(type, servletName, name, actions, subject);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) return true;
+            if (!(object instanceof DecisionKey)) return false;
+            DecisionKey key = (DecisionKey) object;
+            return (this.hashCode == key.hashCode) && (this.type == key.type) && Objects.equals(this.servletName, key.servletName)
+                    && Objects.equals(this.name, key.name) && Objects.equals(this.actions, key.actions) && Objects.equals(this.subject, key.subject);
+        }
     }
 }
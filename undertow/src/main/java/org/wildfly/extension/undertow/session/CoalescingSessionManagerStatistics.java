@@ -0,0 +1,42 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.session;
+
+import io.undertow.server.session.SessionManagerStatistics;
+
+/**
+ * Statistics of a session manager that defers updates to the last accessed time of its sessions, and writes them periodically in batches.
+ * @author agent
+ */
+public interface CoalescingSessionManagerStatistics extends SessionManagerStatistics {
+
+    /**
+     * @return the number of deferred last accessed time updates written by the most recent flush
+     */
+    long getLastAccessFlushSize();
+
+    /**
+     * @return the longest time, in milliseconds, that a last accessed time update written by the most recent flush was deferred
+     */
+    long getLastAccessFlushLag();
+}
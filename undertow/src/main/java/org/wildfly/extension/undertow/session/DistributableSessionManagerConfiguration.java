@@ -21,6 +21,8 @@
  */
 package org.wildfly.extension.undertow.session;
 
+import java.time.Duration;
+
 import org.jboss.metadata.web.jboss.ReplicationGranularity;
 import org.jboss.modules.Module;
 
@@ -36,4 +38,22 @@ public interface DistributableSessionManagerConfiguration {
     Module getModule();
 
     String getCacheName();
+
+    /**
+     * Indicates whether changes to the attributes of a SESSION granularity session should replicate only the modified attributes.
+     * @return true, if delta replication is enabled, false otherwise
+     */
+    boolean isDeltaReplication();
+
+    /**
+     * Returns the interval at which deferred updates to the last accessed time of sessions are written.
+     * @return the flush interval, or null, if last accessed time updates should be written immediately
+     */
+    Duration getAccessFlushInterval();
+
+    /**
+     * Returns the fraction of the session timeout by which a deferred last accessed time may lag before it is written immediately.
+     * @return the maximum drift, or null, if the default drift should be used
+     */
+    Float getAccessMaxDrift();
 }
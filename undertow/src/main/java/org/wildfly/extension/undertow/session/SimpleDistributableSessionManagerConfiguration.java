@@ -21,6 +21,9 @@
  */
 package org.wildfly.extension.undertow.session;
 
+import java.time.Duration;
+
+import org.jboss.metadata.javaee.spec.ParamValueMetaData;
 import org.jboss.metadata.web.jboss.JBossWebMetaData;
 import org.jboss.metadata.web.jboss.ReplicationConfig;
 import org.jboss.metadata.web.jboss.ReplicationGranularity;
@@ -32,14 +35,34 @@ import org.jboss.modules.Module;
  */
 public class SimpleDistributableSessionManagerConfiguration implements DistributableSessionManagerConfiguration {
 
+    /**
+     * Context parameter that enables delta replication of SESSION granularity sessions, at the expense of preserving object references shared between attributes.
+     */
+    public static final String DELTA_REPLICATION_PARAMETER = "org.wildfly.clustering.web.session.delta-replication";
+    /**
+     * Context parameter specifying the interval, in milliseconds, at which deferred last accessed time updates are written.
+     */
+    public static final String ACCESS_FLUSH_INTERVAL_PARAMETER = "org.wildfly.clustering.web.session.access-flush-interval";
+    /**
+     * Context parameter specifying the fraction of the session timeout by which a deferred last accessed time may lag before it is written immediately.
+     */
+    public static final String ACCESS_MAX_DRIFT_PARAMETER = "org.wildfly.clustering.web.session.access-max-drift";
+
     private final Integer maxActiveSessions;
     private final ReplicationConfig replicationConfig;
     private final String serverName;
     private final String deploymentName;
     private final Module module;
+    private final boolean deltaReplication;
+    private final Duration accessFlushInterval;
+    private final Float accessMaxDrift;
 
     public SimpleDistributableSessionManagerConfiguration(JBossWebMetaData metaData, String serverName, String deploymentName, Module module) {
-        this(metaData.getMaxActiveSessions(), metaData.getReplicationConfig(), serverName, deploymentName, module);
+        this(metaData.getMaxActiveSessions(), metaData, serverName, deploymentName, module);
+    }
+
+    public SimpleDistributableSessionManagerConfiguration(Integer maxActiveSessions, JBossWebMetaData metaData, String serverName, String deploymentName, Module module) {
+        this(maxActiveSessions, metaData.getReplicationConfig(), Boolean.parseBoolean(getContextParameter(metaData, DELTA_REPLICATION_PARAMETER)), parseDuration(getContextParameter(metaData, ACCESS_FLUSH_INTERVAL_PARAMETER)), parseFloat(getContextParameter(metaData, ACCESS_MAX_DRIFT_PARAMETER)), serverName, deploymentName, module);
     }
 
     public SimpleDistributableSessionManagerConfiguration(SharedSessionManagerConfig config, String serverName, String deploymentName, Module module) {
@@ -47,8 +70,15 @@ public class SimpleDistributableSessionManagerConfiguration implements Distribut
     }
 
     public SimpleDistributableSessionManagerConfiguration(Integer maxActiveSessions, ReplicationConfig replicationConfig, String serverName, String deploymentName, Module module) {
+        this(maxActiveSessions, replicationConfig, false, null, null, serverName, deploymentName, module);
+    }
+
+    private SimpleDistributableSessionManagerConfiguration(Integer maxActiveSessions, ReplicationConfig replicationConfig, boolean deltaReplication, Duration accessFlushInterval, Float accessMaxDrift, String serverName, String deploymentName, Module module) {
         this.maxActiveSessions = maxActiveSessions;
         this.replicationConfig = replicationConfig;
+        this.deltaReplication = deltaReplication;
+        this.accessFlushInterval = accessFlushInterval;
+        this.accessMaxDrift = accessMaxDrift;
         this.serverName = serverName;
         this.deploymentName = deploymentName;
         this.module = module;
@@ -83,4 +113,38 @@ public class SimpleDistributableSessionManagerConfiguration implements Distribut
     public String getCacheName() {
         return (this.replicationConfig != null) ? this.replicationConfig.getCacheName() : null;
     }
+
+    @Override
+    public boolean isDeltaReplication() {
+        return this.deltaReplication;
+    }
+
+    @Override
+    public Duration getAccessFlushInterval() {
+        return this.accessFlushInterval;
+    }
+
+    @Override
+    public Float getAccessMaxDrift() {
+        return this.accessMaxDrift;
+    }
+
+    private static String getContextParameter(JBossWebMetaData metaData, String name) {
+        if (metaData.getContextParams() != null) {
+            for (ParamValueMetaData param : metaData.getContextParams()) {
+                if (name.equals(param.getParamName()) && (param.getParamValue() != null)) {
+                    return param.getParamValue().trim();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Duration parseDuration(String value) {
+        return (value != null) ? Duration.ofMillis(Long.parseLong(value)) : null;
+    }
+
+    private static Float parseFloat(String value) {
+        return (value != null) ? Float.valueOf(value) : null;
+    }
 }
@@ -0,0 +1,105 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link PersistentSessionFile}.
+ *
+ * @author agent
+ */
+public class PersistentSessionFileTestCase {
+
+    @Test
+    public void records() throws IOException {
+        Map<String, byte[]> attributes = new HashMap<>();
+        attributes.put("a", new byte[] { 1, 2, 3 });
+        attributes.put("b", new byte[0]);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (PersistentSessionFile.Writer writer = new PersistentSessionFile.Writer(output)) {
+            writer.write("expired", 100L, attributes);
+            writer.write("session1", 200L, attributes);
+            writer.write("also-expired", 50L, Collections.singletonMap("c", new byte[1024]));
+            writer.write("session2", 300L, Collections.emptyMap());
+        }
+        byte[] file = output.toByteArray();
+
+        InputStream input = new BufferedInputStream(new ByteArrayInputStream(file));
+        assertTrue(PersistentSessionFile.isRecordFormat(input));
+        try (PersistentSessionFile.Reader reader = new PersistentSessionFile.Reader(input)) {
+            PersistentSessionFile.Record record = reader.next(100L);
+            assertNotNull(record);
+            assertEquals("session1", record.getId());
+            assertEquals(200L, record.getExpiry());
+            assertEquals(2, record.getAttributes().size());
+            assertArrayEquals(attributes.get("a"), record.getAttributes().get("a"));
+            assertArrayEquals(attributes.get("b"), record.getAttributes().get("b"));
+
+            record = reader.next(100L);
+            assertNotNull(record);
+            assertEquals("session2", record.getId());
+            assertTrue(record.getAttributes().isEmpty());
+
+            assertNull(reader.next(100L));
+            assertEquals(2, reader.getSkipped());
+        }
+
+        // A truncated file must not be mistaken for a complete file
+        try (PersistentSessionFile.Reader reader = new PersistentSessionFile.Reader(new ByteArrayInputStream(Arrays.copyOf(file, file.length - 1)))) {
+            while (reader.next(0L) != null) {
+                // Continue reading
+            }
+            fail("Expected EOFException");
+        } catch (EOFException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void legacy() throws IOException {
+        // River streams start with a protocol version byte
+        assertFalse(PersistentSessionFile.isRecordFormat(new BufferedInputStream(new ByteArrayInputStream(new byte[] { 4, 0, 0, 0, 0 }))));
+        assertFalse(PersistentSessionFile.isRecordFormat(new BufferedInputStream(new ByteArrayInputStream(new byte[0]))));
+    }
+}
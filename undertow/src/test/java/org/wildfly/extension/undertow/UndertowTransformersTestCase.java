@@ -41,6 +41,7 @@ import org.jboss.as.subsystem.test.KernelServicesBuilder;
 import org.jboss.dmr.ModelNode;
 import org.junit.Assert;
 import org.junit.Test;
+import org.wildfly.extension.undertow.filters.AdaptiveRequestLimitFilterDefinition;
 import org.wildfly.extension.undertow.filters.ModClusterDefinition;
 import org.wildfly.extension.undertow.handlers.ReverseProxyHandler;
 
@@ -109,9 +110,17 @@ public class UndertowTransformersTestCase extends AbstractSubsystemBaseTest {
                                 HttpsListenerResourceDefinition.SSL_CONTEXT.getName()
                         )
                 )
+                .addFailedAttribute(subsystemAddress.append(UndertowExtension.PATH_SERVLET_CONTAINER),
+                        new FailedOperationTransformationConfig.NewAttributesConfig(
+                                ServletContainerDefinition.FILE_CACHE_METADATA_SIZE,
+                                ServletContainerDefinition.FILE_CACHE_MAX_FILE_SIZE,
+                                ServletContainerDefinition.FILE_CACHE_TIME_TO_LIVE
+                        )
+                )
                 .addFailedAttribute(reverseProxy, new FailedOperationTransformationConfig.NewAttributesConfig(ReverseProxyHandler.MAX_RETRIES))
                 .addFailedAttribute(reverseProxyServerAddress, new FailedOperationTransformationConfig.NewAttributesConfig(Constants.SSL_CONTEXT))
                 .addFailedAttribute(hostAddress.append(UndertowExtension.PATH_HTTP_INVOKER), FailedOperationTransformationConfig.REJECTED_RESOURCE)
+                .addFailedAttribute(subsystemAddress.append(UndertowExtension.PATH_FILTERS).append(AdaptiveRequestLimitFilterDefinition.INSTANCE.getPathElement()), FailedOperationTransformationConfig.REJECTED_RESOURCE)
                 .addFailedAttribute(subsystemAddress.append(UndertowExtension.PATH_APPLICATION_SECURITY_DOMAIN), FailedOperationTransformationConfig.DISCARDED_RESOURCE)
                 .addFailedAttribute(modClusterPath, new FailedOperationTransformationConfig.RejectExpressionsConfig(MAX_AJP_PACKET_SIZE))
                 .addFailedAttribute(modClusterPath, FailedOperationTransformationConfig.ChainedConfig.createBuilder(SSL_CONTEXT, ModClusterDefinition.MAX_RETRIES, ModClusterDefinition.FAILOVER_STRATEGY, MAX_AJP_PACKET_SIZE)
@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.deployment;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import io.undertow.server.handlers.resource.Resource;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link ServletResourceManager}.
+ *
+ * @author agent
+ */
+public class ServletResourceManagerTestCase {
+
+    private Path root;
+    private Path overlay;
+
+    @Before
+    public void init() throws IOException {
+        this.root = Files.createTempDirectory("deployment");
+        this.overlay = Files.createTempDirectory("overlay");
+        Files.write(this.root.resolve("index.html"), new byte[] { 1 });
+        Files.write(this.overlay.resolve("overlay.html"), new byte[] { 2 });
+    }
+
+    @After
+    public void destroy() throws IOException {
+        for (Path directory : new Path[] { this.root, this.overlay }) {
+            for (String file : new String[] { "index.html", "overlay.html", "late.html" }) {
+                Files.deleteIfExists(directory.resolve(file));
+            }
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void archive() throws IOException {
+        VirtualFile root = VFS.getChild(this.root.toUri());
+        VirtualFile overlay = VFS.getChild(this.overlay.toUri());
+        try (ServletResourceManager manager = new ServletResourceManager(root, Collections.singleton(overlay), false, false, true, null)) {
+            Resource resource = manager.getResource("/index.html");
+            assertNotNull(resource);
+            assertSame(resource, manager.getResource("/index.html"));
+
+            resource = manager.getResource("/overlay.html");
+            assertNotNull(resource);
+            assertSame(resource, manager.getResource("/overlay.html"));
+
+            // Content of an archive cannot change, so misses are indexed indefinitely
+            assertNull(manager.getResource("/late.html"));
+            Files.write(this.root.resolve("late.html"), new byte[] { 3 });
+            assertNull(manager.getResource("/late.html"));
+        }
+    }
+
+    @Test
+    public void unwatchedExplodedDeployment() throws IOException {
+        VirtualFile root = VFS.getChild(this.root.toUri());
+        try (ServletResourceManager manager = new ServletResourceManager(root, null, true, false, true, null)) {
+            // Without change notifications, nothing is indexed
+            assertNull(manager.getResource("/late.html"));
+            Files.write(this.root.resolve("late.html"), new byte[] { 3 });
+            assertNotNull(manager.getResource("/late.html"));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link GradientLimit}.
+ *
+ * @author agent
+ */
+public class GradientLimitTestCase {
+
+    private static final long LATENCY = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    public void bounds() {
+        assertEquals(5, new GradientLimit(1, 5, 10).getLimit());
+        assertEquals(10, new GradientLimit(20, 5, 10).getLimit());
+        assertEquals(7, new GradientLimit(7, 5, 10).getLimit());
+    }
+
+    @Test
+    public void increase() {
+        GradientLimit limit = new GradientLimit(10, 1, 100);
+        // Stable latency under full utilization
+        int previous = limit.getLimit();
+        for (int i = 0; i < 10; ++i) {
+            window(limit, LATENCY, limit.getLimit());
+            assertTrue(limit.getLimit() >= previous);
+            previous = limit.getLimit();
+        }
+        assertTrue(Integer.toString(limit.getLimit()), limit.getLimit() > 10);
+        for (int i = 0; i < 100; ++i) {
+            window(limit, LATENCY, limit.getLimit());
+        }
+        assertEquals(100, limit.getLimit());
+    }
+
+    @Test
+    public void decrease() {
+        GradientLimit limit = new GradientLimit(50, 1, 100);
+        window(limit, LATENCY, 50);
+        int baseline = limit.getLimit();
+        // Latency within tolerance of the baseline does not decrease the limit
+        window(limit, LATENCY * 14 / 10, limit.getLimit());
+        assertTrue(limit.getLimit() >= baseline);
+
+        int previous = limit.getLimit();
+        for (int i = 0; i < 5; ++i) {
+            window(limit, LATENCY * 5, limit.getLimit());
+            assertTrue(limit.getLimit() < previous);
+            // Decreases are smoothed across windows
+            assertTrue(limit.getLimit() >= previous * 8 / 10);
+            previous = limit.getLimit();
+        }
+        for (int i = 0; i < 40; ++i) {
+            window(limit, LATENCY * 100, limit.getLimit());
+        }
+        assertTrue(Integer.toString(limit.getLimit()), limit.getLimit() < 10);
+    }
+
+    @Test
+    public void underutilized() {
+        GradientLimit limit = new GradientLimit(20, 1, 100);
+        for (int i = 0; i < 10; ++i) {
+            window(limit, LATENCY, 5);
+        }
+        assertEquals(20, limit.getLimit());
+    }
+
+    private static void window(GradientLimit limit, long latency, int inFlight) {
+        int samples = Math.max(GradientLimit.MIN_WINDOW_SAMPLES, limit.getLimit());
+        for (int i = 0; i < samples; ++i) {
+            limit.sample(latency, inFlight);
+        }
+    }
+}
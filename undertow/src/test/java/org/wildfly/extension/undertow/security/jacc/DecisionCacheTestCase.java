@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.security.jacc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link DecisionCache}.
+ * @author agent
+ */
+public class DecisionCacheTestCase {
+
+    @Test
+    public void get() {
+        DecisionCache<String, Boolean> cache = new DecisionCache<>();
+        Object policy = new Object();
+        AtomicInteger decisions = new AtomicInteger();
+
+        assertTrue(cache.get(policy, 0L, "/foo", key -> decisions.incrementAndGet() > 0));
+        assertTrue(cache.get(policy, 0L, "/foo", key -> decisions.incrementAndGet() > 0));
+        assertFalse(cache.get(policy, 0L, "/bar", key -> decisions.incrementAndGet() < 0));
+
+        assertEquals(2, decisions.get());
+        assertEquals(1L, cache.getHits());
+        assertEquals(2L, cache.getMisses());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void invalidate() {
+        DecisionCache<String, Boolean> cache = new DecisionCache<>();
+        Object policy = new Object();
+
+        assertTrue(cache.get(policy, 0L, "/foo", key -> true));
+        // A new generation of policy configurations invalidates previous decisions
+        assertFalse(cache.get(policy, 1L, "/foo", key -> false));
+        assertEquals(1, cache.size());
+        // As does a new policy
+        assertTrue(cache.get(new Object(), 1L, "/foo", key -> true));
+        assertEquals(1, cache.size());
+        assertEquals(0L, cache.getHits());
+        assertEquals(3L, cache.getMisses());
+    }
+
+    @Test
+    public void stale() {
+        DecisionCache<String, Boolean> cache = new DecisionCache<>();
+        Object policy = new Object();
+
+        // Generation changes while our decision is computed
+        assertTrue(cache.get(policy, 0L, "/foo", key -> cache.get(policy, 1L, "/bar", k -> true)));
+        assertEquals(1, cache.size());
+        assertTrue(cache.get(policy, 1L, "/bar", key -> false));
+        assertEquals(1L, cache.getHits());
+    }
+
+    @Test
+    public void maxSize() {
+        DecisionCache<Integer, Boolean> cache = new DecisionCache<>(4);
+        Object policy = new Object();
+        for (int i = 0; i < 4; ++i) {
+            cache.get(policy, 0L, i, key -> true);
+        }
+        assertEquals(4, cache.size());
+        // Only the oldest decision is evicted
+        cache.get(policy, 0L, 4, key -> true);
+        assertEquals(4, cache.size());
+        AtomicInteger decisions = new AtomicInteger();
+        for (int i = 1; i <= 4; ++i) {
+            cache.get(policy, 0L, i, key -> decisions.incrementAndGet() > 0);
+        }
+        assertEquals(0, decisions.get());
+        cache.get(policy, 0L, 0, key -> decisions.incrementAndGet() > 0);
+        assertEquals(1, decisions.get());
+        assertEquals(4, cache.size());
+    }
+}